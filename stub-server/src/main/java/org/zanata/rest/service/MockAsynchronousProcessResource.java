@@ -51,7 +51,8 @@ public class MockAsynchronousProcessResource implements
         ProcessStatus processStatus = new ProcessStatus();
         processStatus.setStatusCode(ProcessStatus.ProcessStatusCode.Running);
         processStatus.setPercentageComplete(50);
-        processStatus.setUrl("process1");
+        // echo the document, so that callers can match responses to requests
+        processStatus.setUrl("source/" + idNoSlash);
         return processStatus;
     }
 
@@ -63,7 +64,7 @@ public class MockAsynchronousProcessResource implements
         ProcessStatus processStatus = new ProcessStatus();
         processStatus.setStatusCode(ProcessStatus.ProcessStatusCode.Running);
         processStatus.setPercentageComplete(50);
-        processStatus.setUrl("process2");
+        processStatus.setUrl("translation/" + idNoSlash + "/" + locale);
         return processStatus;
     }
 
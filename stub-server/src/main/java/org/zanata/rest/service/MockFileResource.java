@@ -88,7 +88,7 @@ public class MockFileResource implements FileResource {
             String docId, @MultipartForm DocumentFileUploadForm uploadForm) {
         return Response.status(Response.Status.CREATED).entity(
                 new ChunkUploadResponse(1L, 1, false,
-                        "Upload of new source document successful."))
+                        "Upload of new source document successful: " + docId))
                 .build();
     }
 
@@ -98,7 +98,7 @@ public class MockFileResource implements FileResource {
             @MultipartForm DocumentFileUploadForm uploadForm) {
         return Response.ok(
                 new ChunkUploadResponse(1L, 1, false,
-                        "Translations uploaded successfully"))
+                        "Translations uploaded successfully: " + docId))
                 .build();
     }
 
@@ -0,0 +1,50 @@
+/*
+ * Copyright 2015, Red Hat, Inc. and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.zanata.rest.service;
+
+import java.io.IOException;
+import javax.ws.rs.container.ContainerRequestContext;
+import javax.ws.rs.container.ContainerResponseContext;
+import javax.ws.rs.container.ContainerResponseFilter;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.ext.Provider;
+
+/**
+ * Marks responses for gzip compression when the client accepts it, so that
+ * RESTEasy's GZIPEncodingInterceptor compresses them. Together with
+ * GZIPDecodingInterceptor (for gzip-encoded request bodies) this lets client
+ * compression be tested against the stub server.
+ */
+@Provider
+public class MockGzipResponseFilter implements ContainerResponseFilter {
+    @Override
+    public void filter(ContainerRequestContext requestContext,
+            ContainerResponseContext responseContext) throws IOException {
+        String acceptEncoding =
+                requestContext.getHeaderString(HttpHeaders.ACCEPT_ENCODING);
+        if (responseContext.hasEntity() && acceptEncoding != null
+                && acceptEncoding.toLowerCase().contains("gzip")) {
+            responseContext.getHeaders().putSingle(
+                    HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+    }
+}
@@ -22,9 +22,19 @@
 package org.zanata.rest.service;
 
 import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 import javax.ws.rs.core.Response;
 
+import org.zanata.common.ContentState;
+import org.zanata.common.ContentType;
+import org.zanata.common.LocaleId;
+import org.zanata.rest.dto.resource.Resource;
+import org.zanata.rest.dto.resource.TextFlow;
+import org.zanata.rest.dto.resource.TextFlowTarget;
+import org.zanata.rest.dto.resource.TranslationsResource;
+
 import com.google.common.base.Preconditions;
 
 /**
@@ -32,6 +42,13 @@ import com.google.common.base.Preconditions;
  *         <a href="mailto:pahuang@redhat.com">pahuang@redhat.com</a>
  */
 class MockResourceUtil {
+    /**
+     * Documents named "generated-N" have N text flows of realistic length,
+     * for benchmarks.
+     */
+    private static final Pattern GENERATED_DOC =
+            Pattern.compile("generated-(\\d+)");
+
     static void validateExtensions(Set<String> extensions) {
         Preconditions.checkArgument(extensions == null || extensions.isEmpty()
                || extensions.contains("gettext")
@@ -42,6 +59,58 @@ class MockResourceUtil {
         throw new UnsupportedOperationException("Not being used by client");
     }
 
+    /**
+     * @return number of text flows in a generated document, or -1 if the
+     *         document is not generated
+     */
+    static int generatedSize(String docId) {
+        Matcher matcher = GENERATED_DOC.matcher(docId);
+        return matcher.matches() ? Integer.parseInt(matcher.group(1)) : -1;
+    }
+
+    static Resource generatedResource(String docId, int size) {
+        Resource resource = new Resource(docId);
+        resource.setContentType(ContentType.TextPlain);
+        resource.setLang(LocaleId.EN_US);
+        resource.setRevision(1);
+        for (int i = 0; i < size; i++) {
+            TextFlow textFlow = new TextFlow("res" + i, LocaleId.EN_US,
+                    sentence(i, "source"));
+            textFlow.setRevision(1);
+            resource.getTextFlows().add(textFlow);
+        }
+        return resource;
+    }
+
+    static TranslationsResource generatedTranslations(int size) {
+        TranslationsResource translations = new TranslationsResource();
+        for (int i = 0; i < size; i++) {
+            TextFlowTarget target = new TextFlowTarget("res" + i);
+            target.setContents(sentence(i, "translation"));
+            target.setState(i % 5 == 0 ? ContentState.NeedReview
+                    : ContentState.Approved);
+            target.setRevision(1);
+            target.setTextFlowRevision(1);
+            translations.getTextFlowTargets().add(target);
+        }
+        return translations;
+    }
+
+    /**
+     * A sentence of 5 to 25 words, with markup and escapable characters
+     * now and then.
+     */
+    private static String sentence(int index, String kind) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("This ").append(kind).append(" string number ")
+                .append(index);
+        for (int word = 0; word < index % 21; word++) {
+            sb.append(word % 7 == 0 ? " <b>\"quoted & bold\"</b>"
+                    : " lorem");
+        }
+        return sb.append('.').toString();
+    }
+
 
 }
 
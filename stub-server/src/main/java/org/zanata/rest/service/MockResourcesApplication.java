@@ -24,6 +24,9 @@ package org.zanata.rest.service;
 import java.util.Set;
 import javax.ws.rs.core.Application;
 
+import org.jboss.resteasy.plugins.interceptors.encoding.GZIPDecodingInterceptor;
+import org.jboss.resteasy.plugins.interceptors.encoding.GZIPEncodingInterceptor;
+
 import com.google.common.collect.ImmutableSet;
 
 /**
@@ -44,7 +47,11 @@ public class MockResourcesApplication extends Application {
                     MockGlossaryResource.class,
                     MockCopyTransResource.class,
                     MockAccountResource.class,
-                    MockAsynchronousProcessResource.class
+                    MockAsynchronousProcessResource.class,
+                    MockGzipResponseFilter.class,
+                    MockXmlOnlyResponseFilter.class,
+                    GZIPEncodingInterceptor.class,
+                    GZIPDecodingInterceptor.class
             );
 
     @Override
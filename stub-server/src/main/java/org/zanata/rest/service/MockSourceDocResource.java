@@ -65,6 +65,12 @@ public class MockSourceDocResource implements SourceDocResource {
     @Override
     public Response getResource(String idNoSlash, Set<String> extensions) {
         MockResourceUtil.validateExtensions(extensions);
+        int size = MockResourceUtil.generatedSize(idNoSlash);
+        if (size >= 0) {
+            return Response.ok(
+                    MockResourceUtil.generatedResource(idNoSlash, size))
+                    .build();
+        }
         return Response.ok(new Resource(idNoSlash)).build();
     }
 
@@ -38,13 +38,21 @@ import org.zanata.rest.dto.stats.contribution.LocaleStatistics;
  */
 @Path(StatisticsResource.SERVICE_PATH)
 public class MockStatisticsResource implements StatisticsResource {
+    static final String[] DOC_IDS = { "About-Fedora", "Authors" };
 
     @Override
     public ContainerTranslationStatistics getStatistics(String projectSlug,
             String iterationSlug,
             @DefaultValue("false") boolean includeDetails,
             @DefaultValue("false") boolean includeWordStats, String[] locales) {
-        return generateStatistics(iterationSlug, locales);
+        ContainerTranslationStatistics stats =
+                generateStatistics(iterationSlug, locales);
+        if (includeDetails) {
+            for (String docId : DOC_IDS) {
+                stats.addDetailedStats(generateStatistics(docId, locales));
+            }
+        }
+        return stats;
     }
 
     private ContainerTranslationStatistics generateStatistics(
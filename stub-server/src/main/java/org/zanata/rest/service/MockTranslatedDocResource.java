@@ -43,6 +43,12 @@ public class MockTranslatedDocResource implements TranslatedDocResource {
             Set<String> extensions, boolean createSkeletons,
             @HeaderParam("If-None-Match") String eTag) {
         MockResourceUtil.validateExtensions(extensions);
+        int size = MockResourceUtil.generatedSize(idNoSlash);
+        if (size >= 0) {
+            return Response.ok(
+                    MockResourceUtil.generatedTranslations(size))
+                    .build();
+        }
         TranslationsResource transResource = new TranslationsResource();
         transResource.getTextFlowTargets().add(new TextFlowTarget(idNoSlash));
         return Response.ok(transResource).build();
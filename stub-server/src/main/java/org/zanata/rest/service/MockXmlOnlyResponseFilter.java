@@ -0,0 +1,58 @@
+/*
+ * Copyright 2015, Red Hat, Inc. and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.zanata.rest.service;
+
+import java.io.IOException;
+import javax.ws.rs.container.ContainerRequestContext;
+import javax.ws.rs.container.ContainerResponseContext;
+import javax.ws.rs.container.ContainerResponseFilter;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.PathSegment;
+import javax.ws.rs.ext.Provider;
+
+/**
+ * Answers requests for the project "xml-only" in XML whatever the client
+ * accepts, like servers which ignore the Accept header. This lets client
+ * fallbacks for such servers be tested.
+ */
+@Provider
+public class MockXmlOnlyResponseFilter implements ContainerResponseFilter {
+    public static final String XML_ONLY_PROJECT = "xml-only";
+
+    @Override
+    public void filter(ContainerRequestContext requestContext,
+            ContainerResponseContext responseContext) throws IOException {
+        if (!responseContext.hasEntity()) {
+            return;
+        }
+        for (PathSegment segment : requestContext.getUriInfo()
+                .getPathSegments()) {
+            if (XML_ONLY_PROJECT.equals(segment.getPath())) {
+                responseContext.getHeaders().putSingle(
+                        HttpHeaders.CONTENT_TYPE,
+                        MediaType.APPLICATION_XML_TYPE);
+                return;
+            }
+        }
+    }
+}
@@ -27,10 +27,18 @@ import java.util.List;
 import org.apache.commons.exec.CommandLine;
 import org.apache.commons.exec.DefaultExecutor;
 import org.apache.commons.exec.ShutdownHookProcessDestroyer;
+import org.apache.http.pool.PoolStats;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.zanata.client.config.CommandHook;
+import org.zanata.rest.client.AdaptiveConcurrencyLimiter;
+import org.zanata.rest.client.CompressionFilter;
+import org.zanata.rest.client.HedgingFilter;
+import org.zanata.rest.client.MetadataCache;
+import org.zanata.rest.client.RateLimitFilter;
 import org.zanata.rest.client.RestClientFactory;
+import org.zanata.rest.client.RetryFilter;
+import org.zanata.rest.client.SingleFlight;
 
 /**
  * Base class for commands which supports configuration by the user's zanata.ini
@@ -81,6 +89,10 @@ public abstract class ConfigurableCommand<O extends ConfigurableOptions>
     }
 
     protected final void setClientFactory(RestClientFactory clientFactory) {
+        if (this.clientFactory != null
+                && this.clientFactory != clientFactory) {
+            this.clientFactory.close();
+        }
         this.clientFactory = clientFactory;
     }
 
@@ -107,10 +119,133 @@ public abstract class ConfigurableCommand<O extends ConfigurableOptions>
     @Override
     public void runWithActions() throws Exception {
         runBeforeActions();
-        run();
+        try {
+            run();
+        } finally {
+            // also worth knowing when the command failed
+            logCompressionSavings();
+            logConnectionPoolStats();
+            logMetadataCacheStats();
+            logRetries();
+            logRateLimitWaits();
+            logConcurrencyLimit();
+            logHedgedRequests();
+            logSharedRequests();
+            closeClientFactory();
+        }
         runAfterActions();
     }
 
+    private void logCompressionSavings() {
+        CompressionFilter stats =
+                clientFactory == null ? null : clientFactory
+                        .getCompressionFilter();
+        if (stats == null) {
+            return;
+        }
+        if (stats.getCompressedRequests() > 0) {
+            log.info("Compressed {} request bodies: sent {} bytes instead of {}",
+                    stats.getCompressedRequests(),
+                    stats.getRequestBytesSent(), stats.getRequestBytes());
+        }
+        if (stats.getCompressedResponses() > 0) {
+            log.info("Received {} compressed responses: {} bytes, {} after decompression",
+                    stats.getCompressedResponses(),
+                    stats.getResponseBytesReceived(),
+                    stats.getResponseBytes());
+        }
+    }
+
+    private void logConnectionPoolStats() {
+        PoolStats stats =
+                clientFactory == null ? null : clientFactory
+                        .getConnectionPoolStats();
+        if (stats != null) {
+            log.debug("HTTP connection pool: {} leased, {} available, {} pending (max {})",
+                    stats.getLeased(), stats.getAvailable(),
+                    stats.getPending(), stats.getMax());
+        }
+    }
+
+    private void logRetries() {
+        RetryFilter retries =
+                clientFactory == null ? null : clientFactory.getRetryFilter();
+        if (retries == null) {
+            return;
+        }
+        if (retries.getRetries() > 0) {
+            log.info("Retried {} requests after transient failures",
+                    retries.getRetries());
+        }
+        if (retries.getRejectedRequests() > 0) {
+            log.warn("{} requests were not sent because the server appeared to be unavailable",
+                    retries.getRejectedRequests());
+        }
+    }
+
+    private void logRateLimitWaits() {
+        RateLimitFilter limits =
+                clientFactory == null ? null : clientFactory
+                        .getRateLimitFilter();
+        if (limits != null && limits.getWaits() > 0) {
+            log.info("Rate limits: waited {} ms to send requests, {} ms uploading, {} ms downloading",
+                    limits.getRequestWaitMillis(),
+                    limits.getUploadWaitMillis(),
+                    limits.getDownloadWaitMillis());
+        }
+    }
+
+    private void logConcurrencyLimit() {
+        AdaptiveConcurrencyLimiter limiter =
+                clientFactory == null ? null : clientFactory
+                        .getConcurrencyLimiter();
+        if (limiter != null) {
+            log.info("Concurrent requests: limit {} (ranged from {} to {}, reduced {} times)",
+                    limiter.getLimit(), limiter.getLowestLimit(),
+                    limiter.getHighestLimit(), limiter.getBackoffs());
+        }
+    }
+
+    private void logHedgedRequests() {
+        HedgingFilter hedging =
+                clientFactory == null ? null : clientFactory
+                        .getHedgingFilter();
+        if (hedging != null && hedging.getHedgedRequests() > 0) {
+            log.info("Requested {} slow downloads again; the second request answered first {} times",
+                    hedging.getHedgedRequests(), hedging.getHedgesWon());
+        }
+    }
+
+    private void logSharedRequests() {
+        SingleFlight singleFlight =
+                clientFactory == null ? null : clientFactory
+                        .getSingleFlight();
+        if (singleFlight != null && singleFlight.getSharedResults() > 0) {
+            log.debug("Shared {} responses between concurrent identical requests ({} requests made)",
+                    singleFlight.getSharedResults(),
+                    singleFlight.getRequests());
+        }
+    }
+
+    private void closeClientFactory() {
+        if (clientFactory != null) {
+            // stops the connection pool and background threads, and writes
+            // out the rest of the HTTP log
+            clientFactory.close();
+        }
+    }
+
+    private void logMetadataCacheStats() {
+        MetadataCache cache =
+                clientFactory == null ? null : clientFactory
+                        .getMetadataCache();
+        if (cache != null) {
+            log.debug("Metadata cache: {} hits, {} revalidated, {} fetched",
+                    cache.getHits(), cache.getRevalidations(),
+                    cache.getMisses());
+        }
+    }
+
     /**
      * Runs the specific command, not including before- or after- actions.
      *
@@ -50,6 +50,29 @@ public interface ConfigurableOptions extends BasicOptions {
 
     void setLogHttp(boolean traceLogging);
 
+    /**
+     * Maximum number of bytes of each HTTP message body to log; 0 to log no
+     * bodies.
+     */
+    int getLogHttpMaxBody();
+
+    void setLogHttpMaxBody(int logHttpMaxBody);
+
+    /**
+     * Log the bodies of only one in every N HTTP requests.
+     */
+    int getLogHttpSample();
+
+    void setLogHttpSample(int logHttpSample);
+
+    /**
+     * File to write the HTTP message log to (in the background), instead of
+     * the console.
+     */
+    File getLogHttpFile();
+
+    void setLogHttpFile(File logHttpFile);
+
     /**
      * Disable SSL certificate verification when connecting to Zanata host by
      * https.
@@ -58,6 +81,141 @@ public interface ConfigurableOptions extends BasicOptions {
 
     void setDisableSSLCert(boolean disableSSLCert);
 
+    /**
+     * Send large request bodies gzip-compressed (the server must support
+     * gzip Content-Encoding for requests).
+     */
+    boolean isCompressRequests();
+
+    void setCompressRequests(boolean compressRequests);
+
+    /**
+     * Request bodies bigger than this many bytes are compressed, if request
+     * compression is enabled.
+     */
+    int getCompressionThreshold();
+
+    void setCompressionThreshold(int compressionThreshold);
+
+    /**
+     * HTTP connector: "urlconnection" (java.net.HttpURLConnection) or
+     * "pooled" (a pool of keep-alive connections).
+     */
+    String getHttpConnector();
+
+    void setHttpConnector(String httpConnector);
+
+    /**
+     * Representation of request and response bodies: 'xml' or 'json'.
+     */
+    String getWireFormat();
+
+    void setWireFormat(String wireFormat);
+
+    /**
+     * Maximum number of connections to the server for the pooled connector.
+     */
+    int getMaxConnections();
+
+    void setMaxConnections(int maxConnections);
+
+    /**
+     * Timeout in seconds for connecting to the server, or 0 for none.
+     */
+    int getConnectTimeout();
+
+    void setConnectTimeout(int connectTimeout);
+
+    /**
+     * Timeout in seconds while waiting for data from the server, or 0 for
+     * none.
+     */
+    int getSocketTimeout();
+
+    void setSocketTimeout(int socketTimeout);
+
+    /**
+     * Pooled connections idle for longer than this many seconds are closed.
+     */
+    int getIdleConnectionTimeout();
+
+    void setIdleConnectionTimeout(int idleConnectionTimeout);
+
+    /**
+     * Number of times a request which failed for a transient reason
+     * (connection failure, timeout, 502, 503 or 504) is retried.
+     */
+    int getMaxRetries();
+
+    void setMaxRetries(int maxRetries);
+
+    /**
+     * Maximum number of requests per second sent to the server, or 0 for no
+     * limit. May also be set per server in zanata.ini
+     * (servers.PREFIX.max-request-rate).
+     */
+    int getMaxRequestRate();
+
+    void setMaxRequestRate(int maxRequestRate);
+
+    /**
+     * Maximum upload rate in kilobytes per second, or 0 for no limit. May
+     * also be set per server in zanata.ini (servers.PREFIX.max-upload-rate).
+     */
+    int getMaxUploadRate();
+
+    void setMaxUploadRate(int maxUploadRate);
+
+    /**
+     * Maximum download rate in kilobytes per second, or 0 for no limit. May
+     * also be set per server in zanata.ini
+     * (servers.PREFIX.max-download-rate).
+     */
+    int getMaxDownloadRate();
+
+    void setMaxDownloadRate(int maxDownloadRate);
+
+    /**
+     * Adapt the number of concurrent requests (up to max-connections) to
+     * the server's latency and load.
+     */
+    boolean isAdaptiveConcurrency();
+
+    void setAdaptiveConcurrency(boolean adaptiveConcurrency);
+
+    /**
+     * Send a download again if it takes longer than this percentile of
+     * recent downloads, using whichever response arrives first; 0 to
+     * disable.
+     */
+    int getHedgePercentile();
+
+    void setHedgePercentile(int hedgePercentile);
+
+    /**
+     * Maximum number of downloads sent again because of
+     * {@link #getHedgePercentile()}.
+     */
+    int getMaxHedgedRequests();
+
+    void setMaxHedgedRequests(int maxHedgedRequests);
+
+    /**
+     * Disables the on-disk cache of server metadata (server version,
+     * locales, document lists and file types).
+     */
+    boolean isNoMetadataCache();
+
+    void setNoMetadataCache(boolean noMetadataCache);
+
+    /**
+     * Seconds for which cached server metadata is used without checking
+     * with the server.
+     */
+    int getMetadataCacheTtl();
+
+    void setMetadataCacheTtl(int metadataCacheTtl);
+
     /**
      * Use to disable check for presence of username and API key before running command.
      *
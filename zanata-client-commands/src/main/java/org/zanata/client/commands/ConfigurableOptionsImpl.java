@@ -24,6 +24,9 @@ import java.io.File;
 import java.net.URL;
 
 import org.kohsuke.args4j.Option;
+import org.zanata.rest.client.CompressionFilter;
+import org.zanata.rest.client.ConnectionSettings;
+import org.zanata.rest.client.MetadataCache;
 
 /**
  * Base options for commands which support configuration by the user's
@@ -59,7 +62,33 @@ public abstract class ConfigurableOptionsImpl extends BasicOptionsImpl
      * Enable HTTP message logging.
      */
     private boolean logHttp;
+    private int logHttpMaxBody =
+            ConnectionSettings.DEFAULT_HTTP_LOG_MAX_BODY_SIZE;
+    private int logHttpSample = 1;
+    private File logHttpFile;
     private boolean disableSSLCert;
+    private boolean compressRequests;
+    private int compressionThreshold =
+            CompressionFilter.DEFAULT_REQUEST_THRESHOLD;
+    private String httpConnector = "urlconnection";
+    private String wireFormat = "xml";
+    private int maxConnections = ConnectionSettings.DEFAULT_MAX_CONNECTIONS;
+    private int connectTimeout =
+            ConnectionSettings.DEFAULT_CONNECT_TIMEOUT / 1000;
+    private int socketTimeout =
+            ConnectionSettings.DEFAULT_SOCKET_TIMEOUT / 1000;
+    private int maxRetries = ConnectionSettings.DEFAULT_MAX_RETRIES;
+    private int maxRequestRate;
+    private int maxUploadRate;
+    private int maxDownloadRate;
+    private boolean adaptiveConcurrency;
+    private int hedgePercentile;
+    private int maxHedgedRequests =
+            ConnectionSettings.DEFAULT_MAX_HEDGED_REQUESTS;
+    private int idleConnectionTimeout =
+            ConnectionSettings.DEFAULT_IDLE_TIMEOUT / 1000;
+    private boolean noMetadataCache;
+    private int metadataCacheTtl = (int) (MetadataCache.DEFAULT_TTL / 1000);
 
     public ConfigurableOptionsImpl() {
     }
@@ -123,6 +152,44 @@ public abstract class ConfigurableOptionsImpl extends BasicOptionsImpl
         this.logHttp = logHttp;
     }
 
+    @Override
+    public int getLogHttpMaxBody() {
+        return logHttpMaxBody;
+    }
+
+    @Override
+    @Option(name = "--log-http-max-body", metaVar = "BYTES",
+            usage = "With --log-http, log at most BYTES of each message body (default: "
+                    + ConnectionSettings.DEFAULT_HTTP_LOG_MAX_BODY_SIZE
+                    + "); 0 to log no bodies.")
+    public void setLogHttpMaxBody(int logHttpMaxBody) {
+        this.logHttpMaxBody = logHttpMaxBody;
+    }
+
+    @Override
+    public int getLogHttpSample() {
+        return logHttpSample;
+    }
+
+    @Override
+    @Option(name = "--log-http-sample", metaVar = "N",
+            usage = "With --log-http, log the bodies of only one in every N requests (default: 1).")
+    public void setLogHttpSample(int logHttpSample) {
+        this.logHttpSample = logHttpSample;
+    }
+
+    @Override
+    public File getLogHttpFile() {
+        return logHttpFile;
+    }
+
+    @Override
+    @Option(name = "--log-http-file", metaVar = "FILE",
+            usage = "With --log-http, append the log to FILE (written in the background) instead of the console.")
+    public void setLogHttpFile(File logHttpFile) {
+        this.logHttpFile = logHttpFile;
+    }
+
     @Override
     public boolean isDisableSSLCert() {
         return disableSSLCert;
@@ -137,6 +204,229 @@ public abstract class ConfigurableOptionsImpl extends BasicOptionsImpl
         this.disableSSLCert = disableSSLCert;
     }
 
+    @Override
+    public boolean isCompressRequests() {
+        return compressRequests;
+    }
+
+    @Override
+    @Option(name = "--compress-requests",
+            usage = "Send large request bodies gzip-compressed.\n"
+                    + "The server must accept gzip-encoded requests.")
+    public void setCompressRequests(boolean compressRequests) {
+        this.compressRequests = compressRequests;
+    }
+
+    @Override
+    public int getCompressionThreshold() {
+        return compressionThreshold;
+    }
+
+    @Override
+    @Option(name = "--compression-threshold", metaVar = "BYTES",
+            usage = "With --compress-requests, compress request bodies bigger than this many bytes (default "
+                    + CompressionFilter.DEFAULT_REQUEST_THRESHOLD + ").")
+    public void setCompressionThreshold(int compressionThreshold) {
+        this.compressionThreshold = compressionThreshold;
+    }
+
+    @Override
+    public String getHttpConnector() {
+        return httpConnector;
+    }
+
+    @Override
+    @Option(name = "--http-connector", metaVar = "CONNECTOR",
+            usage = "HTTP connector to use: 'urlconnection' (default) or 'pooled'.\n"
+                    + "The pooled connector keeps a pool of keep-alive connections, which suits concurrent push and pull.")
+    public void setHttpConnector(String httpConnector) {
+        this.httpConnector = httpConnector;
+    }
+
+    @Override
+    public String getWireFormat() {
+        return wireFormat;
+    }
+
+    @Override
+    @Option(name = "--wire-format", metaVar = "FORMAT",
+            usage = "Representation of documents sent to and received from the server: 'xml' (default) or 'json'.")
+    public void setWireFormat(String wireFormat) {
+        this.wireFormat = wireFormat;
+    }
+
+    @Override
+    public int getMaxConnections() {
+        return maxConnections;
+    }
+
+    @Override
+    @Option(name = "--max-connections", metaVar = "N",
+            usage = "Maximum number of connections to the server, for the pooled connector (default "
+                    + ConnectionSettings.DEFAULT_MAX_CONNECTIONS + ").")
+    public void setMaxConnections(int maxConnections) {
+        this.maxConnections = maxConnections;
+    }
+
+    @Override
+    public int getConnectTimeout() {
+        return connectTimeout;
+    }
+
+    @Override
+    @Option(name = "--connect-timeout", metaVar = "SECONDS",
+            usage = "Timeout for connecting to the server, or 0 for none (default "
+                    + ConnectionSettings.DEFAULT_CONNECT_TIMEOUT / 1000 + ").")
+    public void setConnectTimeout(int connectTimeout) {
+        this.connectTimeout = connectTimeout;
+    }
+
+    @Override
+    public int getSocketTimeout() {
+        return socketTimeout;
+    }
+
+    @Override
+    @Option(name = "--socket-timeout", metaVar = "SECONDS",
+            usage = "Timeout while waiting for data from the server, or 0 for none (default "
+                    + ConnectionSettings.DEFAULT_SOCKET_TIMEOUT / 1000 + ").")
+    public void setSocketTimeout(int socketTimeout) {
+        this.socketTimeout = socketTimeout;
+    }
+
+    @Override
+    public int getIdleConnectionTimeout() {
+        return idleConnectionTimeout;
+    }
+
+    @Override
+    @Option(name = "--idle-connection-timeout", metaVar = "SECONDS",
+            usage = "Close pooled connections which have been idle for longer than this (default "
+                    + ConnectionSettings.DEFAULT_IDLE_TIMEOUT / 1000 + ").")
+    public void setIdleConnectionTimeout(int idleConnectionTimeout) {
+        this.idleConnectionTimeout = idleConnectionTimeout;
+    }
+
+    @Override
+    public int getMaxRetries() {
+        return maxRetries;
+    }
+
+    @Override
+    @Option(name = "--max-retries", metaVar = "N",
+            usage = "Number of times to retry a request which failed because of a connection problem, a timeout\n"
+                    + "or a busy server, or 0 to disable retries (default "
+                    + ConnectionSettings.DEFAULT_MAX_RETRIES + ").")
+    public void setMaxRetries(int maxRetries) {
+        this.maxRetries = maxRetries;
+    }
+
+    @Override
+    public int getMaxRequestRate() {
+        return maxRequestRate;
+    }
+
+    @Override
+    @Option(name = "--max-request-rate", metaVar = "N",
+            usage = "Send at most N requests per second to the server (default: no limit).\n"
+                    + "Can also be set per server in zanata.ini as max-request-rate.")
+    public void setMaxRequestRate(int maxRequestRate) {
+        this.maxRequestRate = maxRequestRate;
+    }
+
+    @Override
+    public int getMaxUploadRate() {
+        return maxUploadRate;
+    }
+
+    @Override
+    @Option(name = "--max-upload-rate", metaVar = "KB",
+            usage = "Upload at most KB kilobytes per second (default: no limit).\n"
+                    + "Can also be set per server in zanata.ini as max-upload-rate.")
+    public void setMaxUploadRate(int maxUploadRate) {
+        this.maxUploadRate = maxUploadRate;
+    }
+
+    @Override
+    public int getMaxDownloadRate() {
+        return maxDownloadRate;
+    }
+
+    @Override
+    @Option(name = "--max-download-rate", metaVar = "KB",
+            usage = "Download at most KB kilobytes per second (default: no limit).\n"
+                    + "Can also be set per server in zanata.ini as max-download-rate.")
+    public void setMaxDownloadRate(int maxDownloadRate) {
+        this.maxDownloadRate = maxDownloadRate;
+    }
+
+    @Override
+    public boolean isAdaptiveConcurrency() {
+        return adaptiveConcurrency;
+    }
+
+    @Override
+    @Option(name = "--adaptive-concurrency",
+            usage = "Adapt the number of concurrent requests to the server's load: send more while it answers\n"
+                    + "quickly, and fewer when it slows down or reports that it is busy (at most --max-connections).\n"
+                    + "Useful with a high --threads value for push.")
+    public void setAdaptiveConcurrency(boolean adaptiveConcurrency) {
+        this.adaptiveConcurrency = adaptiveConcurrency;
+    }
+
+    @Override
+    public int getHedgePercentile() {
+        return hedgePercentile;
+    }
+
+    @Override
+    @Option(name = "--hedge-percentile", metaVar = "P",
+            usage = "If a document download takes longer than the P-th percentile (eg 95) of recent downloads,\n"
+                    + "request it again and use whichever response arrives first (default: 0, disabled).")
+    public void setHedgePercentile(int hedgePercentile) {
+        this.hedgePercentile = hedgePercentile;
+    }
+
+    @Override
+    public int getMaxHedgedRequests() {
+        return maxHedgedRequests;
+    }
+
+    @Override
+    @Option(name = "--max-hedged-requests", metaVar = "N",
+            usage = "Request at most N downloads again because of --hedge-percentile (default: "
+                    + ConnectionSettings.DEFAULT_MAX_HEDGED_REQUESTS + ").")
+    public void setMaxHedgedRequests(int maxHedgedRequests) {
+        this.maxHedgedRequests = maxHedgedRequests;
+    }
+
+    @Override
+    public boolean isNoMetadataCache() {
+        return noMetadataCache;
+    }
+
+    @Override
+    @Option(name = "--no-metadata-cache",
+            usage = "Always fetch server metadata (server version, locales, document lists and file types) from the server,\n"
+                    + "instead of using the copies cached under ~/.cache/zanata.")
+    public void setNoMetadataCache(boolean noMetadataCache) {
+        this.noMetadataCache = noMetadataCache;
+    }
+
+    @Override
+    public int getMetadataCacheTtl() {
+        return metadataCacheTtl;
+    }
+
+    @Override
+    @Option(name = "--metadata-cache-ttl", metaVar = "SECONDS",
+            usage = "Use cached server metadata for this long before checking it with the server (default "
+                    + MetadataCache.DEFAULT_TTL / 1000 + ").\n"
+                    + "Document lists are always checked.")
+    public void setMetadataCacheTtl(int metadataCacheTtl) {
+        this.metadataCacheTtl = metadataCacheTtl;
+    }
+
     @Override
     public boolean isAuthRequired() {
         // auth should be required for most commands
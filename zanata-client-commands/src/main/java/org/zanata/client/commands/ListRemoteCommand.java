@@ -20,10 +20,9 @@
  */
 package org.zanata.client.commands;
 
-import java.util.List;
-
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.zanata.rest.client.ElementVisitor;
 import org.zanata.rest.client.SourceDocResourceClient;
 import org.zanata.rest.dto.resource.ResourceMeta;
 
@@ -49,10 +48,12 @@ public class ListRemoteCommand extends
                 .getSourceDocResourceClient(
                         getOpts().getProj(), getOpts().getProjectVersion());
 
-        List<ResourceMeta> list = client.getResourceMeta(null);
-        for (ResourceMeta doc : list) {
-            System.out.println(doc.getName());
-        }
+        client.visitResourceMeta(null, new ElementVisitor<ResourceMeta>() {
+            @Override
+            public void visit(ResourceMeta doc) {
+                System.out.println(doc.getName());
+            }
+        });
     }
 
 }
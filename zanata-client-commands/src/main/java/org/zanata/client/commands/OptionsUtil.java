@@ -19,8 +19,12 @@ import org.zanata.client.config.LocaleList;
 import org.zanata.client.config.LocaleMapping;
 import org.zanata.client.config.ZanataConfig;
 import org.zanata.client.exceptions.ConfigException;
+import org.zanata.rest.client.CompressionFilter;
+import org.zanata.rest.client.ConnectionSettings;
+import org.zanata.rest.client.MetadataCache;
 import org.zanata.rest.client.ProjectIterationLocalesClient;
 import org.zanata.rest.client.RestClientFactory;
+import org.zanata.rest.client.WireFormat;
 import org.zanata.rest.dto.LocaleDetails;
 import org.zanata.util.VersionUtility;
 import com.google.common.annotations.VisibleForTesting;
@@ -310,6 +314,34 @@ public class OptionsUtil {
                 }
             }
         }
+        if (opts.getUrl() != null) {
+            applyServerRateLimits(opts, config);
+        }
+    }
+
+    /**
+     * Applies the rate limits for the server from zanata.ini, unless they
+     * were set by options.
+     */
+    private static void applyServerRateLimits(ConfigurableOptions opts,
+            HierarchicalINIConfiguration config) {
+        SubnodeConfiguration servers = config.getSection("servers");
+        String prefix = ConfigUtil.findPrefix(servers, opts.getUrl());
+        if (prefix == null) {
+            return;
+        }
+        if (opts.getMaxRequestRate() <= 0) {
+            opts.setMaxRequestRate(servers.getInt(
+                    prefix + ".max-request-rate", 0));
+        }
+        if (opts.getMaxUploadRate() <= 0) {
+            opts.setMaxUploadRate(servers.getInt(prefix + ".max-upload-rate",
+                    0));
+        }
+        if (opts.getMaxDownloadRate() <= 0) {
+            opts.setMaxDownloadRate(servers.getInt(
+                    prefix + ".max-download-rate", 0));
+        }
     }
 
     private static void checkMandatoryOptsForRequestFactory(
@@ -336,6 +368,66 @@ public class OptionsUtil {
         return temp;
     }
 
+    private static int requestCompressionThreshold(ConfigurableOptions opts) {
+        return opts.isCompressRequests() ? Math.max(0,
+                opts.getCompressionThreshold())
+                : CompressionFilter.NO_REQUEST_COMPRESSION;
+    }
+
+    static ConnectionSettings connectionSettings(ConfigurableOptions opts) {
+        ConnectionSettings.Connector connector;
+        String name = opts.getHttpConnector();
+        if (name == null || name.equalsIgnoreCase("urlconnection")) {
+            connector = ConnectionSettings.Connector.URLCONNECTION;
+        } else if (name.equalsIgnoreCase("pooled")) {
+            connector = ConnectionSettings.Connector.POOLED;
+        } else {
+            throw new ConfigException("Unknown HTTP connector '" + name
+                    + "': expected 'urlconnection' or 'pooled'");
+        }
+        return new ConnectionSettings().setConnector(connector)
+                .setMaxConnections(opts.getMaxConnections())
+                .setConnectTimeout(Math.max(0, opts.getConnectTimeout()) * 1000)
+                .setSocketTimeout(Math.max(0, opts.getSocketTimeout()) * 1000)
+                .setIdleTimeout(
+                        Math.max(0, opts.getIdleConnectionTimeout()) * 1000)
+                .setMaxRetries(Math.max(0, opts.getMaxRetries()))
+                .setMaxRequestsPerSecond(Math.max(0, opts.getMaxRequestRate()))
+                .setMaxUploadBytesPerSecond(
+                        Math.max(0, opts.getMaxUploadRate()) * 1024L)
+                .setMaxDownloadBytesPerSecond(
+                        Math.max(0, opts.getMaxDownloadRate()) * 1024L)
+                .setAdaptiveConcurrency(opts.isAdaptiveConcurrency())
+                .setHedgePercentile(
+                        Math.max(0, Math.min(100, opts.getHedgePercentile())))
+                .setMaxHedgedRequests(Math.max(0, opts.getMaxHedgedRequests()))
+                .setWireFormat(wireFormat(opts))
+                .setHttpLogMaxBodySize(Math.max(0, opts.getLogHttpMaxBody()))
+                .setHttpLogSampleRate(Math.max(1, opts.getLogHttpSample()))
+                .setHttpLogFile(opts.getLogHttpFile());
+    }
+
+    public static WireFormat wireFormat(ConfigurableOptions opts) {
+        String name = opts.getWireFormat();
+        if (name == null) {
+            return WireFormat.XML;
+        }
+        try {
+            return WireFormat.fromName(name);
+        } catch (IllegalArgumentException e) {
+            throw new ConfigException(e.getMessage());
+        }
+    }
+
+    static MetadataCache metadataCache(ConfigurableOptions opts) {
+        if (opts.isNoMetadataCache()) {
+            return null;
+        }
+        return new MetadataCache(MetadataCache.defaultDirectory(),
+                Math.max(0, opts.getMetadataCacheTtl()) * 1000L,
+                MetadataCache.DEFAULT_MAX_SIZE);
+    }
+
     /**
      * Creates rest client factory that will perform an eager REST version check.
      */
@@ -349,7 +441,10 @@ public class OptionsUtil {
                             opts.getUsername(), opts.getKey(),
                             VersionUtility.getAPIVersionInfo(),
                             opts.getLogHttp(),
-                            opts.isDisableSSLCert());
+                            opts.isDisableSSLCert(),
+                            requestCompressionThreshold(opts),
+                            connectionSettings(opts),
+                            metadataCache(opts));
             restClientFactory.performVersionCheck();
             return restClientFactory;
         } catch (URISyntaxException e) {
@@ -371,7 +466,8 @@ public class OptionsUtil {
             return new RestClientFactory(opts.getUrl().toURI(),
                     opts.getUsername(), opts.getKey(),
                     VersionUtility.getAPIVersionInfo(), opts.getLogHttp(),
-                    opts.isDisableSSLCert());
+                    opts.isDisableSSLCert(), requestCompressionThreshold(opts),
+                    connectionSettings(opts), metadataCache(opts));
         } catch (URISyntaxException e) {
             throw new ConfigException(e);
         }
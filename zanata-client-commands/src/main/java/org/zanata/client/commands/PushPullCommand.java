@@ -37,6 +37,7 @@ import javax.xml.bind.Marshaller;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Optional;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Maps;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.zanata.client.commands.pull.PullOptions;
@@ -46,7 +47,9 @@ import org.zanata.client.etag.ETagCache;
 import org.zanata.client.etag.ETagCacheReaderWriter;
 import org.zanata.client.exceptions.ConfigException;
 import org.zanata.common.LocaleId;
+import org.zanata.rest.client.ElementVisitor;
 import org.zanata.rest.client.RestClientFactory;
+import org.zanata.rest.client.SerializedEntity;
 import org.zanata.rest.client.SourceDocResourceClient;
 import org.zanata.rest.client.StatisticsResourceClient;
 import org.zanata.rest.client.TransDocResourceClient;
@@ -74,6 +77,8 @@ public abstract class PushPullCommand<O extends PushPullOptions> extends
     protected ETagCache eTagCache;
     private Marshaller marshaller;
     private String modulePrefix;
+    /** Overrides the .zanata-cache directory (for tests). */
+    private File cacheDir;
     protected SourceDocResourceClient sourceDocResourceClient;
     protected TransDocResourceClient transDocResourceClient;
     protected final StatisticsResourceClient statsClient;
@@ -106,7 +111,8 @@ public abstract class PushPullCommand<O extends PushPullOptions> extends
         }
     }
 
-    protected void debug(Object jaxbElement) {
+    // the marshaller is shared, so concurrent pushes must take turns
+    protected synchronized void debug(Object jaxbElement) {
         try {
             if (getOpts().isDebugSet() && getOpts().getLogHttp()) {
                 StringWriter writer = new StringWriter();
@@ -118,6 +124,16 @@ public abstract class PushPullCommand<O extends PushPullOptions> extends
         }
     }
 
+    /**
+     * Logs a request body which has already been serialized, rather than
+     * marshalling the document again.
+     */
+    protected void debug(SerializedEntity entity) {
+        if (getOpts().isDebugSet() && getOpts().getLogHttp()) {
+            log.debug("{}", entity.asString());
+        }
+    }
+
     /**
      * @return
      * @throws JAXBException
@@ -168,7 +184,7 @@ public abstract class PushPullCommand<O extends PushPullOptions> extends
         return docNames;
     }
 
-    // TODO use a cache which will be accessible to all invocations
+    // cached across invocations (and revalidated) by the metadata cache
     protected List<ResourceMeta> getDocListForProjectIterationFromServer() {
         return sourceDocResourceClient.getResourceMeta(null);
     }
@@ -217,13 +233,42 @@ public abstract class PushPullCommand<O extends PushPullOptions> extends
         }
     }
 
+    /**
+     * Returns the location of a file in the local .zanata-cache directory
+     * (per module, if modules are enabled).
+     */
+    protected String getCacheFileLocation(String fileName) {
+        String location = ".zanata-cache" + File.separator + fileName;
+        if (modulePrefix != null && !modulePrefix.trim().isEmpty()) {
+            location = modulePrefix + File.separator + location;
+        }
+        return location;
+    }
+
+    /**
+     * Uses another directory instead of .zanata-cache (for tests), and
+     * reloads the ETag cache from it.
+     */
+    @VisibleForTesting
+    public void setCacheDir(File cacheDir) {
+        this.cacheDir = cacheDir;
+        loadETagCache();
+    }
+
+    /**
+     * Returns a file in the cache directory (see
+     * {@link #getCacheFileLocation(String)}).
+     */
+    protected File getCacheFile(String fileName) {
+        if (cacheDir != null) {
+            return new File(cacheDir, fileName);
+        }
+        return new File(getCacheFileLocation(fileName));
+    }
+
     protected void loadETagCache() {
         try {
-            String location =
-                    ".zanata-cache" + File.separator + "etag-cache.xml";
-            if (modulePrefix != null && !modulePrefix.trim().isEmpty()) {
-                location = modulePrefix + File.separator + location;
-            }
+            File location = getCacheFile("etag-cache.xml");
             eTagCache =
                     ETagCacheReaderWriter.readCache(new FileInputStream(
                             location));
@@ -235,65 +280,67 @@ public abstract class PushPullCommand<O extends PushPullOptions> extends
 
     protected void storeETagCache() {
         try {
-            String location =
-                    ".zanata-cache" + File.separator + "etag-cache.xml";
-            if (modulePrefix != null && !modulePrefix.trim().isEmpty()) {
-                location = modulePrefix + File.separator + location;
-            }
-
-            File targetFile = new File(location);
+            File targetFile = getCacheFile("etag-cache.xml");
             if (!targetFile.exists()) {
                 PathUtil.makeDirs(targetFile.getParentFile());
             }
             ETagCacheReaderWriter.writeCache(this.eTagCache,
-                    new FileOutputStream(location));
+                    new FileOutputStream(targetFile));
         } catch (IOException e) {
             log.warn("Could not create Zanata ETag cache file. Will proceed without it.");
         }
     }
 
+    /**
+     * Reads the statistics of each document as it arrives from the server,
+     * keeping only the percentages needed to decide what to pull.
+     */
     protected Map<String, Map<LocaleId, TranslatedPercent>> getDocsTranslatedPercent(
             LocaleList locales) {
-        ContainerTranslationStatistics statistics =
-                getDetailStatisticsForProjectVersion(locales);
-        List<ContainerTranslationStatistics> statsPerDoc =
-                statistics.getDetailedStats();
-        ImmutableMap.Builder<String, Map<LocaleId, TranslatedPercent>> docIdToStatsBuilder =
-                ImmutableMap.builder();
-        for (ContainerTranslationStatistics docStats : statsPerDoc) {
-            String docId = docStats.getId();
-            List<TranslationStatistics> statsPerLocale = docStats.getStats();
-            ImmutableMap.Builder<LocaleId, TranslatedPercent> localeToStatsBuilder =
-                    ImmutableMap.builder();
-
-            for (TranslationStatistics statsForSingleLocale : statsPerLocale) {
-                // TODO server statistics API should return locale with alias
-                TranslatedPercent translatedPercent =
-                        new TranslatedPercent(statsForSingleLocale.getTotal(),
-                                statsForSingleLocale.getTranslatedOnly(),
-                                statsForSingleLocale.getApproved());
-
-                localeToStatsBuilder.put(
-                        new LocaleId(statsForSingleLocale.getLocale()),
-                        translatedPercent);
-            }
-            Map<LocaleId, TranslatedPercent> localeStats =
-                    localeToStatsBuilder.build();
-            docIdToStatsBuilder.put(docId, localeStats);
+        String[] localesOnServer = new String[locales.size()];
+        for (int i = 0; i < locales.size(); i++) {
+             localesOnServer[i] = locales.get(i).getLocale();
         }
+        final ImmutableMap.Builder<String, Map<LocaleId, TranslatedPercent>> docIdToStatsBuilder =
+                ImmutableMap.builder();
+        // shared by all documents, rather than one LocaleId per statistic
+        final Map<String, LocaleId> localeIds = Maps.newHashMap();
+        statsClient.visitDocumentStatistics(getOpts().getProj(),
+                getOpts().getProjectVersion(), false, localesOnServer,
+                new ElementVisitor<ContainerTranslationStatistics>() {
+                    @Override
+                    public void visit(ContainerTranslationStatistics docStats) {
+                        docIdToStatsBuilder.put(docStats.getId(),
+                                toTranslatedPercent(docStats.getStats(),
+                                        localeIds));
+                    }
+                });
         return docIdToStatsBuilder.build();
     }
 
-    @VisibleForTesting
-    protected ContainerTranslationStatistics getDetailStatisticsForProjectVersion(
-            LocaleList locales) {
-        String[] localesOnServer = new String[locales.size()];
-        for (int i = 0; i < locales.size(); i++) {
-             localesOnServer[i] = locales.get(i).getLocale();
+    private static Map<LocaleId, TranslatedPercent> toTranslatedPercent(
+            List<TranslationStatistics> statsPerLocale,
+            Map<String, LocaleId> localeIds) {
+        ImmutableMap.Builder<LocaleId, TranslatedPercent> localeToStatsBuilder =
+                ImmutableMap.builder();
+        if (statsPerLocale == null) {
+            return localeToStatsBuilder.build();
+        }
+        for (TranslationStatistics statsForSingleLocale : statsPerLocale) {
+            // TODO server statistics API should return locale with alias
+            TranslatedPercent translatedPercent =
+                    new TranslatedPercent(statsForSingleLocale.getTotal(),
+                            statsForSingleLocale.getTranslatedOnly(),
+                            statsForSingleLocale.getApproved());
+            String locale = statsForSingleLocale.getLocale();
+            LocaleId localeId = localeIds.get(locale);
+            if (localeId == null) {
+                localeId = new LocaleId(locale);
+                localeIds.put(locale, localeId);
+            }
+            localeToStatsBuilder.put(localeId, translatedPercent);
         }
-        return statsClient
-                    .getStatistics(getOpts().getProj(),
-                            getOpts().getProjectVersion(), true, false, localesOnServer);
+        return localeToStatsBuilder.build();
     }
 
     /**
@@ -318,6 +318,8 @@ public class PullCommand extends PushPullCommand<PullOptions> {
         // ignore 404 (no translation yet for specified
         // document)
         if (transResponse.getClientResponseStatus() == ClientResponse.Status.NOT_FOUND) {
+            // release the connection, since the body is not read
+            transResponse.close();
             if (!createSkeletons) {
                 log.info(
                         "No translations found in locale {} for document {}",
@@ -331,6 +333,7 @@ public class PullCommand extends PushPullCommand<PullOptions> {
             }
         } else if (transResponse.getClientResponseStatus() == ClientResponse.Status.NOT_MODIFIED) {
             // 304 NOT MODIFIED (the document can stay the same)
+            transResponse.close();
             log.info(
                     "No changes in translations for locale {} and document {}",
                     locale, localDocName);
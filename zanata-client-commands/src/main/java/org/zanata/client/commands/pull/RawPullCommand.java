@@ -167,6 +167,8 @@ public class RawPullCommand extends PushPullCommand<PullOptions> {
                                     FileResource.FILETYPE_RAW_SOURCE_DOCUMENT,
                                     qualifiedDocName);
                     if (response.getClientResponseStatus() == ClientResponse.Status.NOT_FOUND) {
+                        // release the connection, since the body is not read
+                        response.close();
                         log.warn(
                                 "No source document file is available for [{}]. Skipping.",
                                 qualifiedDocName);
@@ -232,6 +234,7 @@ public class RawPullCommand extends PushPullCommand<PullOptions> {
                                 .getProjectVersion(), locale.getId(),
                         fileExtension, qualifiedDocName);
         if (response.getClientResponseStatus() == ClientResponse.Status.NOT_FOUND) {
+            response.close();
             log.info(
                     "No translation document file found in locale {} for document [{}]",
                     locale, qualifiedDocName);
@@ -45,6 +45,7 @@ import org.zanata.rest.dto.resource.Resource;
 import org.zanata.rest.dto.resource.TranslationsResource;
 
 public abstract class AbstractGettextPushStrategy extends AbstractPushStrategy {
+    private static final String FILE_ENCODING = "utf8";
     private PoReader2 poReader = new PoReader2();
     protected Set<String> localSrcDocNames;
 
@@ -61,6 +62,11 @@ public abstract class AbstractGettextPushStrategy extends AbstractPushStrategy {
             boolean isInteractive) {
     }
 
+    @Override
+    public String getFileEncoding() {
+        return FILE_ENCODING;
+    }
+
     public Set<String> findDocNames(File srcDir, ImmutableList<String> includes,
             ImmutableList<String> excludes, boolean useDefaultExclude,
             boolean caseSensitive, boolean excludeLocaleFilenames)
@@ -122,7 +128,7 @@ public abstract class AbstractGettextPushStrategy extends AbstractPushStrategy {
                 BufferedInputStream bis = new BufferedInputStream(
                 fileInputStream)) {
             InputSource potInputSource = new InputSource(bis);
-            potInputSource.setEncoding("utf8");
+            potInputSource.setEncoding(FILE_ENCODING);
             // load 'srcDoc' from pot/${docID}.pot
             return getPoReader().extractTemplate(potInputSource,
                     new LocaleId(getOpts().getSourceLang()), docName);
@@ -134,11 +140,12 @@ public abstract class AbstractGettextPushStrategy extends AbstractPushStrategy {
             TranslationResourcesVisitor callback) throws IOException {
         for (LocaleMapping locale : findLocales(srcDocName)) {
             File transFile = getTransFile(locale, srcDocName);
-            if (transFile.canRead()) {
+            if (transFile.canRead()
+                    && acceptTransFile(srcDocName, locale, transFile)) {
                 try (BufferedInputStream bis = new BufferedInputStream(
                         new FileInputStream(transFile))) {
                     InputSource inputSource = new InputSource(bis);
-                    inputSource.setEncoding("utf8");
+                    inputSource.setEncoding(FILE_ENCODING);
                     TranslationsResource targetDoc =
                             getPoReader().extractTarget(inputSource);
                     callback.visit(locale, targetDoc);
@@ -26,6 +26,8 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
 
+import javax.annotation.Nullable;
+
 import com.google.common.collect.ImmutableList;
 import org.zanata.client.commands.push.PushCommand.TranslationResourcesVisitor;
 import org.zanata.client.config.LocaleMapping;
@@ -43,6 +45,15 @@ public abstract class AbstractPushStrategy extends
         AbstractCommonPushStrategy<PushOptions> {
     private StringSet extensions;
     private String fileExtension;
+    private TransFileFilter transFileFilter;
+
+    /**
+     * Decides whether a translation file needs to be read at all, so that
+     * unchanged files can be skipped without being parsed.
+     */
+    public interface TransFileFilter {
+        boolean accept(String docName, LocaleMapping locale, File transFile);
+    }
 
     public abstract Set<String> findDocNames(File srcDir,
             ImmutableList<String> includes, ImmutableList<String> excludes,
@@ -142,6 +153,29 @@ public abstract class AbstractPushStrategy extends
         return fileExtension;
     }
 
+    /**
+     * The encoding used to read source and translation files, or null if
+     * the files declare their own (as XML does).
+     */
+    @Nullable
+    public String getFileEncoding() {
+        return null;
+    }
+
+    public void setTransFileFilter(@Nullable TransFileFilter transFileFilter) {
+        this.transFileFilter = transFileFilter;
+    }
+
+    /**
+     * Returns true if the given translation file should be loaded and visited
+     * by {@link #visitTranslationResources}.
+     */
+    protected boolean acceptTransFile(String docName, LocaleMapping locale,
+            File transFile) {
+        return transFileFilter == null
+                || transFileFilter.accept(docName, locale, transFile);
+    }
+
     public void init() {
     }
 
@@ -0,0 +1,384 @@
+/*
+ * Copyright 2015, Red Hat, Inc. and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.zanata.client.commands.push;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import javax.annotation.Nullable;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.zanata.rest.client.AsyncProcessClient;
+import org.zanata.rest.dto.ProcessStatus;
+
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ListeningExecutorService;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.SettableFuture;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.common.util.concurrent.Uninterruptibles;
+
+/**
+ * Keeps up to a fixed number of server-side asynchronous processes in flight,
+ * and polls all of them from a single thread, backing off each process
+ * independently (see {@link PollingBackoff}). Processes are started (which
+ * uploads their documents) on other threads, so that a large upload does not
+ * hold up the polling of the other processes. A slot is taken when a process
+ * is submitted, and given back when the process finishes or fails, so callers
+ * submitting more processes than there are slots will block until a slot is
+ * free.
+ * <p>
+ * A process may depend on another process (eg translations depend on their
+ * source document); it is not started on the server until its dependency has
+ * finished, and fails without being started if its dependency fails.
+ */
+public class AsyncProcessTracker {
+    private static final Logger log = LoggerFactory
+            .getLogger(AsyncProcessTracker.class);
+    private static final long DEPENDENCY_CHECK_PERIOD = 250;
+
+    /**
+     * Starts (or restarts) a process on the server.
+     */
+    public interface ProcessStarter {
+        ProcessStatus start();
+    }
+
+    private final AsyncProcessClient asyncProcessClient;
+    private final Semaphore slots;
+    private final Lock lock = new ReentrantLock();
+    /** Signalled when a process is submitted or has been started. */
+    private final Condition changed = lock.newCondition();
+    // guarded by lock
+    private final List<TrackedProcess> processes =
+            new ArrayList<TrackedProcess>();
+    // guarded by lock
+    private boolean wokenUp;
+    private final ExecutorService poller;
+    /**
+     * Runs the starters. Each process has at most one start in progress, so
+     * the slots limit the number of threads.
+     */
+    private final ListeningExecutorService starters;
+    private final Runnable wakeUp = new Runnable() {
+        @Override
+        public void run() {
+            wakePoller();
+        }
+    };
+    private volatile boolean closed;
+    private final AtomicLong statusPolls = new AtomicLong();
+    private final AtomicLong resubmissions = new AtomicLong();
+
+    public AsyncProcessTracker(AsyncProcessClient asyncProcessClient,
+            int maxProcesses) {
+        this.asyncProcessClient = asyncProcessClient;
+        this.slots = new Semaphore(maxProcesses, true);
+        this.poller =
+                Executors.newSingleThreadExecutor(new ThreadFactoryBuilder()
+                        .setDaemon(true)
+                        .setNameFormat("zanata-process-poller-%d").build());
+        this.starters =
+                MoreExecutors.listeningDecorator(Executors
+                        .newCachedThreadPool(new ThreadFactoryBuilder()
+                                .setDaemon(true)
+                                .setNameFormat("zanata-process-starter-%d")
+                                .build()));
+        poller.execute(new Runnable() {
+            @Override
+            public void run() {
+                pollUntilClosed();
+            }
+        });
+    }
+
+    /**
+     * Submits a process, blocking until a slot is free.
+     *
+     * @param starter
+     *            starts the process; called again if the server does not
+     *            accept the process
+     * @param dependency
+     *            a process which must finish before this one is started, or
+     *            null
+     * @param failureMessage
+     *            prefix of the exception message if the process fails
+     * @return the final status of the process
+     * @throws InterruptedException
+     *             if interrupted while waiting for a slot
+     */
+    public ListenableFuture<ProcessStatus> submit(ProcessStarter starter,
+            @Nullable ListenableFuture<?> dependency, String failureMessage)
+            throws InterruptedException {
+        if (closed) {
+            throw new IllegalStateException("tracker has been closed");
+        }
+        slots.acquire();
+        TrackedProcess process =
+                new TrackedProcess(starter, dependency, failureMessage);
+        lock.lock();
+        try {
+            processes.add(process);
+            wokenUp = true;
+            changed.signal();
+        } finally {
+            lock.unlock();
+        }
+        return process.result;
+    }
+
+    /**
+     * Number of status requests issued so far.
+     */
+    public long getStatusPolls() {
+        return statusPolls.get();
+    }
+
+    /**
+     * Number of processes resubmitted so far because the server did not
+     * accept them.
+     */
+    public long getResubmissions() {
+        return resubmissions.get();
+    }
+
+    /**
+     * Stops polling. Processes which have not completed are cancelled on the
+     * client side (they may still complete on the server).
+     */
+    public void close() {
+        closed = true;
+        poller.shutdownNow();
+        starters.shutdownNow();
+        lock.lock();
+        try {
+            for (TrackedProcess process : processes) {
+                process.result.cancel(false);
+            }
+            processes.clear();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void pollUntilClosed() {
+        try {
+            while (!closed) {
+                List<TrackedProcess> snapshot;
+                lock.lock();
+                try {
+                    while (processes.isEmpty() && !closed) {
+                        changed.await();
+                    }
+                    snapshot = new ArrayList<TrackedProcess>(processes);
+                } finally {
+                    lock.unlock();
+                }
+                long now = System.currentTimeMillis();
+                long nextPollTime = Long.MAX_VALUE;
+                for (TrackedProcess process : snapshot) {
+                    if (!poll(process, now)) {
+                        nextPollTime =
+                                Math.min(nextPollTime, process.nextPollTime);
+                    }
+                }
+                removeCompleted();
+                lock.lock();
+                try {
+                    // a new submission or a finished start wakes us up early
+                    if (!wokenUp) {
+                        if (nextPollTime == Long.MAX_VALUE) {
+                            changed.await();
+                        } else {
+                            changed.await(Math.max(1, nextPollTime
+                                    - System.currentTimeMillis()),
+                                    TimeUnit.MILLISECONDS);
+                        }
+                    }
+                    wokenUp = false;
+                } finally {
+                    lock.unlock();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void wakePoller() {
+        lock.lock();
+        try {
+            wokenUp = true;
+            changed.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Starts a single process in the background, or polls it if its backoff
+     * delay has passed.
+     *
+     * @return true if the process completed
+     */
+    private boolean poll(TrackedProcess process, long now) {
+        try {
+            if (process.start != null) {
+                if (!process.start.isDone()) {
+                    return false;
+                }
+                try {
+                    process.status =
+                            Uninterruptibles.getUninterruptibly(process.start);
+                } catch (ExecutionException e) {
+                    return complete(process, null, e.getCause());
+                } finally {
+                    process.start = null;
+                }
+            } else if (now < process.nextPollTime) {
+                return false;
+            } else if (process.status == null) {
+                if (process.dependency != null) {
+                    if (!process.dependency.isDone()) {
+                        // check the dependency again shortly
+                        process.nextPollTime = now + DEPENDENCY_CHECK_PERIOD;
+                        return false;
+                    }
+                    try {
+                        process.dependency.get();
+                    } catch (Exception e) {
+                        return complete(process, null, new RuntimeException(
+                                "Not started, since a process it depends on failed",
+                                e));
+                    }
+                }
+                if (process.resubmitBackoff.getAttempts() > 0) {
+                    resubmissions.incrementAndGet();
+                }
+                startInBackground(process);
+                return false;
+            } else {
+                statusPolls.incrementAndGet();
+                process.status =
+                        asyncProcessClient.getProcessStatus(process.status
+                                .getUrl());
+            }
+        } catch (RuntimeException e) {
+            return complete(process, null, e);
+        }
+
+        switch (process.status.getStatusCode()) {
+        case Failed:
+            return complete(process, null, new RuntimeException(
+                    process.failureMessage + process.status.getMessages()));
+        case Finished:
+            return complete(process, process.status, null);
+        case NotAccepted:
+            // the server is busy, so back off before submitting it again
+            log.debug("Process not accepted by server; will retry");
+            process.status = null;
+            process.nextPollTime =
+                    now + process.resubmitBackoff.nextDelay(-1);
+            return false;
+        default:
+            process.nextPollTime =
+                    now
+                            + process.pollBackoff.nextDelay(process.status
+                                    .getPercentageComplete());
+            return false;
+        }
+    }
+
+    /**
+     * Starts a process on another thread. It is polled again once the start
+     * has finished.
+     */
+    private void startInBackground(final TrackedProcess process) {
+        process.nextPollTime = Long.MAX_VALUE;
+        process.start = starters.submit(new Callable<ProcessStatus>() {
+            @Override
+            public ProcessStatus call() {
+                return process.starter.start();
+            }
+        });
+        process.start.addListener(wakeUp, MoreExecutors.sameThreadExecutor());
+    }
+
+    private boolean complete(TrackedProcess process,
+            @Nullable ProcessStatus status, @Nullable Throwable failure) {
+        if (failure != null) {
+            process.result.setException(failure);
+        } else {
+            process.result.set(status);
+        }
+        return true;
+    }
+
+    private void removeCompleted() {
+        lock.lock();
+        try {
+            Iterator<TrackedProcess> it = processes.iterator();
+            while (it.hasNext()) {
+                if (it.next().result.isDone()) {
+                    it.remove();
+                    slots.release();
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static class TrackedProcess {
+        private final ProcessStarter starter;
+        private final ListenableFuture<?> dependency;
+        private final String failureMessage;
+        private final SettableFuture<ProcessStatus> result =
+                SettableFuture.create();
+        // only accessed by the poller thread
+        private ProcessStatus status;
+        private ListenableFuture<ProcessStatus> start;
+        private long nextPollTime;
+        private final PollingBackoff pollBackoff =
+                PollingBackoff.forStatusPolling();
+        private final PollingBackoff resubmitBackoff =
+                PollingBackoff.forResubmission();
+
+        TrackedProcess(ProcessStarter starter,
+                ListenableFuture<?> dependency, String failureMessage) {
+            this.starter = starter;
+            this.dependency = dependency;
+            this.failureMessage = failureMessage;
+        }
+    }
+}
@@ -0,0 +1,290 @@
+/*
+ * Copyright 2015, Red Hat, Inc. and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.zanata.client.commands.push;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import javax.annotation.Nullable;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.zanata.rest.client.CopyTransClient;
+import org.zanata.rest.dto.CopyTransStatus;
+
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Runs Copy Trans for pushed documents in the background, so that the push
+ * does not have to wait for each document's Copy Trans before pushing the
+ * next one. Documents are queued without blocking; up to a fixed number of
+ * Copy Trans jobs run on the server at once, and all of them are polled from
+ * a single thread, each with its own {@link PollingBackoff}.
+ * <p>
+ * A job may depend on the push of its source document; it is not started
+ * until the push has finished, and is cancelled if the push fails.
+ */
+public class CopyTransScheduler {
+    private static final Logger log = LoggerFactory
+            .getLogger(CopyTransScheduler.class);
+    private static final long DEPENDENCY_CHECK_PERIOD = 250;
+
+    private final CopyTransClient copyTransClient;
+    private final String project;
+    private final String version;
+    private final int maxRunning;
+    private final Lock lock = new ReentrantLock();
+    private final Condition scheduled = lock.newCondition();
+    // guarded by lock
+    private final List<Job> queued = new ArrayList<Job>();
+    // only accessed by the poller thread
+    private final List<Job> waiting = new ArrayList<Job>();
+    private final List<Job> running = new ArrayList<Job>();
+    private final ExecutorService poller;
+    private volatile boolean closed;
+    private final AtomicLong scheduledJobs = new AtomicLong();
+    private final AtomicLong finishedJobs = new AtomicLong();
+    private final AtomicLong statusPolls = new AtomicLong();
+
+    public CopyTransScheduler(CopyTransClient copyTransClient, String project,
+            String version, int maxRunning) {
+        this.copyTransClient = copyTransClient;
+        this.project = project;
+        this.version = version;
+        this.maxRunning = maxRunning;
+        this.poller =
+                Executors.newSingleThreadExecutor(new ThreadFactoryBuilder()
+                        .setDaemon(true)
+                        .setNameFormat("zanata-copytrans-poller-%d").build());
+        poller.execute(new Runnable() {
+            @Override
+            public void run() {
+                pollUntilClosed();
+            }
+        });
+    }
+
+    /**
+     * Queues Copy Trans for a document.
+     *
+     * @param dependency
+     *            the push of the document's source, or null if it has already
+     *            finished
+     * @return the final Copy Trans status, or null if Copy Trans could not be
+     *         started. Fails if the status could not be fetched.
+     */
+    public ListenableFuture<CopyTransStatus> schedule(String docName,
+            @Nullable ListenableFuture<?> dependency) {
+        if (closed) {
+            throw new IllegalStateException("scheduler has been closed");
+        }
+        Job job = new Job(docName, dependency);
+        scheduledJobs.incrementAndGet();
+        lock.lock();
+        try {
+            queued.add(job);
+            scheduled.signal();
+        } finally {
+            lock.unlock();
+        }
+        return job.result;
+    }
+
+    /**
+     * Number of status requests issued so far.
+     */
+    public long getStatusPolls() {
+        return statusPolls.get();
+    }
+
+    /**
+     * Stops polling. Jobs which have not completed are cancelled on the client
+     * side (they may still complete on the server).
+     */
+    public void close() {
+        closed = true;
+        poller.shutdownNow();
+        lock.lock();
+        try {
+            for (Job job : queued) {
+                job.result.cancel(false);
+            }
+            queued.clear();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void pollUntilClosed() {
+        try {
+            while (!closed) {
+                lock.lock();
+                try {
+                    while (queued.isEmpty() && waiting.isEmpty()
+                            && running.isEmpty() && !closed) {
+                        scheduled.await();
+                    }
+                    waiting.addAll(queued);
+                    queued.clear();
+                } finally {
+                    lock.unlock();
+                }
+                long now = System.currentTimeMillis();
+                startWaitingJobs(now);
+                long nextPollTime =
+                        waiting.isEmpty() ? Long.MAX_VALUE : now
+                                + DEPENDENCY_CHECK_PERIOD;
+                Iterator<Job> it = running.iterator();
+                while (it.hasNext()) {
+                    Job job = it.next();
+                    if (now >= job.nextPollTime && poll(job, now)) {
+                        it.remove();
+                    } else {
+                        nextPollTime = Math.min(nextPollTime, job.nextPollTime);
+                    }
+                }
+                if (!running.isEmpty() || !waiting.isEmpty()) {
+                    lock.lock();
+                    try {
+                        // a new job wakes us up early
+                        scheduled.await(Math.max(1, nextPollTime
+                                - System.currentTimeMillis()),
+                                TimeUnit.MILLISECONDS);
+                    } finally {
+                        lock.unlock();
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        for (Job job : waiting) {
+            job.result.cancel(false);
+        }
+        for (Job job : running) {
+            job.result.cancel(false);
+        }
+    }
+
+    /**
+     * Starts waiting jobs (in the order they were scheduled) whose source
+     * push has finished, while there are free slots.
+     */
+    private void startWaitingJobs(long now) {
+        Iterator<Job> it = waiting.iterator();
+        while (it.hasNext() && running.size() < maxRunning) {
+            Job job = it.next();
+            if (job.dependency != null) {
+                if (!job.dependency.isDone()) {
+                    continue;
+                }
+                try {
+                    job.dependency.get();
+                } catch (Exception e) {
+                    // the failed push is reported elsewhere
+                    it.remove();
+                    job.result.cancel(false);
+                    continue;
+                }
+            }
+            it.remove();
+            if (start(job, now)) {
+                running.add(job);
+            }
+        }
+    }
+
+    /**
+     * @return true if the job is now running on the server
+     */
+    private boolean start(Job job, long now) {
+        log.info("Running Copy Trans for {}", job.docName);
+        try {
+            copyTransClient.startCopyTrans(project, version, job.docName);
+        } catch (Exception ex) {
+            log.warn("Could not start Copy Trans for {}. Proceeding",
+                    job.docName);
+            complete(job, null);
+            return false;
+        }
+        return !poll(job, now);
+    }
+
+    /**
+     * @return true if the job completed
+     */
+    private boolean poll(Job job, long now) {
+        CopyTransStatus status;
+        try {
+            statusPolls.incrementAndGet();
+            status =
+                    copyTransClient.getCopyTransStatus(project, version,
+                            job.docName);
+        } catch (RuntimeException e) {
+            job.result.setException(e);
+            finishedJobs.incrementAndGet();
+            return true;
+        }
+        if (status.isInProgress()) {
+            job.nextPollTime =
+                    now + job.backoff.nextDelay(status.getPercentageComplete());
+            return false;
+        }
+        if (status.getPercentageComplete() < 100) {
+            log.warn("Copy Trans for {} stopped unexpectedly.", job.docName);
+        }
+        complete(job, status);
+        return true;
+    }
+
+    private void complete(Job job, @Nullable CopyTransStatus status) {
+        long finished = finishedJobs.incrementAndGet();
+        log.info("Copy Trans: {} of {} documents done", finished,
+                scheduledJobs.get());
+        job.result.set(status);
+    }
+
+    private static class Job {
+        private final String docName;
+        private final ListenableFuture<?> dependency;
+        private final SettableFuture<CopyTransStatus> result =
+                SettableFuture.create();
+        // only accessed by the poller thread
+        private long nextPollTime;
+        private final PollingBackoff backoff = PollingBackoff
+                .forStatusPolling();
+
+        Job(String docName, ListenableFuture<?> dependency) {
+            this.docName = docName;
+            this.dependency = dependency;
+        }
+    }
+}
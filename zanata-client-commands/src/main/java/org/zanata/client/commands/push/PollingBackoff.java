@@ -0,0 +1,129 @@
+/*
+ * Copyright 2015, Red Hat, Inc. and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.zanata.client.commands.push;
+
+import java.util.Random;
+
+/**
+ * Works out how long to wait between polls of a server-side process (or
+ * between resubmissions of a process which the server did not accept).
+ * <p>
+ * The delay starts small and grows exponentially up to a maximum, so that
+ * short processes finish quickly but long ones do not generate hundreds of
+ * status requests. While the server reports that the process is making
+ * progress the delay stops growing. A random jitter is applied to each delay,
+ * so that clients which started together do not poll in lock-step.
+ * <p>
+ * Instances are not thread-safe; use one per process.
+ */
+public class PollingBackoff {
+    static final long STATUS_INITIAL_DELAY = 250;
+    static final long STATUS_MAX_DELAY = 5000;
+    static final long RESUBMIT_INITIAL_DELAY = 1000;
+    static final long RESUBMIT_MAX_DELAY = 30000;
+    private static final double STATUS_MULTIPLIER = 1.5;
+    private static final double RESUBMIT_MULTIPLIER = 2;
+    private static final double JITTER = 0.2;
+
+    private final long initialDelay;
+    private final long maxDelay;
+    private final double multiplier;
+    private final double jitter;
+    private final Random random;
+    private long delay;
+    private int lastPercentComplete = -1;
+    private int attempts;
+
+    public PollingBackoff(long initialDelay, long maxDelay, double multiplier,
+            double jitter, Random random) {
+        this.initialDelay = initialDelay;
+        this.maxDelay = maxDelay;
+        this.multiplier = multiplier;
+        this.jitter = jitter;
+        this.random = random;
+        this.delay = initialDelay;
+    }
+
+    /**
+     * Backoff for polling the status of a running process.
+     */
+    public static PollingBackoff forStatusPolling() {
+        return new PollingBackoff(STATUS_INITIAL_DELAY, STATUS_MAX_DELAY,
+                STATUS_MULTIPLIER, JITTER, new Random());
+    }
+
+    /**
+     * Backoff for resubmitting a process which the server did not accept
+     * because it was busy.
+     */
+    public static PollingBackoff forResubmission() {
+        return new PollingBackoff(RESUBMIT_INITIAL_DELAY, RESUBMIT_MAX_DELAY,
+                RESUBMIT_MULTIPLIER, JITTER, new Random());
+    }
+
+    /**
+     * Returns the time to wait before the next attempt.
+     *
+     * @param percentComplete
+     *            progress reported by the latest response, or -1 if unknown
+     */
+    public long nextDelay(int percentComplete) {
+        if (attempts > 0) {
+            boolean progressing =
+                    percentComplete >= 0 && lastPercentComplete >= 0
+                            && percentComplete > lastPercentComplete;
+            if (!progressing) {
+                delay = Math.min(maxDelay, (long) (delay * multiplier));
+            }
+        }
+        attempts++;
+        if (percentComplete >= 0) {
+            lastPercentComplete = percentComplete;
+        }
+        double factor = 1 + jitter * (2 * random.nextDouble() - 1);
+        return Math.max(1, (long) (delay * factor));
+    }
+
+    /**
+     * Sleeps for the next delay.
+     *
+     * @see #nextDelay(int)
+     */
+    public void sleep(int percentComplete) throws InterruptedException {
+        Thread.sleep(nextDelay(percentComplete));
+    }
+
+    /**
+     * Number of delays handed out so far.
+     */
+    public int getAttempts() {
+        return attempts;
+    }
+
+    /**
+     * Starts again from the initial delay.
+     */
+    public void reset() {
+        delay = initialDelay;
+        lastPercentComplete = -1;
+        attempts = 0;
+    }
+}
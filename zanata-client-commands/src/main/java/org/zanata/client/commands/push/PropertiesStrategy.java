@@ -67,6 +67,12 @@ public class PropertiesStrategy extends AbstractPushStrategy {
         this.charset = charset;
     }
 
+    @Override
+    public String getFileEncoding() {
+        return charset == PropWriter.CHARSET.UTF8 ? Charsets.UTF_8.name()
+                : Charsets.ISO_8859_1.name();
+    }
+
     @Override
     public void init() {
         this.propReader =
@@ -128,7 +134,8 @@ public class PropertiesStrategy extends AbstractPushStrategy {
             File transFile = new TransFileResolver(getOpts()).getTransFile(
                     UnqualifiedSrcDocName.from(docName),
                     locale);
-            if (transFile.exists()) {
+            if (transFile.exists()
+                    && acceptTransFile(docName, locale, transFile)) {
                 TranslationsResource targetDoc =
                         loadTranslationsResource(srcDoc, transFile);
                 callback.visit(locale, targetDoc);
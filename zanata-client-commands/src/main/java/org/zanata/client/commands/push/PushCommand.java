@@ -1,29 +1,54 @@
 package org.zanata.client.commands.push;
 
 import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.SortedSet;
 import java.util.TreeSet;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
+import javax.annotation.Nullable;
+
+import org.apache.commons.collections.keyvalue.MultiKey;
 import org.apache.commons.lang.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.zanata.adapter.properties.PropWriter;
 import org.zanata.adapter.xliff.XliffCommon.ValidationType;
+import org.zanata.client.commands.OptionsUtil;
 import org.zanata.client.commands.PushPullCommand;
 import org.zanata.client.commands.PushPullType;
 import org.zanata.client.config.LocaleMapping;
 import org.zanata.client.exceptions.ConfigException;
+import org.zanata.client.manifest.ContentHasher;
+import org.zanata.client.manifest.PushManifest;
+import org.zanata.client.manifest.PushManifestEntry;
+import org.zanata.client.manifest.PushManifestReaderWriter;
+import org.zanata.client.manifest.TargetSnapshot;
+import org.zanata.client.manifest.TargetSnapshotStore;
 import org.zanata.client.util.ConsoleUtils;
 import org.zanata.common.LocaleId;
 import org.zanata.common.MergeType;
@@ -32,15 +57,26 @@ import org.zanata.rest.StringSet;
 import org.zanata.rest.client.AsyncProcessClient;
 import org.zanata.rest.client.CopyTransClient;
 import org.zanata.rest.client.RestClientFactory;
+import org.zanata.rest.client.SerializedEntity;
 import org.zanata.rest.dto.CopyTransStatus;
 import org.zanata.rest.dto.ProcessStatus;
 import org.zanata.rest.dto.resource.Resource;
 import org.zanata.rest.dto.resource.ResourceMeta;
 import org.zanata.rest.dto.resource.TextFlowTarget;
 import org.zanata.rest.dto.resource.TranslationsResource;
+import org.zanata.util.HashUtil;
+import org.zanata.util.PathUtil;
 
 import com.google.common.base.Predicate;
 import com.google.common.base.Strings;
+import com.google.common.base.Throwables;
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.ListMultimap;
+import com.google.common.collect.Multimaps;
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.sun.jersey.api.client.ClientResponse;
 import com.sun.jersey.api.client.UniformInterfaceException;
 
@@ -55,13 +91,88 @@ import static com.google.common.collect.Iterables.all;
 public class PushCommand extends PushPullCommand<PushOptions> {
     private static final Logger log = LoggerFactory
             .getLogger(PushCommand.class);
-    private static final int POLL_PERIOD = 250;
 
+    private static final String PUSH_MANIFEST = "push-manifest.xml";
+    private static final String TARGET_SNAPSHOTS = "target-snapshots";
+    private static final int MAX_BATCH_ATTEMPTS = 3;
     private static final Map<String, AbstractPushStrategy> strategies =
             new HashMap<String, AbstractPushStrategy>();
 
     private CopyTransClient copyTransClient;
     private AsyncProcessClient asyncProcessClient;
+    /**
+     * True while documents are being pushed by more than one thread. Console
+     * progress feedback is per-document, so it is suppressed in this mode.
+     */
+    private volatile boolean concurrentPush;
+    /**
+     * Pool used to upload the locales of a document concurrently, or null if
+     * locales are uploaded one at a time.
+     */
+    private ExecutorService localeExecutor;
+    /**
+     * Tracks the server-side processes started by this push, or null if each
+     * upload waits for its own process to finish.
+     */
+    private AsyncProcessTracker processTracker;
+    /** Runs Copy Trans in the background, if more than one job is allowed. */
+    private CopyTransScheduler copyTransScheduler;
+    /** Copy Trans jobs started by copyTransScheduler, in push order. */
+    private final Map<String, ListenableFuture<CopyTransStatus>> copyTransJobs =
+            Collections
+                    .synchronizedMap(new LinkedHashMap<String, ListenableFuture<CopyTransStatus>>());
+    /** Uploads batches of large translation documents, if batching is on. */
+    private AsyncProcessTracker batchTracker;
+    /**
+     * Processes submitted to processTracker, keyed by qualified document name.
+     */
+    private final ListMultimap<String, ListenableFuture<ProcessStatus>> trackedProcesses =
+            Multimaps.synchronizedListMultimap(ArrayListMultimap
+                    .<String, ListenableFuture<ProcessStatus>> create());
+    /**
+     * Source document processes submitted to processTracker, keyed by document
+     * URI, so that translations are not started before their source.
+     */
+    private final Map<String, ListenableFuture<ProcessStatus>> sourceProcesses =
+            new ConcurrentHashMap<String, ListenableFuture<ProcessStatus>>();
+    private volatile boolean trackedProcessFailed;
+    /** Records what was pushed, so that unchanged documents can be skipped. */
+    private PushManifest pushManifest = new PushManifest();
+    private TargetSnapshotStore targetSnapshots;
+    /** Push settings which affect parsing, recorded in the manifest. */
+    private String manifestSettings;
+    /** As above, plus the settings which affect translation uploads. */
+    private String transManifestSettings;
+    /** Qualified names of the current module's documents on the server. */
+    private Set<String> serverDocNames = Collections.emptySet();
+    private final AtomicLong unchangedDocs = new AtomicLong();
+    private final AtomicLong unchangedTransFiles = new AtomicLong();
+    private final AtomicLong unchangedTransBytes = new AtomicLong();
+    /**
+     * Manifest entries for translation files which have been accepted for
+     * upload, keyed by qualified doc name and locale.
+     */
+    private final Map<MultiKey, PushManifestEntry> transManifestEntries =
+            new ConcurrentHashMap<MultiKey, PushManifestEntry>();
+    /**
+     * Qualified names of the documents whose source is pushed in this run.
+     * None of their translation files are skipped.
+     */
+    private final Set<String> srcDocsPushed = Collections
+            .newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+    /** Manifest entries for pushes still running in the tracker. */
+    private final Map<PushManifestEntry, ListenableFuture<ProcessStatus>> pendingManifestEntries =
+            new ConcurrentHashMap<PushManifestEntry, ListenableFuture<ProcessStatus>>();
+    /** Target snapshots for translation pushes still running in the tracker. */
+    private final Map<PendingSnapshot, ListenableFuture<ProcessStatus>> pendingSnapshots =
+            new ConcurrentHashMap<PendingSnapshot, ListenableFuture<ProcessStatus>>();
+    private final AtomicLong unchangedTargets = new AtomicLong();
+    /** Status requests issued for server-side processes and copy trans. */
+    private final AtomicLong statusPolls = new AtomicLong();
+    /** Processes resubmitted because the server did not accept them. */
+    private final AtomicLong resubmissions = new AtomicLong();
+    /** Size of the documents serialized for upload (each only once). */
+    private final AtomicLong serializedBytes = new AtomicLong();
 
     public interface TranslationResourcesVisitor {
         void visit(LocaleMapping locale, TranslationsResource targetDoc);
@@ -175,6 +286,19 @@ public class PushCommand extends PushPullCommand<PushOptions> {
         if (opts.getFromDoc() != null) {
             logger.info("From document: {}", opts.getFromDoc());
         }
+        if (opts.getPushThreads() > 1) {
+            logger.info("Push threads: {}", opts.getPushThreads());
+        }
+        if (opts.getLocaleThreads() > 1) {
+            logger.info("Locale threads: {}", opts.getLocaleThreads());
+        }
+        if (opts.getParseAhead() > 0) {
+            logger.info("Parse ahead: {} documents", opts.getParseAhead());
+        }
+        if (opts.getAsyncProcesses() > 1) {
+            logger.info("Server processes in flight: {}",
+                    opts.getAsyncProcesses());
+        }
         if (opts.isDryRun()) {
             logger.info("DRY RUN: no permanent changes will be made");
         }
@@ -210,6 +334,12 @@ public class PushCommand extends PushPullCommand<PushOptions> {
     public void run() throws Exception {
         logOptions(log, getOpts());
         pushCurrentModule();
+        if (!getOpts().isDryRun()) {
+            log.info("Polled server for process status {} times; resubmitted {} processes",
+                    statusPolls.get(), resubmissions.get());
+        }
+        log.info("Serialized {} bytes of documents for upload",
+                serializedBytes.get());
 
         if (pushSource() && getOpts().getEnableModules()
                 && getOpts().isRootModule()) {
@@ -219,6 +349,7 @@ public class PushCommand extends PushPullCommand<PushOptions> {
                     obsoleteDocs.size(), obsoleteDocs);
             if (getOpts().getDeleteObsoleteModules() && !obsoleteDocs.isEmpty()) {
                 // offer to delete obsolete documents
+                previewDeletion(obsoleteDocs);
                 confirmWithUser("Do you want to delete all documents from the server which don't belong to any module in the Maven reactor?\n");
                 deleteSourceDocsFromServer(obsoleteDocs);
             } else {
@@ -324,8 +455,14 @@ public class PushCommand extends PushPullCommand<PushOptions> {
         }
 
         List<String> obsoleteDocs = Collections.emptyList();
+        serverDocNames = Collections.emptySet();
         if (pushSource() && !strat.isTransOnly()) {
-            obsoleteDocs = getObsoleteDocsInModuleFromServer(localDocNames);
+            List<String> docsOnServer =
+                    getQualifiedDocNamesForCurrentModuleFromServer();
+            serverDocNames = new HashSet<String>(docsOnServer);
+            obsoleteDocs =
+                    getObsoleteDocsInModuleFromServer(localDocNames,
+                            docsOnServer);
         }
         if (obsoleteDocs.isEmpty()) {
             if (localDocNames.isEmpty()) {
@@ -340,6 +477,7 @@ public class PushCommand extends PushPullCommand<PushOptions> {
                     "Found {} obsolete docs on the server which will be DELETED",
                     obsoleteDocs.size());
             log.info("Obsolete docs: {}", obsoleteDocs);
+            previewDeletion(obsoleteDocs);
         }
 
         if (pushTrans() && getOpts().getLocaleMapList() == null) {
@@ -380,85 +518,1083 @@ public class PushCommand extends PushPullCommand<PushOptions> {
             }
         }
 
-        for (final String localDocName : docsToPush) {
-            try {
-                final String qualifiedDocName = qualifiedDocName(localDocName);
-                final String docUri =
-                        RestUtil.convertToDocumentURIId(qualifiedDocName);
-                final Resource srcDoc;
-                if (strat.isTransOnly()) {
-                    srcDoc = null;
-                } else {
-                    srcDoc = strat.loadSrcDoc(sourceDir, localDocName);
-                    srcDoc.setName(qualifiedDocName);
-                    debug(srcDoc);
+        if (pushTrans() && getOpts().getLocaleThreads() > 1) {
+            localeExecutor =
+                    Executors.newFixedThreadPool(getOpts().getLocaleThreads(),
+                            new ThreadFactoryBuilder().setDaemon(true)
+                                    .setNameFormat("zanata-push-locale-%d")
+                                    .build());
+        }
+        if (getOpts().getAsyncProcesses() > 1) {
+            processTracker =
+                    new AsyncProcessTracker(asyncProcessClient, getOpts()
+                            .getAsyncProcesses());
+        }
+        if (pushTrans() && mergeAuto()
+                && (getOpts().getBatchSize() > 0 || getOpts().getBatchBytes() > 0)) {
+            batchTracker =
+                    new AsyncProcessTracker(asyncProcessClient, Math.max(1,
+                            getOpts().getBatchesInFlight()));
+        }
+        if (getOpts().getCopyTrans() && pushSource()
+                && getOpts().getCopyTransJobs() > 1) {
+            copyTransScheduler =
+                    new CopyTransScheduler(copyTransClient,
+                            getOpts().getProj(), getOpts().getProjectVersion(),
+                            getOpts().getCopyTransJobs());
+        }
+        loadPushManifest();
+        // the file encoding follows from the project type today, but is
+        // what decides how the same bytes are read
+        manifestSettings =
+                getOpts().getProjectType() + ";" + strat.getFileEncoding()
+                        + ";" + getOpts().getSourceLang() + ";" + extensions
+                        + ";" + getOpts().getValidate();
+        transManifestSettings =
+                manifestSettings + ";" + getOpts().getMergeType() + ";"
+                        + getOpts().isMyTrans();
+        unchangedDocs.set(0);
+        unchangedTransFiles.set(0);
+        unchangedTransBytes.set(0);
+        unchangedTargets.set(0);
+        targetSnapshots = new TargetSnapshotStore(getCacheFile(TARGET_SNAPSHOTS));
+        if (pushTrans()) {
+            strat.setTransFileFilter(new AbstractPushStrategy.TransFileFilter() {
+                @Override
+                public boolean accept(String docName, LocaleMapping locale,
+                        File transFile) {
+                    return !isTransFileUnchanged(docName, locale, transFile);
+                }
+            });
+        }
+        try {
+            pushDocuments(strat, sourceDir, docsToPush, extensions);
+            if (processTracker != null) {
+                awaitTrackedProcesses();
+            }
+            awaitCopyTrans();
+        } finally {
+            if (!getOpts().isDryRun()) {
+                recordTrackedPushes();
+                storePushManifest();
+            }
+            strat.setTransFileFilter(null);
+            transManifestEntries.clear();
+            srcDocsPushed.clear();
+            if (localeExecutor != null) {
+                localeExecutor.shutdownNow();
+                localeExecutor = null;
+            }
+            if (processTracker != null) {
+                statusPolls.addAndGet(processTracker.getStatusPolls());
+                resubmissions.addAndGet(processTracker.getResubmissions());
+                processTracker.close();
+                processTracker = null;
+                trackedProcesses.clear();
+                sourceProcesses.clear();
+                trackedProcessFailed = false;
+            }
+            if (copyTransScheduler != null) {
+                statusPolls.addAndGet(copyTransScheduler.getStatusPolls());
+                copyTransScheduler.close();
+                copyTransScheduler = null;
+                copyTransJobs.clear();
+            }
+            if (batchTracker != null) {
+                statusPolls.addAndGet(batchTracker.getStatusPolls());
+                resubmissions.addAndGet(batchTracker.getResubmissions());
+                batchTracker.close();
+                batchTracker = null;
+            }
+        }
+        if (unchangedDocs.get() > 0) {
+            log.info(
+                    "Skipped {} unchanged source documents (use --force to push them anyway)",
+                    unchangedDocs.get());
+        }
+        if (unchangedTransFiles.get() > 0) {
+            log.info(
+                    "Skipped {} unchanged translation files ({} bytes not uploaded)",
+                    unchangedTransFiles.get(), unchangedTransBytes.get());
+        }
+        if (unchangedTargets.get() > 0) {
+            log.info(
+                    "Left out {} translations which had not changed since the last push",
+                    unchangedTargets.get());
+        }
+        deleteSourceDocsFromServer(obsoleteDocs);
+    }
 
-                    if (pushSource()) {
-                        pushSrcDocToServer(docUri, srcDoc, extensions);
-                    }
+    /**
+     * Pushes the given documents, either one at a time (optionally parsing
+     * ahead of the uploads) or, if more than one push thread has been
+     * requested, using a bounded pool of workers.
+     */
+    private void pushDocuments(AbstractPushStrategy strat, File sourceDir,
+            SortedSet<String> docsToPush, StringSet extensions) {
+        if (getOpts().getPushThreads() > 1) {
+            pushDocumentsConcurrently(strat, sourceDir, docsToPush,
+                    extensions);
+        } else if (getOpts().getParseAhead() > 0) {
+            pushDocumentsPipelined(strat, sourceDir, docsToPush, extensions);
+        } else {
+            for (String localDocName : docsToPush) {
+                if (trackedProcessFailed) {
+                    break;
                 }
+                try {
+                    pushDocument(strat, sourceDir, localDocName, extensions);
+                } catch (Exception e) {
+                    throw pushFailure(localDocName, e);
+                }
+            }
+        }
+    }
 
-                if (pushTrans()) {
-                    strat.visitTranslationResources(localDocName, srcDoc,
-                            new TranslationResourcesVisitor() {
-                                @Override
-                                public void visit(LocaleMapping locale,
-                                        TranslationsResource targetDoc) {
-                                    debug(targetDoc);
-                                    stripUntranslatedEntriesIfMergeTypeIsNotImport(getOpts(),
-                                            targetDoc);
-                                    if (targetDoc.getTextFlowTargets()
-                                            .isEmpty()) {
-                                        log.debug(
-                                                "Skip translation file {}({}) since it has no translation in it",
-                                                localDocName, locale);
-                                        return;
-                                    }
-                                    pushTargetDocToServer(docUri, locale,
-                                            qualifiedDocName, targetDoc,
-                                            extensions);
+    /**
+     * Pushes documents using a pool of getPushThreads() workers. Once a
+     * document fails, no further documents are started, but documents which
+     * are already in progress are allowed to finish. Results are inspected in
+     * document name order, so that the summary and the --from-doc hint do not
+     * depend on thread scheduling.
+     */
+    private void pushDocumentsConcurrently(final AbstractPushStrategy strat,
+            final File sourceDir, SortedSet<String> docsToPush,
+            final StringSet extensions) {
+        int threads = getOpts().getPushThreads();
+        log.info("Pushing {} documents using {} threads", docsToPush.size(),
+                threads);
+        concurrentPush = true;
+        ExecutorService executor =
+                Executors.newFixedThreadPool(threads,
+                        new ThreadFactoryBuilder().setDaemon(true)
+                                .setNameFormat("zanata-push-%d").build());
+        final AtomicBoolean failed = new AtomicBoolean(false);
+        Map<String, Future<Boolean>> results =
+                new LinkedHashMap<String, Future<Boolean>>();
+        try {
+            for (final String localDocName : docsToPush) {
+                Future<Boolean> result =
+                        executor.submit(new Callable<Boolean>() {
+                            @Override
+                            public Boolean call() throws Exception {
+                                if (failed.get() || trackedProcessFailed) {
+                                    return false;
                                 }
-                            });
+                                try {
+                                    pushDocument(strat, sourceDir,
+                                            localDocName, extensions);
+                                    return true;
+                                } catch (Exception e) {
+                                    failed.set(true);
+                                    throw e;
+                                }
+                            }
+                        });
+                results.put(localDocName, result);
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        int pushed = 0;
+        int skipped = 0;
+        List<String> failedDocs = new ArrayList<String>();
+        Exception firstFailure = null;
+        try {
+            for (Map.Entry<String, Future<Boolean>> entry : results
+                    .entrySet()) {
+                try {
+                    if (entry.getValue().get()) {
+                        pushed++;
+                    } else {
+                        skipped++;
+                    }
+                } catch (ExecutionException e) {
+                    failedDocs.add(entry.getKey());
+                    if (firstFailure == null) {
+                        firstFailure = asException(e.getCause());
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            executor.shutdownNow();
+            throw new RuntimeException(
+                    "Interrupted while waiting for documents to be pushed", e);
+        } finally {
+            concurrentPush = false;
+        }
+        log.info(
+                "Push summary: {} documents pushed, {} failed, {} not started",
+                pushed, failedDocs.size(), skipped);
+        for (String failedDoc : failedDocs) {
+            log.info("    failed: {}", failedDoc);
+        }
+        if (firstFailure != null) {
+            throw pushFailure(failedDocs.get(0), firstFailure);
+        }
+    }
+
+    private static Exception asException(Throwable cause) {
+        if (cause instanceof Exception) {
+            return (Exception) cause;
+        }
+        throw Throwables.propagate(cause);
+    }
+
+    private void pushDocument(AbstractPushStrategy strat, File sourceDir,
+            final String localDocName, final StringSet extensions)
+            throws IOException {
+        final String qualifiedDocName = qualifiedDocName(localDocName);
+        final String docUri =
+                RestUtil.convertToDocumentURIId(qualifiedDocName);
+        final Resource srcDoc;
+        boolean srcDocPushed = false;
+        if (strat.isTransOnly()) {
+            srcDoc = null;
+        } else {
+            String srcFileHash =
+                    sourceFileHash(strat, sourceDir, localDocName);
+            if (!pushTrans()
+                    && isUnchangedSinceLastPush(newManifestEntry(
+                            qualifiedDocName, null, srcFileHash, null))) {
+                // no need to even parse it
+                logUnchangedDocument(qualifiedDocName);
+                return;
+            }
+            // push strategies hold parser state, so workers take turns
+            synchronized (strat) {
+                srcDoc = strat.loadSrcDoc(sourceDir, localDocName);
+            }
+            srcDoc.setName(qualifiedDocName);
+
+            if (pushSource()) {
+                srcDocPushed =
+                        pushSrcDocIfChanged(docUri, srcDoc, srcFileHash,
+                                extensions);
+            }
+        }
+
+        if (pushTrans()) {
+            TranslationResourcesVisitor uploader =
+                    translationUploader(localDocName, qualifiedDocName,
+                            docUri, extensions, srcDocPushed);
+            if (localeExecutor != null) {
+                pushTranslationsConcurrently(strat, localDocName, srcDoc,
+                        uploader);
+            } else if (concurrentPush) {
+                // parse under the strategy lock, but upload outside it
+                Map<LocaleMapping, TranslationsResource> targetDocs =
+                        loadTranslations(strat, localDocName, srcDoc);
+                for (Map.Entry<LocaleMapping, TranslationsResource> entry : targetDocs
+                        .entrySet()) {
+                    uploader.visit(entry.getKey(), entry.getValue());
+                }
+            } else {
+                strat.visitTranslationResources(localDocName, srcDoc,
+                        uploader);
+            }
+        }
+
+        if (srcDocPushed) {
+            copyTransIfPushingSource(qualifiedDocName);
+        }
+    }
+
+    /**
+     * Pushes a source document, unless the manifest shows that the same
+     * content has already been pushed.
+     *
+     * @return true if the document was pushed
+     */
+    private boolean pushSrcDocIfChanged(String docUri, Resource srcDoc,
+            @Nullable String srcFileHash, StringSet extensions) {
+        PushManifestEntry entry = srcDocToPush(srcDoc, srcFileHash);
+        if (entry == null) {
+            return false;
+        }
+        pushSrcDocToServer(docUri, srcDoc, extensions, entry);
+        return true;
+    }
+
+    /**
+     * Decides whether a source document needs to be pushed. If so, its
+     * translation files will not be skipped, because the server may mark
+     * their translations fuzzy or obsolete when the source changes.
+     *
+     * @return the manifest entry to record once the document is pushed, or
+     *         null if the manifest shows that the same content has already
+     *         been pushed
+     */
+    private @Nullable PushManifestEntry srcDocToPush(Resource srcDoc,
+            @Nullable String srcFileHash) {
+        PushManifestEntry entry =
+                newManifestEntry(srcDoc.getName(), null, srcFileHash,
+                        ContentHasher.hash(srcDoc));
+        if (isUnchangedSinceLastPush(entry)) {
+            logUnchangedDocument(srcDoc.getName());
+            return null;
+        }
+        srcDocsPushed.add(srcDoc.getName());
+        return entry;
+    }
+
+    private void logUnchangedDocument(String qualifiedDocName) {
+        log.info("Skipping source doc {}: unchanged since last push",
+                qualifiedDocName);
+        unchangedDocs.incrementAndGet();
+    }
+
+    /**
+     * @param language
+     *            server locale of a translation file, or null for a source
+     *            document
+     */
+    private PushManifestEntry newManifestEntry(String qualifiedDocName,
+            @Nullable String language, @Nullable String fileHash,
+            @Nullable String contentHash) {
+        return new PushManifestEntry(String.valueOf(getOpts().getUrl()),
+                getOpts().getProj(), getOpts().getProjectVersion(),
+                qualifiedDocName, language, fileHash, contentHash,
+                language == null ? manifestSettings : transManifestSettings);
+    }
+
+    /**
+     * Checks whether a translation file is byte-identical to the file which
+     * was last pushed to the same server, project and version, with the same
+     * settings. If not, the file will be uploaded, and is recorded in the
+     * manifest once its upload succeeds.
+     * <p>
+     * Files written by pull are not skipped: the ETag cache does not record
+     * which server, version or push settings a file came from. Nor are the
+     * files of a document whose source is pushed in this run.
+     */
+    private boolean isTransFileUnchanged(String localDocName,
+            LocaleMapping locale, File transFile) {
+        String qualifiedDocName = qualifiedDocName(localDocName);
+        String fileHash;
+        try {
+            fileHash = HashUtil.getMD5Checksum(transFile);
+        } catch (IOException e) {
+            log.debug("Could not hash " + transFile, e);
+            return false;
+        }
+        PushManifestEntry candidate =
+                newManifestEntry(qualifiedDocName, locale.getLocale(),
+                        fileHash, null);
+        if (!getOpts().isForce() && !isNewOnServer(qualifiedDocName)
+                && !srcDocsPushed.contains(qualifiedDocName)) {
+            PushManifestEntry previous =
+                    pushManifest.findEntry(candidate.getServer(),
+                            candidate.getProject(), candidate.getVersion(),
+                            qualifiedDocName, candidate.getLanguage());
+            boolean unchanged =
+                    previous != null
+                            && candidate.getSettings().equals(
+                                    previous.getSettings())
+                            && fileHash.equals(previous.getFileHash());
+            if (unchanged) {
+                log.info(
+                        "Skipping translation file {} ({}): unchanged since last push",
+                        localDocName, locale.getLocale());
+                unchangedTransFiles.incrementAndGet();
+                unchangedTransBytes.addAndGet(transFile.length());
+                return true;
+            }
+        }
+        transManifestEntries.put(new MultiKey(qualifiedDocName,
+                locale.getLocale()), candidate);
+        return false;
+    }
+
+    /**
+     * Checks whether a source document was pushed before with the same
+     * content (or, if the content hash is not known yet, from the same file)
+     * and settings, and is still on the server.
+     */
+    private boolean isUnchangedSinceLastPush(PushManifestEntry candidate) {
+        if (getOpts().isForce()
+                || !serverDocNames.contains(candidate.getDocName())) {
+            return false;
+        }
+        PushManifestEntry previous =
+                pushManifest.findEntry(candidate.getServer(),
+                        candidate.getProject(), candidate.getVersion(),
+                        candidate.getDocName(), candidate.getLanguage());
+        if (previous == null
+                || !candidate.getSettings().equals(previous.getSettings())) {
+            return false;
+        }
+        if (candidate.getContentHash() != null) {
+            return candidate.getContentHash().equals(
+                    previous.getContentHash());
+        }
+        return candidate.getFileHash() != null
+                && candidate.getFileHash().equals(previous.getFileHash());
+    }
+
+    /**
+     * @return MD5 of the source file, or null if it can't be read
+     */
+    private @Nullable String sourceFileHash(AbstractPushStrategy strat,
+            File sourceDir, String localDocName) {
+        File srcFile =
+                new File(sourceDir, strat.docNameToFilename(localDocName));
+        if (!srcFile.isFile()) {
+            return null;
+        }
+        try {
+            return HashUtil.getMD5Checksum(srcFile);
+        } catch (IOException e) {
+            log.debug("Could not hash " + srcFile, e);
+            return null;
+        }
+    }
+
+    private void recordPush(@Nullable PushManifestEntry entry,
+            ProcessStatus status) {
+        if (entry != null) {
+            entry.setServerStatus(String.valueOf(status.getStatusCode()));
+            pushManifest.addEntry(entry);
+        }
+    }
+
+    /**
+     * Records the source documents and translation files which the process
+     * tracker pushed successfully.
+     */
+    private void recordTrackedPushes() {
+        for (Map.Entry<PushManifestEntry, ListenableFuture<ProcessStatus>> pending : pendingManifestEntries
+                .entrySet()) {
+            ListenableFuture<ProcessStatus> process = pending.getValue();
+            if (process.isDone() && !process.isCancelled()) {
+                try {
+                    recordPush(pending.getKey(), Futures.getUnchecked(process));
+                } catch (RuntimeException e) {
+                    // failed documents are not recorded
+                }
+            }
+        }
+        pendingManifestEntries.clear();
+        for (Map.Entry<PendingSnapshot, ListenableFuture<ProcessStatus>> pending : pendingSnapshots
+                .entrySet()) {
+            ListenableFuture<ProcessStatus> process = pending.getValue();
+            if (process.isDone() && !process.isCancelled()) {
+                try {
+                    PendingSnapshot snapshot = pending.getKey();
+                    recordSnapshot(snapshot.qualifiedDocName, snapshot.locale,
+                            snapshot.snapshot, Futures.getUnchecked(process));
+                } catch (RuntimeException e) {
+                    // failed translations are not recorded
                 }
+            }
+        }
+        pendingSnapshots.clear();
+    }
 
-                // Copy Trans after pushing (only when pushing source)
-                if (getOpts().getCopyTrans()
-                        && (getOpts().getPushType() == PushPullType.Both || getOpts()
-                                .getPushType() == PushPullType.Source)) {
-                    this.copyTransForDocument(qualifiedDocName);
+    private void loadPushManifest() {
+        try (FileInputStream in = new FileInputStream(getCacheFile(PUSH_MANIFEST))) {
+            pushManifest = PushManifestReaderWriter.readManifest(in);
+        } catch (Exception e) {
+            // could not read for some reason, use a new one
+            pushManifest = new PushManifest();
+        }
+    }
+
+    private void storePushManifest() {
+        File targetFile = getCacheFile(PUSH_MANIFEST);
+        try {
+            if (!targetFile.exists()) {
+                PathUtil.makeDirs(targetFile.getParentFile());
+            }
+            try (FileOutputStream out = new FileOutputStream(targetFile)) {
+                PushManifestReaderWriter.writeManifest(pushManifest, out);
+            }
+        } catch (IOException e) {
+            log.warn("Could not create Zanata push manifest file. Will proceed without it.");
+        }
+    }
+
+    /**
+     * @param srcDocPushed
+     *            whether the source document was uploaded in this run, in
+     *            which case all translations are sent
+     */
+    private TranslationResourcesVisitor translationUploader(
+            final String localDocName, final String qualifiedDocName,
+            final String docUri, final StringSet extensions,
+            final boolean srcDocPushed) {
+        return new TranslationResourcesVisitor() {
+            @Override
+            public void visit(LocaleMapping locale,
+                    TranslationsResource targetDoc) {
+                stripUntranslatedEntriesIfMergeTypeIsNotImport(getOpts(),
+                        targetDoc);
+                if (targetDoc.getTextFlowTargets().isEmpty()) {
+                    log.debug(
+                            "Skip translation file {}({}) since it has no translation in it",
+                            localDocName, locale);
+                    return;
                 }
-            } catch (Exception e) {
-                String message =
-                        "Operation failed: " + e.getMessage() + "\n\n"
-                                + "    To retry from the last document, please set the following option(s):\n\n"
-                                + "        ";
-                if (getOpts().getEnableModules()) {
-                    message +=
-                            "--resume-from " + getOpts().getCurrentModule(true)
-                                    + " ";
+                Map<String, String> targetHashes =
+                        ContentHasher.hashTargets(targetDoc);
+                int total = targetDoc.getTextFlowTargets().size();
+                int removed =
+                        srcDocPushed ? 0 : removeUnchangedTargets(
+                                qualifiedDocName, locale, targetDoc,
+                                targetHashes);
+                if (removed == total) {
+                    log.info(
+                            "Skipping translations for {} ({}): none changed since last push",
+                            localDocName, locale.getLocale());
+                    return;
+                } else if (removed > 0) {
+                    log.info("Pushing {} of {} translations for {} ({}), the rest are unchanged",
+                            total - removed, total, localDocName,
+                            locale.getLocale());
                 }
-                // Note: '.' is included after trailing newlines to prevent them
-                // being stripped,
-                // since stripping newlines can cause extra text to be appended
-                // to the options.
-                message +=
-                        getOpts().buildFromDocArgument(
-                                qualifiedDocName(localDocName))
-                                + "\n\n.";
-                log.error(message);
-                if (e instanceof UniformInterfaceException) {
-                    String entity =
-                            ((UniformInterfaceException) e).getResponse()
-                                    .getEntity(String.class);
-
-                    throw new RuntimeException(String.format(
-                            "%n * Error Message: %s;%n * Response From Server: %s]",
-                            e.getMessage(), entity));
+                TargetSnapshot snapshot =
+                        new TargetSnapshot(transManifestSettings, targetHashes);
+                if (batchTracker != null && !getOpts().isDryRun()) {
+                    List<TranslationsResource> batches =
+                            new TranslationBatcher(getOpts().getBatchSize(),
+                                    getOpts().getBatchBytes()).split(targetDoc);
+                    if (batches.size() > 1) {
+                        pushTargetDocInBatches(docUri, locale,
+                                qualifiedDocName, batches, extensions,
+                                snapshot);
+                        return;
+                    }
                 }
-                throw new RuntimeException(e.getMessage(), e);
+                pushTargetDocToServer(docUri, locale, qualifiedDocName,
+                        targetDoc, extensions, snapshot);
             }
+        };
+    }
+
+    /**
+     * Uploads the batches of a translation document as independent server
+     * processes, with at most batchesInFlight of them running at once.
+     * Batches which fail are retried on their own, rather than re-sending the
+     * whole document.
+     */
+    private void pushTargetDocInBatches(final String docUri,
+            final LocaleMapping locale, String qualifiedDocName,
+            List<TranslationsResource> batches, final StringSet extensions,
+            TargetSnapshot snapshot) {
+        PushManifestEntry manifestEntry =
+                transManifestEntries.remove(new MultiKey(qualifiedDocName,
+                        locale.getLocale()));
+        log.info(
+                "Pushing target doc [name={} client-locale={}] to server [locale={}] in {} batches",
+                qualifiedDocName, locale.getLocalLocale(), locale.getLocale(),
+                batches.size());
+        // serialized up front, so that retries send the same bytes again
+        Map<SerializedEntity, Integer> remaining =
+                new LinkedHashMap<SerializedEntity, Integer>();
+        for (TranslationsResource batch : batches) {
+            remaining.put(serialize(batch), batch.getTextFlowTargets().size());
         }
-        deleteSourceDocsFromServer(obsoleteDocs);
+        ProcessStatus lastStatus = null;
+        Throwable lastFailure = null;
+        boolean warnings = false;
+        for (int attempt = 1; attempt <= MAX_BATCH_ATTEMPTS
+                && !remaining.isEmpty(); attempt++) {
+            Map<SerializedEntity, ListenableFuture<ProcessStatus>> processes =
+                    new LinkedHashMap<SerializedEntity, ListenableFuture<ProcessStatus>>();
+            for (final SerializedEntity batch : remaining.keySet()) {
+                processes.put(batch, submitBatch(batchTracker,
+                        new AsyncProcessTracker.ProcessStarter() {
+                            @Override
+                            public ProcessStatus start() {
+                                return asyncProcessClient
+                                        .startTranslatedDocCreationOrUpdate(
+                                                docUri, getOpts().getProj(),
+                                                getOpts().getProjectVersion(),
+                                                new LocaleId(locale
+                                                        .getLocale()), batch,
+                                                extensions, getOpts()
+                                                        .getMergeType(),
+                                                getOpts().isMyTrans());
+                            }
+                        }, sourceProcesses.get(docUri)));
+            }
+            Map<SerializedEntity, Integer> failed =
+                    new LinkedHashMap<SerializedEntity, Integer>();
+            for (Map.Entry<SerializedEntity, ListenableFuture<ProcessStatus>> process : processes
+                    .entrySet()) {
+                SerializedEntity batch = process.getKey();
+                try {
+                    ProcessStatus status = process.getValue().get();
+                    if (!status.getMessages().isEmpty()) {
+                        warnings = true;
+                        logTranslationWarnings(qualifiedDocName, locale,
+                                status.getMessages());
+                    }
+                    lastStatus = status;
+                } catch (ExecutionException e) {
+                    lastFailure = e.getCause();
+                    failed.put(batch, remaining.get(batch));
+                    log.warn(
+                            "Batch of {} translations for {} ({}) failed (attempt {} of {}): {}",
+                            remaining.get(batch),
+                            qualifiedDocName, locale.getLocale(), attempt,
+                            MAX_BATCH_ATTEMPTS, lastFailure.getMessage());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new RuntimeException(
+                            "Interrupted while waiting for translation batches",
+                            e);
+                }
+            }
+            remaining = failed;
+        }
+        if (!remaining.isEmpty()) {
+            throw new RuntimeException(remaining.size() + " of "
+                    + batches.size()
+                    + " batches failed while pushing document translations: "
+                    + lastFailure.getMessage(), lastFailure);
+        }
+        recordPush(manifestEntry, lastStatus);
+        if (!warnings) {
+            recordSnapshot(qualifiedDocName, locale.getLocale(), snapshot,
+                    lastStatus);
+        }
+    }
+
+    /**
+     * Serializes a document for upload. This is done only once per document
+     * (or batch), so that resubmissions and debug logging reuse the same
+     * bytes.
+     */
+    private SerializedEntity serialize(Object jaxbElement) {
+        SerializedEntity entity = SerializedEntity.marshal(jaxbElement, false,
+                OptionsUtil.wireFormat(getOpts()));
+        serializedBytes.addAndGet(entity.getBodySize());
+        debug(entity);
+        return entity;
+    }
+
+    private static ListenableFuture<ProcessStatus> submitBatch(
+            AsyncProcessTracker tracker,
+            AsyncProcessTracker.ProcessStarter starter,
+            @Nullable ListenableFuture<ProcessStatus> dependency) {
+        try {
+            return tracker.submit(starter, dependency,
+                    "Failed while pushing document translations: ");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(
+                    "Interrupted while waiting to start a server process", e);
+        }
+    }
+
+    /**
+     * With merge type auto, the server keeps any translations which are not
+     * sent, so there is no need to send the ones which have not changed since
+     * the last successful push. Falls back to a full push if there is no
+     * snapshot of the last push. Not used when the source document has just
+     * been pushed, since the server may have marked unchanged translations
+     * fuzzy or obsolete.
+     *
+     * @return number of targets removed from targetDoc
+     */
+    private int removeUnchangedTargets(String qualifiedDocName,
+            LocaleMapping locale, TranslationsResource targetDoc,
+            Map<String, String> targetHashes) {
+        if (!mergeAuto() || getOpts().isForce()
+                || isNewOnServer(qualifiedDocName)) {
+            return 0;
+        }
+        TargetSnapshot previous =
+                targetSnapshots.load(String.valueOf(getOpts().getUrl()),
+                        getOpts().getProj(), getOpts().getProjectVersion(),
+                        qualifiedDocName, locale.getLocale());
+        if (previous == null
+                || !transManifestSettings.equals(previous.getSettings())) {
+            return 0;
+        }
+        Map<String, String> previousHashes = previous.asMap();
+        int removed = 0;
+        Iterator<TextFlowTarget> it =
+                targetDoc.getTextFlowTargets().iterator();
+        while (it.hasNext()) {
+            String resId = it.next().getResId();
+            String hash = targetHashes.get(resId);
+            if (hash != null && hash.equals(previousHashes.get(resId))) {
+                it.remove();
+                removed++;
+            }
+        }
+        unchangedTargets.addAndGet(removed);
+        return removed;
+    }
+
+    /**
+     * Saves the target hashes of a translation push, unless the server
+     * reported warnings (in which case some targets may not have been
+     * accepted, so the next push should send them all again).
+     */
+    private void recordSnapshot(String qualifiedDocName, String locale,
+            TargetSnapshot snapshot, ProcessStatus status) {
+        if (!status.getMessages().isEmpty()) {
+            return;
+        }
+        try {
+            targetSnapshots.store(String.valueOf(getOpts().getUrl()),
+                    getOpts().getProj(), getOpts().getProjectVersion(),
+                    qualifiedDocName, locale, snapshot);
+        } catch (IOException e) {
+            log.warn("Could not store translation snapshot for {} ({}): {}",
+                    qualifiedDocName, locale, e.getMessage());
+        }
+    }
+
+    /**
+     * A document which is new on the server needs all of its translations.
+     */
+    private boolean isNewOnServer(String qualifiedDocName) {
+        return pushSource() && !serverDocNames.contains(qualifiedDocName);
+    }
+
+    /**
+     * Parses all the translations of a document, under the strategy lock.
+     */
+    private Map<LocaleMapping, TranslationsResource> loadTranslations(
+            AbstractPushStrategy strat, String localDocName, Resource srcDoc)
+            throws IOException {
+        final Map<LocaleMapping, TranslationsResource> targetDocs =
+                new LinkedHashMap<LocaleMapping, TranslationsResource>();
+        synchronized (strat) {
+            strat.visitTranslationResources(localDocName, srcDoc,
+                    new TranslationResourcesVisitor() {
+                        @Override
+                        public void visit(LocaleMapping locale,
+                                TranslationsResource targetDoc) {
+                            targetDocs.put(locale, targetDoc);
+                        }
+                    });
+        }
+        return targetDocs;
+    }
+
+    private void copyTransIfPushingSource(String qualifiedDocName) {
+        // Copy Trans after pushing (only when pushing source)
+        if (getOpts().getCopyTrans()
+                && (getOpts().getPushType() == PushPullType.Both || getOpts()
+                        .getPushType() == PushPullType.Source)) {
+            if (copyTransScheduler != null && !getOpts().isDryRun()) {
+                // runs once the source push (if still in flight) finishes
+                copyTransJobs.put(qualifiedDocName, copyTransScheduler
+                        .schedule(qualifiedDocName, sourceProcesses
+                                .get(RestUtil
+                                        .convertToDocumentURIId(qualifiedDocName))));
+                return;
+            }
+            if (processTracker != null) {
+                // copy trans needs the source document to be in place
+                ListenableFuture<ProcessStatus> srcProcess =
+                        sourceProcesses.get(RestUtil
+                                .convertToDocumentURIId(qualifiedDocName));
+                if (srcProcess != null) {
+                    Futures.getUnchecked(srcProcess);
+                }
+            }
+            this.copyTransForDocument(qualifiedDocName);
+        }
+    }
+
+    /**
+     * Parses the translations of a document, handing each locale to the locale
+     * pool as soon as it has been parsed, and waits for all of the uploads.
+     * Parsing itself stays serial, since the readers are not thread-safe.
+     */
+    private void pushTranslationsConcurrently(AbstractPushStrategy strat,
+            String localDocName, Resource srcDoc,
+            final TranslationResourcesVisitor uploader) throws IOException {
+        final Map<LocaleMapping, Future<?>> uploads =
+                new LinkedHashMap<LocaleMapping, Future<?>>();
+        try {
+            synchronized (strat) {
+                strat.visitTranslationResources(localDocName, srcDoc,
+                        new TranslationResourcesVisitor() {
+                            @Override
+                            public void visit(LocaleMapping locale,
+                                    TranslationsResource targetDoc) {
+                                uploads.put(locale, submitTranslationUpload(
+                                        uploader, locale, targetDoc));
+                            }
+                        });
+            }
+        } catch (IOException | RuntimeException e) {
+            for (Future<?> upload : uploads.values()) {
+                upload.cancel(false);
+            }
+            throw e;
+        }
+        awaitTranslationUploads(localDocName, uploads);
+    }
+
+    private Future<?> submitTranslationUpload(
+            final TranslationResourcesVisitor uploader,
+            final LocaleMapping locale, final TranslationsResource targetDoc) {
+        return localeExecutor.submit(new Runnable() {
+            @Override
+            public void run() {
+                uploader.visit(locale, targetDoc);
+            }
+        });
+    }
+
+    /**
+     * Waits for the locale uploads of a document. If a locale fails, the other
+     * locales are allowed to finish, and the first failure (in locale order)
+     * is thrown.
+     */
+    private void awaitTranslationUploads(String localDocName,
+            Map<LocaleMapping, Future<?>> uploads) {
+        Throwable firstFailure = null;
+        try {
+            for (Map.Entry<LocaleMapping, Future<?>> entry : uploads
+                    .entrySet()) {
+                try {
+                    entry.getValue().get();
+                } catch (ExecutionException e) {
+                    log.error("Failed to push translations for {} ({}): {}",
+                            localDocName, entry.getKey().getLocale(), e
+                                    .getCause().getMessage());
+                    if (firstFailure == null) {
+                        firstFailure = e.getCause();
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            for (Future<?> upload : uploads.values()) {
+                upload.cancel(true);
+            }
+            throw new RuntimeException(
+                    "Interrupted while waiting for translations to be pushed",
+                    e);
+        }
+        if (firstFailure != null) {
+            throw Throwables.propagate(firstFailure);
+        }
+    }
+
+    /**
+     * Pushes documents one at a time, while a parser thread prepares up to
+     * getParseAhead() of the following documents. The queue between the two
+     * stages is bounded, so at most that many parsed documents are held in
+     * memory while waiting to be uploaded.
+     */
+    private void pushDocumentsPipelined(final AbstractPushStrategy strat,
+            final File sourceDir, final SortedSet<String> docsToPush,
+            StringSet extensions) {
+        final BlockingQueue<ParsedDocument> parsedDocs =
+                new ArrayBlockingQueue<ParsedDocument>(getOpts()
+                        .getParseAhead());
+        ExecutorService parser =
+                Executors.newSingleThreadExecutor(new ThreadFactoryBuilder()
+                        .setDaemon(true).setNameFormat("zanata-push-parser-%d")
+                        .build());
+        parser.submit(new Callable<Void>() {
+            @Override
+            public Void call() throws InterruptedException {
+                for (String localDocName : docsToPush) {
+                    ParsedDocument doc;
+                    try {
+                        doc = parseDocument(strat, sourceDir, localDocName);
+                    } catch (Throwable e) {
+                        doc = new ParsedDocument(localDocName, e);
+                    }
+                    parsedDocs.put(doc);
+                    if (doc.failure != null) {
+                        break;
+                    }
+                }
+                return null;
+            }
+        });
+        try {
+            for (int i = 0; i < docsToPush.size(); i++) {
+                if (trackedProcessFailed) {
+                    break;
+                }
+                ParsedDocument doc = parsedDocs.take();
+                try {
+                    if (doc.failure != null) {
+                        throw asException(doc.failure);
+                    }
+                    uploadDocument(doc, extensions);
+                } catch (Exception e) {
+                    throw pushFailure(doc.localDocName, e);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(
+                    "Interrupted while waiting for documents to be parsed", e);
+        } finally {
+            // stops the parser if an upload failed
+            parser.shutdownNow();
+        }
+    }
+
+    private ParsedDocument parseDocument(AbstractPushStrategy strat,
+            File sourceDir, String localDocName) throws IOException {
+        String qualifiedDocName = qualifiedDocName(localDocName);
+        Resource srcDoc = null;
+        PushManifestEntry srcDocEntry = null;
+        if (!strat.isTransOnly()) {
+            String srcFileHash =
+                    sourceFileHash(strat, sourceDir, localDocName);
+            if (!pushTrans()
+                    && isUnchangedSinceLastPush(newManifestEntry(
+                            qualifiedDocName, null, srcFileHash, null))) {
+                logUnchangedDocument(qualifiedDocName);
+                return new ParsedDocument(localDocName, qualifiedDocName,
+                        null, null, Collections
+                                .<LocaleMapping, TranslationsResource> emptyMap());
+            }
+            synchronized (strat) {
+                srcDoc = strat.loadSrcDoc(sourceDir, localDocName);
+            }
+            srcDoc.setName(qualifiedDocName);
+            if (pushSource()) {
+                // decided before the translations are parsed, so that they
+                // are all sent if the source will be pushed
+                srcDocEntry = srcDocToPush(srcDoc, srcFileHash);
+            }
+        }
+        Map<LocaleMapping, TranslationsResource> targetDocs;
+        if (pushTrans()) {
+            targetDocs = loadTranslations(strat, localDocName, srcDoc);
+        } else {
+            targetDocs = Collections.emptyMap();
+        }
+        return new ParsedDocument(localDocName, qualifiedDocName, srcDoc,
+                srcDocEntry, targetDocs);
+    }
+
+    private void uploadDocument(ParsedDocument doc, StringSet extensions) {
+        String docUri = RestUtil.convertToDocumentURIId(doc.qualifiedDocName);
+        boolean srcDocPushed = doc.srcDocEntry != null;
+        if (srcDocPushed) {
+            pushSrcDocToServer(docUri, doc.srcDoc, extensions,
+                    doc.srcDocEntry);
+        }
+        TranslationResourcesVisitor uploader =
+                translationUploader(doc.localDocName, doc.qualifiedDocName,
+                        docUri, extensions, srcDocPushed);
+        if (localeExecutor != null) {
+            Map<LocaleMapping, Future<?>> uploads =
+                    new LinkedHashMap<LocaleMapping, Future<?>>();
+            for (Map.Entry<LocaleMapping, TranslationsResource> entry : doc.targetDocs
+                    .entrySet()) {
+                uploads.put(entry.getKey(), submitTranslationUpload(
+                        uploader, entry.getKey(), entry.getValue()));
+            }
+            awaitTranslationUploads(doc.localDocName, uploads);
+        } else {
+            for (Map.Entry<LocaleMapping, TranslationsResource> entry : doc.targetDocs
+                    .entrySet()) {
+                uploader.visit(entry.getKey(), entry.getValue());
+            }
+        }
+        if (srcDocPushed) {
+            copyTransIfPushingSource(doc.qualifiedDocName);
+        }
+    }
+
+    /**
+     * A document which has been parsed ahead of being uploaded, or the reason
+     * it could not be parsed.
+     */
+    private static class ParsedDocument {
+        private final String localDocName;
+        private final String qualifiedDocName;
+        private final Resource srcDoc;
+        /** Manifest entry of the source document, if it is to be pushed. */
+        private final PushManifestEntry srcDocEntry;
+        private final Map<LocaleMapping, TranslationsResource> targetDocs;
+        private final Throwable failure;
+
+        ParsedDocument(String localDocName, String qualifiedDocName,
+                Resource srcDoc, @Nullable PushManifestEntry srcDocEntry,
+                Map<LocaleMapping, TranslationsResource> targetDocs) {
+            this.localDocName = localDocName;
+            this.qualifiedDocName = qualifiedDocName;
+            this.srcDoc = srcDoc;
+            this.srcDocEntry = srcDocEntry;
+            this.targetDocs = targetDocs;
+            this.failure = null;
+        }
+
+        ParsedDocument(String localDocName, Throwable failure) {
+            this.localDocName = localDocName;
+            this.qualifiedDocName = null;
+            this.srcDoc = null;
+            this.srcDocEntry = null;
+            this.targetDocs = null;
+            this.failure = failure;
+        }
+    }
+
+    /**
+     * A target snapshot to be saved once its translation push has finished.
+     */
+    private static class PendingSnapshot {
+        private final String qualifiedDocName;
+        private final String locale;
+        private final TargetSnapshot snapshot;
+
+        PendingSnapshot(String qualifiedDocName, String locale,
+                TargetSnapshot snapshot) {
+            this.qualifiedDocName = qualifiedDocName;
+            this.locale = locale;
+            this.snapshot = snapshot;
+        }
+    }
+
+    /**
+     * Logs a message explaining how to resume the push from the failed
+     * document, and returns the exception which should be thrown.
+     */
+    private RuntimeException pushFailure(String localDocName, Exception e) {
+        String qualifiedDocName = qualifiedDocName(localDocName);
+        String resumeArgs = "";
+        if (getOpts().getEnableModules()) {
+            resumeArgs +=
+                    "--resume-from " + getOpts().getCurrentModule(true)
+                            + " ";
+        }
+        resumeArgs += getOpts().buildFromDocArgument(qualifiedDocName);
+        // Note: '.' is included after trailing newlines to prevent them
+        // being stripped,
+        // since stripping newlines can cause extra text to be appended
+        // to the options.
+        String message =
+                "Operation failed: " + e.getMessage() + "\n\n"
+                        + "    To retry from the last document, please set the following option(s):\n\n"
+                        + "        " + resumeArgs + "\n\n.";
+        log.error(message);
+        // the exception is what a caller (or the Maven build) reports, so it
+        // names the document too
+        String failure =
+                "Failed to push " + qualifiedDocName + " (to resume, use "
+                        + resumeArgs + "): ";
+        if (e instanceof UniformInterfaceException) {
+            String entity =
+                    ((UniformInterfaceException) e).getResponse()
+                            .getEntity(String.class);
+
+            return new RuntimeException(String.format(
+                    "%s%n * Error Message: %s;%n * Response From Server: %s]",
+                    failure, e.getMessage(), entity));
+        }
+        return new RuntimeException(failure + e.getMessage(), e);
     }
 
     private static void stripUntranslatedEntriesIfMergeTypeIsNotImport(
@@ -526,11 +1662,11 @@ public class PushCommand extends PushPullCommand<PushOptions> {
      * localDocNames set.
      *
      * @param localDocNames
+     * @param qualifiedDocNames
+     *            docs in the current module on the server
      */
     private List<String> getObsoleteDocsInModuleFromServer(
-            Set<String> localDocNames) {
-        List<String> qualifiedDocNames =
-                getQualifiedDocNamesForCurrentModuleFromServer();
+            Set<String> localDocNames, List<String> qualifiedDocNames) {
         List<String> obsoleteDocs =
                 new ArrayList<String>(qualifiedDocNames.size());
         for (String qualifiedDocName : qualifiedDocNames) {
@@ -543,30 +1679,141 @@ public class PushCommand extends PushPullCommand<PushOptions> {
     }
 
     /**
+     * Deletes documents one at a time, or concurrently if getDeleteThreads()
+     * allows. Either way a failed deletion does not stop the others; all
+     * failures are reported at the end.
+     *
      * @param qualifiedDocNames
      */
     private void deleteSourceDocsFromServer(List<String> qualifiedDocNames) {
-        for (String qualifiedDocName : qualifiedDocNames) {
-            deleteSourceDocFromServer(qualifiedDocName);
+        int threads = getOpts().getDeleteThreads();
+        if (getOpts().isDryRun() || threads <= 1
+                || qualifiedDocNames.size() <= 1) {
+            Map<String, Throwable> failures =
+                    new LinkedHashMap<String, Throwable>();
+            for (String qualifiedDocName : qualifiedDocNames) {
+                try {
+                    deleteSourceDocFromServer(qualifiedDocName);
+                } catch (RuntimeException e) {
+                    log.error("Failed to delete {}: {}", qualifiedDocName,
+                            e.getMessage());
+                    failures.put(qualifiedDocName, e);
+                }
+            }
+            checkDeletionFailures(failures, qualifiedDocNames.size());
+            return;
+        }
+        deleteSourceDocsConcurrently(qualifiedDocNames, threads);
+    }
+
+    private static void checkDeletionFailures(Map<String, Throwable> failures,
+            int total) {
+        if (!failures.isEmpty()) {
+            throw new RuntimeException("Failed to delete " + failures.size()
+                    + " of " + total + " obsolete documents: "
+                    + failures.keySet(), failures.values().iterator().next());
+        }
+    }
+
+    /**
+     * Reports how many documents are about to be deleted, and how many
+     * requests that will take.
+     */
+    private void previewDeletion(List<String> qualifiedDocNames) {
+        int threads = Math.max(1, getOpts().getDeleteThreads());
+        log.info(
+                "{} obsolete documents will be deleted from the server{}: {} DELETE requests, up to {} at a time",
+                qualifiedDocNames.size(),
+                getOpts().isDryRun() ? " (skipped due to dry run)" : "",
+                qualifiedDocNames.size(),
+                Math.min(threads, qualifiedDocNames.size()));
+    }
+
+    /**
+     * Deletes documents using a bounded pool of workers.
+     */
+    private void deleteSourceDocsConcurrently(List<String> qualifiedDocNames,
+            int threads) {
+        ExecutorService executor =
+                Executors.newFixedThreadPool(threads,
+                        new ThreadFactoryBuilder().setDaemon(true)
+                                .setNameFormat("zanata-delete-%d").build());
+        Map<String, Future<?>> deletions =
+                new LinkedHashMap<String, Future<?>>();
+        try {
+            for (final String qualifiedDocName : qualifiedDocNames) {
+                deletions.put(qualifiedDocName,
+                        executor.submit(new Runnable() {
+                            @Override
+                            public void run() {
+                                deleteSourceDocFromServer(qualifiedDocName);
+                            }
+                        }));
+            }
+            Map<String, Throwable> failures =
+                    new LinkedHashMap<String, Throwable>();
+            for (Map.Entry<String, Future<?>> deletion : deletions.entrySet()) {
+                try {
+                    deletion.getValue().get();
+                } catch (ExecutionException e) {
+                    log.error("Failed to delete {}: {}", deletion.getKey(), e
+                            .getCause().getMessage());
+                    failures.put(deletion.getKey(), e.getCause());
+                }
+            }
+            checkDeletionFailures(failures, qualifiedDocNames.size());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(
+                    "Interrupted while deleting obsolete documents", e);
+        } finally {
+            executor.shutdownNow();
         }
     }
 
     private void pushSrcDocToServer(final String docUri, final Resource srcDoc,
-            final StringSet extensions) {
+            final StringSet extensions,
+            @Nullable final PushManifestEntry manifestEntry) {
         if (!getOpts().isDryRun()) {
-            log.info("pushing source doc [name={} size={}] to server",
-                    srcDoc.getName(), srcDoc.getTextFlows().size());
-
-            ConsoleUtils.startProgressFeedback();
+            final SerializedEntity body = serialize(srcDoc);
+            log.info("pushing source doc [name={} size={} bytes={}] to server",
+                    srcDoc.getName(), srcDoc.getTextFlows().size(),
+                    body.getBodySize());
+
+            if (processTracker != null) {
+                ListenableFuture<ProcessStatus> process =
+                        trackProcess(srcDoc.getName(),
+                                new AsyncProcessTracker.ProcessStarter() {
+                                    @Override
+                                    public ProcessStatus start() {
+                                        return asyncProcessClient
+                                                .startSourceDocCreationOrUpdate(
+                                                        docUri,
+                                                        getOpts().getProj(),
+                                                        getOpts()
+                                                                .getProjectVersion(),
+                                                        body, extensions,
+                                                        false);
+                                    }
+                                }, null, "Failed while pushing document: ");
+                sourceProcesses.put(docUri, process);
+                if (manifestEntry != null) {
+                    pendingManifestEntries.put(manifestEntry, process);
+                }
+                return;
+            }
+            startProgressFeedback();
             // NB: Copy trans is set to false as using copy trans in this manner
             // is deprecated.
             // see PushCommand.copyTransForDocument
             ProcessStatus status =
                     asyncProcessClient.startSourceDocCreationOrUpdate(docUri,
                             getOpts().getProj(), getOpts().getProjectVersion(),
-                            srcDoc, extensions, false);
+                            body, extensions, false);
 
             boolean waitForCompletion = true;
+            PollingBackoff pollBackoff = PollingBackoff.forStatusPolling();
+            PollingBackoff resubmitBackoff = PollingBackoff.forResubmission();
 
             while (waitForCompletion) {
                 switch (status.getStatusCode()) {
@@ -580,34 +1827,39 @@ public class PushCommand extends PushPullCommand<PushOptions> {
                     break;
 
                 case Running:
-                    ConsoleUtils.setProgressFeedbackMessage("Pushing ...");
+                    setProgressFeedbackMessage("Pushing ...");
                     break;
 
                 case Waiting:
-                    ConsoleUtils
-                            .setProgressFeedbackMessage("Waiting to start ...");
+                    setProgressFeedbackMessage("Waiting to start ...");
                     break;
 
                 case NotAccepted:
-                    // try to submit the process again
+                    // the server is busy, so back off before trying to submit
+                    // the process again; this is the only wait before the
+                    // new status is checked
+                    sleep(resubmitBackoff.nextDelay(-1));
+                    resubmissions.incrementAndGet();
                     status =
                             asyncProcessClient
                                     .startSourceDocCreationOrUpdate(docUri,
                                             getOpts().getProj(), getOpts()
                                                     .getProjectVersion(),
-                                            srcDoc, extensions, false);
-                    ConsoleUtils
-                            .setProgressFeedbackMessage("Waiting for other clients ...");
-                    break;
+                                            body, extensions, false);
+                    setProgressFeedbackMessage("Waiting for other clients ...");
+                    continue;
                 }
 
                 // Wait before retrying
-                wait(POLL_PERIOD);
+                sleep(pollBackoff.nextDelay(status.getPercentageComplete()));
+                statusPolls.incrementAndGet();
                 status = asyncProcessClient.getProcessStatus(status.getUrl());
             }
 
-            ConsoleUtils.endProgressFeedback();
+            endProgressFeedback();
+            recordPush(manifestEntry, status);
         } else {
+            debug(srcDoc);
             log.info(
                     "pushing source doc [name={} size={}] to server (skipped due to dry run)",
                     srcDoc.getName(), srcDoc.getTextFlows().size());
@@ -625,68 +1877,88 @@ public class PushCommand extends PushPullCommand<PushOptions> {
      */
     public List<TranslationsResource> splitIntoBatch(TranslationsResource doc,
             int maxBatchSize) {
+        if (mergeAuto()) {
+            return new TranslationBatcher(maxBatchSize, 0).split(doc);
+        }
         List<TranslationsResource> targetDocList =
                 new ArrayList<TranslationsResource>();
-        int numTargets = doc.getTextFlowTargets().size();
-
-        if (numTargets > maxBatchSize && mergeAuto()) {
-            int numBatches = numTargets / maxBatchSize;
-
-            if (numTargets % maxBatchSize != 0) {
-                ++numBatches;
-            }
-
-            int fromIndex = 0;
-            int toIndex;
-
-            for (int i = 1; i <= numBatches; i++) {
-                // make a dummy TranslationsResource to hold just the
-                // TextFlowTargets for each batch
-                TranslationsResource resource = new TranslationsResource();
-                resource.setExtensions(doc.getExtensions());
-                resource.setLinks(doc.getLinks());
-                resource.setRevision(doc.getRevision());
-
-                if ((i * maxBatchSize) > numTargets) {
-                    toIndex = numTargets;
-                } else {
-                    toIndex = i * maxBatchSize;
-                }
-
-                resource.getTextFlowTargets().addAll(
-                        doc.getTextFlowTargets().subList(fromIndex, toIndex));
-
-                fromIndex = i * maxBatchSize;
-
-                targetDocList.add(resource);
-            }
-        } else {
-            targetDocList.add(doc);
-        }
+        targetDocList.add(doc);
         return targetDocList;
     }
 
     private void pushTargetDocToServer(final String docUri,
-            LocaleMapping locale, final String localDocName,
-            TranslationsResource targetDoc, final StringSet extensions) {
+            final LocaleMapping locale, final String qualifiedDocName,
+            final TranslationsResource targetDoc, final StringSet extensions,
+            final TargetSnapshot snapshot) {
+        PushManifestEntry manifestEntry =
+                transManifestEntries.remove(new MultiKey(qualifiedDocName,
+                        locale.getLocale()));
         if (!getOpts().isDryRun()) {
+            final SerializedEntity body = serialize(targetDoc);
             log.info(
-                    "Pushing target doc [name={} size={} client-locale={}] to server [locale={}]",
-                    localDocName,
+                    "Pushing target doc [name={} size={} bytes={} client-locale={}] to server [locale={}]",
+                    qualifiedDocName,
                     targetDoc.getTextFlowTargets().size(),
-                    locale.getLocalLocale(), locale.getLocale());
+                    body.getBodySize(), locale.getLocalLocale(),
+                    locale.getLocale());
+
+            if (processTracker != null) {
+                ListenableFuture<ProcessStatus> process =
+                        trackProcess(qualifiedDocName,
+                                new AsyncProcessTracker.ProcessStarter() {
+                                    @Override
+                                    public ProcessStatus start() {
+                                        return asyncProcessClient
+                                                .startTranslatedDocCreationOrUpdate(
+                                                        docUri,
+                                                        getOpts().getProj(),
+                                                        getOpts()
+                                                                .getProjectVersion(),
+                                                        new LocaleId(locale
+                                                                .getLocale()),
+                                                        body,
+                                                        extensions,
+                                                        getOpts()
+                                                                .getMergeType(),
+                                                        getOpts().isMyTrans());
+                                    }
+                                }, sourceProcesses.get(docUri),
+                                "Failed while pushing document translations: ");
+                if (manifestEntry != null) {
+                    pendingManifestEntries.put(manifestEntry, process);
+                }
+                pendingSnapshots.put(new PendingSnapshot(qualifiedDocName,
+                        locale.getLocale(), snapshot), process);
+                Futures.addCallback(process,
+                        new FutureCallback<ProcessStatus>() {
+                            @Override
+                            public void onSuccess(ProcessStatus status) {
+                                if (status.getMessages().size() > 0) {
+                                    logTranslationWarnings(qualifiedDocName,
+                                            locale, status.getMessages());
+                                }
+                            }
 
-            ConsoleUtils.startProgressFeedback();
+                            @Override
+                            public void onFailure(Throwable t) {
+                                // reported by awaitTrackedProcesses
+                            }
+                        });
+                return;
+            }
+            startProgressFeedback();
 
             ProcessStatus status =
                     asyncProcessClient.startTranslatedDocCreationOrUpdate(
                             docUri, getOpts().getProj(), getOpts()
                                     .getProjectVersion(),
-                            new LocaleId(locale.getLocale()), targetDoc,
+                            new LocaleId(locale.getLocale()), body,
                             extensions, getOpts().getMergeType(),
                             getOpts().isMyTrans());
 
             boolean waitForCompletion = true;
+            PollingBackoff pollBackoff = PollingBackoff.forStatusPolling();
+            PollingBackoff resubmitBackoff = PollingBackoff.forResubmission();
 
             while (waitForCompletion) {
                 switch (status.getStatusCode()) {
@@ -700,52 +1972,146 @@ public class PushCommand extends PushPullCommand<PushOptions> {
                     break;
 
                 case Running:
-                    ConsoleUtils.setProgressFeedbackMessage(status
+                    setProgressFeedbackMessage(status
                             .getPercentageComplete() + "%");
                     break;
 
                 case Waiting:
-                    ConsoleUtils
-                            .setProgressFeedbackMessage("Waiting to start ...");
+                    setProgressFeedbackMessage("Waiting to start ...");
                     break;
 
                 case NotAccepted:
-                    // try to submit the process again
+                    // the server is busy, so back off before trying to submit
+                    // the process again; this is the only wait before the
+                    // new status is checked
+                    sleep(resubmitBackoff.nextDelay(-1));
+                    resubmissions.incrementAndGet();
                     status =
                             asyncProcessClient
                                     .startTranslatedDocCreationOrUpdate(docUri,
                                             getOpts().getProj(), getOpts()
                                                     .getProjectVersion(),
                                             new LocaleId(locale.getLocale()),
-                                            targetDoc, extensions,
+                                            body, extensions,
                                             getOpts().getMergeType(),
                                             getOpts().isMyTrans());
-                    ConsoleUtils
-                            .setProgressFeedbackMessage("Waiting for other clients ...");
-                    break;
+                    setProgressFeedbackMessage("Waiting for other clients ...");
+                    continue;
                 }
 
                 // Wait before retrying
-                wait(POLL_PERIOD);
+                sleep(pollBackoff.nextDelay(status.getPercentageComplete()));
+                statusPolls.incrementAndGet();
                 status = asyncProcessClient.getProcessStatus(status.getUrl());
             }
-            ConsoleUtils.endProgressFeedback();
+            endProgressFeedback();
+            recordPush(manifestEntry, status);
+            recordSnapshot(qualifiedDocName, locale.getLocale(), snapshot,
+                    status);
 
             // Show warning messages
             if (status.getMessages().size() > 0) {
-                log.warn("Pushed translations with warnings:");
-                for (String mssg : status.getMessages()) {
-                    log.warn(mssg);
-                }
+                logTranslationWarnings(qualifiedDocName, locale,
+                        status.getMessages());
             }
         } else {
+            debug(targetDoc);
             log.info(
                     "pushing target doc [name={} size={} client-locale={}] to server [locale={}] (skipped due to dry run)",
-                    localDocName, targetDoc.getTextFlowTargets().size(),
+                    qualifiedDocName, targetDoc.getTextFlowTargets().size(),
                     locale.getLocalLocale(), locale.getLocale());
         }
     }
 
+    /**
+     * Submits a process to the process tracker, remembering it against its
+     * document so that failures can be reported once all documents have been
+     * submitted.
+     */
+    private ListenableFuture<ProcessStatus> trackProcess(
+            String qualifiedDocName,
+            AsyncProcessTracker.ProcessStarter starter,
+            @Nullable ListenableFuture<ProcessStatus> dependency,
+            String failureMessage) {
+        ListenableFuture<ProcessStatus> process;
+        try {
+            process = processTracker.submit(starter, dependency, failureMessage);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(
+                    "Interrupted while waiting to start a server process", e);
+        }
+        trackedProcesses.put(qualifiedDocName, process);
+        Futures.addCallback(process, new FutureCallback<ProcessStatus>() {
+            @Override
+            public void onSuccess(ProcessStatus status) {
+                // nothing to do until all documents have been submitted
+            }
+
+            @Override
+            public void onFailure(Throwable t) {
+                // stop submitting further documents
+                trackedProcessFailed = true;
+            }
+        });
+        return process;
+    }
+
+    /**
+     * Waits for all the tracked processes to finish. If any failed, the first
+     * failure (in document order) is reported in the same way as a failed
+     * document in a sequential push.
+     */
+    private void awaitTrackedProcesses() {
+        SortedSet<String> docNames;
+        synchronized (trackedProcesses) {
+            docNames = new TreeSet<String>(trackedProcesses.keySet());
+        }
+        String failedDoc = null;
+        Throwable firstFailure = null;
+        try {
+            for (String qualifiedDocName : docNames) {
+                List<ListenableFuture<ProcessStatus>> processes;
+                synchronized (trackedProcesses) {
+                    processes =
+                            new ArrayList<ListenableFuture<ProcessStatus>>(
+                                    trackedProcesses.get(qualifiedDocName));
+                }
+                for (ListenableFuture<ProcessStatus> process : processes) {
+                    try {
+                        process.get();
+                    } catch (ExecutionException e) {
+                        if (firstFailure == null) {
+                            failedDoc = qualifiedDocName;
+                            firstFailure = e.getCause();
+                        }
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(
+                    "Interrupted while waiting for server processes", e);
+        }
+        if (firstFailure != null) {
+            throw pushFailure(unqualifiedDocName(failedDoc),
+                    asException(firstFailure));
+        }
+    }
+
+    /**
+     * Logs the warnings for one locale of a document as a single block, so
+     * that locales which are pushed concurrently do not interleave.
+     */
+    private synchronized void logTranslationWarnings(String qualifiedDocName,
+            LocaleMapping locale, List<String> messages) {
+        log.warn("Pushed translations for {} ({}) with warnings:",
+                qualifiedDocName, locale.getLocale());
+        for (String mssg : messages) {
+            log.warn(mssg);
+        }
+    }
+
     private void deleteSourceDocFromServer(String qualifiedDocName) {
         if (!getOpts().isDryRun()) {
             log.info("deleting resource {} from server", qualifiedDocName);
@@ -758,6 +2124,68 @@ public class PushCommand extends PushPullCommand<PushOptions> {
         }
     }
 
+    /**
+     * Logs a warning if Copy Trans status is unavailable because the server
+     * is too old, otherwise throws.
+     */
+    private void handleCopyTransStatusFailure(
+            UniformInterfaceException failure) {
+        // 404 - Probably because of an old server
+        if (failure.getResponse().getClientResponseStatus() == ClientResponse.Status.NOT_FOUND) {
+            if (getClientFactory()
+                    .compareToServerVersion("1.8.0-SNAPSHOT") < 0) {
+                log.warn("Copy Trans not started (Incompatible server version.)");
+            } else {
+                throw new RuntimeException(
+                        "Could not invoke copy trans. The service was not available (404)");
+            }
+        } else if (failure.getCause() != null) {
+            throw new RuntimeException("Problem invoking copy trans.",
+                    failure.getCause());
+        } else {
+            throw new RuntimeException(
+                    "Problem invoking copy trans: [Server response code:"
+                            + failure.getResponse().getStatus() + "]");
+        }
+    }
+
+    /**
+     * Waits for the Copy Trans jobs started by the scheduler, in document
+     * order.
+     */
+    private void awaitCopyTrans() {
+        List<Map.Entry<String, ListenableFuture<CopyTransStatus>>> jobs;
+        synchronized (copyTransJobs) {
+            jobs =
+                    new ArrayList<Map.Entry<String, ListenableFuture<CopyTransStatus>>>(
+                            copyTransJobs.entrySet());
+        }
+        if (jobs.isEmpty()) {
+            return;
+        }
+        log.info("Waiting for Copy Trans of {} documents", jobs.size());
+        try {
+            for (Map.Entry<String, ListenableFuture<CopyTransStatus>> job : jobs) {
+                try {
+                    job.getValue().get();
+                } catch (CancellationException e) {
+                    // source push failed, which is reported elsewhere
+                } catch (ExecutionException e) {
+                    if (e.getCause() instanceof UniformInterfaceException) {
+                        handleCopyTransStatusFailure((UniformInterfaceException) e
+                                .getCause());
+                    } else {
+                        throw Throwables.propagate(e.getCause());
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(
+                    "Interrupted while waiting for Copy Trans", e);
+        }
+    }
+
     private void copyTransForDocument(String docName) {
         if (getOpts().isDryRun()) {
             log.info("Skipping Copy Trans for " + docName + " (due to dry run)");
@@ -778,48 +2206,61 @@ public class PushCommand extends PushPullCommand<PushOptions> {
                     this.copyTransClient.getCopyTransStatus(getOpts()
                             .getProj(), getOpts().getProjectVersion(), docName);
         } catch (UniformInterfaceException failure) {
-            // 404 - Probably because of an old server
-            if (failure.getResponse().getClientResponseStatus() == ClientResponse.Status.NOT_FOUND) {
-                if (getClientFactory()
-                        .compareToServerVersion("1.8.0-SNAPSHOT") < 0) {
-                    log.warn("Copy Trans not started (Incompatible server version.)");
-                    return;
-                } else {
-                    throw new RuntimeException(
-                            "Could not invoke copy trans. The service was not available (404)");
-                }
-            } else if (failure.getCause() != null) {
-                throw new RuntimeException("Problem invoking copy trans.",
-                        failure.getCause());
-            } else {
-                throw new RuntimeException(
-                        "Problem invoking copy trans: [Server response code:"
-                                + failure.getResponse().getStatus() + "]");
-            }
+            handleCopyTransStatusFailure(failure);
+            return;
         }
-        ConsoleUtils.startProgressFeedback();
+        startProgressFeedback();
+        PollingBackoff pollBackoff = PollingBackoff.forStatusPolling();
 
         while (copyTransStatus.isInProgress()) {
             try {
-                Thread.sleep(POLL_PERIOD);
+                pollBackoff.sleep(copyTransStatus.getPercentageComplete());
             } catch (InterruptedException e) {
                 log.warn("Interrupted while waiting for Copy Trans to finish.");
             }
-            ConsoleUtils.setProgressFeedbackMessage(copyTransStatus
+            setProgressFeedbackMessage(copyTransStatus
                     .getPercentageComplete() + "%");
+            statusPolls.incrementAndGet();
             copyTransStatus =
                     this.copyTransClient.getCopyTransStatus(getOpts()
                             .getProj(), getOpts().getProjectVersion(), docName);
         }
-        ConsoleUtils.endProgressFeedback();
+        endProgressFeedback();
 
         if (copyTransStatus.getPercentageComplete() < 100) {
             log.warn("Copy Trans for the above document stopped unexpectedly.");
         }
     }
 
+    /**
+     * Progress feedback describes a single upload, so it is only shown when
+     * uploads happen one at a time.
+     */
+    private boolean showProgressFeedback() {
+        return !concurrentPush && localeExecutor == null
+                && processTracker == null;
+    }
+
+    private void startProgressFeedback() {
+        if (showProgressFeedback()) {
+            ConsoleUtils.startProgressFeedback();
+        }
+    }
+
+    private void setProgressFeedbackMessage(String mssg) {
+        if (showProgressFeedback()) {
+            ConsoleUtils.setProgressFeedbackMessage(mssg);
+        }
+    }
+
+    private void endProgressFeedback() {
+        if (showProgressFeedback()) {
+            ConsoleUtils.endProgressFeedback();
+        }
+    }
+
     // TODO Perhaps move this to ConsoleUtils
-    private static void wait(int millis) {
+    private static void sleep(long millis) {
         try {
             Thread.sleep(millis);
         } catch (InterruptedException e) {
@@ -56,4 +56,65 @@ public interface PushOptions extends PushPullOptions {
 
     public boolean isMyTrans();
 
+    /**
+     * Number of documents to push concurrently. A value of 1 pushes one
+     * document at a time.
+     */
+    public int getPushThreads();
+
+    /**
+     * Number of locales of a single document to upload concurrently. A value
+     * of 1 uploads one locale at a time.
+     */
+    public int getLocaleThreads();
+
+    /**
+     * Number of documents which may be parsed ahead of the document currently
+     * being uploaded. A value of 0 parses each document just before uploading
+     * it. Only used when documents are pushed one at a time.
+     */
+    public int getParseAhead();
+
+    /**
+     * Maximum number of server-side processes (document or translation
+     * uploads) to keep in flight at once. A value of 1 waits for each process
+     * to finish before starting the next.
+     */
+    public int getAsyncProcesses();
+
+    /**
+     * Whether to push documents and translations even if the push manifest
+     * shows they have not changed since the last push.
+     */
+    public boolean isForce();
+
+    /**
+     * Maximum number of translation targets to upload in one request when
+     * merge type is auto (0 for no limit). Larger translation documents are
+     * split into batches which are uploaded concurrently.
+     */
+    public int getBatchSize();
+
+    /**
+     * Maximum serialized size in bytes of the translation targets uploaded in
+     * one request when merge type is auto (0 for no limit).
+     */
+    public int getBatchBytes();
+
+    /**
+     * Maximum number of translation batches to keep in flight at once.
+     */
+    public int getBatchesInFlight();
+
+    /**
+     * Maximum number of Copy Trans jobs to run at once. With more than one,
+     * Copy Trans runs in the background while the push continues.
+     */
+    public int getCopyTransJobs();
+
+    /**
+     * Number of obsolete documents to delete from the server concurrently.
+     */
+    public int getDeleteThreads();
+
 }
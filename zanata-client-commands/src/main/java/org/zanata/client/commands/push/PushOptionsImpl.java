@@ -42,6 +42,16 @@ public class PushOptionsImpl extends AbstractPushPullOptionsImpl<PushOptions>
     private static final boolean DEF_COPYTRANS = false;
     private static final boolean DEF_MY_TRANS = false;
     private static final int DEF_CHUNK_SIZE = 1024 * 1024;
+    private static final int DEF_PUSH_THREADS = 1;
+    private static final int DEF_LOCALE_THREADS = 1;
+    private static final int DEF_PARSE_AHEAD = 0;
+    private static final int DEF_ASYNC_PROCESSES = 1;
+    private static final boolean DEF_FORCE = false;
+    private static final int DEF_BATCH_SIZE = 0;
+    private static final int DEF_BATCH_BYTES = 0;
+    private static final int DEF_BATCHES_IN_FLIGHT = 2;
+    private static final int DEF_COPYTRANS_JOBS = 1;
+    private static final int DEF_DELETE_THREADS = 1;
     /** @see org.zanata.common.MergeType for options */
     private static final String DEF_MERGE_TYPE = "AUTO";
     private static final String DEF_PUSH_TYPE = "source";
@@ -60,6 +70,16 @@ public class PushOptionsImpl extends AbstractPushPullOptionsImpl<PushOptions>
 
     private String validate;
     private boolean myTrans = DEF_MY_TRANS;
+    private int pushThreads = DEF_PUSH_THREADS;
+    private int localeThreads = DEF_LOCALE_THREADS;
+    private int parseAhead = DEF_PARSE_AHEAD;
+    private int asyncProcesses = DEF_ASYNC_PROCESSES;
+    private boolean force = DEF_FORCE;
+    private int batchSize = DEF_BATCH_SIZE;
+    private int batchBytes = DEF_BATCH_BYTES;
+    private int batchesInFlight = DEF_BATCHES_IN_FLIGHT;
+    private int copyTransJobs = DEF_COPYTRANS_JOBS;
+    private int deleteThreads = DEF_DELETE_THREADS;
 
     @Override
     public ZanataCommand initCommand() {
@@ -274,4 +294,144 @@ public class PushOptionsImpl extends AbstractPushPullOptionsImpl<PushOptions>
     public void setMyTrans(boolean myTrans) {
         this.myTrans = myTrans;
     }
+
+    @Override
+    public int getPushThreads() {
+        return pushThreads;
+    }
+
+    @Option(
+            name = "--threads",
+            metaVar = "N",
+            usage = "Number of documents to push concurrently (default: "
+                    + DEF_PUSH_THREADS + ")")
+    public void setPushThreads(int pushThreads) {
+        this.pushThreads = pushThreads;
+    }
+
+    @Override
+    public int getLocaleThreads() {
+        return localeThreads;
+    }
+
+    @Option(
+            name = "--locale-threads",
+            metaVar = "N",
+            usage = "Number of locales of a document to push concurrently (default: "
+                    + DEF_LOCALE_THREADS + ")")
+    public void setLocaleThreads(int localeThreads) {
+        this.localeThreads = localeThreads;
+    }
+
+    @Override
+    public int getParseAhead() {
+        return parseAhead;
+    }
+
+    @Option(
+            name = "--parse-ahead",
+            metaVar = "N",
+            usage = "Number of documents to parse while the current document is being uploaded, when pushing one document at a time (default: "
+                    + DEF_PARSE_AHEAD + ")")
+    public void setParseAhead(int parseAhead) {
+        this.parseAhead = parseAhead;
+    }
+
+    @Override
+    public int getAsyncProcesses() {
+        return asyncProcesses;
+    }
+
+    @Option(
+            name = "--async-processes",
+            metaVar = "N",
+            usage = "Maximum number of server-side upload processes to keep in flight, polled from a single thread (default: "
+                    + DEF_ASYNC_PROCESSES + ")")
+    public void setAsyncProcesses(int asyncProcesses) {
+        this.asyncProcesses = asyncProcesses;
+    }
+
+    @Override
+    public boolean isForce() {
+        return force;
+    }
+
+    @Option(
+            name = "--force",
+            handler = BooleanValueHandler.class,
+            usage = "Push documents and translations even if they have not changed since the last push (default: "
+                    + DEF_FORCE + ")")
+    public void setForce(boolean force) {
+        this.force = force;
+    }
+
+    @Override
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    @Option(
+            name = "--batch-size",
+            metaVar = "N",
+            usage = "Split translation documents into batches of at most N targets, uploaded concurrently (merge type auto only; default: "
+                    + DEF_BATCH_SIZE + ", meaning no limit)")
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public int getBatchBytes() {
+        return batchBytes;
+    }
+
+    @Option(
+            name = "--batch-bytes",
+            metaVar = "BYTES",
+            usage = "Split translation documents into batches of at most BYTES of serialized targets, uploaded concurrently (merge type auto only; default: "
+                    + DEF_BATCH_BYTES + ", meaning no limit)")
+    public void setBatchBytes(int batchBytes) {
+        this.batchBytes = batchBytes;
+    }
+
+    @Override
+    public int getBatchesInFlight() {
+        return batchesInFlight;
+    }
+
+    @Option(
+            name = "--batches-in-flight",
+            metaVar = "N",
+            usage = "Maximum number of translation batches to upload at once (default: "
+                    + DEF_BATCHES_IN_FLIGHT + ")")
+    public void setBatchesInFlight(int batchesInFlight) {
+        this.batchesInFlight = batchesInFlight;
+    }
+
+    @Override
+    public int getCopyTransJobs() {
+        return copyTransJobs;
+    }
+
+    @Option(
+            name = "--copy-trans-jobs",
+            metaVar = "N",
+            usage = "Maximum number of Copy Trans jobs to run at once. With more than 1, Copy Trans runs in the background while pushing continues (default: "
+                    + DEF_COPYTRANS_JOBS + ")")
+    public void setCopyTransJobs(int copyTransJobs) {
+        this.copyTransJobs = copyTransJobs;
+    }
+
+    @Override
+    public int getDeleteThreads() {
+        return deleteThreads;
+    }
+
+    @Option(
+            name = "--delete-threads",
+            metaVar = "N",
+            usage = "Number of obsolete documents to delete from the server concurrently (default: "
+                    + DEF_DELETE_THREADS + ")")
+    public void setDeleteThreads(int deleteThreads) {
+        this.deleteThreads = deleteThreads;
+    }
 }
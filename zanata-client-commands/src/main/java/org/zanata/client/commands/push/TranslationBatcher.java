@@ -0,0 +1,137 @@
+/*
+ * Copyright 2015, Red Hat, Inc. and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.zanata.client.commands.push;
+
+import java.util.ArrayList;
+import java.util.List;
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.JAXBElement;
+import javax.xml.bind.JAXBException;
+import javax.xml.bind.Marshaller;
+import javax.xml.namespace.QName;
+
+import org.apache.commons.io.output.CountingOutputStream;
+import org.apache.commons.io.output.NullOutputStream;
+import org.zanata.rest.dto.resource.TextFlowTarget;
+import org.zanata.rest.dto.resource.TranslationsResource;
+
+/**
+ * Splits a large translations document into batches which can be uploaded
+ * independently. Each batch holds at most a given number of targets and/or a
+ * given number of bytes of serialized targets (a single target which is
+ * bigger than the byte limit gets a batch of its own).
+ * <p>
+ * Only suitable for merge type auto, where the server merges each batch with
+ * what it already has.
+ */
+public class TranslationBatcher {
+    private static final QName TARGET_NAME = new QName("target");
+    private static JAXBContext jaxbContext;
+
+    private final int maxTargets;
+    private final long maxBytes;
+
+    /**
+     * @param maxTargets
+     *            maximum number of targets per batch, or 0 for no limit
+     * @param maxBytes
+     *            maximum serialized size of the targets in a batch, or 0 for
+     *            no limit
+     */
+    public TranslationBatcher(int maxTargets, long maxBytes) {
+        this.maxTargets = maxTargets;
+        this.maxBytes = maxBytes;
+    }
+
+    public List<TranslationsResource> split(TranslationsResource doc) {
+        List<TextFlowTarget> targets = doc.getTextFlowTargets();
+        List<TranslationsResource> batches =
+                new ArrayList<TranslationsResource>();
+        if ((maxTargets <= 0 || targets.size() <= maxTargets)
+                && maxBytes <= 0) {
+            batches.add(doc);
+            return batches;
+        }
+        long[] sizes = maxBytes > 0 ? serializedSizes(targets) : null;
+        int fromIndex = 0;
+        long batchBytes = 0;
+        for (int i = 0; i < targets.size(); i++) {
+            int batchTargets = i - fromIndex;
+            boolean full =
+                    (maxTargets > 0 && batchTargets >= maxTargets)
+                            || (sizes != null && batchTargets > 0 && batchBytes
+                                    + sizes[i] > maxBytes);
+            if (full) {
+                batches.add(newBatch(doc, targets.subList(fromIndex, i)));
+                fromIndex = i;
+                batchBytes = 0;
+            }
+            if (sizes != null) {
+                batchBytes += sizes[i];
+            }
+        }
+        if (batches.isEmpty()) {
+            batches.add(doc);
+        } else {
+            batches.add(newBatch(doc,
+                    targets.subList(fromIndex, targets.size())));
+        }
+        return batches;
+    }
+
+    private static TranslationsResource newBatch(TranslationsResource doc,
+            List<TextFlowTarget> targets) {
+        // a TranslationsResource to hold just the TextFlowTargets for this
+        // batch
+        TranslationsResource resource = new TranslationsResource();
+        resource.setExtensions(doc.getExtensions());
+        resource.setLinks(doc.getLinks());
+        resource.setRevision(doc.getRevision());
+        resource.getTextFlowTargets().addAll(targets);
+        return resource;
+    }
+
+    private static long[] serializedSizes(List<TextFlowTarget> targets) {
+        try {
+            CountingOutputStream out =
+                    new CountingOutputStream(new NullOutputStream());
+            Marshaller marshaller = getContext().createMarshaller();
+            marshaller.setProperty(Marshaller.JAXB_FRAGMENT, Boolean.TRUE);
+            long[] sizes = new long[targets.size()];
+            for (int i = 0; i < sizes.length; i++) {
+                marshaller.marshal(new JAXBElement<TextFlowTarget>(
+                        TARGET_NAME, TextFlowTarget.class, targets.get(i)),
+                        out);
+                sizes[i] = out.resetByteCount();
+            }
+            return sizes;
+        } catch (JAXBException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static synchronized JAXBContext getContext() throws JAXBException {
+        if (jaxbContext == null) {
+            jaxbContext = JAXBContext.newInstance(TextFlowTarget.class);
+        }
+        return jaxbContext;
+    }
+}
@@ -86,7 +86,8 @@ public class XliffStrategy extends AbstractPushStrategy {
             File transFile = new TransFileResolver(getOpts()).getTransFile(
                     UnqualifiedSrcDocName.from(docName),
                     locale);
-            if (transFile.exists()) {
+            if (transFile.exists()
+                    && acceptTransFile(docName, locale, transFile)) {
                 TranslationsResource targetDoc =
                         reader.extractTarget(transFile);
                 visitor.visit(locale, targetDoc);
@@ -107,7 +107,8 @@ public class XmlStrategy extends AbstractPushStrategy {
                 File transFile = new TransFileResolver(getOpts()).getTransFile(
                         UnqualifiedSrcDocName.from(docName),
                         locale);
-                if (transFile.exists()) {
+                if (transFile.exists()
+                        && acceptTransFile(docName, locale, transFile)) {
                     TranslationsResource targetDoc =
                             (TranslationsResource) unmarshaller
                                     .unmarshal(transFile);
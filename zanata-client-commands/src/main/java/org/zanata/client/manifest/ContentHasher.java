@@ -0,0 +1,102 @@
+/*
+ * Copyright 2015, Red Hat, Inc. and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.zanata.client.manifest;
+
+import java.io.OutputStream;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.JAXBElement;
+import javax.xml.bind.JAXBException;
+import javax.xml.bind.Marshaller;
+import javax.xml.namespace.QName;
+
+import org.apache.commons.codec.binary.Hex;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.io.output.NullOutputStream;
+import org.zanata.rest.dto.resource.Resource;
+import org.zanata.rest.dto.resource.TextFlowTarget;
+import org.zanata.rest.dto.resource.TranslationsResource;
+
+/**
+ * Calculates content hashes of parsed documents, by streaming their XML form
+ * through a digest.
+ */
+public class ContentHasher {
+    private static final QName TARGET_NAME = new QName("target");
+    private static JAXBContext jaxbContext;
+
+    private static synchronized JAXBContext getContext() throws JAXBException {
+        if (jaxbContext == null) {
+            jaxbContext =
+                    JAXBContext.newInstance(Resource.class,
+                            TranslationsResource.class, TextFlowTarget.class);
+        }
+        return jaxbContext;
+    }
+
+    /**
+     * @param jaxbElement
+     *            a Resource or TranslationsResource
+     * @return MD5 of the document's XML form, in hex
+     */
+    public static String hash(Object jaxbElement) {
+        try {
+            MessageDigest digest = DigestUtils.getMd5Digest();
+            OutputStream out =
+                    new DigestOutputStream(new NullOutputStream(), digest);
+            // marshallers are not thread-safe, but are cheap to create
+            Marshaller marshaller = getContext().createMarshaller();
+            marshaller.marshal(jaxbElement, out);
+            return Hex.encodeHexString(digest.digest());
+        } catch (JAXBException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * @return MD5 of each target's XML form (contents, state, comments etc),
+     *         keyed by resId, in document order
+     */
+    public static Map<String, String> hashTargets(
+            TranslationsResource translationsResource) {
+        try {
+            MessageDigest digest = DigestUtils.getMd5Digest();
+            OutputStream out =
+                    new DigestOutputStream(new NullOutputStream(), digest);
+            Marshaller marshaller = getContext().createMarshaller();
+            marshaller.setProperty(Marshaller.JAXB_FRAGMENT, Boolean.TRUE);
+            Map<String, String> hashes = new LinkedHashMap<String, String>();
+            for (TextFlowTarget target : translationsResource
+                    .getTextFlowTargets()) {
+                marshaller.marshal(new JAXBElement<TextFlowTarget>(
+                        TARGET_NAME, TextFlowTarget.class, target), out);
+                hashes.put(target.getResId(),
+                        Hex.encodeHexString(digest.digest()));
+            }
+            return hashes;
+        } catch (JAXBException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright 2015, Red Hat, Inc. and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.zanata.client.manifest;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.apache.commons.collections.keyvalue.MultiKey;
+
+/**
+ * Provides the set of push manifest entries, indexed by server, project,
+ * version, document and locale. Safe for use by concurrent pushes.
+ */
+public class PushManifest {
+    private final Map<MultiKey, PushManifestEntry> index =
+            new LinkedHashMap<MultiKey, PushManifestEntry>();
+
+    public PushManifest() {
+    }
+
+    PushManifest(PushManifestCollection entries) {
+        for (PushManifestEntry entry : entries.getEntries()) {
+            addEntry(entry);
+        }
+    }
+
+    public synchronized List<PushManifestEntry> getEntries() {
+        return new ArrayList<PushManifestEntry>(index.values());
+    }
+
+    public synchronized void addEntry(PushManifestEntry entry) {
+        index.put(keyOf(entry.getServer(), entry.getProject(),
+                entry.getVersion(), entry.getDocName(), entry.getLanguage()),
+                entry);
+    }
+
+    /**
+     * @param language
+     *            locale of a translation entry, or null for source
+     */
+    public synchronized PushManifestEntry findEntry(String server,
+            String project, String version, String docName, String language) {
+        return index.get(keyOf(server, project, version, docName, language));
+    }
+
+    public synchronized void clear() {
+        index.clear();
+    }
+
+    synchronized PushManifestCollection asCollection() {
+        PushManifestCollection col = new PushManifestCollection();
+        col.setEntries(new ArrayList<PushManifestEntry>(index.values()));
+        return col;
+    }
+
+    private static MultiKey keyOf(String server, String project,
+            String version, String docName, String language) {
+        return new MultiKey(server, project, version, docName,
+                language == null ? "" : language);
+    }
+}
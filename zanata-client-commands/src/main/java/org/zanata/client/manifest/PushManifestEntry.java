@@ -0,0 +1,160 @@
+/*
+ * Copyright 2015, Red Hat, Inc. and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.zanata.client.manifest;
+
+import javax.xml.bind.annotation.XmlAttribute;
+
+/**
+ * Records what was pushed for a document (or for one locale of a document),
+ * so that a later push can tell whether the local file has changed since.
+ */
+public class PushManifestEntry {
+    private String server;
+
+    private String project;
+
+    private String version;
+
+    private String docName;
+
+    private String language;
+
+    private String fileHash;
+
+    private String contentHash;
+
+    private String settings;
+
+    private String serverStatus;
+
+    public PushManifestEntry() {
+    }
+
+    public PushManifestEntry(String server, String project, String version,
+            String docName, String language, String fileHash,
+            String contentHash, String settings) {
+        this.server = server;
+        this.project = project;
+        this.version = version;
+        this.docName = docName;
+        this.language = language;
+        this.fileHash = fileHash;
+        this.contentHash = contentHash;
+        this.settings = settings;
+    }
+
+    @XmlAttribute
+    public String getServer() {
+        return server;
+    }
+
+    public void setServer(String server) {
+        this.server = server;
+    }
+
+    @XmlAttribute
+    public String getProject() {
+        return project;
+    }
+
+    public void setProject(String project) {
+        this.project = project;
+    }
+
+    @XmlAttribute
+    public String getVersion() {
+        return version;
+    }
+
+    public void setVersion(String version) {
+        this.version = version;
+    }
+
+    @XmlAttribute
+    public String getDocName() {
+        return docName;
+    }
+
+    public void setDocName(String docName) {
+        this.docName = docName;
+    }
+
+    /**
+     * @return the locale of a translation entry, or null for source
+     */
+    @XmlAttribute(name = "lang")
+    public String getLanguage() {
+        return language;
+    }
+
+    public void setLanguage(String language) {
+        this.language = language;
+    }
+
+    /**
+     * @return MD5 of the local file
+     */
+    @XmlAttribute
+    public String getFileHash() {
+        return fileHash;
+    }
+
+    public void setFileHash(String fileHash) {
+        this.fileHash = fileHash;
+    }
+
+    /**
+     * @return MD5 of the parsed document, as it was sent to the server
+     */
+    @XmlAttribute
+    public String getContentHash() {
+        return contentHash;
+    }
+
+    public void setContentHash(String contentHash) {
+        this.contentHash = contentHash;
+    }
+
+    /**
+     * @return the push settings which affect parsing (eg project type and
+     *         source locale)
+     */
+    @XmlAttribute
+    public String getSettings() {
+        return settings;
+    }
+
+    public void setSettings(String settings) {
+        this.settings = settings;
+    }
+
+    /**
+     * @return final status of the server process which accepted the document
+     */
+    @XmlAttribute
+    public String getServerStatus() {
+        return serverStatus;
+    }
+
+    public void setServerStatus(String serverStatus) {
+        this.serverStatus = serverStatus;
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright 2015, Red Hat, Inc. and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.zanata.client.manifest;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import javax.xml.bind.annotation.XmlAttribute;
+import javax.xml.bind.annotation.XmlElement;
+import javax.xml.bind.annotation.XmlRootElement;
+
+/**
+ * The content hashes of every translation target in one locale of a
+ * document, as of the last successful push. Lets a later push send only the
+ * targets which have changed.
+ */
+@XmlRootElement(name = "target-snapshot")
+public class TargetSnapshot {
+    private String settings;
+
+    private List<TargetHash> targets = new ArrayList<TargetHash>();
+
+    public TargetSnapshot() {
+    }
+
+    public TargetSnapshot(String settings, Map<String, String> hashes) {
+        this.settings = settings;
+        for (Map.Entry<String, String> entry : hashes.entrySet()) {
+            targets.add(new TargetHash(entry.getKey(), entry.getValue()));
+        }
+    }
+
+    @XmlAttribute
+    public String getSettings() {
+        return settings;
+    }
+
+    public void setSettings(String settings) {
+        this.settings = settings;
+    }
+
+    @XmlElement(name = "target")
+    public List<TargetHash> getTargets() {
+        return targets;
+    }
+
+    public void setTargets(List<TargetHash> targets) {
+        this.targets = targets;
+    }
+
+    /**
+     * @return target hashes keyed by resId
+     */
+    public Map<String, String> asMap() {
+        Map<String, String> hashes = new LinkedHashMap<String, String>();
+        for (TargetHash target : targets) {
+            hashes.put(target.getResId(), target.getHash());
+        }
+        return hashes;
+    }
+}
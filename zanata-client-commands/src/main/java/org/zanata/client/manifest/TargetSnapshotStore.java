@@ -0,0 +1,97 @@
+/*
+ * Copyright 2015, Red Hat, Inc. and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.zanata.client.manifest;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import javax.annotation.Nullable;
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.JAXBException;
+import javax.xml.bind.Marshaller;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.zanata.util.PathUtil;
+
+/**
+ * Keeps one {@link TargetSnapshot} file per server, project, version,
+ * document and locale in a directory. Snapshots for different documents may
+ * be read and written concurrently.
+ */
+public class TargetSnapshotStore {
+    private final File directory;
+
+    public TargetSnapshotStore(File directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * @return the snapshot, or null if there is none (or it can't be read)
+     */
+    public @Nullable TargetSnapshot load(String server, String project,
+            String version, String docName, String locale) {
+        File file = fileFor(server, project, version, docName, locale);
+        if (!file.isFile()) {
+            return null;
+        }
+        try (InputStream in = new FileInputStream(file)) {
+            return (TargetSnapshot) getContext().createUnmarshaller()
+                    .unmarshal(in);
+        } catch (IOException | JAXBException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    public void store(String server, String project, String version,
+            String docName, String locale, TargetSnapshot snapshot)
+            throws IOException {
+        File file = fileFor(server, project, version, docName, locale);
+        if (!directory.exists()) {
+            PathUtil.makeDirs(directory);
+        }
+        try (OutputStream out = new FileOutputStream(file)) {
+            getContext().createMarshaller().marshal(snapshot, out);
+        } catch (JAXBException e) {
+            throw new IOException(e);
+        }
+    }
+
+    private File fileFor(String server, String project, String version,
+            String docName, String locale) {
+        // doc names may contain path separators, so hash the whole key
+        String key =
+                DigestUtils.md5Hex(server + "\n" + project + "\n" + version
+                        + "\n" + docName + "\n" + locale);
+        return new File(directory, key + ".xml");
+    }
+
+    private static JAXBContext context;
+
+    private static synchronized JAXBContext getContext() throws JAXBException {
+        if (context == null) {
+            context = JAXBContext.newInstance(TargetSnapshot.class);
+        }
+        return context;
+    }
+}
@@ -98,7 +98,7 @@ public class ConsoleUtils {
     private static final Map<TimerTaskType, TimerTask> activeTasks =
             new HashMap<TimerTaskType, TimerTask>();
 
-    public static void startProgressFeedback() {
+    public static synchronized void startProgressFeedback() {
         if (activeTasks.containsKey(TimerTaskType.ProgressFeedback)) {
             activeTasks.get(TimerTaskType.ProgressFeedback).cancel();
             activeTasks.remove(TimerTaskType.ProgressFeedback);
@@ -108,7 +108,7 @@ public class ConsoleUtils {
         activeTasks.put(TimerTaskType.ProgressFeedback, progressFeedbackTask);
     }
 
-    public static void setProgressFeedbackMessage(String mssg) {
+    public static synchronized void setProgressFeedbackMessage(String mssg) {
         if (activeTasks.containsKey(TimerTaskType.ProgressFeedback)) {
             TimeProgressTask task =
                     (TimeProgressTask) activeTasks
@@ -117,7 +117,7 @@ public class ConsoleUtils {
         }
     }
 
-    public static void endProgressFeedback() {
+    public static synchronized void endProgressFeedback() {
         TimerTask task = activeTasks.remove(TimerTaskType.ProgressFeedback);
         if (task != null) {
             task.cancel();
@@ -56,6 +56,7 @@ import org.zanata.rest.client.AsyncProcessClient;
 import org.zanata.rest.client.CopyTransClient;
 import org.zanata.rest.client.FileResourceClient;
 import org.zanata.rest.client.RestClientFactory;
+import org.zanata.rest.client.SerializedEntity;
 import org.zanata.rest.client.SourceDocResourceClient;
 import org.zanata.rest.client.TransDocResourceClient;
 import org.zanata.rest.dto.ChunkUploadResponse;
@@ -85,7 +86,7 @@ public class MockServerRule extends ExternalResource {
 
     private PushOptionsImpl pushOpts;
     @Captor
-    private ArgumentCaptor<Resource> resourceCaptor;
+    private ArgumentCaptor<SerializedEntity> resourceCaptor;
     @Captor
     private ArgumentCaptor<Set<String>> extensionCaptor;
     @Captor
@@ -93,7 +94,7 @@ public class MockServerRule extends ExternalResource {
     @Captor
     private ArgumentCaptor<LocaleId> localeIdCaptor;
     @Captor
-    private ArgumentCaptor<TranslationsResource> transResourceCaptor;
+    private ArgumentCaptor<SerializedEntity> transResourceCaptor;
     @Mock
     private ClientResponse transResourceResponse;
     @Captor
@@ -175,7 +176,7 @@ public class MockServerRule extends ExternalResource {
                 asyncClient.startSourceDocCreationOrUpdate(
                         anyString(),
                         eq(pushOpts.getProj()), eq(pushOpts.getProjectVersion()),
-                        any(Resource.class), anySetOf(String.class),
+                        any(SerializedEntity.class), anySetOf(String.class),
                         eq(false)))
                 .thenReturn(running);
         when(
@@ -197,7 +198,7 @@ public class MockServerRule extends ExternalResource {
         return pushOpts;
     }
 
-    public ArgumentCaptor<Resource> getResourceCaptor() {
+    public ArgumentCaptor<SerializedEntity> getResourceCaptor() {
         return resourceCaptor;
     }
 
@@ -213,7 +214,7 @@ public class MockServerRule extends ExternalResource {
         return localeIdCaptor;
     }
 
-    public ArgumentCaptor<TranslationsResource> getTransResourceCaptor() {
+    public ArgumentCaptor<SerializedEntity> getTransResourceCaptor() {
         return transResourceCaptor;
     }
 
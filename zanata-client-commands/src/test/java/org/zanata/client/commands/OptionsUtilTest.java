@@ -8,7 +8,9 @@ import static org.zanata.client.commands.FileMappingRuleHandler.Placeholders.all
 import static org.zanata.client.commands.Messages._;
 
 import java.io.File;
+import java.net.URL;
 
+import org.apache.commons.configuration.HierarchicalINIConfiguration;
 import org.hamcrest.Matchers;
 import org.junit.Before;
 import org.junit.Rule;
@@ -16,8 +18,12 @@ import org.junit.Test;
 import org.junit.rules.ExpectedException;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.zanata.client.TestUtils;
 import org.zanata.client.config.FileMappingRule;
 import org.zanata.client.config.ZanataConfig;
+import org.zanata.client.exceptions.ConfigException;
+import org.zanata.rest.client.ConnectionSettings;
+import org.zanata.rest.client.WireFormat;
 import com.google.common.collect.Lists;
 
 public class OptionsUtilTest {
@@ -134,4 +140,77 @@ public class OptionsUtilTest {
 
         verify(console).printfln(Warning, _("invalid.rule"), rule);
     }
+
+    @Test
+    public void willConvertConnectionOptionsToSettings() {
+        opts.setHttpConnector("Pooled");
+        opts.setMaxConnections(8);
+        opts.setConnectTimeout(5);
+        opts.setSocketTimeout(30);
+        opts.setIdleConnectionTimeout(10);
+        opts.setMaxRetries(5);
+        opts.setWireFormat("JSON");
+
+        ConnectionSettings settings = OptionsUtil.connectionSettings(opts);
+
+        assertThat(settings.getConnector(),
+                Matchers.is(ConnectionSettings.Connector.POOLED));
+        assertThat(settings.getMaxConnections(), Matchers.is(8));
+        assertThat(settings.getConnectTimeout(), Matchers.is(5000));
+        assertThat(settings.getSocketTimeout(), Matchers.is(30000));
+        assertThat(settings.getIdleTimeout(), Matchers.is(10000));
+        assertThat(settings.getMaxRetries(), Matchers.is(5));
+        assertThat(settings.getWireFormat(), Matchers.is(WireFormat.JSON));
+    }
+
+    @Test
+    public void willRejectUnknownConnector() {
+        expectedException.expect(ConfigException.class);
+        opts.setHttpConnector("netty");
+
+        OptionsUtil.connectionSettings(opts);
+    }
+
+    @Test
+    public void willRejectUnknownWireFormat() {
+        expectedException.expect(ConfigException.class);
+        opts.setWireFormat("yaml");
+
+        OptionsUtil.connectionSettings(opts);
+    }
+
+    @Test
+    public void willConvertMetadataCacheTtlToMillis() {
+        opts.setMetadataCacheTtl(30);
+
+        assertThat(OptionsUtil.metadataCache(opts).getTtl(),
+                Matchers.is(30000L));
+    }
+
+    @Test
+    public void canDisableMetadataCache() {
+        opts.setNoMetadataCache(true);
+
+        assertThat(OptionsUtil.metadataCache(opts), Matchers.nullValue());
+    }
+
+    @Test
+    public void willApplyServerRateLimitsFromUserConfig() throws Exception {
+        HierarchicalINIConfiguration userConfig =
+                new HierarchicalINIConfiguration(TestUtils.fileFromClasspath(
+                        "zanata.ini").getAbsolutePath());
+        opts.setUrl(new URL("http://hudson.englab.bne.redhat.com/zanata/"));
+        opts.setUsername("arnold");
+        opts.setKey("4312");
+        opts.setMaxUploadRate(100);
+
+        OptionsUtil.applyUserConfig(opts, userConfig);
+
+        assertThat(opts.getMaxRequestRate(), Matchers.is(5));
+        // options override zanata.ini
+        assertThat(opts.getMaxUploadRate(), Matchers.is(100));
+        assertThat(opts.getMaxDownloadRate(), Matchers.is(0));
+        assertThat(OptionsUtil.connectionSettings(opts)
+                .getMaxUploadBytesPerSecond(), Matchers.is(102400L));
+    }
 }
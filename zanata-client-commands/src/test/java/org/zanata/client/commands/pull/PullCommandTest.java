@@ -21,6 +21,12 @@
 
 package org.zanata.client.commands.pull;
 
+import static org.mockito.AdditionalMatchers.aryEq;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyBoolean;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.verifyZeroInteractions;
@@ -34,12 +40,15 @@ import org.junit.Before;
 import org.junit.Test;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
 import org.zanata.client.config.LocaleList;
 import org.zanata.client.config.LocaleMapping;
 import org.zanata.common.LocaleId;
 import org.zanata.common.ProjectType;
 import org.zanata.common.TransUnitCount;
 import org.zanata.rest.StringSet;
+import org.zanata.rest.client.ElementVisitor;
 import org.zanata.rest.client.RestClientFactory;
 import org.zanata.rest.client.SourceDocResourceClient;
 import org.zanata.rest.client.StatisticsResourceClient;
@@ -88,6 +97,26 @@ public class PullCommandTest {
         pullCommand = new PullCommand(opts, restClientFactory);
     }
 
+    @SuppressWarnings("unchecked")
+    private void givenDocumentStatistics(
+            final ContainerTranslationStatistics statistics) {
+        doAnswer(new Answer<Void>() {
+            @Override
+            public Void answer(InvocationOnMock invocation) {
+                ElementVisitor<ContainerTranslationStatistics> visitor =
+                        (ElementVisitor<ContainerTranslationStatistics>) invocation
+                                .getArguments()[4];
+                for (ContainerTranslationStatistics docStats : statistics
+                        .getDetailedStats()) {
+                    visitor.visit(docStats);
+                }
+                return null;
+            }
+        }).when(statsClient).visitDocumentStatistics(anyString(),
+                anyString(), anyBoolean(), any(String[].class),
+                any(ElementVisitor.class));
+    }
+
     @Test
     public void pullSourceOnlyWillIgnoreMinimumPercent() throws Exception {
         locales.add(new LocaleMapping("zh"));
@@ -184,9 +213,7 @@ public class PullCommandTest {
         docStats.addStats(zhLocaleStats);
         docStats.addStats(deLocaleStats);
 
-        when(statsClient
-                .getStatistics(projectSlug, versionSlug, true, false, new String[] {"zh", "de"}))
-                .thenReturn(statistics);
+        givenDocumentStatistics(statistics);
 
         pullCommand = new PullCommand(opts, restClientFactory) {
             @Override
@@ -212,8 +239,9 @@ public class PullCommandTest {
         pullCommand.run();
 
         // Then: translation for "de" will not be pulled
-        verify(statsClient).getStatistics(projectSlug, versionSlug, true,
-                false, new String[] {"zh", "de"});
+        verify(statsClient).visitDocumentStatistics(eq(projectSlug),
+                eq(versionSlug), eq(false), aryEq(new String[] { "zh", "de" }),
+                any(ElementVisitor.class));
         verify(transClient).getTranslations("file1", new LocaleId("zh"),
                 EXTENSIONS, false,
                 null);
@@ -247,9 +275,7 @@ public class PullCommandTest {
         docStats.addStats(zhLocaleStats);
         docStats.addStats(deLocaleStats);
 
-        when(statsClient
-                .getStatistics(projectSlug, versionSlug, true, false, new String[] {"zh", "de"}))
-                .thenReturn(statistics);
+        givenDocumentStatistics(statistics);
 
         pullCommand = new PullCommand(opts, restClientFactory) {
             @Override
@@ -275,8 +301,9 @@ public class PullCommandTest {
         pullCommand.run();
 
         // Then: translation for "de" will not be pulled
-        verify(statsClient).getStatistics(projectSlug, versionSlug, true,
-                false, new String[] {"zh", "de"});
+        verify(statsClient).visitDocumentStatistics(eq(projectSlug),
+                eq(versionSlug), eq(false), aryEq(new String[] { "zh", "de" }),
+                any(ElementVisitor.class));
         verify(transClient).getTranslations("file1", new LocaleId("zh"),
                 EXTENSIONS, false,
                 null);
@@ -0,0 +1,192 @@
+package org.zanata.client.commands.push;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.mockito.Mockito.when;
+import static org.mockito.MockitoAnnotations.initMocks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.zanata.rest.client.AsyncProcessClient;
+import org.zanata.rest.dto.ProcessStatus;
+
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.Uninterruptibles;
+
+public class AsyncProcessTrackerTest {
+    @Mock
+    private AsyncProcessClient asyncProcessClient;
+    private AsyncProcessTracker tracker;
+    private final AtomicInteger running = new AtomicInteger();
+    private final AtomicInteger maxRunning = new AtomicInteger();
+
+    @Before
+    public void setUp() {
+        initMocks(this);
+        tracker = new AsyncProcessTracker(asyncProcessClient, 2);
+    }
+
+    @After
+    public void tearDown() {
+        tracker.close();
+    }
+
+    private static ProcessStatus status(ProcessStatus.ProcessStatusCode code,
+            String url) {
+        ProcessStatus status = new ProcessStatus();
+        status.setStatusCode(code);
+        status.setUrl(url);
+        status.setMessages(new ArrayList<String>());
+        return status;
+    }
+
+    private AsyncProcessTracker.ProcessStarter starter(final String url) {
+        return new AsyncProcessTracker.ProcessStarter() {
+            @Override
+            public ProcessStatus start() {
+                int now = running.incrementAndGet();
+                if (now > maxRunning.get()) {
+                    maxRunning.set(now);
+                }
+                return status(ProcessStatus.ProcessStatusCode.Running, url);
+            }
+        };
+    }
+
+    private void finishOnSecondPoll(final String url) {
+        when(asyncProcessClient.getProcessStatus(url)).thenReturn(
+                status(ProcessStatus.ProcessStatusCode.Running, url))
+                .thenAnswer(new Answer<ProcessStatus>() {
+                    @Override
+                    public ProcessStatus answer(
+                            InvocationOnMock invocation) {
+                        running.decrementAndGet();
+                        return status(
+                                ProcessStatus.ProcessStatusCode.Finished, url);
+                    }
+                });
+    }
+
+    @Test
+    public void keepsAtMostMaxProcessesInFlight() throws Exception {
+        List<ListenableFuture<ProcessStatus>> results =
+                new ArrayList<ListenableFuture<ProcessStatus>>();
+        for (int i = 0; i < 5; i++) {
+            String url = "process" + i;
+            finishOnSecondPoll(url);
+            results.add(tracker.submit(starter(url), null, "failed: "));
+        }
+        for (ListenableFuture<ProcessStatus> result : results) {
+            assertThat(result.get(5, TimeUnit.SECONDS).getStatusCode(),
+                    is(ProcessStatus.ProcessStatusCode.Finished));
+        }
+        assertThat(maxRunning.get(), lessThanOrEqualTo(2));
+    }
+
+    @Test
+    public void dependentProcessStartsAfterDependency() throws Exception {
+        finishOnSecondPoll("source");
+        finishOnSecondPoll("trans");
+        final ListenableFuture<ProcessStatus> source =
+                tracker.submit(starter("source"), null, "failed: ");
+        ListenableFuture<ProcessStatus> trans =
+                tracker.submit(new AsyncProcessTracker.ProcessStarter() {
+                    @Override
+                    public ProcessStatus start() {
+                        assertThat(source.isDone(), is(true));
+                        return status(
+                                ProcessStatus.ProcessStatusCode.Running,
+                                "trans");
+                    }
+                }, source, "failed: ");
+        assertThat(trans.get(5, TimeUnit.SECONDS).getStatusCode(),
+                is(ProcessStatus.ProcessStatusCode.Finished));
+    }
+
+    @Test
+    public void failedProcessFailsItsDependents() throws Exception {
+        ProcessStatus failed =
+                status(ProcessStatus.ProcessStatusCode.Failed, "source");
+        failed.getMessages().add("bad document");
+        when(asyncProcessClient.getProcessStatus("source")).thenReturn(failed);
+        ListenableFuture<ProcessStatus> source =
+                tracker.submit(starter("source"), null, "Failed: ");
+        ListenableFuture<ProcessStatus> trans =
+                tracker.submit(starter("trans"), source, "Failed: ");
+        try {
+            source.get(5, TimeUnit.SECONDS);
+            throw new AssertionError("expected failure");
+        } catch (ExecutionException e) {
+            assertThat(e.getCause().getMessage(),
+                    containsString("bad document"));
+        }
+        try {
+            trans.get(5, TimeUnit.SECONDS);
+            throw new AssertionError("expected failure");
+        } catch (ExecutionException e) {
+            assertThat(e.getCause().getMessage(),
+                    containsString("depends on failed"));
+        }
+    }
+
+    @Test
+    public void restartsProcessWhichWasNotAccepted() throws Exception {
+        final AtomicInteger starts = new AtomicInteger();
+        ListenableFuture<ProcessStatus> result =
+                tracker.submit(new AsyncProcessTracker.ProcessStarter() {
+                    @Override
+                    public ProcessStatus start() {
+                        if (starts.incrementAndGet() == 1) {
+                            return status(
+                                    ProcessStatus.ProcessStatusCode.NotAccepted,
+                                    null);
+                        }
+                        return status(
+                                ProcessStatus.ProcessStatusCode.Finished,
+                                "process");
+                    }
+                }, null, "failed: ");
+        assertThat(result.get(5, TimeUnit.SECONDS).getStatusCode(),
+                is(ProcessStatus.ProcessStatusCode.Finished));
+        assertThat(starts.get(), is(2));
+    }
+
+    @Test
+    public void slowStartDoesNotHoldUpOtherProcesses() throws Exception {
+        final CountDownLatch uploaded = new CountDownLatch(1);
+        finishOnSecondPoll("small");
+        ListenableFuture<ProcessStatus> large =
+                tracker.submit(new AsyncProcessTracker.ProcessStarter() {
+                    @Override
+                    public ProcessStatus start() {
+                        // a large upload, still in progress
+                        Uninterruptibles.awaitUninterruptibly(uploaded);
+                        return status(
+                                ProcessStatus.ProcessStatusCode.Finished,
+                                "large");
+                    }
+                }, null, "failed: ");
+        ListenableFuture<ProcessStatus> small =
+                tracker.submit(starter("small"), null, "failed: ");
+
+        assertThat(small.get(5, TimeUnit.SECONDS).getStatusCode(),
+                is(ProcessStatus.ProcessStatusCode.Finished));
+        assertThat(large.isDone(), is(false));
+        uploaded.countDown();
+        assertThat(large.get(5, TimeUnit.SECONDS).getStatusCode(),
+                is(ProcessStatus.ProcessStatusCode.Finished));
+    }
+}
@@ -0,0 +1,128 @@
+package org.zanata.client.commands.push;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.hamcrest.Matchers.nullValue;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mockito.MockitoAnnotations.initMocks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.zanata.rest.client.CopyTransClient;
+import org.zanata.rest.dto.CopyTransStatus;
+
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+
+public class CopyTransSchedulerTest {
+    @Mock
+    private CopyTransClient copyTransClient;
+    private CopyTransScheduler scheduler;
+    private final AtomicInteger running = new AtomicInteger();
+    private final AtomicInteger maxRunning = new AtomicInteger();
+
+    @Before
+    public void setUp() {
+        initMocks(this);
+        scheduler =
+                new CopyTransScheduler(copyTransClient, "proj", "1.0", 2);
+    }
+
+    @After
+    public void tearDown() {
+        scheduler.close();
+    }
+
+    private static CopyTransStatus status(boolean inProgress, int percent) {
+        CopyTransStatus status = new CopyTransStatus();
+        status.setInProgress(inProgress);
+        status.setPercentageComplete(percent);
+        return status;
+    }
+
+    private void finishOnSecondPoll(String doc) {
+        when(copyTransClient.startCopyTrans("proj", "1.0", doc)).thenAnswer(
+                new Answer<CopyTransStatus>() {
+                    @Override
+                    public CopyTransStatus answer(InvocationOnMock invocation) {
+                        int now = running.incrementAndGet();
+                        if (now > maxRunning.get()) {
+                            maxRunning.set(now);
+                        }
+                        return status(true, 0);
+                    }
+                });
+        when(copyTransClient.getCopyTransStatus("proj", "1.0", doc))
+                .thenReturn(status(true, 50)).thenAnswer(
+                        new Answer<CopyTransStatus>() {
+                            @Override
+                            public CopyTransStatus answer(
+                                    InvocationOnMock invocation) {
+                                running.decrementAndGet();
+                                return status(false, 100);
+                            }
+                        });
+    }
+
+    @Test
+    public void runsAtMostMaxJobsAtOnce() throws Exception {
+        List<ListenableFuture<CopyTransStatus>> results =
+                new ArrayList<ListenableFuture<CopyTransStatus>>();
+        for (int i = 0; i < 5; i++) {
+            finishOnSecondPoll("doc" + i);
+            results.add(scheduler.schedule("doc" + i, null));
+        }
+        for (ListenableFuture<CopyTransStatus> result : results) {
+            assertThat(result.get(5, TimeUnit.SECONDS)
+                    .getPercentageComplete(), is(100));
+        }
+        assertThat(maxRunning.get(), lessThanOrEqualTo(2));
+    }
+
+    @Test
+    public void waitsForSourcePush() throws Exception {
+        finishOnSecondPoll("doc");
+        SettableFuture<Object> sourcePush = SettableFuture.create();
+        ListenableFuture<CopyTransStatus> result =
+                scheduler.schedule("doc", sourcePush);
+        Thread.sleep(300);
+        verify(copyTransClient, never()).startCopyTrans("proj", "1.0", "doc");
+        sourcePush.set(null);
+        assertThat(result.get(5, TimeUnit.SECONDS).getPercentageComplete(),
+                is(100));
+    }
+
+    @Test
+    public void cancelledIfSourcePushFails() throws Exception {
+        SettableFuture<Object> sourcePush = SettableFuture.create();
+        ListenableFuture<CopyTransStatus> result =
+                scheduler.schedule("doc", sourcePush);
+        sourcePush.setException(new RuntimeException("push failed"));
+        for (int i = 0; i < 50 && !result.isDone(); i++) {
+            Thread.sleep(100);
+        }
+        assertThat(result.isCancelled(), is(true));
+        verify(copyTransClient, never()).startCopyTrans("proj", "1.0", "doc");
+    }
+
+    @Test
+    public void proceedsIfCopyTransCannotBeStarted() throws Exception {
+        when(copyTransClient.startCopyTrans("proj", "1.0", "doc")).thenThrow(
+                new RuntimeException("no copy trans"));
+        ListenableFuture<CopyTransStatus> result =
+                scheduler.schedule("doc", null);
+        assertThat(result.get(5, TimeUnit.SECONDS), is(nullValue()));
+    }
+}
@@ -0,0 +1,69 @@
+package org.zanata.client.commands.push;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+public class PollingBackoffTest {
+
+    /**
+     * Returns 0.5 every time, ie no jitter.
+     */
+    private static class FixedRandom extends Random {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        public double nextDouble() {
+            return 0.5;
+        }
+    }
+
+    private PollingBackoff backoff() {
+        return new PollingBackoff(100, 1000, 2, 0.2, new FixedRandom());
+    }
+
+    @Test
+    public void delayGrowsExponentiallyUpToMaximum() {
+        PollingBackoff backoff = backoff();
+        assertThat(backoff.nextDelay(-1), is(100L));
+        assertThat(backoff.nextDelay(-1), is(200L));
+        assertThat(backoff.nextDelay(-1), is(400L));
+        assertThat(backoff.nextDelay(-1), is(800L));
+        assertThat(backoff.nextDelay(-1), is(1000L));
+        assertThat(backoff.nextDelay(-1), is(1000L));
+        assertThat(backoff.getAttempts(), is(6));
+    }
+
+    @Test
+    public void delayDoesNotGrowWhileProgressing() {
+        PollingBackoff backoff = backoff();
+        assertThat(backoff.nextDelay(0), is(100L));
+        assertThat(backoff.nextDelay(0), is(200L));
+        assertThat(backoff.nextDelay(10), is(200L));
+        assertThat(backoff.nextDelay(20), is(200L));
+        assertThat(backoff.nextDelay(20), is(400L));
+    }
+
+    @Test
+    public void jitterStaysWithinBounds() {
+        PollingBackoff backoff =
+                new PollingBackoff(1000, 1000, 2, 0.2, new Random(42));
+        for (int i = 0; i < 100; i++) {
+            long delay = backoff.nextDelay(-1);
+            assertThat(delay >= 800 && delay <= 1200, is(true));
+        }
+    }
+
+    @Test
+    public void resetStartsAgain() {
+        PollingBackoff backoff = backoff();
+        backoff.nextDelay(-1);
+        backoff.nextDelay(-1);
+        backoff.reset();
+        assertThat(backoff.nextDelay(-1), is(100L));
+        assertThat(backoff.getAttempts(), is(1));
+    }
+}
@@ -1,30 +1,53 @@
 package org.zanata.client.commands.push;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyString;
 import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.mockito.MockitoAnnotations.initMocks;
 import static org.zanata.client.TestUtils.fileFromClasspath;
 
 import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
 import org.zanata.client.TestUtils;
 import org.zanata.client.commands.OptionsUtil;
 import org.zanata.client.commands.ZanataCommand;
 import org.zanata.client.config.LocaleList;
 import org.zanata.client.config.LocaleMapping;
+import org.zanata.client.etag.ETagCache;
+import org.zanata.client.etag.ETagCacheEntry;
+import org.zanata.client.etag.ETagCacheReaderWriter;
+import org.zanata.client.manifest.PushManifest;
+import org.zanata.client.manifest.PushManifestEntry;
+import org.zanata.client.manifest.PushManifestReaderWriter;
+import org.zanata.client.manifest.TargetSnapshot;
+import org.zanata.client.manifest.TargetSnapshotStore;
 import org.zanata.common.LocaleId;
 import org.zanata.rest.StringSet;
 import org.zanata.rest.client.AsyncProcessClient;
 import org.zanata.rest.client.CopyTransClient;
 import org.zanata.rest.client.RestClientFactory;
+import org.zanata.rest.client.SerializedEntity;
 import org.zanata.rest.client.SourceDocResourceClient;
 import org.zanata.rest.dto.CopyTransStatus;
 import org.zanata.rest.dto.ProcessStatus;
@@ -32,8 +55,13 @@ import org.zanata.rest.dto.resource.Resource;
 import org.zanata.rest.dto.resource.ResourceMeta;
 import org.zanata.rest.dto.resource.TextFlowTarget;
 import org.zanata.rest.dto.resource.TranslationsResource;
+import org.zanata.util.HashUtil;
+
+import com.google.common.io.Files;
 
 public class PushCommandTest {
+    private static final String FAILED_SUB_RPM =
+            "Failed to push sub/RPM (to resume, use --from-doc \"sub/RPM\"): ";
     @Mock
     private RestClientFactory clientFactory;
     @Mock
@@ -42,6 +70,19 @@ public class PushCommandTest {
     private AsyncProcessClient asyncProcessClient;
     @Mock
     private CopyTransClient copyTransClient;
+    private int pushThreads = 1;
+    private int localeThreads = 1;
+    private int parseAhead = 0;
+    private int asyncProcesses = 1;
+    private boolean force = false;
+    private int batchSize = 0;
+    private int copyTransJobs = 1;
+    private int deleteThreads = 1;
+    private String versionSlug = "1.0";
+    private boolean transOnly = false;
+    private File srcDir;
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
 
     @Before
     public void setUp() {
@@ -68,6 +109,504 @@ public class PushCommandTest {
         push(true, true);
     }
 
+    @Test
+    public void pushSrcAndTargetConcurrently() throws Exception {
+        pushThreads = 2;
+        push(true, false);
+    }
+
+    @Test
+    public void concurrentPushReportsFailedDocument() throws Exception {
+        pushThreads = 2;
+        mockServer(false, false);
+        when(
+                asyncProcessClient.startSourceDocCreationOrUpdate(
+                        eq("sub,RPM"), anyString(), anyString(),
+                        any(SerializedEntity.class), any(StringSet.class),
+                        eq(false))).thenThrow(
+                new RuntimeException("server exploded"));
+        ZanataCommand cmd = generatePushCommand(false, false);
+        try {
+            cmd.runWithActions();
+            throw new AssertionError("expected failure");
+        } catch (RuntimeException e) {
+            assertEquals(FAILED_SUB_RPM + "server exploded", e.getMessage());
+        }
+    }
+
+    @Test
+    public void concurrentPushDoesNotStartDocumentsAfterFailure()
+            throws Exception {
+        pushThreads = 2;
+        srcDir = tempFolder.newFolder("pot");
+        for (String doc : new String[] { "a", "b", "c", "d" }) {
+            Files.copy(fileFromClasspath("test1/pot/RPM.pot"), new File(
+                    srcDir, doc + ".pot"));
+        }
+        mockServer(false, false);
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch failing = new CountDownLatch(1);
+        when(
+                asyncProcessClient.startSourceDocCreationOrUpdate(
+                        eq("a"), anyString(), anyString(),
+                        any(SerializedEntity.class), any(StringSet.class),
+                        eq(false))).thenAnswer(new Answer<ProcessStatus>() {
+            @Override
+            public ProcessStatus answer(InvocationOnMock invocation)
+                    throws InterruptedException {
+                started.await(5, TimeUnit.SECONDS);
+                failing.countDown();
+                throw new RuntimeException("server exploded");
+            }
+        });
+        final ProcessStatus finished = new ProcessStatus();
+        finished.setStatusCode(ProcessStatus.ProcessStatusCode.Finished);
+        finished.setMessages(new ArrayList<String>());
+        when(
+                asyncProcessClient.startSourceDocCreationOrUpdate(
+                        eq("b"), anyString(), anyString(),
+                        any(SerializedEntity.class), any(StringSet.class),
+                        eq(false))).thenAnswer(new Answer<ProcessStatus>() {
+            @Override
+            public ProcessStatus answer(InvocationOnMock invocation)
+                    throws InterruptedException {
+                // still in progress when "a" fails
+                started.countDown();
+                failing.await(5, TimeUnit.SECONDS);
+                Thread.sleep(100);
+                return finished;
+            }
+        });
+        try {
+            generatePushCommand(false, false).runWithActions();
+            throw new AssertionError("expected failure");
+        } catch (RuntimeException e) {
+            assertEquals(
+                    "Failed to push a (to resume, use --from-doc \"a\"): server exploded",
+                    e.getMessage());
+        }
+        // "b" was allowed to finish, but nothing else was started
+        verify(asyncProcessClient).startSourceDocCreationOrUpdate(eq("b"),
+                anyString(), anyString(), any(SerializedEntity.class),
+                any(StringSet.class), eq(false));
+        for (String doc : new String[] { "c", "d" }) {
+            verify(asyncProcessClient, never()).startSourceDocCreationOrUpdate(
+                    eq(doc), anyString(), anyString(),
+                    any(SerializedEntity.class), any(StringSet.class),
+                    eq(false));
+        }
+    }
+
+    @Test
+    public void clientFactoryIsClosedWhenPushFails() throws Exception {
+        when(
+                asyncProcessClient.startSourceDocCreationOrUpdate(
+                        anyString(), anyString(), anyString(),
+                        any(SerializedEntity.class), any(StringSet.class),
+                        eq(false))).thenThrow(
+                new RuntimeException("server exploded"));
+        try {
+            generatePushCommand(false, false).runWithActions();
+            fail("expected failure");
+        } catch (RuntimeException e) {
+            // expected
+        }
+
+        verify(clientFactory).close();
+    }
+
+    @Test
+    public void pushSrcAndTargetWithLocaleThreads() throws Exception {
+        pushThreads = 2;
+        localeThreads = 2;
+        push(true, false);
+    }
+
+    @Test
+    public void concurrentLocalePushReportsFailure() throws Exception {
+        localeThreads = 2;
+        mockServer(true, false);
+        when(
+                asyncProcessClient.startTranslatedDocCreationOrUpdate(
+                        eq("RPM"), anyString(), anyString(),
+                        any(LocaleId.class), any(SerializedEntity.class),
+                        any(StringSet.class), anyString(), eq(false)))
+                .thenThrow(new RuntimeException("server exploded"));
+        ZanataCommand cmd = generatePushCommand(true, false);
+        try {
+            cmd.runWithActions();
+            throw new AssertionError("expected failure");
+        } catch (RuntimeException e) {
+            assertEquals(
+                    "Failed to push RPM (to resume, use --from-doc \"RPM\"): server exploded",
+                    e.getMessage());
+        }
+    }
+
+    @Test
+    public void notAcceptedProcessIsResubmittedAfterOneWait() throws Exception {
+        mockServer(false, false);
+        ProcessStatus notAccepted = new ProcessStatus();
+        notAccepted.setStatusCode(ProcessStatus.ProcessStatusCode.NotAccepted);
+        notAccepted.setMessages(new ArrayList<String>());
+        ProcessStatus finished = new ProcessStatus();
+        finished.setStatusCode(ProcessStatus.ProcessStatusCode.Finished);
+        finished.setMessages(new ArrayList<String>());
+        when(
+                asyncProcessClient.startSourceDocCreationOrUpdate(
+                        eq("RPM"), anyString(), anyString(),
+                        any(SerializedEntity.class), any(StringSet.class),
+                        eq(false))).thenReturn(notAccepted, finished);
+
+        generatePushCommand(false, false).runWithActions();
+
+        verify(asyncProcessClient, times(2)).startSourceDocCreationOrUpdate(
+                eq("RPM"), anyString(), anyString(),
+                any(SerializedEntity.class), any(StringSet.class), eq(false));
+        // the resubmitted process is checked straight away, not after a
+        // status poll as well: one poll for each document
+        verify(asyncProcessClient, times(2)).getProcessStatus(anyString());
+    }
+
+    @Test
+    public void pushSrcAndTargetWithParseAhead() throws Exception {
+        parseAhead = 1;
+        push(true, false);
+    }
+
+    @Test
+    public void pushSrcAndTargetWithParseAheadAndLocaleThreads()
+            throws Exception {
+        parseAhead = 2;
+        localeThreads = 2;
+        push(true, true);
+    }
+
+    @Test
+    public void parseAheadReportsFailedDocument() throws Exception {
+        parseAhead = 1;
+        mockServer(false, false);
+        when(
+                asyncProcessClient.startSourceDocCreationOrUpdate(
+                        eq("RPM"), anyString(), anyString(),
+                        any(SerializedEntity.class), any(StringSet.class),
+                        eq(false))).thenThrow(
+                new RuntimeException("server exploded"));
+        ZanataCommand cmd = generatePushCommand(false, false);
+        try {
+            cmd.runWithActions();
+            throw new AssertionError("expected failure");
+        } catch (RuntimeException e) {
+            assertEquals(
+                    "Failed to push RPM (to resume, use --from-doc \"RPM\"): server exploded",
+                    e.getMessage());
+        }
+        // the failure stops the push before the next document
+        verify(asyncProcessClient, never()).startSourceDocCreationOrUpdate(
+                eq("sub,RPM"), anyString(), anyString(),
+                any(SerializedEntity.class), any(StringSet.class), eq(false));
+    }
+
+    @Test
+    public void pushSrcAndTargetWithAsyncProcesses() throws Exception {
+        asyncProcesses = 3;
+        push(true, false);
+    }
+
+    @Test
+    public void trackedProcessFailureIsReported() throws Exception {
+        asyncProcesses = 2;
+        mockServer(false, false);
+        ProcessStatus failed = new ProcessStatus();
+        failed.setStatusCode(ProcessStatus.ProcessStatusCode.Failed);
+        failed.setMessages(new ArrayList<String>());
+        when(
+                asyncProcessClient.startSourceDocCreationOrUpdate(
+                        eq("sub,RPM"), anyString(), anyString(),
+                        any(SerializedEntity.class), any(StringSet.class),
+                        eq(false))).thenReturn(failed);
+        ZanataCommand cmd = generatePushCommand(false, false);
+        try {
+            cmd.runWithActions();
+            throw new AssertionError("expected failure");
+        } catch (RuntimeException e) {
+            assertTrue(e.getMessage(),
+                    e.getMessage().startsWith(FAILED_SUB_RPM));
+        }
+    }
+
+    @Test
+    public void unchangedSourceIsNotPushedAgain() throws Exception {
+        push(false, false);
+        push(false, false);
+        // RPM is on the server, so the second push skips it
+        verify(asyncProcessClient, times(1)).startSourceDocCreationOrUpdate(
+                eq("RPM"), anyString(), anyString(), any(SerializedEntity.class),
+                any(StringSet.class), eq(false));
+        // sub/RPM is not on the server, so it is pushed again
+        verify(asyncProcessClient, times(2)).startSourceDocCreationOrUpdate(
+                eq("sub,RPM"), anyString(), anyString(), any(SerializedEntity.class),
+                any(StringSet.class), eq(false));
+    }
+
+    @Test
+    public void forcePushesUnchangedSource() throws Exception {
+        force = true;
+        push(false, false);
+        push(false, false);
+        verify(asyncProcessClient, times(2)).startSourceDocCreationOrUpdate(
+                eq("RPM"), anyString(), anyString(), any(SerializedEntity.class),
+                any(StringSet.class), eq(false));
+    }
+
+    @Test
+    public void unchangedTranslationsAreNotPushedAgain() throws Exception {
+        push(true, false);
+        push(true, false);
+        verify(asyncProcessClient, times(1))
+                .startTranslatedDocCreationOrUpdate(eq("RPM"), anyString(),
+                        anyString(), eq(new LocaleId("ja-JP")),
+                        any(SerializedEntity.class), any(StringSet.class),
+                        eq("auto"), eq(false));
+    }
+
+    @Test
+    public void forcePushesUnchangedTranslations() throws Exception {
+        force = true;
+        push(true, false);
+        push(true, false);
+        verify(asyncProcessClient, times(2))
+                .startTranslatedDocCreationOrUpdate(eq("RPM"), anyString(),
+                        anyString(), eq(new LocaleId("ja-JP")),
+                        any(SerializedEntity.class), any(StringSet.class),
+                        eq("auto"), eq(false));
+    }
+
+    @Test
+    public void translationsPushedToOneVersionArePushedToAnother()
+            throws Exception {
+        push(true, false);
+        versionSlug = "2.0";
+        push(true, false);
+        verify(asyncProcessClient, times(2))
+                .startTranslatedDocCreationOrUpdate(eq("RPM"), anyString(),
+                        anyString(), eq(new LocaleId("ja-JP")),
+                        any(SerializedEntity.class), any(StringSet.class),
+                        eq("auto"), eq(false));
+    }
+
+    @Test
+    public void translationsPulledFromOneVersionArePushedToAnother()
+            throws Exception {
+        // the ETag cache which pull writes after pulling RPM from 1.0
+        File transFile = fileFromClasspath("test1/ja-JP/RPM.po");
+        ETagCache pulled = new ETagCache();
+        pulled.addEntry(new ETagCacheEntry("RPM", "ja-JP",
+                String.valueOf(transFile.lastModified()),
+                HashUtil.getMD5Checksum(transFile), "etag"));
+        try (FileOutputStream out = new FileOutputStream(new File(
+                tempFolder.getRoot(), "etag-cache.xml"))) {
+            ETagCacheReaderWriter.writeCache(pulled, out);
+        }
+
+        versionSlug = "2.0";
+        push(true, false);
+
+        verify(asyncProcessClient, times(1))
+                .startTranslatedDocCreationOrUpdate(eq("RPM"), anyString(),
+                        eq("2.0"), eq(new LocaleId("ja-JP")),
+                        any(SerializedEntity.class), any(StringSet.class),
+                        eq("auto"), eq(false));
+    }
+
+    @Test
+    public void onlyChangedTargetsArePushedForMergeAuto() throws Exception {
+        push(true, false);
+        // forget the file hashes, but keep the target snapshots
+        new File(tempFolder.getRoot(), "push-manifest.xml").delete();
+        TargetSnapshotStore store =
+                new TargetSnapshotStore(new File(tempFolder.getRoot(),
+                        "target-snapshots"));
+        TargetSnapshot snapshot =
+                store.load("null", "project", "1.0", "RPM", "ja-JP");
+        snapshot.getTargets().get(1).setHash("changed");
+        store.store("null", "project", "1.0", "RPM", "ja-JP", snapshot);
+
+        // the source is unchanged, and is not pushed again
+        transOnly = true;
+        push(true, false);
+
+        ArgumentCaptor<SerializedEntity> pushed =
+                ArgumentCaptor.forClass(SerializedEntity.class);
+        verify(asyncProcessClient, times(2))
+                .startTranslatedDocCreationOrUpdate(eq("RPM"), anyString(),
+                        anyString(), eq(new LocaleId("ja-JP")),
+                        pushed.capture(), any(StringSet.class), eq("auto"),
+                        eq(false));
+        assertEquals(2, pushed.getAllValues().get(0)
+                .unmarshal(TranslationsResource.class).getTextFlowTargets()
+                .size());
+        List<TextFlowTarget> delta =
+                pushed.getAllValues().get(1)
+                        .unmarshal(TranslationsResource.class)
+                        .getTextFlowTargets();
+        assertEquals(1, delta.size());
+        assertEquals(snapshot.getTargets().get(1).getResId(), delta.get(0)
+                .getResId());
+    }
+
+    @Test
+    public void allTargetsArePushedAfterTheirSourceIsPushed()
+            throws Exception {
+        pushChangedSourceWithUnchangedTranslations();
+    }
+
+    @Test
+    public void allTargetsArePushedAfterTheirSourceIsPushedWithParseAhead()
+            throws Exception {
+        parseAhead = 2;
+        pushChangedSourceWithUnchangedTranslations();
+    }
+
+    private void pushChangedSourceWithUnchangedTranslations()
+            throws Exception {
+        push(true, false);
+        // the source has changed since it was pushed, but its translation
+        // file has not
+        File manifestFile = new File(tempFolder.getRoot(), "push-manifest.xml");
+        PushManifest manifest;
+        try (FileInputStream in = new FileInputStream(manifestFile)) {
+            manifest = PushManifestReaderWriter.readManifest(in);
+        }
+        for (PushManifestEntry entry : manifest.getEntries()) {
+            if (entry.getLanguage() == null) {
+                entry.setFileHash("changed");
+                entry.setContentHash("changed");
+            }
+        }
+        try (FileOutputStream out = new FileOutputStream(manifestFile)) {
+            PushManifestReaderWriter.writeManifest(manifest, out);
+        }
+
+        push(true, false);
+
+        verify(asyncProcessClient, times(2)).startSourceDocCreationOrUpdate(
+                eq("RPM"), anyString(), anyString(), any(SerializedEntity.class),
+                any(StringSet.class), eq(false));
+        ArgumentCaptor<SerializedEntity> pushed =
+                ArgumentCaptor.forClass(SerializedEntity.class);
+        verify(asyncProcessClient, times(2))
+                .startTranslatedDocCreationOrUpdate(eq("RPM"), anyString(),
+                        anyString(), eq(new LocaleId("ja-JP")),
+                        pushed.capture(), any(StringSet.class), eq("auto"),
+                        eq(false));
+        for (SerializedEntity doc : pushed.getAllValues()) {
+            assertEquals(2, doc.unmarshal(TranslationsResource.class)
+                    .getTextFlowTargets().size());
+        }
+    }
+
+    @Test
+    public void largeTranslationDocIsPushedInBatches() throws Exception {
+        batchSize = 1;
+        push(true, false);
+        ArgumentCaptor<SerializedEntity> pushed =
+                ArgumentCaptor.forClass(SerializedEntity.class);
+        verify(asyncProcessClient, times(2))
+                .startTranslatedDocCreationOrUpdate(eq("RPM"), anyString(),
+                        anyString(), eq(new LocaleId("ja-JP")),
+                        pushed.capture(), any(StringSet.class), eq("auto"),
+                        eq(false));
+        for (SerializedEntity batch : pushed.getAllValues()) {
+            assertEquals(1, batch.unmarshal(TranslationsResource.class)
+                    .getTextFlowTargets().size());
+        }
+    }
+
+    @Test
+    public void failedBatchIsRetriedOnItsOwn() throws Exception {
+        batchSize = 1;
+        mockServer(true, false);
+        ProcessStatus finished = new ProcessStatus();
+        finished.setStatusCode(ProcessStatus.ProcessStatusCode.Finished);
+        finished.setMessages(new ArrayList<String>());
+        when(
+                asyncProcessClient.startTranslatedDocCreationOrUpdate(
+                        eq("RPM"), anyString(), anyString(),
+                        any(LocaleId.class), any(SerializedEntity.class),
+                        any(StringSet.class), anyString(), eq(false)))
+                .thenThrow(new RuntimeException("server exploded"))
+                .thenReturn(finished);
+        generatePushCommand(true, false).runWithActions();
+        // two batches, one of which is sent twice
+        verify(asyncProcessClient, times(3))
+                .startTranslatedDocCreationOrUpdate(eq("RPM"), anyString(),
+                        anyString(), any(LocaleId.class),
+                        any(SerializedEntity.class), any(StringSet.class),
+                        anyString(), eq(false));
+    }
+
+    @Test
+    public void copyTransRunsInBackground() throws Exception {
+        copyTransJobs = 2;
+        asyncProcesses = 2;
+        push(true, false);
+        verify(copyTransClient).startCopyTrans("project", "1.0", "RPM");
+        verify(copyTransClient).startCopyTrans("project", "1.0", "sub/RPM");
+    }
+
+    @Test
+    public void obsoleteDocsAreDeletedConcurrently() throws Exception {
+        deleteThreads = 2;
+        push(false, false);
+        verify(sourceDocResourceClient).deleteResource("obsolete");
+    }
+
+    @Test
+    public void failedDeletionIsReported() throws Exception {
+        deleteThreads = 2;
+        List<ResourceMeta> resourceMetaList = new ArrayList<ResourceMeta>();
+        resourceMetaList.add(new ResourceMeta("obsolete"));
+        resourceMetaList.add(new ResourceMeta("obsolete2"));
+        resourceMetaList.add(new ResourceMeta("RPM"));
+        mockServer(false, false);
+        when(sourceDocResourceClient.getResourceMeta(null)).thenReturn(
+                resourceMetaList);
+        when(sourceDocResourceClient.deleteResource("obsolete")).thenThrow(
+                new RuntimeException("server exploded"));
+        try {
+            generatePushCommand(false, false).runWithActions();
+            throw new AssertionError("expected failure");
+        } catch (RuntimeException e) {
+            assertEquals("Failed to delete 1 of 2 obsolete documents: [obsolete]",
+                    e.getMessage());
+        }
+        // the other deletion still went ahead
+        verify(sourceDocResourceClient).deleteResource("obsolete2");
+    }
+
+    @Test
+    public void failedSequentialDeletionIsReported() throws Exception {
+        List<ResourceMeta> resourceMetaList = new ArrayList<ResourceMeta>();
+        resourceMetaList.add(new ResourceMeta("obsolete"));
+        resourceMetaList.add(new ResourceMeta("obsolete2"));
+        resourceMetaList.add(new ResourceMeta("RPM"));
+        mockServer(false, false);
+        when(sourceDocResourceClient.getResourceMeta(null)).thenReturn(
+                resourceMetaList);
+        when(sourceDocResourceClient.deleteResource("obsolete")).thenThrow(
+                new RuntimeException("server exploded"));
+        try {
+            generatePushCommand(false, false).runWithActions();
+            throw new AssertionError("expected failure");
+        } catch (RuntimeException e) {
+            assertEquals("Failed to delete 1 of 2 obsolete documents: [obsolete]",
+                    e.getMessage());
+        }
+        // the other deletion still went ahead
+        verify(sourceDocResourceClient).deleteResource("obsolete2");
+    }
+
     @Test
     public void testSplitTranslationResource() throws Exception {
         int batchSize = 100;
@@ -129,10 +668,12 @@ public class PushCommandTest {
         opts.setInteractiveMode(false);
         String projectSlug = "project";
         opts.setProj(projectSlug);
-        String versionSlug = "1.0";
         opts.setProjectVersion(versionSlug);
-        opts.setSrcDir(fileFromClasspath("test1/pot"));
-        if (pushTrans) {
+        opts.setSrcDir(srcDir != null ? srcDir
+                : fileFromClasspath("test1/pot"));
+        if (transOnly) {
+            opts.setPushType("trans");
+        } else if (pushTrans) {
             opts.setPushType("both");
         } else {
             opts.setPushType("source");
@@ -145,6 +686,14 @@ public class PushCommandTest {
         opts.setExcludes("");
         opts.setSourceLang("en-US");
         opts.setMergeType("auto");
+        opts.setPushThreads(pushThreads);
+        opts.setLocaleThreads(localeThreads);
+        opts.setParseAhead(parseAhead);
+        opts.setAsyncProcesses(asyncProcesses);
+        opts.setForce(force);
+        opts.setBatchSize(batchSize);
+        opts.setCopyTransJobs(copyTransJobs);
+        opts.setDeleteThreads(deleteThreads);
         LocaleList locales = new LocaleList();
         if (mapLocale) {
             locales.add(new LocaleMapping("ja", "ja-JP"));
@@ -154,12 +703,20 @@ public class PushCommandTest {
         opts.setLocaleMapList(locales);
         OptionsUtil.applyConfigFiles(opts);
 
-        return new PushCommand(opts,
-                clientFactory.getCopyTransClient(),
-                clientFactory.getAsyncProcessClient(), clientFactory);
+        PushCommand cmd =
+                new PushCommand(opts, clientFactory.getCopyTransClient(),
+                        clientFactory.getAsyncProcessClient(), clientFactory);
+        cmd.setCacheDir(tempFolder.getRoot());
+        return cmd;
     }
 
     private void push(boolean pushTrans, boolean mapLocale) throws Exception {
+        mockServer(pushTrans, mapLocale);
+        ZanataCommand cmd = generatePushCommand(pushTrans, mapLocale);
+        cmd.runWithActions();
+    }
+
+    private void mockServer(boolean pushTrans, boolean mapLocale) {
         List<ResourceMeta> resourceMetaList = new ArrayList<ResourceMeta>();
         resourceMetaList.add(new ResourceMeta("obsolete"));
         resourceMetaList.add(new ResourceMeta("RPM"));
@@ -181,12 +738,12 @@ public class PushCommandTest {
         when(
                 asyncProcessClient.startSourceDocCreationOrUpdate(
                         eq("RPM"), anyString(), anyString(),
-                        any(Resource.class), eq(extensionSet), eq(false)))
+                        any(SerializedEntity.class), eq(extensionSet), eq(false)))
                 .thenReturn(mockStatus);
         when(
                 asyncProcessClient.startSourceDocCreationOrUpdate(
                         eq("sub,RPM"), anyString(), anyString(),
-                        any(Resource.class), eq(extensionSet), eq(false)))
+                        any(SerializedEntity.class), eq(extensionSet), eq(false)))
                 .thenReturn(mockStatus);
         when(asyncProcessClient.getProcessStatus(anyString()))
                 .thenReturn(mockStatus);
@@ -211,7 +768,7 @@ public class PushCommandTest {
                             .startTranslatedDocCreationOrUpdate(eq("RPM"),
                                     anyString(), anyString(),
                                     eq(expectedLocale),
-                                    any(TranslationsResource.class),
+                                    any(SerializedEntity.class),
                                     eq(extensionSet), eq("auto"), eq(false))).
                                     thenReturn(mockStatus);
             // when(mockTranslationResources.putTranslations(eq("RPM"),
@@ -219,8 +776,6 @@ public class PushCommandTest {
             // eq(extensionSet), eq("auto")))
             // .thenReturn(okResponse);
         }
-        ZanataCommand cmd = generatePushCommand(pushTrans, mapLocale);
-        cmd.runWithActions();
     }
 
 }
@@ -0,0 +1,58 @@
+package org.zanata.client.commands.push;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+import java.util.List;
+
+import org.junit.Test;
+import org.zanata.rest.dto.resource.TextFlowTarget;
+import org.zanata.rest.dto.resource.TranslationsResource;
+
+public class TranslationBatcherTest {
+
+    private static TranslationsResource doc(String... contents) {
+        TranslationsResource doc = new TranslationsResource();
+        for (int i = 0; i < contents.length; i++) {
+            TextFlowTarget target = new TextFlowTarget("id" + i);
+            target.setContents(contents[i]);
+            doc.getTextFlowTargets().add(target);
+        }
+        return doc;
+    }
+
+    @Test
+    public void smallDocIsNotSplit() {
+        TranslationsResource doc = doc("a", "b");
+        List<TranslationsResource> batches =
+                new TranslationBatcher(5, 0).split(doc);
+        assertThat(batches.size(), is(1));
+        assertThat(batches.get(0) == doc, is(true));
+    }
+
+    @Test
+    public void splitsByTargetCount() {
+        List<TranslationsResource> batches =
+                new TranslationBatcher(2, 0).split(doc("a", "b", "c", "d",
+                        "e"));
+        assertThat(batches.size(), is(3));
+        assertThat(batches.get(0).getTextFlowTargets().size(), is(2));
+        assertThat(batches.get(2).getTextFlowTargets().size(), is(1));
+    }
+
+    @Test
+    public void splitsBySerializedSize() {
+        StringBuilder big = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            big.append('x');
+        }
+        List<TranslationsResource> batches =
+                new TranslationBatcher(0, 600).split(doc("a", "b",
+                        big.toString(), "c"));
+        // the big target goes in a batch of its own
+        assertThat(batches.size(), is(3));
+        assertThat(batches.get(0).getTextFlowTargets().size(), is(2));
+        assertThat(batches.get(1).getTextFlowTargets().size(), is(1));
+        assertThat(batches.get(2).getTextFlowTargets().size(), is(1));
+    }
+}
@@ -79,7 +79,8 @@ public class PushPullGettextITCase {
         assertThat(mockServerRule.getExtensionCaptor().getValue(),
                 Matchers.<Set> equalTo(new StringSet("gettext;comment")));
 
-        Resource resource = mockServerRule.getResourceCaptor().getValue();
+        Resource resource = mockServerRule.getResourceCaptor().getValue()
+                .unmarshal(Resource.class);
         assertThat(resource.getTextFlows(), hasSize(2));
 
         mockServerRule.verifyPushTranslation();
@@ -87,7 +88,8 @@ public class PushPullGettextITCase {
         assertThat(localeId, equalTo(new LocaleId("zh-CN")));
 
         TranslationsResource transResource =
-                mockServerRule.getTransResourceCaptor().getValue();
+                mockServerRule.getTransResourceCaptor().getValue()
+                        .unmarshal(TranslationsResource.class);
         assertThat(transResource.getTextFlowTargets(), hasSize(2));
     }
 
@@ -112,7 +114,8 @@ public class PushPullGettextITCase {
         assertThat(localeId, equalTo(new LocaleId("zh-CN")));
 
         TranslationsResource transResource =
-                mockServerRule.getTransResourceCaptor().getValue();
+                mockServerRule.getTransResourceCaptor().getValue()
+                        .unmarshal(TranslationsResource.class);
         assertThat(transResource.getTextFlowTargets(), hasSize(2));
     }
 
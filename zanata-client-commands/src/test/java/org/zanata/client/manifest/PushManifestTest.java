@@ -0,0 +1,65 @@
+package org.zanata.client.manifest;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+
+import org.junit.Test;
+import org.zanata.rest.dto.resource.Resource;
+
+public class PushManifestTest {
+
+    @Test
+    public void writeAndReadManifest() throws Exception {
+        PushManifest manifest = new PushManifest();
+        manifest.addEntry(new PushManifestEntry("http://localhost/", "proj",
+                "1.0", "sub/RPM", null, "abcd", "1234", "podir"));
+        manifest.addEntry(new PushManifestEntry("http://localhost/", "proj",
+                "1.0", "sub/RPM", "ja", "efgh", "5678", "podir"));
+
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        PushManifestReaderWriter.writeManifest(manifest, os);
+        PushManifest readManifest =
+                PushManifestReaderWriter.readManifest(new ByteArrayInputStream(
+                        os.toByteArray()));
+
+        assertThat(readManifest.getEntries().size(), is(2));
+        PushManifestEntry source =
+                readManifest.findEntry("http://localhost/", "proj", "1.0",
+                        "sub/RPM", null);
+        assertThat(source.getFileHash(), is("abcd"));
+        assertThat(source.getContentHash(), is("1234"));
+        assertThat(source.getSettings(), is("podir"));
+        PushManifestEntry trans =
+                readManifest.findEntry("http://localhost/", "proj", "1.0",
+                        "sub/RPM", "ja");
+        assertThat(trans.getContentHash(), is("5678"));
+        assertThat(readManifest.findEntry("http://localhost/", "proj", "2.0",
+                "sub/RPM", null), is(nullValue()));
+    }
+
+    @Test
+    public void addingEntryReplacesPreviousEntry() {
+        PushManifest manifest = new PushManifest();
+        manifest.addEntry(new PushManifestEntry("s", "p", "v", "doc", null,
+                "old", "old", ""));
+        manifest.addEntry(new PushManifestEntry("s", "p", "v", "doc", null,
+                "new", "new", ""));
+
+        assertThat(manifest.getEntries().size(), is(1));
+        assertThat(manifest.findEntry("s", "p", "v", "doc", null)
+                .getContentHash(), is("new"));
+    }
+
+    @Test
+    public void contentHashDependsOnContent() {
+        Resource doc = new Resource("doc");
+        String hash = ContentHasher.hash(doc);
+        assertThat(ContentHasher.hash(new Resource("doc")), is(hash));
+        assertThat(ContentHasher.hash(new Resource("other")), not(is(hash)));
+    }
+}
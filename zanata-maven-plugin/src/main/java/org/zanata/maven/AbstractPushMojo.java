@@ -154,6 +154,87 @@ public abstract class AbstractPushMojo extends
      */
     private boolean myTrans = false;
 
+    /**
+     * Number of documents to push concurrently. A value of 1 pushes one
+     * document at a time.
+     *
+     * @parameter expression="${zanata.pushThreads}" default-value="1"
+     */
+    private int pushThreads = 1;
+
+    /**
+     * Number of locales of a single document to upload concurrently. A value
+     * of 1 uploads one locale at a time.
+     *
+     * @parameter expression="${zanata.localeThreads}" default-value="1"
+     */
+    private int localeThreads = 1;
+
+    /**
+     * Number of documents which may be parsed ahead of the document currently
+     * being uploaded. A value of 0 parses each document just before uploading
+     * it. Only used when documents are pushed one at a time.
+     *
+     * @parameter expression="${zanata.parseAhead}" default-value="0"
+     */
+    private int parseAhead = 0;
+
+    /**
+     * Maximum number of server-side processes (document or translation
+     * uploads) to keep in flight at once. A value of 1 waits for each process
+     * to finish before starting the next.
+     *
+     * @parameter expression="${zanata.asyncProcesses}" default-value="1"
+     */
+    private int asyncProcesses = 1;
+
+    /**
+     * Push documents and translations even if they have not changed since the
+     * last push (according to the push manifest in .zanata-cache).
+     *
+     * @parameter expression="${zanata.force}" default-value="false"
+     */
+    private boolean force = false;
+
+    /**
+     * Split translation documents into batches of at most this many targets,
+     * which are uploaded concurrently (merge type auto only). 0 means no
+     * limit.
+     *
+     * @parameter expression="${zanata.batchSize}" default-value="0"
+     */
+    private int batchSize = 0;
+
+    /**
+     * Split translation documents into batches of at most this many bytes of
+     * serialized targets (merge type auto only). 0 means no limit.
+     *
+     * @parameter expression="${zanata.batchBytes}" default-value="0"
+     */
+    private int batchBytes = 0;
+
+    /**
+     * Maximum number of translation batches to upload at once.
+     *
+     * @parameter expression="${zanata.batchesInFlight}" default-value="2"
+     */
+    private int batchesInFlight = 2;
+
+    /**
+     * Maximum number of Copy Trans jobs to run at once. With more than one,
+     * Copy Trans runs in the background while the push continues.
+     *
+     * @parameter expression="${zanata.copyTransJobs}" default-value="1"
+     */
+    private int copyTransJobs = 1;
+
+    /**
+     * Number of obsolete documents to delete from the server concurrently.
+     *
+     * @parameter expression="${zanata.deleteThreads}" default-value="1"
+     */
+    private int deleteThreads = 1;
+
     @Override
     public String getSourceLang() {
         return sourceLang;
@@ -219,4 +300,54 @@ public abstract class AbstractPushMojo extends
     public boolean isMyTrans() {
         return myTrans;
     }
+
+    @Override
+    public int getPushThreads() {
+        return pushThreads;
+    }
+
+    @Override
+    public int getLocaleThreads() {
+        return localeThreads;
+    }
+
+    @Override
+    public int getParseAhead() {
+        return parseAhead;
+    }
+
+    @Override
+    public int getAsyncProcesses() {
+        return asyncProcesses;
+    }
+
+    @Override
+    public boolean isForce() {
+        return force;
+    }
+
+    @Override
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    @Override
+    public int getBatchBytes() {
+        return batchBytes;
+    }
+
+    @Override
+    public int getBatchesInFlight() {
+        return batchesInFlight;
+    }
+
+    @Override
+    public int getCopyTransJobs() {
+        return copyTransJobs;
+    }
+
+    @Override
+    public int getDeleteThreads() {
+        return deleteThreads;
+    }
 }
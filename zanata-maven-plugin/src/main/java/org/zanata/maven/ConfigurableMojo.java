@@ -13,6 +13,8 @@ import org.zanata.client.commands.ConfigurableOptions;
 import org.zanata.client.commands.OptionsUtil;
 import org.zanata.client.commands.ZanataCommand;
 import org.zanata.client.config.CommandHook;
+import org.zanata.rest.client.CompressionFilter;
+import org.zanata.rest.client.ConnectionSettings;
 
 import com.pyx4j.log4j.MavenLogAppender;
 
@@ -90,6 +92,34 @@ public abstract class ConfigurableMojo<O extends ConfigurableOptions> extends
      */
     private boolean logHttp = false;
 
+    /**
+     * With logHttp, log at most this many bytes of each message body; 0 to
+     * log no bodies.
+     *
+     * @parameter expression="${zanata.logHttpMaxBody}" default-value="4096"
+     */
+    /*
+     * NB Maven reads 'default-value' as a literal from the source, so it
+     * can't refer to the constant; keep them in step.
+     */
+    private int logHttpMaxBody =
+            ConnectionSettings.DEFAULT_HTTP_LOG_MAX_BODY_SIZE;
+
+    /**
+     * With logHttp, log the bodies of only one in every this many requests.
+     *
+     * @parameter expression="${zanata.logHttpSample}" default-value="1"
+     */
+    private int logHttpSample = 1;
+
+    /**
+     * With logHttp, append the log to this file (written in the background)
+     * instead of the Maven log.
+     *
+     * @parameter expression="${zanata.logHttpFile}"
+     */
+    private File logHttpFile;
+
     /**
      * Disable SSL certificate verification when connecting to Zanata host by
      * https.
@@ -98,6 +128,148 @@ public abstract class ConfigurableMojo<O extends ConfigurableOptions> extends
      */
     private boolean disableSSLCert = false;
 
+    /**
+     * Send large request bodies gzip-compressed. The server must accept
+     * gzip-encoded requests.
+     *
+     * @parameter expression="${zanata.compressRequests}" default-value="false"
+     */
+    private boolean compressRequests = false;
+
+    /**
+     * With compressRequests, compress request bodies bigger than this many
+     * bytes.
+     *
+     * @parameter expression="${zanata.compressionThreshold}"
+     *            default-value="1024"
+     */
+    // default-value can't refer to the constant either; keep them in step
+    private int compressionThreshold =
+            CompressionFilter.DEFAULT_REQUEST_THRESHOLD;
+
+    /**
+     * HTTP connector: 'urlconnection' or 'pooled'. The pooled connector keeps
+     * a pool of keep-alive connections, which suits concurrent push and pull.
+     *
+     * @parameter expression="${zanata.httpConnector}"
+     *            default-value="urlconnection"
+     */
+    private String httpConnector = "urlconnection";
+
+    /**
+     * Representation of documents sent to and received from the server:
+     * 'xml' or 'json'.
+     *
+     * @parameter expression="${zanata.wireFormat}" default-value="xml"
+     */
+    private String wireFormat = "xml";
+
+    /**
+     * Maximum number of connections to the server, for the pooled connector.
+     *
+     * @parameter expression="${zanata.maxConnections}" default-value="20"
+     */
+    private int maxConnections = 20;
+
+    /**
+     * Timeout in seconds for connecting to the server (0 for no timeout).
+     *
+     * @parameter expression="${zanata.connectTimeout}" default-value="30"
+     */
+    private int connectTimeout = 30;
+
+    /**
+     * Timeout in seconds while waiting for data from the server (0 for no
+     * timeout).
+     *
+     * @parameter expression="${zanata.socketTimeout}" default-value="600"
+     */
+    private int socketTimeout = 600;
+
+    /**
+     * Close pooled connections which have been idle for longer than this many
+     * seconds.
+     *
+     * @parameter expression="${zanata.idleConnectionTimeout}"
+     *            default-value="60"
+     */
+    private int idleConnectionTimeout = 60;
+
+    /**
+     * Number of times to retry a request which failed because of a
+     * connection problem, a timeout or a busy server (0 to disable retries).
+     *
+     * @parameter expression="${zanata.maxRetries}" default-value="3"
+     */
+    private int maxRetries = 3;
+
+    /**
+     * Send at most this many requests per second to the server (0 for no
+     * limit). Can also be set per server in zanata.ini as max-request-rate.
+     *
+     * @parameter expression="${zanata.maxRequestRate}" default-value="0"
+     */
+    private int maxRequestRate = 0;
+
+    /**
+     * Upload at most this many kilobytes per second (0 for no limit). Can
+     * also be set per server in zanata.ini as max-upload-rate.
+     *
+     * @parameter expression="${zanata.maxUploadRate}" default-value="0"
+     */
+    private int maxUploadRate = 0;
+
+    /**
+     * Download at most this many kilobytes per second (0 for no limit). Can
+     * also be set per server in zanata.ini as max-download-rate.
+     *
+     * @parameter expression="${zanata.maxDownloadRate}" default-value="0"
+     */
+    private int maxDownloadRate = 0;
+
+    /**
+     * Adapt the number of concurrent requests (at most maxConnections) to
+     * the server's load: send more while it answers quickly, and fewer when
+     * it slows down or reports that it is busy.
+     *
+     * @parameter expression="${zanata.adaptiveConcurrency}"
+     *            default-value="false"
+     */
+    private boolean adaptiveConcurrency = false;
+
+    /**
+     * If a document download takes longer than this percentile (eg 95) of
+     * recent downloads, request it again and use whichever response arrives
+     * first (0 to disable).
+     *
+     * @parameter expression="${zanata.hedgePercentile}" default-value="0"
+     */
+    private int hedgePercentile = 0;
+
+    /**
+     * Request at most this many downloads again because of hedgePercentile.
+     *
+     * @parameter expression="${zanata.maxHedgedRequests}" default-value="50"
+     */
+    private int maxHedgedRequests = 50;
+
+    /**
+     * Always fetch server metadata (server version, locales, document lists
+     * and file types) from the server, instead of using the copies cached
+     * under ~/.cache/zanata.
+     *
+     * @parameter expression="${zanata.noMetadataCache}" default-value="false"
+     */
+    private boolean noMetadataCache = false;
+
+    /**
+     * Seconds for which cached server metadata is used before checking it
+     * with the server. Document lists are always checked.
+     *
+     * @parameter expression="${zanata.metadataCacheTtl}" default-value="600"
+     */
+    private int metadataCacheTtl = 600;
+
     public ConfigurableMojo() {
     }
 
@@ -298,6 +470,36 @@ public abstract class ConfigurableMojo<O extends ConfigurableOptions> extends
         this.logHttp = logHttp;
     }
 
+    @Override
+    public int getLogHttpMaxBody() {
+        return logHttpMaxBody;
+    }
+
+    @Override
+    public void setLogHttpMaxBody(int logHttpMaxBody) {
+        this.logHttpMaxBody = logHttpMaxBody;
+    }
+
+    @Override
+    public int getLogHttpSample() {
+        return logHttpSample;
+    }
+
+    @Override
+    public void setLogHttpSample(int logHttpSample) {
+        this.logHttpSample = logHttpSample;
+    }
+
+    @Override
+    public File getLogHttpFile() {
+        return logHttpFile;
+    }
+
+    @Override
+    public void setLogHttpFile(File logHttpFile) {
+        this.logHttpFile = logHttpFile;
+    }
+
     @Override
     public boolean isDisableSSLCert() {
         return disableSSLCert;
@@ -308,6 +510,176 @@ public abstract class ConfigurableMojo<O extends ConfigurableOptions> extends
         this.disableSSLCert = disableSSLCert;
     }
 
+    @Override
+    public boolean isCompressRequests() {
+        return compressRequests;
+    }
+
+    @Override
+    public void setCompressRequests(boolean compressRequests) {
+        this.compressRequests = compressRequests;
+    }
+
+    @Override
+    public int getCompressionThreshold() {
+        return compressionThreshold;
+    }
+
+    @Override
+    public void setCompressionThreshold(int compressionThreshold) {
+        this.compressionThreshold = compressionThreshold;
+    }
+
+    @Override
+    public String getHttpConnector() {
+        return httpConnector;
+    }
+
+    @Override
+    public void setHttpConnector(String httpConnector) {
+        this.httpConnector = httpConnector;
+    }
+
+    @Override
+    public String getWireFormat() {
+        return wireFormat;
+    }
+
+    @Override
+    public void setWireFormat(String wireFormat) {
+        this.wireFormat = wireFormat;
+    }
+
+    @Override
+    public int getMaxConnections() {
+        return maxConnections;
+    }
+
+    @Override
+    public void setMaxConnections(int maxConnections) {
+        this.maxConnections = maxConnections;
+    }
+
+    @Override
+    public int getConnectTimeout() {
+        return connectTimeout;
+    }
+
+    @Override
+    public void setConnectTimeout(int connectTimeout) {
+        this.connectTimeout = connectTimeout;
+    }
+
+    @Override
+    public int getSocketTimeout() {
+        return socketTimeout;
+    }
+
+    @Override
+    public void setSocketTimeout(int socketTimeout) {
+        this.socketTimeout = socketTimeout;
+    }
+
+    @Override
+    public int getIdleConnectionTimeout() {
+        return idleConnectionTimeout;
+    }
+
+    @Override
+    public void setIdleConnectionTimeout(int idleConnectionTimeout) {
+        this.idleConnectionTimeout = idleConnectionTimeout;
+    }
+
+    @Override
+    public int getMaxRetries() {
+        return maxRetries;
+    }
+
+    @Override
+    public void setMaxRetries(int maxRetries) {
+        this.maxRetries = maxRetries;
+    }
+
+    @Override
+    public int getMaxRequestRate() {
+        return maxRequestRate;
+    }
+
+    @Override
+    public void setMaxRequestRate(int maxRequestRate) {
+        this.maxRequestRate = maxRequestRate;
+    }
+
+    @Override
+    public int getMaxUploadRate() {
+        return maxUploadRate;
+    }
+
+    @Override
+    public void setMaxUploadRate(int maxUploadRate) {
+        this.maxUploadRate = maxUploadRate;
+    }
+
+    @Override
+    public int getMaxDownloadRate() {
+        return maxDownloadRate;
+    }
+
+    @Override
+    public void setMaxDownloadRate(int maxDownloadRate) {
+        this.maxDownloadRate = maxDownloadRate;
+    }
+
+    @Override
+    public boolean isAdaptiveConcurrency() {
+        return adaptiveConcurrency;
+    }
+
+    @Override
+    public void setAdaptiveConcurrency(boolean adaptiveConcurrency) {
+        this.adaptiveConcurrency = adaptiveConcurrency;
+    }
+
+    @Override
+    public int getHedgePercentile() {
+        return hedgePercentile;
+    }
+
+    @Override
+    public void setHedgePercentile(int hedgePercentile) {
+        this.hedgePercentile = hedgePercentile;
+    }
+
+    @Override
+    public int getMaxHedgedRequests() {
+        return maxHedgedRequests;
+    }
+
+    @Override
+    public void setMaxHedgedRequests(int maxHedgedRequests) {
+        this.maxHedgedRequests = maxHedgedRequests;
+    }
+
+    @Override
+    public boolean isNoMetadataCache() {
+        return noMetadataCache;
+    }
+
+    @Override
+    public void setNoMetadataCache(boolean noMetadataCache) {
+        this.noMetadataCache = noMetadataCache;
+    }
+
+    @Override
+    public int getMetadataCacheTtl() {
+        return metadataCacheTtl;
+    }
+
+    @Override
+    public void setMetadataCacheTtl(int metadataCacheTtl) {
+        this.metadataCacheTtl = metadataCacheTtl;
+    }
+
     @Override
     public boolean isAuthRequired() {
         // auth should be required for most commands
@@ -21,6 +21,7 @@
 
 package org.zanata.rest.client;
 
+import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MultivaluedMap;
 
 import com.sun.jersey.api.client.ClientHandlerException;
@@ -31,11 +32,22 @@ import com.sun.jersey.api.client.filter.ClientFilter;
 /**
  * This adds a generic Accept header to all request. It is a workaround for
  * RESTEasy 2 service. Clients requiring specific Accpet type can override it.
+ * The header prefers the configured {@link WireFormat}.
  *
  * @author Patrick Huang <a
  *         href="mailto:pahuang@redhat.com">pahuang@redhat.com</a>
  */
 public class AcceptTypeFilter extends ClientFilter {
+    private final WireFormat wireFormat;
+
+    public AcceptTypeFilter() {
+        this(WireFormat.XML);
+    }
+
+    public AcceptTypeFilter(WireFormat wireFormat) {
+        this.wireFormat = wireFormat;
+    }
+
     @Override
     public ClientResponse handle(ClientRequest cr)
             throws ClientHandlerException {
@@ -43,7 +55,9 @@ public class AcceptTypeFilter extends ClientFilter {
         // make sure we have at least one Accept header otherwise jersey will
         // insert an "Accept: text/html, image/gif, image/jpeg, *" which breaks
         // RESTEasy 2
-        headers.add("Accept", "application/*");
+        if (!headers.containsKey(HttpHeaders.ACCEPT)) {
+            headers.add(HttpHeaders.ACCEPT, wireFormat.getAcceptHeader());
+        }
         return getNext().handle(cr);
     }
 }
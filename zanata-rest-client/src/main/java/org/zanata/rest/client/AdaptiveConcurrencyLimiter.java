@@ -0,0 +1,261 @@
+/*
+ * Copyright 2015, Red Hat, Inc. and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.zanata.rest.client;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.base.Ticker;
+
+/**
+ * Limits the number of requests in progress at once, adjusting the limit to
+ * what the server can currently handle (additive increase, multiplicative
+ * decrease).
+ * <p>
+ * While the server answers within {@value #LATENCY_TOLERANCE} times its
+ * usual latency, and all permits are in use, the limit grows by one for
+ * every "limit" requests which complete. The usual latency is learnt only
+ * from requests reported with {@link #onSuccess(long)}, which should be
+ * alike; the time taken by large uploads says more about their size than
+ * about the server. When the server is overloaded (it
+ * answers 503 or NotAccepted, a request fails, or the latency spikes) the
+ * limit is halved, at most once per usual round trip so that a burst of
+ * failures from requests which were already in flight counts once.
+ * <p>
+ * This class is thread-safe; permits are granted in the order they are
+ * asked for.
+ */
+public class AdaptiveConcurrencyLimiter {
+    private static final Logger log =
+            LoggerFactory.getLogger(AdaptiveConcurrencyLimiter.class);
+    static final double LATENCY_TOLERANCE = 2.5;
+    private static final double BACKOFF_RATIO = 0.5;
+    private static final double LATENCY_SMOOTHING = 0.05;
+    private static final long MIN_BACKOFF_INTERVAL =
+            TimeUnit.MILLISECONDS.toNanos(100);
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final Ticker ticker;
+    private final Lock lock = new ReentrantLock(true);
+    private final Condition permitReleased = lock.newCondition();
+    // guarded by lock
+    private double limit;
+    private int inFlight;
+    private double usualLatency = -1;
+    private long lastBackoff = Long.MIN_VALUE;
+    private int lowestLimit;
+    private int highestLimit;
+    private long backoffs;
+
+    /**
+     * @param minLimit
+     *            the limit never goes below this (at least 1)
+     * @param maxLimit
+     *            the limit never goes above this
+     */
+    public AdaptiveConcurrencyLimiter(int minLimit, int maxLimit) {
+        this(minLimit, maxLimit, Ticker.systemTicker());
+    }
+
+    AdaptiveConcurrencyLimiter(int minLimit, int maxLimit, Ticker ticker) {
+        this.minLimit = Math.max(1, minLimit);
+        this.maxLimit = Math.max(this.minLimit, maxLimit);
+        this.ticker = ticker;
+        // start in the middle, rather than slowly ramping up from 1
+        this.limit = Math.max(this.minLimit, (this.maxLimit + 1) / 2);
+        this.lowestLimit = getLimit();
+        this.highestLimit = getLimit();
+    }
+
+    /**
+     * Waits until a request may be sent.
+     */
+    public void acquire() throws InterruptedException {
+        lock.lock();
+        try {
+            while (inFlight >= (int) limit) {
+                permitReleased.await();
+            }
+            inFlight++;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Gives back a permit after the server answered normally.
+     *
+     * @param latencyNanos
+     *            time taken by the request, which should be one of the
+     *            small requests whose latency shows how busy the server is
+     */
+    public void onSuccess(long latencyNanos) {
+        lock.lock();
+        try {
+            boolean saturated = inFlight >= (int) limit;
+            release();
+            if (usualLatency < 0) {
+                usualLatency = latencyNanos;
+            }
+            boolean spike = latencyNanos > usualLatency * LATENCY_TOLERANCE;
+            usualLatency +=
+                    LATENCY_SMOOTHING * (latencyNanos - usualLatency);
+            if (spike) {
+                backOff("latency spike");
+            } else if (saturated) {
+                raiseLimit();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Gives back a permit after the server answered normally, for a request
+     * whose latency can't be compared with others (eg an upload, which takes
+     * as long as its size and any rate limit make it).
+     */
+    public void onSuccess() {
+        lock.lock();
+        try {
+            boolean saturated = inFlight >= (int) limit;
+            release();
+            if (saturated) {
+                raiseLimit();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Gives back a permit after the server was overloaded or the request
+     * failed.
+     */
+    public void onOverload(String reason) {
+        lock.lock();
+        try {
+            release();
+            backOff(reason);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Reports that the server is overloaded, without giving back a permit
+     * (eg when the body of a successful response says so).
+     */
+    public void reportOverload(String reason) {
+        lock.lock();
+        try {
+            backOff(reason);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // call with lock held
+    private void release() {
+        inFlight--;
+        permitReleased.signalAll();
+    }
+
+    // call with lock held
+    private void raiseLimit() {
+        if (limit >= maxLimit) {
+            return;
+        }
+        int before = (int) limit;
+        limit = Math.min(maxLimit, limit + 1 / limit);
+        if ((int) limit > before) {
+            log.debug("Concurrency limit raised to {}", (int) limit);
+            highestLimit = Math.max(highestLimit, (int) limit);
+        }
+    }
+
+    // call with lock held
+    private void backOff(String reason) {
+        long now = ticker.read();
+        long interval =
+                Math.max(MIN_BACKOFF_INTERVAL, (long) usualLatency);
+        if (lastBackoff != Long.MIN_VALUE && now - lastBackoff < interval) {
+            return;
+        }
+        lastBackoff = now;
+        int before = (int) limit;
+        limit = Math.max(minLimit, limit * BACKOFF_RATIO);
+        if ((int) limit < before) {
+            backoffs++;
+            lowestLimit = Math.min(lowestLimit, (int) limit);
+            log.info("Server is busy ({}): reducing concurrent requests to {}",
+                    reason, (int) limit);
+        }
+    }
+
+    /**
+     * The number of requests which may currently be in progress at once.
+     */
+    public int getLimit() {
+        lock.lock();
+        try {
+            return (int) limit;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getLowestLimit() {
+        lock.lock();
+        try {
+            return lowestLimit;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getHighestLimit() {
+        lock.lock();
+        try {
+            return highestLimit;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Number of times the limit was reduced.
+     */
+    public long getBackoffs() {
+        lock.lock();
+        try {
+            return backoffs;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -34,9 +34,9 @@ import com.sun.jersey.api.client.filter.ClientFilter;
 
 @Provider
 public class ApiKeyHeaderFilter extends ClientFilter {
-    private String apiKey;
-    private String username;
-    private String ver;
+    private final String apiKey;
+    private volatile String username;
+    private final String ver;
 
     public ApiKeyHeaderFilter(String username, String apiKey, String ver) {
         this.username = username;
@@ -24,13 +24,14 @@ package org.zanata.rest.client;
 import java.net.URI;
 import java.util.Set;
 import javax.ws.rs.DefaultValue;
+import javax.ws.rs.core.HttpHeaders;
 
 import org.zanata.common.LocaleId;
 import org.zanata.rest.dto.ProcessStatus;
+import org.zanata.rest.dto.ProcessStatus.ProcessStatusCode;
 import org.zanata.rest.dto.resource.Resource;
 import org.zanata.rest.dto.resource.TranslationsResource;
 import org.zanata.rest.service.AsynchronousProcessResource;
-import com.sun.jersey.api.client.Client;
 import com.sun.jersey.api.client.WebResource;
 
 /**
@@ -58,20 +59,23 @@ public class AsyncProcessClient implements AsynchronousProcessResource {
     public ProcessStatus startSourceDocCreationOrUpdate(String idNoSlash,
             String projectSlug, String iterationSlug, Resource resource,
             Set<String> extensions, @DefaultValue("true") boolean copytrans) {
-        Client client = factory.getClient();
-        CacheResponseFilter filter = new CacheResponseFilter();
-        client.addFilter(filter);
-        WebResource webResource = client.resource(baseUri)
-                .path(AsynchronousProcessResource.SERVICE_PATH)
-                .path("projects").path("p").path(projectSlug)
-                .path("iterations").path("i").path(iterationSlug)
-                .path("r").path(idNoSlash);
-        webResource
-                .queryParams(ClientUtil.asMultivaluedMap("ext", extensions))
-                .queryParam("copyTrans", String.valueOf(copytrans))
-                .put(resource);
-        client.removeFilter(filter);
-        return filter.getEntity(ProcessStatus.class);
+        return reportBusy(sourceDocResource(idNoSlash, projectSlug,
+                iterationSlug, extensions, copytrans).put(
+                ProcessStatus.class, resource));
+    }
+
+    /**
+     * As {@link #startSourceDocCreationOrUpdate(String, String, String,
+     * Resource, Set, boolean)}, but sends a document which has already been
+     * serialized, so that it can be resubmitted without being marshalled
+     * again.
+     */
+    public ProcessStatus startSourceDocCreationOrUpdate(String idNoSlash,
+            String projectSlug, String iterationSlug,
+            SerializedEntity resource, Set<String> extensions,
+            boolean copytrans) {
+        return put(sourceDocResource(idNoSlash, projectSlug, iterationSlug,
+                extensions, copytrans), resource);
     }
 
     @Override
@@ -79,22 +83,74 @@ public class AsyncProcessClient implements AsynchronousProcessResource {
             String projectSlug, String iterationSlug, LocaleId locale,
             TranslationsResource translatedDoc, Set<String> extensions,
             String merge, @DefaultValue("false") boolean myTrans) {
-        Client client = factory.getClient();
-        CacheResponseFilter filter = new CacheResponseFilter();
-        client.addFilter(filter);
-        WebResource webResource = client.resource(baseUri)
+        return reportBusy(translatedDocResource(idNoSlash, projectSlug,
+                iterationSlug, locale, extensions, merge, myTrans).put(
+                ProcessStatus.class, translatedDoc));
+    }
+
+    /**
+     * As {@link #startTranslatedDocCreationOrUpdate(String, String, String,
+     * LocaleId, TranslationsResource, Set, String, boolean)}, but sends
+     * translations which have already been serialized, so that they can be
+     * resubmitted without being marshalled again.
+     */
+    public ProcessStatus startTranslatedDocCreationOrUpdate(String idNoSlash,
+            String projectSlug, String iterationSlug, LocaleId locale,
+            SerializedEntity translatedDoc, Set<String> extensions,
+            String merge, boolean myTrans) {
+        return put(translatedDocResource(idNoSlash, projectSlug,
+                iterationSlug, locale, extensions, merge, myTrans),
+                translatedDoc);
+    }
+
+    private WebResource sourceDocResource(String idNoSlash,
+            String projectSlug, String iterationSlug, Set<String> extensions,
+            boolean copytrans) {
+        return factory.getClient().resource(baseUri)
                 .path(AsynchronousProcessResource.SERVICE_PATH)
                 .path("projects").path("p").path(projectSlug)
                 .path("iterations").path("i").path(iterationSlug)
                 .path("r").path(idNoSlash)
-                .path("translations").path(locale.toString());
-        webResource
+                .queryParams(ClientUtil.asMultivaluedMap("ext", extensions))
+                .queryParam("copyTrans", String.valueOf(copytrans));
+    }
+
+    private WebResource translatedDocResource(String idNoSlash,
+            String projectSlug, String iterationSlug, LocaleId locale,
+            Set<String> extensions, String merge, boolean myTrans) {
+        return factory.getClient().resource(baseUri)
+                .path(AsynchronousProcessResource.SERVICE_PATH)
+                .path("projects").path("p").path(projectSlug)
+                .path("iterations").path("i").path(iterationSlug)
+                .path("r").path(idNoSlash)
+                .path("translations").path(locale.toString())
                 .queryParams(ClientUtil.asMultivaluedMap("ext", extensions))
                 .queryParam("merge", merge)
-                .queryParam("assignCreditToUploader", String.valueOf(myTrans))
-                .put(translatedDoc);
-        client.removeFilter(filter);
-        return filter.getEntity(ProcessStatus.class);
+                .queryParam("assignCreditToUploader", String.valueOf(myTrans));
+    }
+
+    private ProcessStatus put(WebResource webResource,
+            SerializedEntity entity) {
+        WebResource.Builder builder =
+                webResource.type(entity.getMediaType());
+        if (entity.getContentEncoding() != null) {
+            builder.header(HttpHeaders.CONTENT_ENCODING,
+                    entity.getContentEncoding());
+        }
+        return reportBusy(builder.put(ProcessStatus.class, entity.getBody()));
+    }
+
+    /**
+     * Tells the factory's concurrency limiter, if any, when the server was
+     * too busy to accept a process.
+     */
+    private ProcessStatus reportBusy(ProcessStatus status) {
+        AdaptiveConcurrencyLimiter limiter = factory.getConcurrencyLimiter();
+        if (limiter != null && status != null
+                && status.getStatusCode() == ProcessStatusCode.NotAccepted) {
+            limiter.reportOverload("process not accepted");
+        }
+        return status;
     }
 
     @Override
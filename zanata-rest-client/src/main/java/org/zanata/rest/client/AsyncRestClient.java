@@ -0,0 +1,256 @@
+/*
+ * Copyright 2015, Red Hat, Inc. and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.zanata.rest.client;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.zanata.common.LocaleId;
+import org.zanata.rest.dto.ProcessStatus;
+import org.zanata.rest.dto.resource.Resource;
+import org.zanata.rest.dto.resource.ResourceMeta;
+import org.zanata.rest.dto.resource.TranslationsResource;
+import org.zanata.rest.dto.stats.ContainerTranslationStatistics;
+
+import com.google.common.base.Optional;
+import com.google.common.io.ByteStreams;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ListeningExecutorService;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.sun.jersey.api.client.ClientResponse;
+
+/**
+ * Non-blocking facade over the clients of a {@link RestClientFactory}. Each
+ * call queues a request and returns a future immediately; at most
+ * {@code maxConcurrentRequests} requests are sent at once, by this facade's
+ * own worker threads, and the rest wait in the queue. Callers can therefore
+ * have thousands of operations outstanding without holding a thread for each
+ * of them, and use {@link com.google.common.util.concurrent.Futures} to
+ * combine or react to the results.
+ * <p>
+ * With the pooled connector, {@code maxConcurrentRequests} should not exceed
+ * the pool's maximum connections, or the extra workers will only wait for a
+ * connection.
+ * <p>
+ * This class is thread-safe. Call {@link #close()} when it is no longer
+ * needed, to stop its worker threads.
+ */
+public class AsyncRestClient implements Closeable {
+    private final RestClientFactory factory;
+    private final ThreadPoolExecutor executor;
+    private final ListeningExecutorService listeningExecutor;
+
+    public AsyncRestClient(RestClientFactory factory,
+            int maxConcurrentRequests) {
+        this.factory = factory;
+        int threads = Math.max(1, maxConcurrentRequests);
+        executor =
+                new ThreadPoolExecutor(threads, threads, 0L,
+                        TimeUnit.MILLISECONDS,
+                        new LinkedBlockingQueue<Runnable>(),
+                        new ThreadFactoryBuilder().setDaemon(true)
+                                .setNameFormat("zanata-rest-async-%d")
+                                .build());
+        listeningExecutor = MoreExecutors.listeningDecorator(executor);
+    }
+
+    /**
+     * Queues an arbitrary call to any of the factory's clients, sharing the
+     * concurrency limit with the other methods of this class.
+     */
+    public <T> ListenableFuture<T> submit(Callable<T> call) {
+        return listeningExecutor.submit(call);
+    }
+
+    public ListenableFuture<List<ResourceMeta>> getResourceMeta(
+            final String projectSlug, final String versionSlug,
+            final Set<String> extensions) {
+        return submit(new Callable<List<ResourceMeta>>() {
+            @Override
+            public List<ResourceMeta> call() {
+                return factory.getSourceDocResourceClient(projectSlug,
+                        versionSlug).getResourceMeta(extensions);
+            }
+        });
+    }
+
+    public ListenableFuture<Resource> getResource(final String projectSlug,
+            final String versionSlug, final String docId,
+            final Set<String> extensions) {
+        return submit(new Callable<Resource>() {
+            @Override
+            public Resource call() {
+                return factory.getSourceDocResourceClient(projectSlug,
+                        versionSlug).getResource(docId, extensions);
+            }
+        });
+    }
+
+    /**
+     * @return the document's translations, or absent if the server has none
+     *         for the locale (and createSkeletons is false)
+     */
+    public ListenableFuture<Optional<TranslationsResource>> getTranslations(
+            final String projectSlug, final String versionSlug,
+            final String docId, final LocaleId locale,
+            final Set<String> extensions, final boolean createSkeletons) {
+        return submit(new Callable<Optional<TranslationsResource>>() {
+            @Override
+            public Optional<TranslationsResource> call() {
+                ClientResponse response =
+                        factory.getTransDocResourceClient(projectSlug,
+                                versionSlug).getTranslations(docId, locale,
+                                extensions, createSkeletons, null);
+                if (isNotFound(response)) {
+                    return Optional.absent();
+                }
+                ClientUtil.checkResult(response);
+                return Optional.of(response
+                        .getEntity(TranslationsResource.class));
+            }
+        });
+    }
+
+    public ListenableFuture<ContainerTranslationStatistics> getStatistics(
+            final String projectSlug, final String versionSlug,
+            final boolean includeDetails, final boolean includeWordStats,
+            final String[] locales) {
+        return submit(new Callable<ContainerTranslationStatistics>() {
+            @Override
+            public ContainerTranslationStatistics call() {
+                return factory.getStatisticsClient().getStatistics(
+                        projectSlug, versionSlug, includeDetails,
+                        includeWordStats, locales);
+            }
+        });
+    }
+
+    public ListenableFuture<ContainerTranslationStatistics>
+            getDocumentStatistics(final String projectSlug,
+                    final String versionSlug, final String docId,
+                    final boolean includeWordStats, final String[] locales) {
+        return submit(new Callable<ContainerTranslationStatistics>() {
+            @Override
+            public ContainerTranslationStatistics call() {
+                return factory.getStatisticsClient().getStatistics(
+                        projectSlug, versionSlug, docId, includeWordStats,
+                        locales);
+            }
+        });
+    }
+
+    public ListenableFuture<ProcessStatus> getProcessStatus(
+            final String processId) {
+        return submit(new Callable<ProcessStatus>() {
+            @Override
+            public ProcessStatus call() {
+                return factory.getAsyncProcessClient().getProcessStatus(
+                        processId);
+            }
+        });
+    }
+
+    /**
+     * @return the contents of the source file, or absent if there is none
+     */
+    public ListenableFuture<Optional<byte[]>> downloadSourceFile(
+            final String projectSlug, final String versionSlug,
+            final String fileType, final String docId) {
+        return submit(new Callable<Optional<byte[]>>() {
+            @Override
+            public Optional<byte[]> call() throws IOException {
+                return readFile(factory.getFileResourceClient()
+                        .downloadSourceFile(projectSlug, versionSlug,
+                                fileType, docId));
+            }
+        });
+    }
+
+    /**
+     * @return the contents of the translation file, or absent if there is
+     *         none
+     */
+    public ListenableFuture<Optional<byte[]>> downloadTranslationFile(
+            final String projectSlug, final String versionSlug,
+            final String locale, final String fileExtension,
+            final String docId) {
+        return submit(new Callable<Optional<byte[]>>() {
+            @Override
+            public Optional<byte[]> call() throws IOException {
+                return readFile(factory.getFileResourceClient()
+                        .downloadTranslationFile(projectSlug, versionSlug,
+                                locale, fileExtension, docId));
+            }
+        });
+    }
+
+    /**
+     * Number of requests currently being sent or received.
+     */
+    public int getActiveRequests() {
+        return executor.getActiveCount();
+    }
+
+    /**
+     * Number of requests waiting for a worker.
+     */
+    public int getQueuedRequests() {
+        return executor.getQueue().size();
+    }
+
+    /**
+     * Stops accepting new calls. Calls already queued are still completed.
+     */
+    @Override
+    public void close() {
+        listeningExecutor.shutdown();
+    }
+
+    private static boolean isNotFound(ClientResponse response) {
+        if (response.getClientResponseStatus() == ClientResponse.Status.NOT_FOUND) {
+            response.close();
+            return true;
+        }
+        return false;
+    }
+
+    private static Optional<byte[]> readFile(ClientResponse response)
+            throws IOException {
+        if (isNotFound(response)) {
+            return Optional.absent();
+        }
+        ClientUtil.checkResult(response);
+        InputStream stream = response.getEntity(InputStream.class);
+        try {
+            return Optional.of(ByteStreams.toByteArray(stream));
+        } finally {
+            stream.close();
+        }
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright 2015, Red Hat, Inc. and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.zanata.rest.client;
+
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.base.Ticker;
+
+/**
+ * Stops requests from being sent to a server which is clearly down.
+ * <p>
+ * After a number of consecutive failures the circuit "opens", and
+ * {@link #allowRequest()} refuses all requests for a while. Once that time
+ * has passed a single trial request is allowed through: if it succeeds the
+ * circuit closes again, and if it fails the circuit stays open for another
+ * period.
+ * <p>
+ * This class is thread-safe.
+ */
+public class CircuitBreaker {
+    private final int failureThreshold;
+    private final long openTimeNanos;
+    private final Ticker ticker;
+    // guarded by this
+    private int consecutiveFailures;
+    private long openedAt;
+    private boolean open;
+    private boolean trialInProgress;
+    private long trips;
+
+    /**
+     * @param failureThreshold
+     *            consecutive failures which open the circuit, or 0 to
+     *            never open it
+     * @param openTime
+     *            milliseconds for which an open circuit refuses requests
+     */
+    public CircuitBreaker(int failureThreshold, long openTime) {
+        this(failureThreshold, openTime, Ticker.systemTicker());
+    }
+
+    CircuitBreaker(int failureThreshold, long openTime, Ticker ticker) {
+        this.failureThreshold = failureThreshold;
+        this.openTimeNanos = TimeUnit.MILLISECONDS.toNanos(openTime);
+        this.ticker = ticker;
+    }
+
+    /**
+     * Returns true if a request may be sent. When the circuit is open, this
+     * returns true only for one trial request after the open time has
+     * passed.
+     */
+    public synchronized boolean allowRequest() {
+        if (!open) {
+            return true;
+        }
+        if (trialInProgress || ticker.read() - openedAt < openTimeNanos) {
+            return false;
+        }
+        trialInProgress = true;
+        return true;
+    }
+
+    public synchronized void recordSuccess() {
+        consecutiveFailures = 0;
+        open = false;
+        trialInProgress = false;
+    }
+
+    public synchronized void recordFailure() {
+        consecutiveFailures++;
+        if (trialInProgress || !open && failureThreshold > 0
+                && consecutiveFailures >= failureThreshold) {
+            if (!open) {
+                trips++;
+            }
+            open = true;
+            trialInProgress = false;
+            openedAt = ticker.read();
+        }
+    }
+
+    /**
+     * Records that a request ended without showing whether the server is
+     * working (eg its body could not be written). If it was the trial
+     * request, another trial may be sent.
+     */
+    public synchronized void recordAbandoned() {
+        trialInProgress = false;
+    }
+
+    public synchronized boolean isOpen() {
+        return open;
+    }
+
+    /**
+     * Milliseconds until an open circuit allows a trial request.
+     */
+    public synchronized long getRemainingOpenTime() {
+        if (!open) {
+            return 0;
+        }
+        return Math.max(0, TimeUnit.NANOSECONDS.toMillis(openTimeNanos
+                - (ticker.read() - openedAt)));
+    }
+
+    /**
+     * Number of times the circuit has opened.
+     */
+    public synchronized long getTrips() {
+        return trips;
+    }
+}
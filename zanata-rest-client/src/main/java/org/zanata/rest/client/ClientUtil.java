@@ -60,8 +60,11 @@ public class ClientUtil {
         int statusCode = response.getStatus();
 
         if (responseStatus == ClientResponse.Status.UNAUTHORIZED) {
+            // the body is not read, so release the connection
+            response.close();
             throw new RuntimeException("Incorrect username/password");
         } else if (responseStatus == ClientResponse.Status.SERVICE_UNAVAILABLE) {
+            response.close();
             throw new RuntimeException("Service is currently unavailable. " +
                     "Please check outage notification or try again later.");
         } else if (responseStatus == ClientResponse.Status.MOVED_PERMANENTLY
@@ -70,6 +73,7 @@ public class ClientUtil {
             // redirect), we don't want to bury this information in a xml
             // marshalling exception.
             String movedTo = response.getHeaders().getFirst("Location");
+            response.close();
 
             String message;
             if (!Strings.isNullOrEmpty(movedTo)) {
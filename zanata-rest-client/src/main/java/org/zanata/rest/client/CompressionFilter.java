@@ -0,0 +1,333 @@
+/*
+ * Copyright 2015, Red Hat, Inc. and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.zanata.rest.client;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MultivaluedMap;
+
+import com.sun.jersey.api.client.AbstractClientRequestAdapter;
+import com.sun.jersey.api.client.ClientHandlerException;
+import com.sun.jersey.api.client.ClientRequest;
+import com.sun.jersey.api.client.ClientRequestAdapter;
+import com.sun.jersey.api.client.ClientResponse;
+import com.sun.jersey.api.client.filter.ClientFilter;
+
+/**
+ * Asks the server for gzip-compressed responses and decompresses them, and
+ * (if enabled) gzip-compresses XML, JSON and text request bodies which are
+ * bigger than a threshold. Bodies which already have a Content-Encoding are
+ * left alone.
+ * <p>
+ * Counts the bytes before and after compression, so that the savings can be
+ * reported. A single instance is shared by all requests of a client, and is
+ * thread-safe.
+ *
+ * @see RestClientFactory
+ */
+public class CompressionFilter extends ClientFilter {
+    /**
+     * Threshold which disables compression of request bodies.
+     */
+    public static final int NO_REQUEST_COMPRESSION = -1;
+    public static final int DEFAULT_REQUEST_THRESHOLD = 1024;
+    private static final String GZIP = "gzip";
+
+    private final int requestThreshold;
+    private final AtomicLong compressedRequests = new AtomicLong();
+    private final AtomicLong requestBytes = new AtomicLong();
+    private final AtomicLong requestBytesSent = new AtomicLong();
+    private final AtomicLong compressedResponses = new AtomicLong();
+    private final AtomicLong responseBytesReceived = new AtomicLong();
+    private final AtomicLong responseBytes = new AtomicLong();
+
+    /**
+     * @param requestThreshold
+     *            request bodies bigger than this many bytes are compressed;
+     *            {@link #NO_REQUEST_COMPRESSION} to send all of them as they
+     *            are
+     */
+    public CompressionFilter(int requestThreshold) {
+        this.requestThreshold = requestThreshold;
+    }
+
+    @Override
+    public ClientResponse handle(ClientRequest cr)
+            throws ClientHandlerException {
+        MultivaluedMap<String, Object> headers = cr.getHeaders();
+        if (!headers.containsKey(HttpHeaders.ACCEPT_ENCODING)) {
+            headers.add(HttpHeaders.ACCEPT_ENCODING, GZIP);
+        }
+        if (requestThreshold >= 0 && cr.getEntity() != null
+                && !headers.containsKey(HttpHeaders.CONTENT_ENCODING)) {
+            if (cr.getEntity() instanceof byte[]) {
+                // Jersey sends byte arrays with a fixed Content-Length, so
+                // they must be compressed before the request is written
+                compressByteArray(cr);
+            } else if (!(cr.getEntity() instanceof InputStream)) {
+                cr.setAdapter(new CompressingAdapter(cr.getAdapter()));
+            }
+        }
+
+        ClientResponse response = getNext().handle(cr);
+
+        if (response.hasEntity()
+                && GZIP.equalsIgnoreCase(response.getHeaders().getFirst(
+                        HttpHeaders.CONTENT_ENCODING))) {
+            response.getHeaders().remove(HttpHeaders.CONTENT_ENCODING);
+            compressedResponses.incrementAndGet();
+            try {
+                response.setEntityInputStream(new CountingInputStream(
+                        new GZIPInputStream(new CountingInputStream(response
+                                .getEntityInputStream(),
+                                responseBytesReceived)), responseBytes));
+            } catch (IOException e) {
+                throw new ClientHandlerException(e);
+            }
+        }
+        return response;
+    }
+
+    private void compressByteArray(ClientRequest cr) {
+        byte[] body = (byte[]) cr.getEntity();
+        if (body.length <= requestThreshold
+                || !isCompressible(cr.getHeaders())) {
+            return;
+        }
+        ByteArrayOutputStream gzipped =
+                new ByteArrayOutputStream(body.length / 4 + 64);
+        try (GZIPOutputStream out = new GZIPOutputStream(gzipped)) {
+            out.write(body);
+        } catch (IOException e) {
+            throw new ClientHandlerException(e);
+        }
+        cr.setEntity(gzipped.toByteArray());
+        cr.getHeaders().putSingle(HttpHeaders.CONTENT_ENCODING, GZIP);
+        compressedRequests.incrementAndGet();
+        requestBytes.addAndGet(body.length);
+        requestBytesSent.addAndGet(gzipped.size());
+    }
+
+    private static boolean isCompressible(
+            MultivaluedMap<String, Object> headers) {
+        Object contentType = headers.getFirst(HttpHeaders.CONTENT_TYPE);
+        if (contentType == null) {
+            return false;
+        }
+        String type = contentType.toString().toLowerCase();
+        return type.startsWith("text/") || type.contains("xml")
+                || type.contains("json");
+    }
+
+    /**
+     * Number of request bodies which were compressed.
+     */
+    public long getCompressedRequests() {
+        return compressedRequests.get();
+    }
+
+    /**
+     * Size of the compressed request bodies before compression.
+     */
+    public long getRequestBytes() {
+        return requestBytes.get();
+    }
+
+    /**
+     * Size of the compressed request bodies as sent.
+     */
+    public long getRequestBytesSent() {
+        return requestBytesSent.get();
+    }
+
+    /**
+     * Number of compressed responses received.
+     */
+    public long getCompressedResponses() {
+        return compressedResponses.get();
+    }
+
+    /**
+     * Size of the compressed responses as received (counted as they are
+     * read).
+     */
+    public long getResponseBytesReceived() {
+        return responseBytesReceived.get();
+    }
+
+    /**
+     * Size of the compressed responses after decompression (counted as they
+     * are read).
+     */
+    public long getResponseBytes() {
+        return responseBytes.get();
+    }
+
+    /**
+     * Compresses the body as it is written, once it has grown past the
+     * threshold. Content-Encoding can still be added at that point, since
+     * Jersey sends the request headers when the first byte of the body is
+     * written, and the size of a streamed body is not known in advance.
+     */
+    private class CompressingAdapter extends AbstractClientRequestAdapter {
+        CompressingAdapter(ClientRequestAdapter adapter) {
+            super(adapter);
+        }
+
+        @Override
+        public OutputStream adapt(ClientRequest request, OutputStream out)
+                throws IOException {
+            OutputStream adapted = getAdapter().adapt(request, out);
+            if (!isCompressible(request.getHeaders())) {
+                return adapted;
+            }
+            return new ThresholdCompressingStream(request, adapted);
+        }
+    }
+
+    private class ThresholdCompressingStream extends OutputStream {
+        private final ClientRequest request;
+        private final OutputStream out;
+        private ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        private OutputStream compressing;
+        private long size;
+
+        ThresholdCompressingStream(ClientRequest request, OutputStream out) {
+            this.request = request;
+            this.out = out;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[] { (byte) b }, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            size += len;
+            if (compressing != null) {
+                compressing.write(b, off, len);
+                return;
+            }
+            buffer.write(b, off, len);
+            if (buffer.size() > requestThreshold) {
+                request.getHeaders().putSingle(HttpHeaders.CONTENT_ENCODING,
+                        GZIP);
+                compressedRequests.incrementAndGet();
+                compressing =
+                        new GZIPOutputStream(new CountingOutputStream(out,
+                                requestBytesSent));
+                buffer.writeTo(compressing);
+                buffer = null;
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            // nothing is sent until we know whether to compress
+            if (compressing != null) {
+                compressing.flush();
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (compressing != null) {
+                requestBytes.addAndGet(size);
+                compressing.close();
+            } else if (buffer != null) {
+                buffer.writeTo(out);
+                buffer = null;
+                out.close();
+            }
+        }
+    }
+
+    private static class CountingInputStream extends FilterInputStream {
+        private final AtomicLong count;
+
+        CountingInputStream(InputStream in, AtomicLong count) {
+            super(in);
+            this.count = count;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                count.incrementAndGet();
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) {
+                count.addAndGet(n);
+            }
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            count.addAndGet(skipped);
+            return skipped;
+        }
+
+        @Override
+        public boolean markSupported() {
+            return false;
+        }
+    }
+
+    private static class CountingOutputStream extends FilterOutputStream {
+        private final AtomicLong count;
+
+        CountingOutputStream(OutputStream out, AtomicLong count) {
+            super(out);
+            this.count = count;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count.incrementAndGet();
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count.addAndGet(len);
+        }
+    }
+}
@@ -0,0 +1,168 @@
+/*
+ * Copyright 2015, Red Hat, Inc. and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.zanata.rest.client;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import com.google.common.base.Ticker;
+import com.google.common.collect.ImmutableSet;
+import com.sun.jersey.api.client.ClientHandlerException;
+import com.sun.jersey.api.client.ClientRequest;
+import com.sun.jersey.api.client.ClientResponse;
+import com.sun.jersey.api.client.filter.ClientFilter;
+
+/**
+ * Holds each request until an {@link AdaptiveConcurrencyLimiter} allows it,
+ * and reports the request's latency, or the server being overloaded (429,
+ * 502, 503 or 504, or an I/O error) back to the limiter. The permit is held
+ * until the response body has been read or closed. Only the latency of GET
+ * and HEAD requests is reported, since uploads take as long as their size
+ * makes them.
+ * <p>
+ * This filter must be added to a client before any other filter, so that it
+ * measures only the HTTP exchange, and sees every retry. It is thread-safe.
+ *
+ * @see RestClientFactory
+ */
+public class ConcurrencyLimitFilter extends ClientFilter {
+    private static final Set<Integer> OVERLOADED_STATUSES = ImmutableSet.of(
+            429, 502, 503, 504);
+    // small requests, whose latency shows how busy the server is
+    private static final Set<String> LATENCY_METHODS = ImmutableSet.of(
+            "GET", "HEAD");
+
+    private final AdaptiveConcurrencyLimiter limiter;
+    private final Ticker ticker;
+
+    public ConcurrencyLimitFilter(AdaptiveConcurrencyLimiter limiter) {
+        this(limiter, Ticker.systemTicker());
+    }
+
+    ConcurrencyLimitFilter(AdaptiveConcurrencyLimiter limiter, Ticker ticker) {
+        this.limiter = limiter;
+        this.ticker = ticker;
+    }
+
+    public AdaptiveConcurrencyLimiter getLimiter() {
+        return limiter;
+    }
+
+    @Override
+    public ClientResponse handle(ClientRequest cr)
+            throws ClientHandlerException {
+        try {
+            limiter.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ClientHandlerException(
+                    "Interrupted while waiting to send request", e);
+        }
+        long start = ticker.read();
+        ClientResponse response;
+        try {
+            response = getNext().handle(cr);
+        } catch (RuntimeException e) {
+            limiter.onOverload(e.toString());
+            throw e;
+        }
+        if (OVERLOADED_STATUSES.contains(response.getStatus())) {
+            limiter.onOverload("status " + response.getStatus());
+            return response;
+        }
+        Permit permit =
+                new Permit(LATENCY_METHODS.contains(cr.getMethod()),
+                        ticker.read() - start);
+        if (response.hasEntity()) {
+            // the server is still busy until the body has been sent
+            response.setEntityInputStream(new PermitReleasingInputStream(
+                    response.getEntityInputStream(), permit));
+        } else {
+            permit.release();
+        }
+        return response;
+    }
+
+    private class Permit {
+        private final boolean measured;
+        private final long latency;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        Permit(boolean measured, long latency) {
+            this.measured = measured;
+            this.latency = latency;
+        }
+
+        void release() {
+            if (!released.compareAndSet(false, true)) {
+                return;
+            }
+            if (measured) {
+                limiter.onSuccess(latency);
+            } else {
+                limiter.onSuccess();
+            }
+        }
+    }
+
+    /**
+     * Gives back the permit when the response body has been read to the end,
+     * or closed.
+     */
+    private static class PermitReleasingInputStream extends FilterInputStream {
+        private final Permit permit;
+
+        PermitReleasingInputStream(InputStream in, Permit permit) {
+            super(in);
+            this.permit = permit;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b < 0) {
+                permit.release();
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n < 0) {
+                permit.release();
+            }
+            return n;
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                super.close();
+            } finally {
+                permit.release();
+            }
+        }
+    }
+}
@@ -0,0 +1,336 @@
+/*
+ * Copyright 2015, Red Hat, Inc. and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.zanata.rest.client;
+
+import java.io.File;
+
+/**
+ * Settings for the HTTP connections made by {@link RestClientFactory}, for
+ * retrying requests which fail for transient reasons (see
+ * {@link RetryFilter}), for limiting the load on the server (see
+ * {@link RateLimitFilter}), for hedging slow downloads (see
+ * {@link HedgingFilter}), for the {@link WireFormat} of responses, and for
+ * logging them with --log-http (see {@link TraceDebugFilter}).
+ * Timeouts and delays are in milliseconds, with a timeout or limit of 0
+ * meaning none.
+ */
+public class ConnectionSettings {
+    public static final int DEFAULT_MAX_CONNECTIONS = 20;
+    public static final int DEFAULT_IDLE_TIMEOUT = 60000;
+    public static final int DEFAULT_CONNECT_TIMEOUT = 30000;
+    public static final int DEFAULT_SOCKET_TIMEOUT = 600000;
+    public static final int DEFAULT_MAX_RETRIES = 3;
+    public static final long DEFAULT_RETRY_INITIAL_DELAY = 500;
+    public static final long DEFAULT_RETRY_MAX_DELAY = 30000;
+    public static final int DEFAULT_FAILURE_THRESHOLD = 5;
+    public static final long DEFAULT_CIRCUIT_OPEN_TIME = 30000;
+    public static final int DEFAULT_MAX_HEDGED_REQUESTS = 50;
+    public static final int DEFAULT_HTTP_LOG_MAX_BODY_SIZE =
+            TraceDebugFilter.DEFAULT_MAX_BODY_SIZE;
+
+    /**
+     * The HTTP implementation used to send requests.
+     */
+    public enum Connector {
+        /**
+         * java.net.HttpURLConnection, which keeps alive at most a few
+         * connections per host (see the http.maxConnections system
+         * property).
+         */
+        URLCONNECTION,
+        /**
+         * Apache HttpClient with a bounded pool of keep-alive connections.
+         */
+        POOLED
+    }
+
+    private Connector connector = Connector.URLCONNECTION;
+    private int maxConnections = DEFAULT_MAX_CONNECTIONS;
+    private int connectTimeout = DEFAULT_CONNECT_TIMEOUT;
+    private int socketTimeout = DEFAULT_SOCKET_TIMEOUT;
+    private int idleTimeout = DEFAULT_IDLE_TIMEOUT;
+    private int maxRetries = DEFAULT_MAX_RETRIES;
+    private long retryInitialDelay = DEFAULT_RETRY_INITIAL_DELAY;
+    private long retryMaxDelay = DEFAULT_RETRY_MAX_DELAY;
+    private int failureThreshold = DEFAULT_FAILURE_THRESHOLD;
+    private long circuitOpenTime = DEFAULT_CIRCUIT_OPEN_TIME;
+    private double maxRequestsPerSecond;
+    private long maxUploadBytesPerSecond;
+    private long maxDownloadBytesPerSecond;
+    private boolean adaptiveConcurrency;
+    private double hedgePercentile;
+    private int maxHedgedRequests = DEFAULT_MAX_HEDGED_REQUESTS;
+    private WireFormat wireFormat = WireFormat.XML;
+    private int httpLogMaxBodySize = DEFAULT_HTTP_LOG_MAX_BODY_SIZE;
+    private int httpLogSampleRate = 1;
+    private File httpLogFile;
+
+    public Connector getConnector() {
+        return connector;
+    }
+
+    public ConnectionSettings setConnector(Connector connector) {
+        this.connector = connector;
+        return this;
+    }
+
+    /**
+     * Maximum number of connections kept open to the server by the pooled
+     * connector. Requests beyond this wait for a connection to be released.
+     */
+    public int getMaxConnections() {
+        return maxConnections;
+    }
+
+    public ConnectionSettings setMaxConnections(int maxConnections) {
+        this.maxConnections = maxConnections;
+        return this;
+    }
+
+    public int getConnectTimeout() {
+        return connectTimeout;
+    }
+
+    public ConnectionSettings setConnectTimeout(int connectTimeout) {
+        this.connectTimeout = connectTimeout;
+        return this;
+    }
+
+    /**
+     * Maximum time to wait for data from the server once connected.
+     */
+    public int getSocketTimeout() {
+        return socketTimeout;
+    }
+
+    public ConnectionSettings setSocketTimeout(int socketTimeout) {
+        this.socketTimeout = socketTimeout;
+        return this;
+    }
+
+    /**
+     * Pooled connections which have been idle for longer than this are
+     * closed.
+     */
+    public int getIdleTimeout() {
+        return idleTimeout;
+    }
+
+    public ConnectionSettings setIdleTimeout(int idleTimeout) {
+        this.idleTimeout = idleTimeout;
+        return this;
+    }
+
+    /**
+     * Number of times a request which failed for a transient reason
+     * (connection failure, timeout, 502, 503 or 504) is sent again; 0 to
+     * disable retries.
+     */
+    public int getMaxRetries() {
+        return maxRetries;
+    }
+
+    public ConnectionSettings setMaxRetries(int maxRetries) {
+        this.maxRetries = maxRetries;
+        return this;
+    }
+
+    /**
+     * Delay before the first retry. Each further retry waits twice as long
+     * (up to {@link #getRetryMaxDelay()}), with random jitter.
+     */
+    public long getRetryInitialDelay() {
+        return retryInitialDelay;
+    }
+
+    public ConnectionSettings setRetryInitialDelay(long retryInitialDelay) {
+        this.retryInitialDelay = retryInitialDelay;
+        return this;
+    }
+
+    public long getRetryMaxDelay() {
+        return retryMaxDelay;
+    }
+
+    public ConnectionSettings setRetryMaxDelay(long retryMaxDelay) {
+        this.retryMaxDelay = retryMaxDelay;
+        return this;
+    }
+
+    /**
+     * Number of consecutive transient failures after which requests fail
+     * immediately, without contacting the server, for
+     * {@link #getCircuitOpenTime()}.
+     */
+    public int getFailureThreshold() {
+        return failureThreshold;
+    }
+
+    public ConnectionSettings setFailureThreshold(int failureThreshold) {
+        this.failureThreshold = failureThreshold;
+        return this;
+    }
+
+    public long getCircuitOpenTime() {
+        return circuitOpenTime;
+    }
+
+    public ConnectionSettings setCircuitOpenTime(long circuitOpenTime) {
+        this.circuitOpenTime = circuitOpenTime;
+        return this;
+    }
+
+    /**
+     * Maximum number of requests sent per second, shared by all threads.
+     */
+    public double getMaxRequestsPerSecond() {
+        return maxRequestsPerSecond;
+    }
+
+    public ConnectionSettings setMaxRequestsPerSecond(
+            double maxRequestsPerSecond) {
+        this.maxRequestsPerSecond = maxRequestsPerSecond;
+        return this;
+    }
+
+    /**
+     * Maximum rate at which request bodies are sent, in bytes per second.
+     */
+    public long getMaxUploadBytesPerSecond() {
+        return maxUploadBytesPerSecond;
+    }
+
+    public ConnectionSettings setMaxUploadBytesPerSecond(
+            long maxUploadBytesPerSecond) {
+        this.maxUploadBytesPerSecond = maxUploadBytesPerSecond;
+        return this;
+    }
+
+    /**
+     * Maximum rate at which response bodies are received, in bytes per
+     * second.
+     */
+    public long getMaxDownloadBytesPerSecond() {
+        return maxDownloadBytesPerSecond;
+    }
+
+    public ConnectionSettings setMaxDownloadBytesPerSecond(
+            long maxDownloadBytesPerSecond) {
+        this.maxDownloadBytesPerSecond = maxDownloadBytesPerSecond;
+        return this;
+    }
+
+    /**
+     * Whether to limit the number of concurrent requests to what the server
+     * can currently handle, between 1 and {@link #getMaxConnections()} (see
+     * {@link AdaptiveConcurrencyLimiter}).
+     */
+    public boolean isAdaptiveConcurrency() {
+        return adaptiveConcurrency;
+    }
+
+    public ConnectionSettings setAdaptiveConcurrency(
+            boolean adaptiveConcurrency) {
+        this.adaptiveConcurrency = adaptiveConcurrency;
+        return this;
+    }
+
+    /**
+     * A download which takes longer than this percentile (eg 95) of recent
+     * download times is sent a second time, and the first response used; 0
+     * to disable hedging.
+     */
+    public double getHedgePercentile() {
+        return hedgePercentile;
+    }
+
+    public ConnectionSettings setHedgePercentile(double hedgePercentile) {
+        this.hedgePercentile = hedgePercentile;
+        return this;
+    }
+
+    /**
+     * Maximum number of downloads sent a second time by hedging.
+     */
+    public int getMaxHedgedRequests() {
+        return maxHedgedRequests;
+    }
+
+    public ConnectionSettings setMaxHedgedRequests(int maxHedgedRequests) {
+        this.maxHedgedRequests = maxHedgedRequests;
+        return this;
+    }
+
+    /**
+     * The representation preferred for response bodies.
+     */
+    public WireFormat getWireFormat() {
+        return wireFormat;
+    }
+
+    public ConnectionSettings setWireFormat(WireFormat wireFormat) {
+        this.wireFormat = wireFormat;
+        return this;
+    }
+
+    /**
+     * Maximum number of bytes of each request and response body which are
+     * logged; 0 to log no bodies.
+     */
+    public int getHttpLogMaxBodySize() {
+        return httpLogMaxBodySize;
+    }
+
+    public ConnectionSettings setHttpLogMaxBodySize(int httpLogMaxBodySize) {
+        this.httpLogMaxBodySize = httpLogMaxBodySize;
+        return this;
+    }
+
+    /**
+     * The bodies of one in every this many requests are logged.
+     */
+    public int getHttpLogSampleRate() {
+        return httpLogSampleRate;
+    }
+
+    public ConnectionSettings setHttpLogSampleRate(int httpLogSampleRate) {
+        this.httpLogSampleRate = httpLogSampleRate;
+        return this;
+    }
+
+    /**
+     * File which HTTP messages are logged to, instead of the console; null
+     * for the console.
+     */
+    public File getHttpLogFile() {
+        return httpLogFile;
+    }
+
+    public ConnectionSettings setHttpLogFile(File httpLogFile) {
+        this.httpLogFile = httpLogFile;
+        return this;
+    }
+
+    boolean isRateLimited() {
+        return maxRequestsPerSecond > 0 || maxUploadBytesPerSecond > 0
+                || maxDownloadBytesPerSecond > 0;
+    }
+}
@@ -44,13 +44,11 @@ public class CopyTransClient implements CopyTransResource {
     @Override
     public CopyTransStatus startCopyTrans(String projectSlug,
             String iterationSlug, String docId) {
-        Client client = factory.getClient();
-        CacheResponseFilter filter = new CacheResponseFilter();
-        client.addFilter(filter);
-        webResource(client, projectSlug, iterationSlug, docId)
-                .post();
-        client.removeFilter(filter);
-        return filter.getEntity(CopyTransStatus.class);
+        // the server does not start a second copyTrans for a document, so
+        // a failed start can safely be sent again
+        return RetryFilter.retryable(
+                webResource(factory.getClient(), projectSlug, iterationSlug,
+                        docId)).post(CopyTransStatus.class);
     }
 
     private WebResource webResource(Client client, String projectSlug,
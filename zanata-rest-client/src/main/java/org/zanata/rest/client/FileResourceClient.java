@@ -35,7 +35,6 @@ import org.zanata.rest.StringSet;
 import org.zanata.rest.dto.ChunkUploadResponse;
 import org.zanata.rest.service.FileResource;
 
-import com.sun.jersey.api.client.Client;
 import com.sun.jersey.api.client.ClientResponse;
 import com.sun.jersey.api.client.WebResource;
 import com.sun.jersey.multipart.FormDataMultiPart;
@@ -56,10 +55,12 @@ public class FileResourceClient {
     }
 
     public List<DocumentType> acceptedFileTypes() {
-        List<DocumentType> types = factory.getClient()
+        WebResource webResource = factory.getClient()
                 .resource(baseUri)
                 .path(FileResource.SERVICE_PATH
-                    + FileResource.ACCEPTED_TYPE_LIST_RESOURCE)
+                    + FileResource.ACCEPTED_TYPE_LIST_RESOURCE);
+        List<DocumentType> types = MetadataCacheFilter.cacheable(webResource,
+                MetadataCacheFilter.CacheMode.TTL)
                 .get(new GenericType<List<DocumentType>>() {
             });
         return types;
@@ -69,10 +70,7 @@ public class FileResourceClient {
             String projectSlug,
             String iterationSlug, String docId,
             DocumentFileUploadForm documentFileUploadForm) {
-        CacheResponseFilter filter = new CacheResponseFilter();
-        Client client = factory.getClient();
-        client.addFilter(filter);
-        WebResource.Builder builder = client
+        WebResource.Builder builder = factory.getClient()
                 .resource(baseUri)
                 .path("file").path("source").path(projectSlug)
                 .path(iterationSlug)
@@ -81,11 +79,7 @@ public class FileResourceClient {
         FormDataMultiPart form =
                 prepareFormDataMultiPart(documentFileUploadForm);
 
-        builder.post(form);
-        ChunkUploadResponse chunkUploadResponse =
-                filter.getEntity(ChunkUploadResponse.class);
-        client.removeFilter(filter);
-        return chunkUploadResponse;
+        return builder.post(ChunkUploadResponse.class, form);
     }
 
     private FormDataMultiPart prepareFormDataMultiPart(
@@ -112,10 +106,7 @@ public class FileResourceClient {
             String iterationSlug, String locale, String docId,
             String mergeType,
             DocumentFileUploadForm documentFileUploadForm) {
-        CacheResponseFilter filter = new CacheResponseFilter();
-        Client client = factory.getClient();
-        client.addFilter(filter);
-        WebResource.Builder builder = client.resource(baseUri)
+        WebResource.Builder builder = factory.getClient().resource(baseUri)
                 .path(FileResource.SERVICE_PATH)
                 .path("translation")
                 .path(projectSlug)
@@ -127,11 +118,7 @@ public class FileResourceClient {
         FormDataMultiPart form =
                 prepareFormDataMultiPart(documentFileUploadForm);
 
-        builder.post(form);
-        ChunkUploadResponse chunkUploadResponse =
-                filter.getEntity(ChunkUploadResponse.class);
-        client.removeFilter(filter);
-        return chunkUploadResponse;
+        return builder.post(ChunkUploadResponse.class, form);
     }
 
     public ClientResponse downloadSourceFile(String projectSlug,
@@ -140,7 +127,8 @@ public class FileResourceClient {
         WebResource webResource = factory.getClient().resource(baseUri)
                 .path(FileResource.SERVICE_PATH).path("source")
                 .path(projectSlug).path(iterationSlug).path(fileType);
-        return webResource.queryParam("docId", docId).get(ClientResponse.class);
+        return HedgingFilter.hedgeable(webResource.queryParam("docId", docId))
+                .get(ClientResponse.class);
     }
 
     public ClientResponse downloadTranslationFile(String projectSlug,
@@ -150,7 +138,8 @@ public class FileResourceClient {
                 .path(FileResource.SERVICE_PATH).path("translation")
                 .path(projectSlug).path(iterationSlug).path(locale)
                 .path(fileExtension);
-        return webResource.queryParam("docId", docId).get(ClientResponse.class);
+        return HedgingFilter.hedgeable(webResource.queryParam("docId", docId))
+                .get(ClientResponse.class);
     }
 
     private static <T> FormDataMultiPart addBodyPartIfPresent(
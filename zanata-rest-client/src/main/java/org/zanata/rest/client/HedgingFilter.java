@@ -0,0 +1,267 @@
+/*
+ * Copyright 2015, Red Hat, Inc. and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.zanata.rest.client;
+
+import java.util.Arrays;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.SettableFuture;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.sun.jersey.api.client.ClientHandlerException;
+import com.sun.jersey.api.client.ClientRequest;
+import com.sun.jersey.api.client.ClientResponse;
+import com.sun.jersey.api.client.WebResource;
+import com.sun.jersey.api.client.filter.ClientFilter;
+
+/**
+ * Cuts the tail latency of slow GET requests by "hedging": if the server has
+ * not answered a request within a given percentile of the latencies seen so
+ * far, the same request is sent a second time, and whichever response
+ * arrives first is used. The other response is closed when it arrives.
+ * <p>
+ * Only requests marked with {@link #hedgeable(WebResource)} are hedged
+ * (document and file downloads), and only once at least
+ * {@value #MIN_SAMPLES} of them have completed. The total number of hedged
+ * requests is capped, so that a server which is slow for every request does
+ * not receive twice the load.
+ * <p>
+ * This filter should be added after {@link RetryFilter}, so that each of the
+ * two requests is retried independently and both count against any rate
+ * limits. It is thread-safe.
+ *
+ * @see RestClientFactory
+ */
+public class HedgingFilter extends ClientFilter {
+    private static final Logger log =
+            LoggerFactory.getLogger(HedgingFilter.class);
+    static final int MIN_SAMPLES = 20;
+    private static final int WINDOW = 500;
+    private static final String HEDGEABLE =
+            HedgingFilter.class.getName() + ".hedgeable";
+
+    private final double percentile;
+    private final AtomicInteger remainingHedges;
+    private final ExecutorService executor = Executors
+            .newCachedThreadPool(new ThreadFactoryBuilder().setDaemon(true)
+                    .setNameFormat("zanata-hedge-%d").build());
+    // guarded by this
+    private final long[] latencies = new long[WINDOW];
+    private int samples;
+    private final AtomicLong hedgedRequests = new AtomicLong();
+    private final AtomicLong hedgesWon = new AtomicLong();
+
+    /**
+     * @param percentile
+     *            a request is hedged when it takes longer than this
+     *            percentile (eg 95) of recent latencies
+     * @param maxHedgedRequests
+     *            maximum number of requests to hedge
+     */
+    public HedgingFilter(double percentile, int maxHedgedRequests) {
+        this.percentile = percentile;
+        this.remainingHedges = new AtomicInteger(maxHedgedRequests);
+    }
+
+    /**
+     * Marks the GET requests of a resource as safe to send twice. Since
+     * sub-resources are new WebResources, this should be called last, just
+     * before the request is made.
+     */
+    static WebResource hedgeable(WebResource resource) {
+        resource.setProperty(HEDGEABLE, Boolean.TRUE);
+        return resource;
+    }
+
+    @Override
+    public ClientResponse handle(ClientRequest cr)
+            throws ClientHandlerException {
+        if (!Boolean.TRUE.equals(cr.getProperties().get(HEDGEABLE))
+                || !"GET".equals(cr.getMethod())) {
+            return getNext().handle(cr);
+        }
+        long start = System.nanoTime();
+        long hedgeDelay = hedgeDelay();
+        if (hedgeDelay < 0) {
+            ClientResponse response = getNext().handle(cr);
+            recordLatency(System.nanoTime() - start);
+            return response;
+        }
+        HedgedCall call = new HedgedCall();
+        call.send(cr, false);
+        try {
+            ClientResponse response;
+            try {
+                response = call.result.get(hedgeDelay, TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                if (!call.result.isDone() && takeHedge()) {
+                    hedgedRequests.incrementAndGet();
+                    log.debug("No response to {} after {} ms; hedging",
+                            cr.getURI(),
+                            TimeUnit.NANOSECONDS.toMillis(hedgeDelay));
+                    call.send(cr.clone(), true);
+                }
+                response = call.result.get();
+            }
+            recordLatency(System.nanoTime() - start);
+            return response;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            call.closeWhenDone();
+            throw new ClientHandlerException("Interrupted during request", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new ClientHandlerException(cause);
+        }
+    }
+
+    /**
+     * Uses up one of the remaining hedged requests, if any are left.
+     */
+    private boolean takeHedge() {
+        while (true) {
+            int remaining = remainingHedges.get();
+            if (remaining <= 0) {
+                return false;
+            }
+            if (remainingHedges.compareAndSet(remaining, remaining - 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * The time after which a request should be hedged, in nanoseconds, or -1
+     * if too few latencies have been seen.
+     */
+    synchronized long hedgeDelay() {
+        if (samples < MIN_SAMPLES) {
+            return -1;
+        }
+        int count = Math.min(samples, WINDOW);
+        long[] sorted = Arrays.copyOf(latencies, count);
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(percentile / 100 * count) - 1;
+        return sorted[Math.max(0, Math.min(count - 1, index))];
+    }
+
+    synchronized void recordLatency(long nanos) {
+        latencies[samples % WINDOW] = nanos;
+        samples++;
+    }
+
+    /**
+     * Number of requests which were sent a second time.
+     */
+    public long getHedgedRequests() {
+        return hedgedRequests.get();
+    }
+
+    /**
+     * Number of hedged requests for which the second request answered first.
+     */
+    public long getHedgesWon() {
+        return hedgesWon.get();
+    }
+
+    /**
+     * Stops the threads used for hedged requests.
+     */
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * One or two copies of a request, racing to set the result. The first
+     * response wins, and any other response is closed. The result fails if
+     * every copy sent so far has failed.
+     */
+    private class HedgedCall {
+        private final SettableFuture<ClientResponse> result =
+                SettableFuture.create();
+        private final AtomicInteger pending = new AtomicInteger();
+        private final AtomicBoolean won = new AtomicBoolean();
+
+        void send(final ClientRequest request, final boolean hedge) {
+            pending.incrementAndGet();
+            executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    ClientResponse response;
+                    try {
+                        response = getNext().handle(request);
+                    } catch (Throwable t) {
+                        if (pending.decrementAndGet() == 0) {
+                            result.setException(t);
+                        }
+                        return;
+                    }
+                    pending.decrementAndGet();
+                    if (won.compareAndSet(false, true)) {
+                        // counted before the caller sees the result
+                        if (hedge) {
+                            hedgesWon.incrementAndGet();
+                        }
+                        if (result.set(response)) {
+                            return;
+                        }
+                        // the first copy failed before this one was sent
+                        if (hedge) {
+                            hedgesWon.decrementAndGet();
+                        }
+                    }
+                    // nobody will read this response
+                    response.close();
+                }
+            });
+        }
+
+        void closeWhenDone() {
+            Futures.addCallback(result, new FutureCallback<ClientResponse>() {
+                @Override
+                public void onSuccess(ClientResponse response) {
+                    response.close();
+                }
+
+                @Override
+                public void onFailure(Throwable t) {
+                }
+            });
+        }
+    }
+}
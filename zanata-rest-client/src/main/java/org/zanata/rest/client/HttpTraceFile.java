@@ -0,0 +1,135 @@
+/*
+ * Copyright 2015, Red Hat, Inc. and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.zanata.rest.client;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.base.Charsets;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Appends HTTP trace lines to a file from a background thread, so that
+ * requests never wait for the disk. Lines are queued up to a fixed limit;
+ * when the writer falls behind, further lines are dropped (and counted)
+ * rather than held in memory.
+ *
+ * @see TraceDebugFilter
+ */
+class HttpTraceFile {
+    private static final Logger log = LoggerFactory
+            .getLogger(HttpTraceFile.class);
+    static final int MAX_QUEUED_LINES = 10000;
+
+    private final File file;
+    private final Writer writer;
+    private final ThreadPoolExecutor executor;
+    private final AtomicLong droppedLines = new AtomicLong();
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+    HttpTraceFile(File file) throws IOException {
+        this.file = file;
+        this.writer =
+                new BufferedWriter(new OutputStreamWriter(
+                        new FileOutputStream(file, true), Charsets.UTF_8));
+        this.executor =
+                new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                        new ArrayBlockingQueue<Runnable>(MAX_QUEUED_LINES),
+                        new ThreadFactoryBuilder().setDaemon(true)
+                                .setNameFormat("zanata-http-trace-%d")
+                                .build(),
+                        new ThreadPoolExecutor.DiscardPolicy() {
+                            @Override
+                            public void rejectedExecution(Runnable r,
+                                    ThreadPoolExecutor e) {
+                                droppedLines.incrementAndGet();
+                            }
+                        });
+    }
+
+    /**
+     * Queues a line to be written, or drops it if the queue is full or the
+     * file has been closed.
+     */
+    void write(final String line) {
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    writer.write(line);
+                    writer.write('\n');
+                    // flush once the burst is written, not after every line
+                    if (executor.getQueue().isEmpty()) {
+                        writer.flush();
+                    }
+                } catch (IOException e) {
+                    log.warn("can't write to HTTP log " + file, e);
+                }
+            }
+        });
+    }
+
+    /**
+     * Number of lines dropped because the writer could not keep up.
+     */
+    long getDroppedLines() {
+        return droppedLines.get();
+    }
+
+    /**
+     * Writes the queued lines (waiting a few seconds at most) and closes the
+     * file. Does nothing if the file is already closed.
+     */
+    void close() {
+        if (!closed.compareAndSet(false, true)) {
+            return;
+        }
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(5, TimeUnit.SECONDS)) {
+                log.warn("HTTP log {} is incomplete", file);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            if (droppedLines.get() > 0) {
+                writer.write("[" + droppedLines.get()
+                        + " lines dropped: the log could not keep up]\n");
+            }
+            writer.close();
+        } catch (IOException e) {
+            log.warn("can't close HTTP log " + file, e);
+        }
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright 2015, Red Hat, Inc. and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.zanata.rest.client;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import javax.ws.rs.core.MediaType;
+
+import org.codehaus.jackson.JsonParser;
+import org.codehaus.jackson.JsonToken;
+import org.codehaus.jackson.map.ObjectMapper;
+
+import com.sun.jersey.api.client.ClientHandlerException;
+import com.sun.jersey.api.client.ClientResponse;
+import com.sun.jersey.api.client.UniformInterfaceException;
+
+/**
+ * Reads a JSON array incrementally, binding one element at a time, so that
+ * huge list responses (eg tens of thousands of documents) can be processed
+ * without building the whole object tree first.
+ */
+class JsonArrayReader {
+    // configured like the client's JacksonJsonProvider, so elements bind
+    // exactly as they would in a whole-list response
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private JsonArrayReader() {
+    }
+
+    /**
+     * Whether a response can be read by
+     * {@link #readArray(InputStream, Class, ElementVisitor, String...)}.
+     * Throws the same exception as WebResource.get(Class) if the request
+     * failed.
+     */
+    static boolean isJson(ClientResponse response) {
+        if (response.getStatus() >= 300) {
+            throw new UniformInterfaceException(response);
+        }
+        MediaType type = response.getType();
+        return type != null
+                && (type.getSubtype().equals("json") || type.getSubtype()
+                        .endsWith("+json"));
+    }
+
+    /**
+     * Passes each element of a JSON array to a visitor, and closes the
+     * stream.
+     *
+     * @param in
+     *            JSON document
+     * @param elementType
+     *            type to bind each element to
+     * @param visitor
+     *            receives the elements in order
+     * @param path
+     *            names of the nested fields leading to the array, or none if
+     *            the document is itself an array
+     * @return number of elements visited (0 if the array is absent or null)
+     */
+    static <T> int readArray(InputStream in, Class<T> elementType,
+            ElementVisitor<? super T> visitor, String... path) {
+        try {
+            JsonParser parser = MAPPER.getJsonFactory().createJsonParser(in);
+            try {
+                parser.nextToken();
+                for (String field : path) {
+                    if (!moveToField(parser, field)) {
+                        return 0;
+                    }
+                }
+                if (parser.getCurrentToken() != JsonToken.START_ARRAY) {
+                    return 0;
+                }
+                int count = 0;
+                while (parser.nextToken() != JsonToken.END_ARRAY) {
+                    visitor.visit(parser.readValueAs(elementType));
+                    count++;
+                }
+                return count;
+            } finally {
+                parser.close();
+            }
+        } catch (IOException e) {
+            throw new ClientHandlerException(e);
+        } finally {
+            try {
+                in.close();
+            } catch (IOException e) {
+                // nothing more to read
+            }
+        }
+    }
+
+    /**
+     * Moves from the start of an object to the value of one of its fields,
+     * skipping any fields before it.
+     *
+     * @return false if the current value is not an object, or has no such
+     *         field
+     */
+    private static boolean moveToField(JsonParser parser, String field)
+            throws IOException {
+        if (parser.getCurrentToken() != JsonToken.START_OBJECT) {
+            return false;
+        }
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.getCurrentName();
+            parser.nextToken();
+            if (name.equals(field)) {
+                return true;
+            }
+            parser.skipChildren();
+        }
+        return false;
+    }
+}
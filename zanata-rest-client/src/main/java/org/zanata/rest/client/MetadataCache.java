@@ -0,0 +1,328 @@
+/*
+ * Copyright 2015, Red Hat, Inc. and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.zanata.rest.client;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.base.Charsets;
+import com.google.common.hash.Hashing;
+import com.google.common.io.Files;
+
+/**
+ * A directory of cached REST responses, shared by all invocations of the
+ * client for the same user. Each entry is a single file holding the response
+ * body, its Content-Type and ETag, and the time it was stored (or last
+ * revalidated). Entries are written to a temporary file and renamed into
+ * place, so concurrent invocations never see partial entries.
+ * <p>
+ * When the directory grows beyond its size limit, the least recently used
+ * entries (by file modification time, which is updated on every hit) are
+ * deleted. Unreadable entries are treated as missing and deleted.
+ * <p>
+ * This class is thread-safe. Responses are cached by
+ * {@link MetadataCacheFilter}.
+ */
+public class MetadataCache {
+    private static final Logger log =
+            LoggerFactory.getLogger(MetadataCache.class);
+    public static final long DEFAULT_TTL = 10 * 60 * 1000;
+    public static final long DEFAULT_MAX_SIZE = 10 * 1024 * 1024;
+    private static final int FORMAT_VERSION = 1;
+    private static final String SUFFIX = ".entry";
+
+    private final File directory;
+    private final long ttl;
+    private final long maxSize;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong revalidations = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+     * @param directory
+     *            where to store entries; created if necessary
+     * @param ttl
+     *            milliseconds for which an entry is used without asking the
+     *            server; afterwards it is revalidated
+     * @param maxSize
+     *            maximum total size in bytes of the entries
+     */
+    public MetadataCache(File directory, long ttl, long maxSize) {
+        this.directory = directory;
+        this.ttl = ttl;
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * The cache directory for the current user: $XDG_CACHE_HOME/zanata/metadata,
+     * or ~/.cache/zanata/metadata.
+     */
+    public static File defaultDirectory() {
+        String cacheHome = System.getenv("XDG_CACHE_HOME");
+        File base =
+                cacheHome != null && !cacheHome.isEmpty() ? new File(
+                        cacheHome) : new File(
+                        System.getProperty("user.home"), ".cache");
+        return new File(new File(base, "zanata"), "metadata");
+    }
+
+    public File getDirectory() {
+        return directory;
+    }
+
+    public long getTtl() {
+        return ttl;
+    }
+
+    public long getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Number of responses served from the cache without asking the server.
+     */
+    public long getHits() {
+        return hits.get();
+    }
+
+    /**
+     * Number of responses served from the cache after the server confirmed
+     * (with 304 Not Modified) that they were still current.
+     */
+    public long getRevalidations() {
+        return revalidations.get();
+    }
+
+    /**
+     * Number of cacheable requests for which the server sent a full response.
+     */
+    public long getMisses() {
+        return misses.get();
+    }
+
+    void recordHit() {
+        hits.incrementAndGet();
+    }
+
+    void recordRevalidation() {
+        revalidations.incrementAndGet();
+    }
+
+    void recordMiss() {
+        misses.incrementAndGet();
+    }
+
+    /**
+     * Returns the entry for a key, or null if there is none (or it can not
+     * be read).
+     */
+    Entry get(String key) {
+        File file = fileFor(key);
+        if (!file.isFile()) {
+            return null;
+        }
+        try (DataInputStream in =
+                new DataInputStream(new FileInputStream(file))) {
+            if (in.readInt() != FORMAT_VERSION) {
+                throw new IOException("unknown format");
+            }
+            String etag = readNullable(in);
+            String contentType = readNullable(in);
+            long storedAt = in.readLong();
+            byte[] body = new byte[in.readInt()];
+            in.readFully(body);
+            // remember when the entry was last used, for LRU eviction
+            file.setLastModified(System.currentTimeMillis());
+            return new Entry(etag, contentType, storedAt, body);
+        } catch (IOException e) {
+            log.debug("Discarding unreadable cache entry {}: {}", file, e);
+            file.delete();
+            return null;
+        }
+    }
+
+    /**
+     * Stores an entry, replacing any existing entry for the key. Failures are
+     * logged and otherwise ignored.
+     */
+    void put(String key, Entry entry) {
+        if (entry.getBody().length > maxSize) {
+            return;
+        }
+        File file = fileFor(key);
+        File tmp = null;
+        try {
+            Files.createParentDirs(file);
+            tmp = File.createTempFile("tmp", ".part", directory);
+            try (DataOutputStream out =
+                    new DataOutputStream(new FileOutputStream(tmp))) {
+                out.writeInt(FORMAT_VERSION);
+                writeNullable(out, entry.getETag());
+                writeNullable(out, entry.getContentType());
+                out.writeLong(entry.getStoredAt());
+                out.writeInt(entry.getBody().length);
+                out.write(entry.getBody());
+            }
+            if (!tmp.renameTo(file)) {
+                // Windows does not replace existing files
+                file.delete();
+                if (!tmp.renameTo(file)) {
+                    throw new IOException("unable to rename " + tmp);
+                }
+            }
+            tmp = null;
+        } catch (IOException e) {
+            log.debug("Unable to write cache entry {}: {}", file, e);
+        } finally {
+            if (tmp != null) {
+                tmp.delete();
+            }
+        }
+        evict();
+    }
+
+    /**
+     * Deletes all entries.
+     */
+    public void clear() {
+        File[] files = directory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+    }
+
+    /**
+     * Deletes least recently used entries until the total size is within the
+     * limit.
+     */
+    private synchronized void evict() {
+        File[] files = directory.listFiles();
+        if (files == null) {
+            return;
+        }
+        long total = 0;
+        for (File file : files) {
+            total += file.length();
+        }
+        if (total <= maxSize) {
+            return;
+        }
+        // snapshot the times, since other invocations may touch the files
+        final Map<File, Long> lastUsed = new HashMap<File, Long>();
+        for (File file : files) {
+            lastUsed.put(file, file.lastModified());
+        }
+        Arrays.sort(files, new Comparator<File>() {
+            @Override
+            public int compare(File a, File b) {
+                return lastUsed.get(a).compareTo(lastUsed.get(b));
+            }
+        });
+        for (File file : files) {
+            if (total <= maxSize) {
+                break;
+            }
+            long length = file.length();
+            if (file.delete()) {
+                total -= length;
+            }
+        }
+    }
+
+    private File fileFor(String key) {
+        return new File(directory, Hashing.sha1()
+                .hashString(key, Charsets.UTF_8).toString() + SUFFIX);
+    }
+
+    private static String readNullable(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    private static void writeNullable(DataOutputStream out, String value)
+            throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    /**
+     * A cached response.
+     */
+    static class Entry {
+        private final String etag;
+        private final String contentType;
+        private final long storedAt;
+        private final byte[] body;
+
+        Entry(String etag, String contentType,
+                long storedAt, byte[] body) {
+            this.etag = etag;
+            this.contentType = contentType;
+            this.storedAt = storedAt;
+            this.body = body;
+        }
+
+        String getETag() {
+            return etag;
+        }
+
+        String getContentType() {
+            return contentType;
+        }
+
+        long getStoredAt() {
+            return storedAt;
+        }
+
+        byte[] getBody() {
+            return body;
+        }
+
+        InputStream openBody() {
+            return new ByteArrayInputStream(body);
+        }
+
+        /**
+         * A copy of this entry stored at the given time, eg after
+         * revalidation.
+         */
+        Entry storedAt(long time) {
+            return new Entry(etag, contentType, time, body);
+        }
+    }
+}
@@ -0,0 +1,263 @@
+/*
+ * Copyright 2015, Red Hat, Inc. and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.zanata.rest.client;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import javax.ws.rs.core.HttpHeaders;
+
+import com.google.common.base.Joiner;
+import com.sun.jersey.api.client.ClientHandlerException;
+import com.sun.jersey.api.client.ClientRequest;
+import com.sun.jersey.api.client.ClientResponse;
+import com.sun.jersey.api.client.WebResource;
+import com.sun.jersey.api.client.filter.ClientFilter;
+import com.sun.jersey.core.header.InBoundHeaders;
+import com.sun.jersey.spi.MessageBodyWorkers;
+
+/**
+ * Serves GET requests for slow-changing metadata (server version, locales,
+ * document lists, file types) from a {@link MetadataCache}, so that they are
+ * not fetched again by every invocation of the client.
+ * <p>
+ * Only requests marked with {@link #cacheable(WebResource, CacheMode)} are
+ * cached. A cached response which is younger than the cache's TTL is used
+ * without asking the server (in {@link CacheMode#TTL} mode); otherwise the
+ * request is sent with If-None-Match, and the cached response is used if the
+ * server answers 304 Not Modified. Responses marked Cache-Control: no-store
+ * are not cached. Responses are stored as the caller reads them, so they can
+ * still be streamed, and bodies bigger than the cache are not buffered.
+ * <p>
+ * This filter must be added after {@link CompressionFilter}, so that it sees
+ * decompressed bodies.
+ *
+ * @see RestClientFactory
+ */
+public class MetadataCacheFilter extends ClientFilter {
+    private static final String CACHE_MODE =
+            MetadataCacheFilter.class.getName() + ".mode";
+
+    /**
+     * How a cacheable request uses its cached response.
+     */
+    enum CacheMode {
+        /**
+         * Use the cached response until it is older than the TTL, then
+         * revalidate it.
+         */
+        TTL,
+        /**
+         * Always revalidate the cached response with the server (for data
+         * which changes as a result of the client's own commands).
+         */
+        REVALIDATE
+    }
+
+    private final MetadataCache cache;
+    private final String username;
+    private final MessageBodyWorkers workers;
+
+    /**
+     * @param username
+     *            part of the cache key, since responses may depend on the
+     *            user's permissions
+     * @param workers
+     *            used to read cached bodies
+     */
+    public MetadataCacheFilter(MetadataCache cache, String username,
+            MessageBodyWorkers workers) {
+        this.cache = cache;
+        this.username = username;
+        this.workers = workers;
+    }
+
+    /**
+     * Marks the GET requests of a resource as cacheable. Since sub-resources
+     * are new WebResources, this should be called last, just before the
+     * request is made.
+     */
+    static WebResource cacheable(WebResource resource, CacheMode mode) {
+        resource.setProperty(CACHE_MODE, mode);
+        return resource;
+    }
+
+    @Override
+    public ClientResponse handle(ClientRequest cr)
+            throws ClientHandlerException {
+        Object mode = cr.getProperties().get(CACHE_MODE);
+        if (mode == null || !"GET".equals(cr.getMethod())) {
+            return getNext().handle(cr);
+        }
+        String key = cacheKey(cr);
+        MetadataCache.Entry entry = cache.get(key);
+        long now = System.currentTimeMillis();
+        if (entry != null && mode == CacheMode.TTL
+                && entry.getStoredAt() <= now
+                && now - entry.getStoredAt() < cache.getTtl()) {
+            cache.recordHit();
+            return cachedResponse(entry);
+        }
+        if (entry != null && entry.getETag() != null) {
+            cr.getHeaders().putSingle(HttpHeaders.IF_NONE_MATCH,
+                    entry.getETag());
+        }
+        ClientResponse response = getNext().handle(cr);
+        if (entry != null && entry.getETag() != null
+                && response.getStatus() == 304) {
+            response.close();
+            cache.recordRevalidation();
+            cache.put(key, entry.storedAt(now));
+            return cachedResponse(entry);
+        }
+        cache.recordMiss();
+        if (response.getStatus() == 200 && isStorable(response, mode)) {
+            store(key, response, now);
+        }
+        return response;
+    }
+
+    private String cacheKey(ClientRequest cr) {
+        Object accept = cr.getHeaders().get(HttpHeaders.ACCEPT);
+        return Joiner.on('\n').useForNull("").join(username,
+                accept, cr.getURI());
+    }
+
+    private static boolean isStorable(ClientResponse response, Object mode) {
+        String cacheControl =
+                response.getHeaders().getFirst(HttpHeaders.CACHE_CONTROL);
+        if (cacheControl != null && cacheControl.contains("no-store")) {
+            return false;
+        }
+        // without an ETag, an entry which is always revalidated is useless
+        return mode == CacheMode.TTL
+                || response.getHeaders().getFirst(HttpHeaders.ETAG) != null;
+    }
+
+    private void store(String key, ClientResponse response, long now) {
+        response.setEntityInputStream(new CachingInputStream(
+                response.getEntityInputStream(), key,
+                response.getHeaders().getFirst(HttpHeaders.ETAG),
+                response.getHeaders().getFirst(HttpHeaders.CONTENT_TYPE),
+                now));
+    }
+
+    private ClientResponse cachedResponse(MetadataCache.Entry entry) {
+        InBoundHeaders headers = new InBoundHeaders();
+        if (entry.getContentType() != null) {
+            headers.putSingle(HttpHeaders.CONTENT_TYPE,
+                    entry.getContentType());
+        }
+        if (entry.getETag() != null) {
+            headers.putSingle(HttpHeaders.ETAG, entry.getETag());
+        }
+        return new ClientResponse(200, headers, entry.openBody(), workers);
+    }
+
+    /**
+     * Copies a response body into the cache as the caller reads it, so that
+     * callers can still stream it. A body which grows bigger than the cache
+     * is no longer copied. If the caller closes the body before its end, the
+     * rest is read (as long as it could still be stored) so that the entry
+     * is complete.
+     */
+    private class CachingInputStream extends FilterInputStream {
+        private final String key;
+        private final String etag;
+        private final String contentType;
+        private final long storedAt;
+        private ByteArrayOutputStream copy = new ByteArrayOutputStream();
+
+        CachingInputStream(InputStream in, String key, String etag,
+                String contentType, long storedAt) {
+            super(in);
+            this.key = key;
+            this.etag = etag;
+            this.contentType = contentType;
+            this.storedAt = storedAt;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b < 0) {
+                finish();
+            } else if (copying(1)) {
+                copy.write(b);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n < 0) {
+                finish();
+            } else if (copying(n)) {
+                copy.write(b, off, n);
+            }
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            // the copy would have a gap
+            copy = null;
+            return super.skip(n);
+        }
+
+        @Override
+        public boolean markSupported() {
+            return false;
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                byte[] buffer = new byte[4096];
+                while (copy != null && read(buffer) >= 0) {
+                    // read to the end, which stores the entry
+                }
+            } catch (IOException e) {
+                copy = null;
+            } finally {
+                super.close();
+            }
+        }
+
+        private boolean copying(int bytes) {
+            if (copy != null && copy.size() + bytes > cache.getMaxSize()) {
+                copy = null;
+            }
+            return copy != null;
+        }
+
+        private void finish() {
+            if (copy != null) {
+                cache.put(key, new MetadataCache.Entry(etag, contentType,
+                        storedAt, copy.toByteArray()));
+                copy = null;
+            }
+        }
+    }
+}
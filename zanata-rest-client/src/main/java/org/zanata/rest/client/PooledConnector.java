@@ -0,0 +1,145 @@
+/*
+ * Copyright 2015, Red Hat, Inc. and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.zanata.rest.client;
+
+import java.net.ProxySelector;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import javax.net.ssl.SSLContext;
+
+import org.apache.http.client.params.ClientPNames;
+import org.apache.http.client.params.CookiePolicy;
+import org.apache.http.conn.scheme.Scheme;
+import org.apache.http.conn.scheme.SchemeRegistry;
+import org.apache.http.conn.ssl.SSLSocketFactory;
+import org.apache.http.impl.client.DefaultHttpClient;
+import org.apache.http.impl.conn.PoolingClientConnectionManager;
+import org.apache.http.impl.conn.ProxySelectorRoutePlanner;
+import org.apache.http.impl.conn.SchemeRegistryFactory;
+import org.apache.http.params.BasicHttpParams;
+import org.apache.http.params.HttpConnectionParams;
+import org.apache.http.params.HttpParams;
+import org.apache.http.pool.PoolStats;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.sun.jersey.api.client.Client;
+import com.sun.jersey.api.client.config.ClientConfig;
+import com.sun.jersey.client.apache4.ApacheHttpClient4;
+import com.sun.jersey.client.apache4.ApacheHttpClient4Handler;
+
+/**
+ * Creates Jersey clients which send requests over a bounded pool of
+ * keep-alive connections managed by Apache HttpClient, so that concurrent
+ * requests reuse open connections (and TLS sessions) instead of opening new
+ * ones.
+ * <p>
+ * Connections which have been idle for longer than the configured idle
+ * timeout, or which the server has said it will close, are evicted by a
+ * background thread.
+ */
+class PooledConnector {
+    private static final long MIN_EVICTION_PERIOD = 1000;
+    private static final long MAX_EVICTION_PERIOD = 5000;
+
+    private final PoolingClientConnectionManager connectionManager;
+    private final DefaultHttpClient httpClient;
+    private final ScheduledExecutorService evictor;
+
+    /**
+     * @param sslContext
+     *            context to use for https connections (eg one which trusts
+     *            all certificates), or null to use the system defaults
+     */
+    PooledConnector(ConnectionSettings settings, SSLContext sslContext) {
+        SchemeRegistry schemeRegistry =
+                SchemeRegistryFactory.createSystemDefault();
+        if (sslContext != null) {
+            schemeRegistry.register(new Scheme("https", 443,
+                    new SSLSocketFactory(sslContext,
+                            SSLSocketFactory.ALLOW_ALL_HOSTNAME_VERIFIER)));
+        }
+        int maxConnections = Math.max(1, settings.getMaxConnections());
+        connectionManager = new PoolingClientConnectionManager(schemeRegistry);
+        connectionManager.setMaxTotal(maxConnections);
+        // all our requests go to the same server
+        connectionManager.setDefaultMaxPerRoute(maxConnections);
+
+        HttpParams params = new BasicHttpParams();
+        HttpConnectionParams.setConnectionTimeout(params,
+                settings.getConnectTimeout());
+        HttpConnectionParams.setSoTimeout(params, settings.getSocketTimeout());
+        // like HttpURLConnection without a CookieHandler
+        params.setParameter(ClientPNames.COOKIE_POLICY,
+                CookiePolicy.IGNORE_COOKIES);
+        httpClient = new DefaultHttpClient(connectionManager, params);
+        // honour the http(s).proxyHost system properties, as HttpURLConnection
+        // does
+        httpClient.setRoutePlanner(new ProxySelectorRoutePlanner(
+                schemeRegistry, ProxySelector.getDefault()));
+
+        final long idleTimeout = settings.getIdleTimeout();
+        long period =
+                idleTimeout > 0 ? Math.max(MIN_EVICTION_PERIOD,
+                        Math.min(MAX_EVICTION_PERIOD, idleTimeout / 2))
+                        : MAX_EVICTION_PERIOD;
+        evictor =
+                Executors.newSingleThreadScheduledExecutor(
+                        new ThreadFactoryBuilder().setDaemon(true)
+                                .setNameFormat("zanata-connection-evictor-%d")
+                                .build());
+        evictor.scheduleWithFixedDelay(new Runnable() {
+            @Override
+            public void run() {
+                connectionManager.closeExpiredConnections();
+                if (idleTimeout > 0) {
+                    connectionManager.closeIdleConnections(idleTimeout,
+                            TimeUnit.MILLISECONDS);
+                }
+            }
+        }, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    Client createClient(ClientConfig clientConfig) {
+        // no preemptive basic auth: the API key is sent as a header. Request
+        // entities are buffered (not chunked) unless
+        // ClientConfig.PROPERTY_CHUNKED_ENCODING_SIZE is set, so they are
+        // sent with a Content-Length, as with HttpURLConnection
+        return new ApacheHttpClient4(new ApacheHttpClient4Handler(httpClient,
+                null, false), clientConfig);
+    }
+
+    /**
+     * Leased, pending and available connections across the pool.
+     */
+    PoolStats getStats() {
+        return connectionManager.getTotalStats();
+    }
+
+    /**
+     * Closes all connections and stops idle eviction.
+     */
+    void shutdown() {
+        evictor.shutdownNow();
+        connectionManager.shutdown();
+    }
+}
@@ -35,7 +35,7 @@ public class ProjectIterationClient {
     private final RestClientFactory factory;
     private final String projectSlug;
     private final String versionSlug;
-    private URI baseUri;
+    private final URI baseUri;
 
     ProjectIterationClient(RestClientFactory factory, String projectSlug, String versionSlug) {
         this.factory = factory;
@@ -26,6 +26,7 @@ import java.util.List;
 import org.zanata.rest.dto.LocaleDetails;
 
 import com.sun.jersey.api.client.GenericType;
+import com.sun.jersey.api.client.WebResource;
 
 /**
  * REST client for project iteration locales.
@@ -46,12 +47,14 @@ public class ProjectIterationLocalesClient {
     }
 
     public List<LocaleDetails> getLocales() {
-        return restClientFactory.getClient()
+        WebResource webResource = restClientFactory.getClient()
                 .resource(restClientFactory.getBaseUri())
                 .path("projects").path("p").path(projectSlug)
                 .path("iterations").path("i").path(versionSlug)
-                .path("locales")
-                .get(new GenericType<List<LocaleDetails>>() {
+                .path("locales");
+        return restClientFactory.coalesce(MetadataCacheFilter.cacheable(
+                webResource, MetadataCacheFilter.CacheMode.TTL),
+                new GenericType<List<LocaleDetails>>() {
                 });
     }
 }
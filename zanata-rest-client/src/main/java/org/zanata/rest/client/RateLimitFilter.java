@@ -0,0 +1,230 @@
+/*
+ * Copyright 2015, Red Hat, Inc. and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.zanata.rest.client;
+
+import java.io.FilterInputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+
+import com.sun.jersey.api.client.AbstractClientRequestAdapter;
+import com.sun.jersey.api.client.ClientHandlerException;
+import com.sun.jersey.api.client.ClientRequest;
+import com.sun.jersey.api.client.ClientRequestAdapter;
+import com.sun.jersey.api.client.ClientResponse;
+import com.sun.jersey.api.client.filter.ClientFilter;
+
+/**
+ * Limits the rate at which requests are sent, and the rate at which request
+ * and response bodies are transferred, so that concurrent commands do not
+ * overload a server which is shared with other users. Each limit is a
+ * {@link TokenBucket} shared by all threads using the client, which grants
+ * tokens in the order they are asked for.
+ * <p>
+ * Bodies are throttled as they are written to and read from the connection,
+ * in chunks of at most {@value #CHUNK_SIZE} bytes, so compressed bodies count
+ * at their compressed size.
+ * <p>
+ * This filter must be added to a client before any other filter except
+ * {@link ConcurrencyLimitFilter}, so that it sees the bytes on the wire, and
+ * so that retried requests also count against the limits. It is
+ * thread-safe.
+ *
+ * @see RestClientFactory
+ */
+public class RateLimitFilter extends ClientFilter {
+    static final int CHUNK_SIZE = 8192;
+    private static final String THROTTLED =
+            RateLimitFilter.class.getName() + ".throttled";
+
+    private final TokenBucket requests;
+    private final TokenBucket uploadBytes;
+    private final TokenBucket downloadBytes;
+
+    /**
+     * @param maxRequestsPerSecond
+     *            0 for no limit
+     * @param maxUploadBytesPerSecond
+     *            0 for no limit
+     * @param maxDownloadBytesPerSecond
+     *            0 for no limit
+     */
+    public RateLimitFilter(double maxRequestsPerSecond,
+            long maxUploadBytesPerSecond, long maxDownloadBytesPerSecond) {
+        requests = bucket(maxRequestsPerSecond);
+        uploadBytes = bucket(maxUploadBytesPerSecond);
+        downloadBytes = bucket(maxDownloadBytesPerSecond);
+    }
+
+    private static TokenBucket bucket(double rate) {
+        return rate > 0 ? new TokenBucket(rate) : null;
+    }
+
+    @Override
+    public ClientResponse handle(ClientRequest cr)
+            throws ClientHandlerException {
+        if (requests != null) {
+            try {
+                requests.acquire(1);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ClientHandlerException(
+                        "Interrupted while waiting to send request", e);
+            }
+        }
+        // a retried request passes through again, but must only be
+        // throttled once per byte
+        if (uploadBytes != null && cr.getEntity() != null
+                && cr.getProperties().put(THROTTLED, Boolean.TRUE) == null) {
+            cr.setAdapter(new ThrottlingAdapter(cr.getAdapter()));
+        }
+        ClientResponse response = getNext().handle(cr);
+        if (downloadBytes != null && response.hasEntity()) {
+            response.setEntityInputStream(new ThrottledInputStream(response
+                    .getEntityInputStream()));
+        }
+        return response;
+    }
+
+    /**
+     * Total time requests have waited to be sent, in milliseconds.
+     */
+    public long getRequestWaitMillis() {
+        return requests == null ? 0 : requests.getWaitMillis();
+    }
+
+    /**
+     * Total time spent waiting while writing request bodies, in
+     * milliseconds.
+     */
+    public long getUploadWaitMillis() {
+        return uploadBytes == null ? 0 : uploadBytes.getWaitMillis();
+    }
+
+    /**
+     * Total time spent waiting while reading response bodies, in
+     * milliseconds.
+     */
+    public long getDownloadWaitMillis() {
+        return downloadBytes == null ? 0 : downloadBytes.getWaitMillis();
+    }
+
+    /**
+     * Number of times a request or a chunk of a body had to wait.
+     */
+    public long getWaits() {
+        long waits = 0;
+        for (TokenBucket bucket : new TokenBucket[] { requests, uploadBytes,
+                downloadBytes }) {
+            if (bucket != null) {
+                waits += bucket.getWaits();
+            }
+        }
+        return waits;
+    }
+
+    private static void acquire(TokenBucket bucket, int bytes)
+            throws InterruptedIOException {
+        try {
+            bucket.acquire(bytes);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException(
+                    "Interrupted while waiting for bandwidth");
+        }
+    }
+
+    private class ThrottlingAdapter extends AbstractClientRequestAdapter {
+        ThrottlingAdapter(ClientRequestAdapter adapter) {
+            super(adapter);
+        }
+
+        @Override
+        public OutputStream adapt(ClientRequest request, OutputStream out)
+                throws IOException {
+            // wrap the connection's stream, beneath any compression
+            return getAdapter().adapt(request, new ThrottledOutputStream(out));
+        }
+    }
+
+    private class ThrottledOutputStream extends FilterOutputStream {
+        ThrottledOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            acquire(uploadBytes, 1);
+            out.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            while (len > 0) {
+                int chunk = Math.min(len, CHUNK_SIZE);
+                acquire(uploadBytes, chunk);
+                out.write(b, off, chunk);
+                off += chunk;
+                len -= chunk;
+            }
+        }
+    }
+
+    private class ThrottledInputStream extends FilterInputStream {
+        ThrottledInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                acquire(downloadBytes, 1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, Math.min(len, CHUNK_SIZE));
+            if (n > 0) {
+                acquire(downloadBytes, n);
+            }
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(Math.min(n, CHUNK_SIZE));
+            if (skipped > 0) {
+                acquire(downloadBytes, (int) skipped);
+            }
+            return skipped;
+        }
+
+        @Override
+        public boolean markSupported() {
+            return false;
+        }
+    }
+}
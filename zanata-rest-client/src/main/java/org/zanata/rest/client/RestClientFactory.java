@@ -36,6 +36,7 @@ import javax.net.ssl.SSLSession;
 import javax.net.ssl.TrustManager;
 import javax.net.ssl.X509TrustManager;
 
+import org.apache.http.pool.PoolStats;
 import org.apache.maven.artifact.versioning.DefaultArtifactVersion;
 import org.codehaus.jackson.jaxrs.JacksonJsonProvider;
 import org.slf4j.Logger;
@@ -45,12 +46,40 @@ import org.zanata.rest.dto.VersionInfo;
 
 import com.google.common.base.Throwables;
 import com.sun.jersey.api.client.Client;
+import com.sun.jersey.api.client.GenericType;
+import com.sun.jersey.api.client.WebResource;
 import com.sun.jersey.api.client.config.ClientConfig;
 import com.sun.jersey.api.client.config.DefaultClientConfig;
 import com.sun.jersey.client.urlconnection.HTTPSProperties;
 import com.sun.jersey.multipart.impl.MultiPartWriter;
 
 /**
+ * Creates the clients for Zanata's REST services, all sharing a single
+ * Jersey {@link Client}.
+ * <p>
+ * Thread safety: once constructed, a factory and every client it returns
+ * ({@link AccountClient}, {@link AsyncProcessClient},
+ * {@link CopyTransClient}, {@link FileResourceClient},
+ * {@link GlossaryClient}, {@link ProjectClient},
+ * {@link ProjectIterationClient}, {@link ProjectIterationLocalesClient},
+ * {@link ProjectsClient}, {@link SourceDocResourceClient},
+ * {@link StatisticsResourceClient} and {@link TransDocResourceClient}) may be
+ * used by any number of threads at once. Clients hold only immutable state,
+ * build a new WebResource for every call, and read each response from the
+ * call which made the request; the filters on the shared Client are added
+ * here and never changed afterwards. Entities passed to a client (eg a
+ * Resource being pushed) must not be modified while the call is in progress,
+ * and a ClientResponse returned to the caller (eg by
+ * {@link TransDocResourceClient#getTranslations}) belongs to that caller,
+ * who should read or close it.
+ * <p>
+ * With the URLCONNECTION connector the number of concurrent requests is
+ * unlimited; with the POOLED connector requests beyond the pool size wait
+ * for a free connection (see {@link ConnectionSettings}). Either way, the
+ * number of concurrent requests can be adapted to the server's load, and
+ * the rate of requests and of transferred bytes can be limited for all
+ * threads together.
+ *
  * @author Patrick Huang <a
  *         href="mailto:pahuang@redhat.com">pahuang@redhat.com</a>
  */
@@ -63,6 +92,17 @@ public class RestClientFactory {
 
     private Client client;
     private URI baseURI;
+    private CompressionFilter compressionFilter;
+    private PooledConnector pooledConnector;
+    private MetadataCache metadataCache;
+    private String username;
+    private RetryFilter retryFilter;
+    private HedgingFilter hedgingFilter;
+    private RateLimitFilter rateLimitFilter;
+    private AdaptiveConcurrencyLimiter concurrencyLimiter;
+    private final SingleFlight singleFlight = new SingleFlight();
+    private WriteTrackingFilter writeTracker;
+    private TraceDebugFilter traceDebugFilter;
 
     // for use by InitCommand
     protected RestClientFactory() {
@@ -71,26 +111,148 @@ public class RestClientFactory {
     public RestClientFactory(URI base, String username, String apiKey,
             VersionInfo clientApiVersion, boolean logHttp,
             boolean sslCertDisabled) {
+        this(base, username, apiKey, clientApiVersion, logHttp,
+                sslCertDisabled, CompressionFilter.NO_REQUEST_COMPRESSION);
+    }
+
+    /**
+     * @param requestCompressionThreshold
+     *            request bodies bigger than this many bytes are sent
+     *            gzip-compressed, or
+     *            {@link CompressionFilter#NO_REQUEST_COMPRESSION} to disable
+     *            request compression (responses are always accepted
+     *            compressed)
+     */
+    public RestClientFactory(URI base, String username, String apiKey,
+            VersionInfo clientApiVersion, boolean logHttp,
+            boolean sslCertDisabled, int requestCompressionThreshold) {
+        this(base, username, apiKey, clientApiVersion, logHttp,
+                sslCertDisabled, requestCompressionThreshold,
+                new ConnectionSettings());
+    }
+
+    /**
+     * @param requestCompressionThreshold
+     *            see
+     *            {@link #RestClientFactory(URI, String, String, VersionInfo, boolean, boolean, int)}
+     * @param connectionSettings
+     *            which HTTP connector to use, its pool size and timeouts, and
+     *            how to retry requests which fail for transient reasons
+     */
+    public RestClientFactory(URI base, String username, String apiKey,
+            VersionInfo clientApiVersion, boolean logHttp,
+            boolean sslCertDisabled, int requestCompressionThreshold,
+            ConnectionSettings connectionSettings) {
+        this(base, username, apiKey, clientApiVersion, logHttp,
+                sslCertDisabled, requestCompressionThreshold,
+                connectionSettings, null);
+    }
+
+    /**
+     * @param requestCompressionThreshold
+     *            see
+     *            {@link #RestClientFactory(URI, String, String, VersionInfo, boolean, boolean, int)}
+     * @param connectionSettings
+     *            which HTTP connector to use, its pool size and timeouts, and
+     *            how to retry requests which fail for transient reasons
+     * @param metadataCache
+     *            cache for the server version, locales, document lists and
+     *            file types, or null to fetch them every time
+     */
+    public RestClientFactory(URI base, String username, String apiKey,
+            VersionInfo clientApiVersion, boolean logHttp,
+            boolean sslCertDisabled, int requestCompressionThreshold,
+            ConnectionSettings connectionSettings,
+            MetadataCache metadataCache) {
         baseURI = base;
         this.clientApiVersion = clientApiVersion;
         clientVersion = clientApiVersion.getVersionNo();
         DefaultClientConfig clientConfig =
                 new DefaultClientConfig(MultiPartWriter.class);
 
-        sslConfiguration(sslCertDisabled, clientConfig);
+        SSLContext sslContext = sslConfiguration(sslCertDisabled, clientConfig);
         clientConfig.getClasses().add(JacksonJsonProvider.class);
 
-        client = Client.create(clientConfig);
+        if (connectionSettings.getConnector() == ConnectionSettings.Connector.POOLED) {
+            pooledConnector =
+                    new PooledConnector(connectionSettings, sslContext);
+            client = pooledConnector.createClient(clientConfig);
+        } else {
+            client = Client.create(clientConfig);
+            if (connectionSettings.getConnectTimeout() > 0) {
+                client.setConnectTimeout(connectionSettings
+                        .getConnectTimeout());
+            }
+            if (connectionSettings.getSocketTimeout() > 0) {
+                client.setReadTimeout(connectionSettings.getSocketTimeout());
+            }
+        }
+        // added first, so that it measures only the HTTP exchange
+        if (connectionSettings.isAdaptiveConcurrency()) {
+            concurrencyLimiter =
+                    new AdaptiveConcurrencyLimiter(1,
+                            connectionSettings.getMaxConnections());
+            client.addFilter(new ConcurrencyLimitFilter(concurrencyLimiter));
+        }
+        // added next, so that it sees the bytes on the wire, and limits
+        // retries too
+        if (connectionSettings.isRateLimited()) {
+            rateLimitFilter =
+                    new RateLimitFilter(
+                            connectionSettings.getMaxRequestsPerSecond(),
+                            connectionSettings.getMaxUploadBytesPerSecond(),
+                            connectionSettings.getMaxDownloadBytesPerSecond());
+            client.addFilter(rateLimitFilter);
+        }
+        // added next, so that a retry only repeats the HTTP exchange
+        retryFilter =
+                new RetryFilter(connectionSettings.getMaxRetries(),
+                        connectionSettings.getRetryInitialDelay(),
+                        connectionSettings.getRetryMaxDelay(),
+                        new CircuitBreaker(
+                                connectionSettings.getFailureThreshold(),
+                                connectionSettings.getCircuitOpenTime()));
+        client.addFilter(retryFilter);
+        // added after RetryFilter, so that each copy is retried on its own
+        if (connectionSettings.getHedgePercentile() > 0
+                && connectionSettings.getMaxHedgedRequests() > 0) {
+            hedgingFilter =
+                    new HedgingFilter(connectionSettings.getHedgePercentile(),
+                            connectionSettings.getMaxHedgedRequests());
+            client.addFilter(hedgingFilter);
+        }
+        // lets coalesce() tell whether a write happened since a GET was sent
+        writeTracker = new WriteTrackingFilter();
+        client.addFilter(writeTracker);
         client.addFilter(
                 new ApiKeyHeaderFilter(username, apiKey, clientVersion));
-        client.addFilter(new AcceptTypeFilter());
-        client.addFilter(new TraceDebugFilter(logHttp));
+        client.addFilter(
+                new AcceptTypeFilter(connectionSettings.getWireFormat()));
+        // added before TraceDebugFilter so that it logs decompressed bodies
+        compressionFilter = new CompressionFilter(requestCompressionThreshold);
+        client.addFilter(compressionFilter);
+        this.metadataCache = metadataCache;
+        this.username = username;
+        if (metadataCache != null) {
+            client.addFilter(new MetadataCacheFilter(metadataCache, username,
+                    client.getMessageBodyWorkers()));
+        }
+        traceDebugFilter =
+                new TraceDebugFilter(logHttp,
+                        connectionSettings.getHttpLogMaxBodySize(),
+                        connectionSettings.getHttpLogSampleRate(),
+                        connectionSettings.getHttpLogFile());
+        client.addFilter(traceDebugFilter);
     }
 
-    private static void sslConfiguration(boolean sslCertDisabled,
+    /**
+     * @return an SSL context which trusts all certificates, or null if
+     *         certificate verification is enabled
+     */
+    private static SSLContext sslConfiguration(boolean sslCertDisabled,
             ClientConfig clientConfig) {
         if (!sslCertDisabled) {
-            return;
+            return null;
         }
         try {
             final SSLContext sslContext = SSLContext.getInstance("TLS");
@@ -116,15 +278,17 @@ public class RestClientFactory {
                                 }
                             }, sslContext
                     ));
+            return sslContext;
         } catch (Exception e) {
             log.warn("error creating SSL client", e);
-            Throwables.propagate(e);
+            throw Throwables.propagate(e);
         }
     }
 
     public VersionInfo getServerVersionInfo() {
-        return client.resource(getBaseUri()).path("version")
-                .get(VersionInfo.class);
+        return MetadataCacheFilter.cacheable(
+                client.resource(getBaseUri()).path("version"),
+                MetadataCacheFilter.CacheMode.TTL).get(VersionInfo.class);
     }
 
     public void performVersionCheck() {
@@ -192,6 +356,113 @@ public class RestClientFactory {
         return client;
     }
 
+    /**
+     * Byte counts for compressed requests and responses, or null if this
+     * factory has no client.
+     */
+    public CompressionFilter getCompressionFilter() {
+        return compressionFilter;
+    }
+
+    /**
+     * The adaptive limit on concurrent requests, or null if the number of
+     * concurrent requests is not limited this way.
+     */
+    public AdaptiveConcurrencyLimiter getConcurrencyLimiter() {
+        return concurrencyLimiter;
+    }
+
+    /**
+     * Time spent waiting because of rate limits, or null if this factory
+     * has no rate limits.
+     */
+    public RateLimitFilter getRateLimitFilter() {
+        return rateLimitFilter;
+    }
+
+    /**
+     * Retry counts and the circuit breaker, or null if this factory has no
+     * client.
+     */
+    public RetryFilter getRetryFilter() {
+        return retryFilter;
+    }
+
+    /**
+     * Counts of hedged downloads, or null if this factory does not hedge
+     * requests.
+     */
+    public HedgingFilter getHedgingFilter() {
+        return hedgingFilter;
+    }
+
+    /**
+     * The filter which logs HTTP messages, or null if this factory has no
+     * client.
+     */
+    public TraceDebugFilter getTraceDebugFilter() {
+        return traceDebugFilter;
+    }
+
+    /**
+     * Counts of requests shared by concurrent callers of this factory's
+     * clients.
+     */
+    public SingleFlight getSingleFlight() {
+        return singleFlight;
+    }
+
+    /**
+     * Makes a GET request, or waits for an identical one which is already in
+     * flight and shares its response. Only the bytes of the response are
+     * shared: each caller unmarshals its own entity, which it may modify.
+     * Callers do not share a request which was sent before a write (PUT, POST
+     * or DELETE) by this factory started or finished, so nobody reads what
+     * was there before their own write.
+     *
+     * @see SingleFlight
+     */
+    <T> T coalesce(WebResource resource, GenericType<T> type) {
+        return singleFlight.get(SingleFlight.key(username, resource.getURI(),
+                writeTracker.getEpoch()), resource, type);
+    }
+
+    <T> T coalesce(WebResource resource, Class<T> type) {
+        return coalesce(resource, new GenericType<T>(type));
+    }
+
+    /**
+     * Hit and miss counts for cached metadata, or null if this factory does
+     * not cache metadata.
+     */
+    public MetadataCache getMetadataCache() {
+        return metadataCache;
+    }
+
+    /**
+     * Leased, pending and available connections in the connection pool, or
+     * null if this factory does not use the pooled connector.
+     */
+    public PoolStats getConnectionPoolStats() {
+        return pooledConnector == null ? null : pooledConnector.getStats();
+    }
+
+    /**
+     * Closes any pooled connections and the HTTP log file. Clients created by
+     * this factory can not be used afterwards.
+     */
+    public void close() {
+        if (hedgingFilter != null) {
+            hedgingFilter.shutdown();
+        }
+        if (pooledConnector != null) {
+            pooledConnector.shutdown();
+        }
+        if (traceDebugFilter != null) {
+            traceDebugFilter.close();
+        }
+    }
+
     /**
      * Compares a given version identifier with the server version.
      *
@@ -210,6 +481,17 @@ public class RestClientFactory {
         return srvVersion.compareTo(providedVersion);
     }
 
+    /**
+     * Creates a non-blocking facade over this factory's clients. The caller
+     * should close it when finished.
+     *
+     * @param maxConcurrentRequests
+     *            maximum number of requests the facade sends at once
+     */
+    public AsyncRestClient createAsyncClient(int maxConcurrentRequests) {
+        return new AsyncRestClient(this, maxConcurrentRequests);
+    }
+
     public AccountClient getAccountClient() {
         return new AccountClient(this);
     }
@@ -0,0 +1,237 @@
+/*
+ * Copyright 2015, Red Hat, Inc. and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.zanata.rest.client;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.ConnectException;
+import java.net.NoRouteToHostException;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.http.conn.ConnectTimeoutException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.common.primitives.Longs;
+import com.sun.jersey.api.client.ClientHandlerException;
+import com.sun.jersey.api.client.ClientRequest;
+import com.sun.jersey.api.client.ClientResponse;
+import com.sun.jersey.api.client.WebResource;
+import com.sun.jersey.api.client.filter.ClientFilter;
+
+/**
+ * Sends a request again if it fails for a reason which is likely to be
+ * transient: an I/O error (eg connection refused or reset, or a timeout) or
+ * a 502, 503 or 504 response. Retries wait for an exponentially growing,
+ * jittered delay, or for as long as the server asks in a Retry-After header.
+ * <p>
+ * Only requests which can safely be sent twice are retried: GET, HEAD, PUT,
+ * DELETE and OPTIONS requests (unless their body is a stream, which can only
+ * be read once), and requests marked with {@link #retryable(WebResource)}.
+ * A PUT is only retried if it failed to connect or got a 503: after a
+ * timeout or a gateway error the server may still be storing the first
+ * copy, and sending a large document again would only add to its load.
+ * <p>
+ * Transient failures are also reported to a {@link CircuitBreaker}; while
+ * it is open, requests fail immediately instead of waiting for a server
+ * which is down.
+ * <p>
+ * This filter must be added to a client before any other filter except
+ * {@link ConcurrencyLimitFilter} and {@link RateLimitFilter}, so that each
+ * retry only repeats the HTTP exchange itself. It is thread-safe.
+ *
+ * @see RestClientFactory
+ */
+public class RetryFilter extends ClientFilter {
+    private static final Logger log =
+            LoggerFactory.getLogger(RetryFilter.class);
+    private static final String RETRYABLE =
+            RetryFilter.class.getName() + ".retryable";
+    private static final Set<String> IDEMPOTENT_METHODS = ImmutableSet.of(
+            "GET", "HEAD", "PUT", "DELETE", "OPTIONS");
+    private static final Set<Integer> TRANSIENT_STATUSES = ImmutableSet.of(
+            502, 503, 504);
+    private static final double JITTER = 0.2;
+
+    private final int maxRetries;
+    private final long initialDelay;
+    private final long maxDelay;
+    private final CircuitBreaker circuitBreaker;
+    private final Random random = new Random();
+    private final AtomicLong retries = new AtomicLong();
+    private final AtomicLong rejectedRequests = new AtomicLong();
+
+    /**
+     * @param maxRetries
+     *            number of times a request is sent again
+     * @param initialDelay
+     *            milliseconds to wait before the first retry
+     * @param maxDelay
+     *            maximum milliseconds to wait before a retry
+     */
+    public RetryFilter(int maxRetries, long initialDelay, long maxDelay,
+            CircuitBreaker circuitBreaker) {
+        this.maxRetries = maxRetries;
+        this.initialDelay = initialDelay;
+        this.maxDelay = maxDelay;
+        this.circuitBreaker = circuitBreaker;
+    }
+
+    /**
+     * Marks the POST requests of a resource as safe to send again (eg
+     * because the server ignores a request to start a process which is
+     * already running). Since sub-resources are new WebResources, this should
+     * be called last, just before the request is made.
+     */
+    static WebResource retryable(WebResource resource) {
+        resource.setProperty(RETRYABLE, Boolean.TRUE);
+        return resource;
+    }
+
+    @Override
+    public ClientResponse handle(ClientRequest cr)
+            throws ClientHandlerException {
+        boolean retryable = isRetryable(cr);
+        boolean isPut = "PUT".equals(cr.getMethod());
+        for (int attempt = 0;; attempt++) {
+            if (!circuitBreaker.allowRequest()) {
+                rejectedRequests.incrementAndGet();
+                throw new ClientHandlerException(
+                        "Server appears to be unavailable: not sending "
+                                + cr.getMethod() + " " + cr.getURI()
+                                + " for another "
+                                + circuitBreaker.getRemainingOpenTime()
+                                + " ms");
+            }
+            ClientResponse response;
+            try {
+                response = getNext().handle(cr);
+            } catch (ClientHandlerException e) {
+                if (!(e.getCause() instanceof IOException)) {
+                    circuitBreaker.recordAbandoned();
+                    throw e;
+                }
+                circuitBreaker.recordFailure();
+                if (!retryable || attempt >= maxRetries || isPut
+                        && !isConnectFailure(e.getCause())) {
+                    throw e;
+                }
+                log.warn("{} {} failed ({}); retrying", cr.getMethod(),
+                        cr.getURI(), e.getCause().toString());
+                pause(attempt, -1);
+                continue;
+            } catch (RuntimeException | Error e) {
+                // no outcome to record, but a trial request must not stay
+                // in progress for ever
+                circuitBreaker.recordAbandoned();
+                throw e;
+            }
+            if (!TRANSIENT_STATUSES.contains(response.getStatus())) {
+                circuitBreaker.recordSuccess();
+                return response;
+            }
+            circuitBreaker.recordFailure();
+            if (!retryable || attempt >= maxRetries || isPut
+                    && response.getStatus() != 503) {
+                return response;
+            }
+            log.warn("{} {} returned {}; retrying", cr.getMethod(),
+                    cr.getURI(), response.getStatus());
+            long retryAfter = retryAfter(response);
+            response.close();
+            pause(attempt, retryAfter);
+        }
+    }
+
+    private static boolean isRetryable(ClientRequest cr) {
+        if (Boolean.TRUE.equals(cr.getProperties().get(RETRYABLE))) {
+            return true;
+        }
+        return IDEMPOTENT_METHODS.contains(cr.getMethod())
+                && !(cr.getEntity() instanceof InputStream);
+    }
+
+    /**
+     * Returns true if a request certainly did not reach the server, because
+     * no connection could be made.
+     */
+    private static boolean isConnectFailure(Throwable cause) {
+        return cause instanceof ConnectException
+                || cause instanceof NoRouteToHostException
+                || cause instanceof ConnectTimeoutException;
+    }
+
+    /**
+     * The delay in milliseconds requested by a Retry-After header (in
+     * seconds), or -1 if there is none.
+     */
+    private static long retryAfter(ClientResponse response) {
+        String value = response.getHeaders().getFirst("Retry-After");
+        Long seconds = value == null ? null : Longs.tryParse(value.trim());
+        return seconds == null ? -1 : TimeUnit.SECONDS.toMillis(seconds);
+    }
+
+    /**
+     * Returns the delay before a retry: initialDelay * 2^attempt (at most
+     * maxDelay), varied by +/- 20% so that concurrent requests do not retry
+     * in lock-step, or the server's requested delay if that is longer.
+     */
+    long delay(int attempt, long retryAfter) {
+        long delay = initialDelay << Math.min(attempt, 30);
+        delay = Math.min(maxDelay, delay < 0 ? maxDelay : delay);
+        double factor = 1 + JITTER * (2 * random.nextDouble() - 1);
+        long jittered = (long) (delay * factor);
+        return Math.max(jittered, Math.min(retryAfter, maxDelay));
+    }
+
+    private void pause(int attempt, long retryAfter) {
+        retries.incrementAndGet();
+        try {
+            Thread.sleep(delay(attempt, retryAfter));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ClientHandlerException(
+                    "Interrupted while waiting to retry", e);
+        }
+    }
+
+    /**
+     * Number of requests sent again after a transient failure.
+     */
+    public long getRetries() {
+        return retries.get();
+    }
+
+    /**
+     * Number of requests refused because the circuit breaker was open.
+     */
+    public long getRejectedRequests() {
+        return rejectedRequests.get();
+    }
+
+    public CircuitBreaker getCircuitBreaker() {
+        return circuitBreaker;
+    }
+}
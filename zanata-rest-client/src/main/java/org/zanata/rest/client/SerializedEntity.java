@@ -0,0 +1,211 @@
+/*
+ * Copyright 2015, Red Hat, Inc. and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.zanata.rest.client;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import javax.ws.rs.core.MediaType;
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.JAXBException;
+
+import org.codehaus.jackson.map.ObjectMapper;
+
+import com.google.common.base.Charsets;
+import com.google.common.io.ByteStreams;
+
+/**
+ * A request body which has already been marshalled to XML or JSON (and
+ * optionally gzip-compressed), so that it can be sent several times without being
+ * marshalled again, eg when the server does not accept an asynchronous
+ * process and it has to be resubmitted.
+ * <p>
+ * Instances are immutable and may be shared between threads.
+ */
+public class SerializedEntity {
+    public static final String GZIP_ENCODING = "gzip";
+    private static final ConcurrentMap<Class<?>, JAXBContext> contexts =
+            new ConcurrentHashMap<Class<?>, JAXBContext>();
+    // configured like the client's JacksonJsonProvider
+    private static final ObjectMapper jsonMapper = new ObjectMapper();
+
+    private final byte[] body;
+    private final int size;
+    private final boolean compressed;
+    private final WireFormat format;
+
+    private SerializedEntity(byte[] body, int size, boolean compressed,
+            WireFormat format) {
+        this.body = body;
+        this.size = size;
+        this.compressed = compressed;
+        this.format = format;
+    }
+
+    /**
+     * Marshals a JAXB element to XML.
+     */
+    public static SerializedEntity marshal(Object jaxbElement) {
+        return marshal(jaxbElement, false);
+    }
+
+    /**
+     * Marshals a JAXB element to XML.
+     *
+     * @param compress
+     *            whether to gzip the XML (the request is then sent with a
+     *            gzip Content-Encoding)
+     */
+    public static SerializedEntity marshal(Object jaxbElement,
+            boolean compress) {
+        return marshal(jaxbElement, compress, WireFormat.XML);
+    }
+
+    /**
+     * Marshals a JAXB element to XML or JSON.
+     *
+     * @param compress
+     *            whether to gzip the body (the request is then sent with a
+     *            gzip Content-Encoding)
+     * @param format
+     *            representation to use
+     */
+    public static SerializedEntity marshal(Object jaxbElement,
+            boolean compress, WireFormat format) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try {
+            if (format == WireFormat.JSON) {
+                jsonMapper.writeValue(out, jaxbElement);
+            } else {
+                getContext(jaxbElement.getClass()).createMarshaller()
+                        .marshal(jaxbElement, out);
+            }
+        } catch (JAXBException | IOException e) {
+            throw new RuntimeException("Could not marshal "
+                    + jaxbElement.getClass().getSimpleName(), e);
+        }
+        byte[] serialized = out.toByteArray();
+        if (!compress) {
+            return new SerializedEntity(serialized, serialized.length, false,
+                    format);
+        }
+        ByteArrayOutputStream gzipped =
+                new ByteArrayOutputStream(serialized.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(gzipped)) {
+            gzip.write(serialized);
+        } catch (IOException e) {
+            // can't happen with in-memory streams
+            throw new RuntimeException(e);
+        }
+        return new SerializedEntity(gzipped.toByteArray(), serialized.length,
+                true, format);
+    }
+
+    private static JAXBContext getContext(Class<?> type) throws JAXBException {
+        JAXBContext context = contexts.get(type);
+        if (context == null) {
+            context = JAXBContext.newInstance(type);
+            JAXBContext existing = contexts.putIfAbsent(type, context);
+            if (existing != null) {
+                context = existing;
+            }
+        }
+        return context;
+    }
+
+    /**
+     * The bytes to send. Callers must not modify the returned array.
+     */
+    public byte[] getBody() {
+        return body;
+    }
+
+    public MediaType getMediaType() {
+        return format.getMediaType();
+    }
+
+    /**
+     * @return the value for the Content-Encoding header, or null if the body
+     *         is not compressed
+     */
+    public String getContentEncoding() {
+        return compressed ? GZIP_ENCODING : null;
+    }
+
+    /**
+     * Size in bytes of the serialized XML or JSON, before any compression.
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Size in bytes of the body as sent, after any compression.
+     */
+    public int getBodySize() {
+        return body.length;
+    }
+
+    /**
+     * The serialized XML or JSON, eg for debug logging.
+     */
+    public String asString() {
+        try (InputStream in = openSerialized()) {
+            return new String(ByteStreams.toByteArray(in), Charsets.UTF_8);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Unmarshals the body back into a JAXB element.
+     */
+    public <T> T unmarshal(Class<T> type) {
+        try (InputStream in = openSerialized()) {
+            if (format == WireFormat.JSON) {
+                return jsonMapper.readValue(in, type);
+            }
+            return type.cast(getContext(type).createUnmarshaller()
+                    .unmarshal(in));
+        } catch (JAXBException | IOException e) {
+            throw new RuntimeException("Could not unmarshal "
+                    + type.getSimpleName(), e);
+        }
+    }
+
+    private InputStream openSerialized() throws IOException {
+        InputStream in = new ByteArrayInputStream(body);
+        return compressed ? new GZIPInputStream(in) : in;
+    }
+
+    @Override
+    public String toString() {
+        return "SerializedEntity[format=" + format + ", size=" + size
+                + ", bodySize=" + body.length + "]";
+    }
+}
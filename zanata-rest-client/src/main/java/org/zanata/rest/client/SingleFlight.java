@@ -0,0 +1,201 @@
+/*
+ * Copyright 2015, Red Hat, Inc. and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.zanata.rest.client;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.ws.rs.core.MultivaluedMap;
+
+import com.google.common.base.Supplier;
+import com.google.common.io.ByteStreams;
+import com.google.common.util.concurrent.SettableFuture;
+import com.google.common.util.concurrent.Uninterruptibles;
+import com.sun.jersey.api.client.ClientHandlerException;
+import com.sun.jersey.api.client.ClientResponse;
+import com.sun.jersey.api.client.GenericType;
+import com.sun.jersey.api.client.UniformInterfaceException;
+import com.sun.jersey.api.client.WebResource;
+import com.sun.jersey.core.header.InBoundHeaders;
+import com.sun.jersey.spi.MessageBodyWorkers;
+
+/**
+ * Coalesces identical requests which are made at the same time: the first
+ * caller for a key makes the request, and callers arriving while it is in
+ * flight wait for it and get the same result (or the same exception)
+ * instead of making their own request. Nothing is kept once the request
+ * completes; see {@link MetadataCache} for that.
+ * <p>
+ * Since the result object is shared, it must not be modified.
+ * {@link #get(String, WebResource, GenericType)} shares only the bytes of a
+ * response, so that each caller gets its own entity. Each
+ * {@link RestClientFactory} has its own instance, so counts are per command.
+ */
+public class SingleFlight {
+    private final ConcurrentMap<String, SettableFuture<Object>> inFlight =
+            new ConcurrentHashMap<String, SettableFuture<Object>>();
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong sharedResults = new AtomicLong();
+
+    /**
+     * @param writeEpoch
+     *            a count which changes whenever a write starts or finishes
+     *            (see {@link WriteTrackingFilter}), so that a caller never
+     *            shares a request which was sent before its own write
+     *            completed
+     */
+    static String key(String username, URI uri, long writeEpoch) {
+        return username + " GET " + uri + " @" + writeEpoch;
+    }
+
+    /**
+     * Returns the result of an identical request already in flight, or else
+     * calls the loader.
+     *
+     * @param key
+     *            identifies the request
+     * @param loader
+     *            makes the request
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String key, Supplier<T> loader) {
+        SettableFuture<Object> future = SettableFuture.create();
+        SettableFuture<Object> existing = inFlight.putIfAbsent(key, future);
+        if (existing != null) {
+            sharedResults.incrementAndGet();
+            try {
+                return (T) Uninterruptibles.getUninterruptibly(existing);
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof RuntimeException) {
+                    throw (RuntimeException) cause;
+                }
+                if (cause instanceof Error) {
+                    throw (Error) cause;
+                }
+                throw new RuntimeException(cause);
+            }
+        }
+        requests.incrementAndGet();
+        try {
+            T result = loader.get();
+            future.set(result);
+            return result;
+        } catch (RuntimeException e) {
+            future.setException(e);
+            throw e;
+        } catch (Error e) {
+            future.setException(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, future);
+        }
+    }
+
+    /**
+     * Makes a GET request, or waits for an identical one which is already in
+     * flight and shares its response. The response is read into memory, and
+     * each caller unmarshals its own entity from it, which it may modify.
+     *
+     * @throws UniformInterfaceException
+     *             if the response status is 300 or more, as for
+     *             {@link WebResource#get(GenericType)}
+     */
+    public <T> T get(String key, final WebResource resource,
+            GenericType<T> type) {
+        SharedResponse shared =
+                execute(key, new Supplier<SharedResponse>() {
+                    @Override
+                    public SharedResponse get() {
+                        return new SharedResponse(resource
+                                .get(ClientResponse.class));
+                    }
+                });
+        ClientResponse response = shared.newResponse();
+        if (response.getStatus() >= 300) {
+            throw new UniformInterfaceException(response);
+        }
+        return response.getEntity(type);
+    }
+
+    /**
+     * Number of requests actually made.
+     */
+    public long getRequests() {
+        return requests.get();
+    }
+
+    /**
+     * Number of callers which used the result of a request already in
+     * flight, instead of making their own.
+     */
+    public long getSharedResults() {
+        return sharedResults.get();
+    }
+
+    /**
+     * A response read into memory, so that several callers can each read it.
+     */
+    private static class SharedResponse {
+        private final int status;
+        private final InBoundHeaders headers;
+        private final byte[] entity;
+        private final MessageBodyWorkers workers;
+
+        SharedResponse(ClientResponse response) {
+            try {
+                status = response.getStatus();
+                headers = copy(response.getHeaders());
+                entity =
+                        ByteStreams.toByteArray(response
+                                .getEntityInputStream());
+                workers = response.getClient().getMessageBodyWorkers();
+            } catch (IOException e) {
+                throw new ClientHandlerException(e);
+            } finally {
+                response.close();
+            }
+        }
+
+        ClientResponse newResponse() {
+            return new ClientResponse(status, copy(headers),
+                    new ByteArrayInputStream(entity), workers);
+        }
+
+        private static InBoundHeaders copy(
+                MultivaluedMap<String, String> headers) {
+            InBoundHeaders copy = new InBoundHeaders();
+            for (Map.Entry<String, List<String>> header : headers.entrySet()) {
+                copy.put(header.getKey(),
+                        new ArrayList<String>(header.getValue()));
+            }
+            return copy;
+        }
+    }
+}
@@ -25,9 +25,12 @@ import java.net.URI;
 import java.util.List;
 import java.util.Set;
 
+import javax.ws.rs.core.MediaType;
+
 import org.zanata.rest.dto.resource.Resource;
 import org.zanata.rest.dto.resource.ResourceMeta;
 import com.sun.jersey.api.client.Client;
+import com.sun.jersey.api.client.ClientResponse;
 import com.sun.jersey.api.client.GenericType;
 
 import com.sun.jersey.api.client.WebResource;
@@ -61,11 +64,41 @@ public class SourceDocResourceClient {
         WebResource webResource = getBaseServiceResource(client)
                 .queryParams(ClientUtil.asMultivaluedMap(
                         "ext", extensions));
-        return webResource
-                .get(new GenericType<List<ResourceMeta>>() {
+        // the list changes whenever a document is pushed, so always check
+        // that the cached copy is current
+        return factory.coalesce(MetadataCacheFilter.cacheable(webResource,
+                MetadataCacheFilter.CacheMode.REVALIDATE),
+                new GenericType<List<ResourceMeta>>() {
                 });
     }
 
+    /**
+     * Like {@link #getResourceMeta(Set)}, but hands out the documents one at
+     * a time as they are parsed, instead of building the whole list.
+     */
+    public void visitResourceMeta(Set<String> extensions,
+            ElementVisitor<ResourceMeta> visitor) {
+        Client client = factory.getClient();
+        WebResource webResource = getBaseServiceResource(client)
+                .queryParams(ClientUtil.asMultivaluedMap(
+                        "ext", extensions));
+        ClientResponse response = MetadataCacheFilter.cacheable(webResource,
+                MetadataCacheFilter.CacheMode.REVALIDATE)
+                .accept(MediaType.APPLICATION_JSON_TYPE)
+                .get(ClientResponse.class);
+        if (JsonArrayReader.isJson(response)) {
+            JsonArrayReader.readArray(response.getEntityInputStream(),
+                    ResourceMeta.class, visitor);
+        } else {
+            // the server ignored the Accept header
+            for (ResourceMeta meta : response
+                    .getEntity(new GenericType<List<ResourceMeta>>() {
+                    })) {
+                visitor.visit(meta);
+            }
+        }
+    }
+
     private WebResource getBaseServiceResource(Client client) {
         return client.resource(baseUri)
                 .path("projects").path("p")
@@ -82,23 +115,19 @@ public class SourceDocResourceClient {
                         .path(idNoSlash)
                         .queryParams(ClientUtil.asMultivaluedMap(
                                 "ext", extensions));
-        return webResource.get(Resource.class);
+        return HedgingFilter.hedgeable(webResource).get(Resource.class);
     }
 
     public String putResource(String idNoSlash, Resource resource,
             Set<String> extensions, boolean copyTrans) {
         Client client = factory.getClient();
-        CacheResponseFilter filter = new CacheResponseFilter();
-        client.addFilter(filter);
         WebResource webResource = getBaseServiceResource(client)
                 .path(idNoSlash)
                 .queryParams(ClientUtil.asMultivaluedMap(
                         "ext", extensions))
                 .queryParam("copyTrans", String.valueOf(copyTrans));
 
-        webResource.put(resource);
-        client.removeFilter(filter);
-        return filter.getEntity(String.class);
+        return webResource.put(String.class, resource);
     }
 
     public String deleteResource(String idNoSlash) {
@@ -25,11 +25,13 @@ import java.net.URI;
 import java.util.ArrayList;
 import java.util.List;
 import javax.ws.rs.DefaultValue;
+import javax.ws.rs.core.MediaType;
 
 import org.zanata.rest.dto.stats.ContainerTranslationStatistics;
 import org.zanata.rest.dto.stats.contribution.ContributionStatistics;
 import org.zanata.rest.service.StatisticsResource;
 import com.google.common.collect.Lists;
+import com.sun.jersey.api.client.ClientResponse;
 import com.sun.jersey.api.client.WebResource;
 
 import static org.zanata.rest.client.ClientUtil.asMultivaluedMap;
@@ -62,7 +64,47 @@ public class StatisticsResourceClient implements StatisticsResource {
                         .queryParam("word", String.valueOf(includeWordStats))
                         .queryParams(asMultivaluedMap("locale",
                                 toLocaleList(locales)));
-        return webResource.get(ContainerTranslationStatistics.class);
+        return factory.coalesce(webResource,
+                ContainerTranslationStatistics.class);
+    }
+
+    /**
+     * Like
+     * {@link #getStatistics(String, String, boolean, boolean, String[])}
+     * with details, but hands out the statistics of each document one at a
+     * time as they are parsed, instead of building the statistics of the
+     * whole version. The version's own totals are skipped.
+     */
+    public void visitDocumentStatistics(String projectSlug,
+            String iterationSlug, boolean includeWordStats, String[] locales,
+            ElementVisitor<ContainerTranslationStatistics> visitor) {
+        ClientResponse response =
+                factory.getClient().resource(baseUri).path("stats")
+                        .path("proj")
+                        .path(projectSlug)
+                        .path("iter")
+                        .path(iterationSlug)
+                        .queryParam("detail", "true")
+                        .queryParam("word", String.valueOf(includeWordStats))
+                        .queryParams(asMultivaluedMap("locale",
+                                toLocaleList(locales)))
+                        .accept(MediaType.APPLICATION_JSON_TYPE)
+                        .get(ClientResponse.class);
+        if (JsonArrayReader.isJson(response)) {
+            JsonArrayReader.readArray(response.getEntityInputStream(),
+                    ContainerTranslationStatistics.class, visitor,
+                    "detailedStats");
+        } else {
+            // the server ignored the Accept header
+            List<ContainerTranslationStatistics> docStats = response
+                    .getEntity(ContainerTranslationStatistics.class)
+                    .getDetailedStats();
+            if (docStats != null) {
+                for (ContainerTranslationStatistics stats : docStats) {
+                    visitor.visit(stats);
+                }
+            }
+        }
     }
 
     private static List<String> toLocaleList(String[] locales) {
@@ -90,7 +132,8 @@ public class StatisticsResourceClient implements StatisticsResource {
                         .queryParam("word", String.valueOf(includeWordStats))
                         .queryParams(asMultivaluedMap("locale",
                                 toLocaleList(locales)));
-        return webResource.get(ContainerTranslationStatistics.class);
+        return factory.coalesce(webResource,
+                ContainerTranslationStatistics.class);
     }
 
     @Override
@@ -0,0 +1,110 @@
+/*
+ * Copyright 2015, Red Hat, Inc. and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.zanata.rest.client;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.google.common.base.Ticker;
+
+/**
+ * Hands out tokens (requests or bytes) at a fixed rate, allowing bursts of
+ * up to one second's worth of tokens.
+ * <p>
+ * A caller which asks for more tokens than are available takes them anyway
+ * and waits until the rate has caught up, so the next caller has to wait
+ * until then as well. Tokens are therefore granted in the order they are
+ * asked for, and no thread can be starved by others taking small amounts.
+ * <p>
+ * This class is thread-safe.
+ */
+class TokenBucket {
+    private final double tokensPerNano;
+    private final double capacity;
+    private final Ticker ticker;
+    private final AtomicLong waitNanos = new AtomicLong();
+    private final AtomicLong waits = new AtomicLong();
+    // guarded by this
+    private double available;
+    private long lastRefill;
+
+    /**
+     * @param tokensPerSecond
+     *            rate at which tokens become available
+     */
+    TokenBucket(double tokensPerSecond) {
+        this(tokensPerSecond, Ticker.systemTicker());
+    }
+
+    TokenBucket(double tokensPerSecond, Ticker ticker) {
+        this.tokensPerNano = tokensPerSecond / TimeUnit.SECONDS.toNanos(1);
+        this.capacity = Math.max(1, tokensPerSecond);
+        this.ticker = ticker;
+        this.available = capacity;
+        this.lastRefill = ticker.read();
+    }
+
+    /**
+     * Takes tokens, and returns the number of nanoseconds the caller must
+     * wait before using them.
+     */
+    synchronized long reserve(long tokens) {
+        long now = ticker.read();
+        available =
+                Math.min(capacity, available + (now - lastRefill)
+                        * tokensPerNano);
+        lastRefill = now;
+        available -= tokens;
+        if (available >= 0) {
+            return 0;
+        }
+        return (long) Math.ceil(-available / tokensPerNano);
+    }
+
+    /**
+     * Takes tokens, waiting until they are available.
+     *
+     * @throws InterruptedException
+     *             if interrupted while waiting (the tokens are still used up)
+     */
+    void acquire(long tokens) throws InterruptedException {
+        long wait = reserve(tokens);
+        if (wait > 0) {
+            waits.incrementAndGet();
+            waitNanos.addAndGet(wait);
+            TimeUnit.NANOSECONDS.sleep(wait);
+        }
+    }
+
+    /**
+     * Total time callers have waited for tokens, in milliseconds.
+     */
+    long getWaitMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(waitNanos.get());
+    }
+
+    /**
+     * Number of times a caller had to wait for tokens.
+     */
+    long getWaits() {
+        return waits.get();
+    }
+}
@@ -20,10 +20,20 @@
  */
 package org.zanata.rest.client;
 
-import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FilterInputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
 
+import javax.annotation.Nullable;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MultivaluedMap;
 import javax.ws.rs.ext.Provider;
 
 import org.slf4j.Logger;
@@ -31,15 +41,25 @@ import org.slf4j.LoggerFactory;
 import org.zanata.rest.RestConstant;
 
 import com.google.common.base.Charsets;
+import com.sun.jersey.api.client.AbstractClientRequestAdapter;
 import com.sun.jersey.api.client.ClientHandlerException;
 import com.sun.jersey.api.client.ClientRequest;
+import com.sun.jersey.api.client.ClientRequestAdapter;
 import com.sun.jersey.api.client.ClientResponse;
 import com.sun.jersey.api.client.filter.ClientFilter;
 
 /**
  * Performs logging of Requests on the client side. This interceptor
  * logs at the level TRACE, unless the option logHttp is set, in which case it
- * will log as INFO.
+ * will log as INFO (or to a separate file, if one is given).
+ * <p>
+ * Bodies are not buffered: they are copied as they are written or read, up
+ * to a limit, and logged once they have been sent or read to the end (or
+ * closed). Byte array request bodies are logged before they are sent, so
+ * before any compression. Bodies which are not text, or which are
+ * compressed as they are written, are summarised by size. To keep the
+ * cost down when most requests are alike, the bodies of only one in every N
+ * exchanges may be logged; request lines and headers are always logged.
  *
  * @author Patrick Huang
  *         <a href="mailto:pahuang@redhat.com">pahuang@redhat.com</a>
@@ -50,8 +70,13 @@ public class TraceDebugFilter extends ClientFilter {
 
     private static final Logger log = LoggerFactory
             .getLogger(TraceDebugFilter.class);
+    public static final int DEFAULT_MAX_BODY_SIZE = 4096;
 
-    private boolean logHttp;
+    private final boolean logHttp;
+    private final int maxBodySize;
+    private final int sampleRate;
+    private final HttpTraceFile traceFile;
+    private final AtomicLong exchanges = new AtomicLong();
 
     @Override
     public ClientResponse handle(ClientRequest cr)
@@ -59,6 +84,10 @@ public class TraceDebugFilter extends ClientFilter {
         if (!logHttp && !log.isTraceEnabled()) {
             return getNext().handle(cr);
         }
+        boolean logBodies =
+                maxBodySize > 0
+                        && exchanges.getAndIncrement() % sampleRate == 0;
+        String request = cr.getMethod() + " " + cr.getURI();
         log(">> REST Request: " + cr.getMethod() + " => "
                 + cr.getURI());
 
@@ -75,9 +104,16 @@ public class TraceDebugFilter extends ClientFilter {
 
             log(">> Header: " + key + " = " + headerVal);
         }
-        log(">> body: " + cr.getEntity());
-
-
+        if (logBodies && cr.getEntity() instanceof byte[]) {
+            // logged now, before compression (if any) replaces it
+            byte[] body = (byte[]) cr.getEntity();
+            BodyCapture capture =
+                    new BodyCapture(">> Body of " + request, cr.getHeaders());
+            capture.capture(body, 0, body.length);
+            capture.finish();
+        } else if (logBodies && cr.getEntity() != null) {
+            cr.setAdapter(new TeeAdapter(cr.getAdapter(), request));
+        }
 
         ClientResponse response = getNext().handle(cr);
 
@@ -88,38 +124,60 @@ public class TraceDebugFilter extends ClientFilter {
             log("<< Header: " + key + " = " +
                     response.getHeaders().get(key));
         }
-        response.bufferEntity();
-        log(">> Body: " + getPayloadAsString(response));
+        if (logBodies && response.hasEntity()) {
+            response.setEntityInputStream(new TeeInputStream(response
+                    .getEntityInputStream(), new BodyCapture("<< Body of "
+                    + request, response.getHeaders())));
+        }
         return response;
     }
 
-    // this is jersey implementation specific
-    private String getPayloadAsString(ClientResponse response) {
-        ByteArrayInputStream entityInputStream = null;
-        try {
-            entityInputStream =
-                    (ByteArrayInputStream) response.getEntityInputStream();
-            int available = entityInputStream.available();
-            byte[] data = new byte[available];
-            entityInputStream.read(data);
-            return new String(data, 0, available, Charsets.UTF_8);
-        } catch (Exception e) {
-            log.warn("can't read response payload");
-            return "[error reading response]";
-        } finally {
-            if (entityInputStream != null) {
-                entityInputStream.reset();
+    public TraceDebugFilter(boolean logHttp) {
+        this(logHttp, DEFAULT_MAX_BODY_SIZE, 1, null);
+    }
+
+    /**
+     * @param logHttp
+     *            log as INFO rather than TRACE
+     * @param maxBodySize
+     *            log at most this many bytes of each body; 0 to log no
+     *            bodies
+     * @param sampleRate
+     *            log the bodies of one in every sampleRate exchanges
+     * @param logFile
+     *            if logHttp is set, the file to write the log to (in the
+     *            background) instead of logging as INFO, or null
+     */
+    public TraceDebugFilter(boolean logHttp, int maxBodySize, int sampleRate,
+            @Nullable File logFile) {
+        this.logHttp = logHttp;
+        this.maxBodySize = maxBodySize;
+        this.sampleRate = Math.max(1, sampleRate);
+        if (logHttp && logFile != null) {
+            try {
+                traceFile = new HttpTraceFile(logFile);
+            } catch (IOException e) {
+                throw new IllegalArgumentException("can't open HTTP log "
+                        + logFile, e);
             }
+        } else {
+            traceFile = null;
         }
-
     }
 
-    public TraceDebugFilter(boolean logHttp) {
-        this.logHttp = logHttp;
+    /**
+     * Writes any lines still queued for the log file, and closes it.
+     */
+    public void close() {
+        if (traceFile != null) {
+            traceFile.close();
+        }
     }
 
     private void log(String msg) {
-        if (logHttp) {
+        if (traceFile != null) {
+            traceFile.write(msg);
+        } else if (logHttp) {
             log.info(msg);
         } else {
             log.trace(msg);
@@ -140,4 +198,162 @@ public class TraceDebugFilter extends ClientFilter {
 
         return maskedList.toString();
     }
+
+    private static boolean isText(@Nullable Object contentType) {
+        if (contentType == null) {
+            return false;
+        }
+        String type = contentType.toString().toLowerCase();
+        return type.startsWith("text/") || type.contains("xml")
+                || type.contains("json");
+    }
+
+    /**
+     * Keeps the first maxBodySize bytes of a body, and logs them once the
+     * whole body has passed. A body with a Content-Encoding (eg compressed by
+     * {@link CompressionFilter} as it was written) is logged by size only.
+     */
+    private class BodyCapture {
+        private final String prefix;
+        private final MultivaluedMap<String, ?> headers;
+        private final boolean text;
+        private final ByteArrayOutputStream head = new ByteArrayOutputStream();
+        private long size;
+        private boolean logged;
+
+        BodyCapture(String prefix, MultivaluedMap<String, ?> headers) {
+            this.prefix = prefix;
+            this.headers = headers;
+            this.text = isText(headers.getFirst(HttpHeaders.CONTENT_TYPE));
+        }
+
+        void capture(byte[] b, int off, int len) {
+            size += len;
+            int room = maxBodySize - head.size();
+            if (text && room > 0) {
+                head.write(b, off, Math.min(room, len));
+            }
+        }
+
+        void finish() {
+            if (logged) {
+                return;
+            }
+            logged = true;
+            // read now, since compression may start part way through
+            Object encoding = headers.getFirst(HttpHeaders.CONTENT_ENCODING);
+            if (encoding != null) {
+                log(prefix + ": [" + size + " bytes, " + encoding
+                        + " encoded]");
+            } else if (!text) {
+                log(prefix + ": [" + size + " bytes, not text]");
+            } else if (size > head.size()) {
+                log(prefix + " (" + size + " bytes, first " + head.size()
+                        + " logged): " + new String(head.toByteArray(),
+                        Charsets.UTF_8));
+            } else {
+                log(prefix + ": "
+                        + new String(head.toByteArray(), Charsets.UTF_8));
+            }
+        }
+    }
+
+    /**
+     * Copies the request body as it is written. Filters inside this one (eg
+     * compression) wrap the stream it returns, so it sees the bytes they
+     * send, not the bytes the entity was written as.
+     */
+    private class TeeAdapter extends AbstractClientRequestAdapter {
+        private final String request;
+
+        TeeAdapter(ClientRequestAdapter adapter, String request) {
+            super(adapter);
+            this.request = request;
+        }
+
+        @Override
+        public OutputStream adapt(ClientRequest cr, OutputStream out)
+                throws IOException {
+            return new TeeOutputStream(getAdapter().adapt(cr, out),
+                    new BodyCapture(">> Body of " + request, cr.getHeaders()));
+        }
+    }
+
+    private static class TeeOutputStream extends FilterOutputStream {
+        private final BodyCapture capture;
+
+        TeeOutputStream(OutputStream out, BodyCapture capture) {
+            super(out);
+            this.capture = capture;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[] { (byte) b }, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            capture.capture(b, off, len);
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                super.close();
+            } finally {
+                capture.finish();
+            }
+        }
+    }
+
+    private static class TeeInputStream extends FilterInputStream {
+        private final BodyCapture capture;
+
+        TeeInputStream(InputStream in, BodyCapture capture) {
+            super(in);
+            this.capture = capture;
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] b = new byte[1];
+            int n = read(b, 0, 1);
+            return n < 0 ? -1 : b[0] & 0xff;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) {
+                capture.capture(b, off, n);
+            } else if (n < 0) {
+                capture.finish();
+            }
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            // skipped bytes are not copied, so read them instead
+            byte[] buffer = new byte[(int) Math.min(n, 8192)];
+            int read = read(buffer, 0, buffer.length);
+            return Math.max(0, read);
+        }
+
+        @Override
+        public boolean markSupported() {
+            return false;
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                super.close();
+            } finally {
+                capture.finish();
+            }
+        }
+    }
 }
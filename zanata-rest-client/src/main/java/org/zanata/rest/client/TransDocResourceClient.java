@@ -63,11 +63,12 @@ public class TransDocResourceClient {
             @QueryParam("skeletons") boolean createSkeletons,
             @HeaderParam(HttpHeaders.IF_NONE_MATCH) String eTag) {
         Client client = factory.getClient();
-        return getBaseServiceResource(client)
+        WebResource webResource = getBaseServiceResource(client)
                 .path(idNoSlash)
                 .path("translations").path(locale.getId())
                 .queryParams(asMultivaluedMap("ext", extensions))
-                .queryParam("skeletons", String.valueOf(createSkeletons))
+                .queryParam("skeletons", String.valueOf(createSkeletons));
+        return HedgingFilter.hedgeable(webResource)
                 .header(HttpHeaders.IF_NONE_MATCH, eTag)
                 .get(ClientResponse.class);
     }
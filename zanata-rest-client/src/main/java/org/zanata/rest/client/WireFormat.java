@@ -0,0 +1,74 @@
+/*
+ * Copyright 2015, Red Hat, Inc. and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.zanata.rest.client;
+
+import javax.ws.rs.core.MediaType;
+
+/**
+ * The representation used for REST request and response bodies. Responses
+ * from endpoints which do not offer the preferred format fall back to
+ * whatever the server produces (see {@link AcceptTypeFilter}).
+ */
+public enum WireFormat {
+    /**
+     * JAXB-bound XML, which every server version supports.
+     */
+    XML(MediaType.APPLICATION_XML_TYPE),
+    /**
+     * Jackson-bound JSON.
+     */
+    JSON(MediaType.APPLICATION_JSON_TYPE);
+
+    private final MediaType mediaType;
+
+    private WireFormat(MediaType mediaType) {
+        this.mediaType = mediaType;
+    }
+
+    public MediaType getMediaType() {
+        return mediaType;
+    }
+
+    /**
+     * Prefers this format, but still accepts any application type, since
+     * some endpoints only produce specific types (and RESTEasy 2 rejects
+     * requests which do not accept any of them).
+     */
+    String getAcceptHeader() {
+        return mediaType + ", application/*;q=0.8";
+    }
+
+    /**
+     * Parses a format name, ignoring case.
+     *
+     * @throws IllegalArgumentException
+     *             if the name is not a known format
+     */
+    public static WireFormat fromName(String name) {
+        for (WireFormat format : values()) {
+            if (format.name().equalsIgnoreCase(name)) {
+                return format;
+            }
+        }
+        throw new IllegalArgumentException("Unknown wire format '" + name
+                + "': expected 'xml' or 'json'");
+    }
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2014, Red Hat, Inc. and individual contributors
+ * Copyright 2015, Red Hat, Inc. and individual contributors
  * as indicated by the @author tags. See the copyright.txt file in the
  * distribution for a full listing of individual contributors.
  *
@@ -18,48 +18,45 @@
  * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
  * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
  */
-
 package org.zanata.rest.client;
 
-import com.google.common.base.Optional;
-import com.google.common.base.Preconditions;
+import java.util.concurrent.atomic.AtomicLong;
+
 import com.sun.jersey.api.client.ClientHandlerException;
 import com.sun.jersey.api.client.ClientRequest;
 import com.sun.jersey.api.client.ClientResponse;
-import com.sun.jersey.api.client.GenericType;
 import com.sun.jersey.api.client.filter.ClientFilter;
 
 /**
- * This is a workaround that jersey client don't support put/post returning
- * response.
+ * Counts the start and the end of every request which may change the
+ * server's state (anything but GET and HEAD). While the count is unchanged,
+ * no such request has started or finished, so two GETs made at the same
+ * count see the same server state.
  *
- * @author Patrick Huang <a
- *         href="mailto:pahuang@redhat.com">pahuang@redhat.com</a>
+ * @see RestClientFactory
  */
-class CacheResponseFilter extends ClientFilter {
-    private Optional<ClientResponse> cachedClientResponse = Optional.absent();
+class WriteTrackingFilter extends ClientFilter {
+    private final AtomicLong epoch = new AtomicLong();
 
     @Override
     public ClientResponse handle(ClientRequest cr)
             throws ClientHandlerException {
-        ClientResponse response = getNext().handle(cr);
-        response.bufferEntity();
-        cachedClientResponse = Optional.of(response);
-        return response;
-    }
-
-    public <T> T getEntity(Class<T> type) {
-        checkState();
-        return cachedClientResponse.get().getEntity(type);
+        if (!isWrite(cr.getMethod())) {
+            return getNext().handle(cr);
+        }
+        epoch.incrementAndGet();
+        try {
+            return getNext().handle(cr);
+        } finally {
+            epoch.incrementAndGet();
+        }
     }
 
-    public <T> T getEntity(GenericType<T> genericType) {
-        checkState();
-        return cachedClientResponse.get().getEntity(genericType);
+    private static boolean isWrite(String method) {
+        return !"GET".equals(method) && !"HEAD".equals(method);
     }
 
-    private void checkState() {
-        Preconditions.checkState(cachedClientResponse.isPresent(),
-                "No cached ClientResponse. Did you forget to add this filter?");
+    long getEpoch() {
+        return epoch.get();
     }
 }
@@ -0,0 +1,77 @@
+/*
+ * Copyright 2015, Red Hat, Inc. and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.zanata.rest.client;
+
+import java.io.ByteArrayInputStream;
+
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MediaType;
+
+import org.junit.Test;
+
+import com.sun.jersey.api.client.Client;
+import com.sun.jersey.api.client.ClientHandler;
+import com.sun.jersey.api.client.ClientHandlerException;
+import com.sun.jersey.api.client.ClientRequest;
+import com.sun.jersey.api.client.ClientResponse;
+import com.sun.jersey.core.header.InBoundHeaders;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.startsWith;
+
+public class AcceptTypeFilterTest {
+    private ClientRequest lastRequest;
+
+    private Client client(WireFormat format) {
+        final Client client = new Client(new ClientHandler() {
+            @Override
+            public ClientResponse handle(ClientRequest cr)
+                    throws ClientHandlerException {
+                lastRequest = cr;
+                return new ClientResponse(204, new InBoundHeaders(),
+                        new ByteArrayInputStream(new byte[0]), null);
+            }
+        });
+        client.addFilter(new AcceptTypeFilter(format));
+        return client;
+    }
+
+    @Test
+    public void prefersConfiguredFormat() {
+        client(WireFormat.JSON).resource("http://example.com/rest")
+                .get(ClientResponse.class);
+
+        assertThat(lastRequest.getHeaders().getFirst(HttpHeaders.ACCEPT)
+                .toString(), startsWith(MediaType.APPLICATION_JSON + ","));
+    }
+
+    @Test
+    public void keepsAcceptHeaderChosenByCaller() {
+        client(WireFormat.XML).resource("http://example.com/rest")
+                .accept(MediaType.APPLICATION_JSON_TYPE)
+                .get(ClientResponse.class);
+
+        assertThat(lastRequest.getHeaders().get(HttpHeaders.ACCEPT),
+                contains((Object) MediaType.APPLICATION_JSON_TYPE));
+    }
+}
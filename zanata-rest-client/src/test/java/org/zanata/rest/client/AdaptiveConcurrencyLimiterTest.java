@@ -0,0 +1,191 @@
+/*
+ * Copyright 2015, Red Hat, Inc. and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.zanata.rest.client;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.base.Ticker;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+public class AdaptiveConcurrencyLimiterTest {
+    private static final long LATENCY = TimeUnit.MILLISECONDS.toNanos(10);
+    private FakeTicker ticker;
+    private AdaptiveConcurrencyLimiter limiter;
+    private int held;
+
+    @Before
+    public void setUp() {
+        ticker = new FakeTicker();
+        limiter = new AdaptiveConcurrencyLimiter(1, 8, ticker);
+    }
+
+    private void fillPermits() throws InterruptedException {
+        while (held < limiter.getLimit()) {
+            limiter.acquire();
+            held++;
+        }
+    }
+
+    private void completeOne(long latency) {
+        limiter.onSuccess(latency);
+        held--;
+    }
+
+    @Test
+    public void startsHalfWayToTheMaximum() {
+        assertThat(limiter.getLimit(), equalTo(4));
+    }
+
+    @Test
+    public void raisesLimitWhileLatencyIsStable() throws Exception {
+        for (int i = 0; i < 100; i++) {
+            fillPermits();
+            completeOne(LATENCY);
+        }
+
+        assertThat(limiter.getLimit(), equalTo(8));
+        assertThat(limiter.getHighestLimit(), equalTo(8));
+    }
+
+    @Test
+    public void doesNotRaiseLimitWhichIsNotUsed() throws Exception {
+        for (int i = 0; i < 100; i++) {
+            limiter.acquire();
+            limiter.onSuccess(LATENCY);
+        }
+
+        assertThat(limiter.getLimit(), equalTo(4));
+    }
+
+    @Test
+    public void halvesLimitWhenOverloaded() throws Exception {
+        limiter.acquire();
+        limiter.onOverload("status 503");
+
+        assertThat(limiter.getLimit(), equalTo(2));
+        assertThat(limiter.getBackoffs(), equalTo(1L));
+    }
+
+    @Test
+    public void backsOffOncePerRoundTrip() throws Exception {
+        fillPermits();
+        limiter.onOverload("status 503");
+        limiter.onOverload("status 503");
+        assertThat(limiter.getLimit(), equalTo(2));
+
+        ticker.advance(TimeUnit.SECONDS.toNanos(1));
+        limiter.reportOverload("process not accepted");
+        assertThat(limiter.getLimit(), equalTo(1));
+        assertThat(limiter.getLowestLimit(), equalTo(1));
+    }
+
+    @Test
+    public void backsOffOnLatencySpike() throws Exception {
+        for (int i = 0; i < 10; i++) {
+            limiter.acquire();
+            limiter.onSuccess(LATENCY);
+        }
+        limiter.acquire();
+        limiter.onSuccess(10 * LATENCY);
+
+        assertThat(limiter.getLimit(), equalTo(2));
+    }
+
+    @Test
+    public void unmeasuredRequestsRaiseLimitWithoutChangingLatency()
+            throws Exception {
+        for (int i = 0; i < 10; i++) {
+            limiter.acquire();
+            limiter.onSuccess(LATENCY);
+        }
+        for (int i = 0; i < 100; i++) {
+            fillPermits();
+            limiter.onSuccess();
+            held--;
+        }
+        limiter.acquire();
+        limiter.onSuccess(2 * LATENCY);
+
+        assertThat(limiter.getLimit(), equalTo(8));
+        assertThat(limiter.getBackoffs(), equalTo(0L));
+    }
+
+    @Test
+    public void neverGoesBelowMinimum() throws Exception {
+        for (int i = 0; i < 10; i++) {
+            ticker.advance(TimeUnit.SECONDS.toNanos(1));
+            limiter.reportOverload("process not accepted");
+        }
+
+        assertThat(limiter.getLimit(), equalTo(1));
+    }
+
+    @Test
+    public void blocksWhileAllPermitsAreInUse() throws Exception {
+        fillPermits();
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<Void> waiting = executor.submit(new Callable<Void>() {
+                @Override
+                public Void call() throws Exception {
+                    limiter.acquire();
+                    return null;
+                }
+            });
+            try {
+                waiting.get(100, TimeUnit.MILLISECONDS);
+                throw new AssertionError("expected to block");
+            } catch (TimeoutException e) {
+                // expected
+            }
+
+            completeOne(LATENCY);
+
+            waiting.get(5, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static class FakeTicker extends Ticker {
+        private long nanos;
+
+        @Override
+        public long read() {
+            return nanos;
+        }
+
+        void advance(long delta) {
+            nanos += delta;
+        }
+    }
+}
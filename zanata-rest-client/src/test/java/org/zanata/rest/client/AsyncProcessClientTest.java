@@ -73,6 +73,32 @@ public class AsyncProcessClientTest {
                 ProcessStatus.ProcessStatusCode.Running));
     }
 
+    @Test
+    public void testStartSourceDocCreationOrUpdateWithSerializedDoc()
+            throws Exception {
+        ProcessStatus processStatus =
+                client.startSourceDocCreationOrUpdate("message",
+                        "about-fedora", "master",
+                        SerializedEntity.marshal(new Resource("message")),
+                        Sets.newHashSet("gettext"), false);
+
+        assertThat(processStatus.getStatusCode(), Matchers.equalTo(
+                ProcessStatus.ProcessStatusCode.Running));
+    }
+
+    @Test
+    public void testStartTranslatedDocCreationOrUpdateWithSerializedDoc()
+            throws Exception {
+        ProcessStatus processStatus =
+                client.startTranslatedDocCreationOrUpdate("message",
+                        "about-fedora", "master", LocaleId.DE,
+                        SerializedEntity.marshal(new TranslationsResource()),
+                        Sets.newHashSet("gettext"), "auto", false);
+
+        assertThat(processStatus.getStatusCode(), Matchers.equalTo(
+                ProcessStatus.ProcessStatusCode.Running));
+    }
+
     @Test
     public void testGetProcessStatus() throws Exception {
         ProcessStatus processStatus = client.getProcessStatus("a");
@@ -0,0 +1,135 @@
+/*
+ * Copyright 2015, Red Hat, Inc. and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.zanata.rest.client;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.hamcrest.Matchers;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.zanata.common.LocaleId;
+import org.zanata.rest.dto.ProcessStatus;
+import org.zanata.rest.dto.resource.Resource;
+import org.zanata.rest.dto.resource.ResourceMeta;
+import org.zanata.rest.dto.resource.TranslationsResource;
+import org.zanata.rest.dto.stats.ContainerTranslationStatistics;
+import org.zanata.rest.service.StubbingServerRule;
+
+import com.google.common.base.Optional;
+import com.google.common.collect.Sets;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+
+import static org.junit.Assert.assertThat;
+
+public class AsyncRestClientTest {
+    @ClassRule
+    public static StubbingServerRule
+            stubbingServerRule = new StubbingServerRule();
+    private AsyncRestClient client;
+
+    @Before
+    public void setUp() {
+        client = MockServerTestUtil.createClientFactory(
+                stubbingServerRule.getServerBaseUri()).createAsyncClient(4);
+    }
+
+    @After
+    public void tearDown() {
+        client.close();
+    }
+
+    @Test
+    public void testFetchDocumentsTranslationsAndStatistics()
+            throws Exception {
+        ListenableFuture<List<ResourceMeta>> meta =
+                client.getResourceMeta("about-fedora", "master", null);
+        ListenableFuture<Resource> resource =
+                client.getResource("about-fedora", "master", "test",
+                        Sets.newHashSet("gettext", "comment"));
+        ListenableFuture<Optional<TranslationsResource>> translations =
+                client.getTranslations("about-fedora", "master", "test",
+                        LocaleId.DE, Sets.newHashSet("gettext", "comment"),
+                        true);
+        ListenableFuture<ContainerTranslationStatistics> stats =
+                client.getStatistics("pahuang-test", "master", true, true,
+                        new String[] { "de-DE", "de", "zh-CN" });
+
+        assertThat(meta.get(10, TimeUnit.SECONDS), Matchers.hasSize(2));
+        assertThat(resource.get(10, TimeUnit.SECONDS).getName(),
+                Matchers.equalTo("test"));
+        assertThat(translations.get(10, TimeUnit.SECONDS).get()
+                .getTextFlowTargets(), Matchers.hasSize(1));
+        assertThat(stats.get(10, TimeUnit.SECONDS).getStats(),
+                Matchers.hasSize(3));
+    }
+
+    @Test
+    public void testManyOperationsShareFewWorkers() throws Exception {
+        List<ListenableFuture<ProcessStatus>> statuses =
+                new ArrayList<ListenableFuture<ProcessStatus>>();
+        for (int i = 0; i < 200; i++) {
+            statuses.add(client.getProcessStatus("process" + i));
+        }
+
+        List<ProcessStatus> results =
+                Futures.allAsList(statuses).get(60, TimeUnit.SECONDS);
+
+        for (int i = 0; i < results.size(); i++) {
+            assertThat(results.get(i).getUrl(),
+                    Matchers.equalTo("process" + i));
+        }
+        assertThat(client.getQueuedRequests(), Matchers.equalTo(0));
+    }
+
+    @Test
+    public void testConcurrencyIsBounded() throws Exception {
+        final AtomicInteger running = new AtomicInteger();
+        final AtomicInteger maxRunning = new AtomicInteger();
+        List<ListenableFuture<Void>> calls =
+                new ArrayList<ListenableFuture<Void>>();
+        for (int i = 0; i < 20; i++) {
+            calls.add(client.submit(new Callable<Void>() {
+                @Override
+                public Void call() throws Exception {
+                    int now = running.incrementAndGet();
+                    synchronized (maxRunning) {
+                        maxRunning.set(Math.max(maxRunning.get(), now));
+                    }
+                    Thread.sleep(20);
+                    running.decrementAndGet();
+                    return null;
+                }
+            }));
+        }
+
+        Futures.allAsList(calls).get(10, TimeUnit.SECONDS);
+
+        assertThat(maxRunning.get(), Matchers.lessThanOrEqualTo(4));
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright 2015, Red Hat, Inc. and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.zanata.rest.client;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.base.Ticker;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+public class CircuitBreakerTest {
+    private FakeTicker ticker;
+    private CircuitBreaker breaker;
+
+    @Before
+    public void setUp() {
+        ticker = new FakeTicker();
+        breaker = new CircuitBreaker(3, 1000, ticker);
+    }
+
+    @Test
+    public void opensAfterConsecutiveFailures() {
+        breaker.recordFailure();
+        breaker.recordFailure();
+        assertThat(breaker.allowRequest(), equalTo(true));
+
+        breaker.recordFailure();
+
+        assertThat(breaker.isOpen(), equalTo(true));
+        assertThat(breaker.allowRequest(), equalTo(false));
+        assertThat(breaker.getTrips(), equalTo(1L));
+    }
+
+    @Test
+    public void successResetsFailureCount() {
+        breaker.recordFailure();
+        breaker.recordFailure();
+        breaker.recordSuccess();
+        breaker.recordFailure();
+        breaker.recordFailure();
+
+        assertThat(breaker.isOpen(), equalTo(false));
+    }
+
+    @Test
+    public void allowsOneTrialRequestAfterOpenTime() {
+        openCircuit();
+        ticker.advance(1000);
+
+        assertThat(breaker.allowRequest(), equalTo(true));
+        assertThat(breaker.allowRequest(), equalTo(false));
+
+        breaker.recordSuccess();
+        assertThat(breaker.isOpen(), equalTo(false));
+        assertThat(breaker.allowRequest(), equalTo(true));
+    }
+
+    @Test
+    public void failedTrialKeepsCircuitOpen() {
+        openCircuit();
+        ticker.advance(1000);
+        assertThat(breaker.allowRequest(), equalTo(true));
+
+        breaker.recordFailure();
+
+        assertThat(breaker.allowRequest(), equalTo(false));
+        assertThat(breaker.getRemainingOpenTime(), equalTo(1000L));
+        assertThat(breaker.getTrips(), equalTo(1L));
+    }
+
+    @Test
+    public void abandonedTrialAllowsAnotherTrial() {
+        openCircuit();
+        ticker.advance(1000);
+        assertThat(breaker.allowRequest(), equalTo(true));
+
+        breaker.recordAbandoned();
+
+        assertThat(breaker.isOpen(), equalTo(true));
+        assertThat(breaker.allowRequest(), equalTo(true));
+    }
+
+    @Test
+    public void zeroThresholdNeverOpens() {
+        breaker = new CircuitBreaker(0, 1000, ticker);
+        for (int i = 0; i < 10; i++) {
+            breaker.recordFailure();
+        }
+        assertThat(breaker.allowRequest(), equalTo(true));
+    }
+
+    private void openCircuit() {
+        for (int i = 0; i < 3; i++) {
+            breaker.recordFailure();
+        }
+    }
+
+    private static class FakeTicker extends Ticker {
+        private long nanos;
+
+        @Override
+        public long read() {
+            return nanos;
+        }
+
+        void advance(long millis) {
+            nanos += TimeUnit.MILLISECONDS.toNanos(millis);
+        }
+    }
+}
@@ -0,0 +1,150 @@
+/*
+ * Copyright 2015, Red Hat, Inc. and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.zanata.rest.client;
+
+import java.io.ByteArrayInputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.zanata.common.LocaleId;
+import org.zanata.rest.DocumentFileUploadForm;
+import org.zanata.rest.dto.resource.Resource;
+import org.zanata.rest.dto.resource.TranslationsResource;
+import org.zanata.rest.service.StubbingServerRule;
+
+import com.google.common.base.Charsets;
+import com.google.common.collect.Sets;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.endsWith;
+import static org.hamcrest.Matchers.equalTo;
+
+/**
+ * Stress test which shares one factory's clients between many threads, and
+ * checks that every call gets the response to its own request.
+ */
+public class ClientConcurrencyTest {
+    private static final int THREADS = 8;
+    private static final int CALLS_PER_THREAD = 20;
+    private static final Set<String> EXTENSIONS = Sets.newHashSet("gettext");
+
+    @ClassRule
+    public static StubbingServerRule
+            stubbingServerRule = new StubbingServerRule();
+
+    @Test
+    public void concurrentCallsWithUrlConnection() throws Exception {
+        callConcurrently(MockServerTestUtil.createClientFactory(
+                stubbingServerRule.getServerBaseUri()));
+    }
+
+    @Test
+    public void concurrentCallsWithPooledConnector() throws Exception {
+        RestClientFactory factory =
+                MockServerTestUtil.createClientFactory(stubbingServerRule
+                        .getServerBaseUri(), new ConnectionSettings()
+                        .setConnector(ConnectionSettings.Connector.POOLED)
+                        .setMaxConnections(THREADS / 2));
+        try {
+            callConcurrently(factory);
+            assertThat(factory.getConnectionPoolStats().getLeased(),
+                    equalTo(0));
+        } finally {
+            factory.close();
+        }
+    }
+
+    private void callConcurrently(RestClientFactory factory)
+            throws Exception {
+        final AsyncProcessClient asyncProcessClient =
+                factory.getAsyncProcessClient();
+        final SourceDocResourceClient sourceDocClient =
+                factory.getSourceDocResourceClient("about-fedora", "master");
+        final FileResourceClient fileClient = factory.getFileResourceClient();
+        final CopyTransClient copyTransClient = factory.getCopyTransClient();
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<Void>> results = new ArrayList<Future<Void>>();
+            for (int t = 0; t < THREADS; t++) {
+                final String prefix = "doc" + t + "-";
+                results.add(executor.submit(new Callable<Void>() {
+                    @Override
+                    public Void call() throws Exception {
+                        for (int i = 0; i < CALLS_PER_THREAD; i++) {
+                            String docId = prefix + i;
+                            assertThat(asyncProcessClient
+                                    .startSourceDocCreationOrUpdate(docId,
+                                            "about-fedora", "master",
+                                            new Resource(docId), EXTENSIONS,
+                                            false).getUrl(),
+                                    equalTo("source/" + docId));
+                            assertThat(asyncProcessClient
+                                    .startTranslatedDocCreationOrUpdate(
+                                            docId, "about-fedora", "master",
+                                            LocaleId.DE,
+                                            new TranslationsResource(),
+                                            EXTENSIONS, "auto", false)
+                                    .getUrl(),
+                                    equalTo("translation/" + docId + "/de"));
+                            assertThat(sourceDocClient.putResource(docId,
+                                    new Resource(docId), EXTENSIONS, false),
+                                    equalTo(docId));
+                            assertThat(fileClient.uploadSourceFile(
+                                    "about-fedora", "master", docId,
+                                    uploadForm(docId)).getSuccessMessage(),
+                                    endsWith(docId));
+                            copyTransClient.startCopyTrans("about-fedora",
+                                    "master", docId);
+                        }
+                        return null;
+                    }
+                }));
+            }
+            for (Future<Void> result : results) {
+                // rethrows any assertion failure from the worker thread
+                result.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static DocumentFileUploadForm uploadForm(String docId) {
+        byte[] content = ("content of " + docId).getBytes(Charsets.UTF_8);
+        DocumentFileUploadForm uploadForm = new DocumentFileUploadForm();
+        uploadForm.setFileStream(new ByteArrayInputStream(content));
+        uploadForm.setFileType("txt");
+        uploadForm.setFirst(true);
+        uploadForm.setLast(true);
+        uploadForm.setSize((long) content.length);
+        return uploadForm;
+    }
+}
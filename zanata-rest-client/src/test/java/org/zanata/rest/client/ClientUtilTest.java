@@ -0,0 +1,92 @@
+/*
+ * Copyright 2015, Red Hat, Inc. and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.zanata.rest.client;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+
+import org.junit.Test;
+
+import com.google.common.base.Charsets;
+import com.sun.jersey.api.client.ClientResponse;
+import com.sun.jersey.core.header.InBoundHeaders;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+public class ClientUtilTest {
+
+    @Test
+    public void closesResponseWhenUnauthorized() {
+        assertClosedOnFailure(401);
+    }
+
+    @Test
+    public void closesResponseWhenUnavailable() {
+        assertClosedOnFailure(503);
+    }
+
+    @Test
+    public void closesResponseWhenRedirected() {
+        assertClosedOnFailure(302);
+    }
+
+    @Test
+    public void leavesSuccessfulResponseOpen() {
+        RecordingStream body = new RecordingStream();
+
+        ClientUtil.checkResult(response(200, body));
+
+        assertThat(body.closed, equalTo(false));
+    }
+
+    private static void assertClosedOnFailure(int status) {
+        RecordingStream body = new RecordingStream();
+        try {
+            ClientUtil.checkResult(response(status, body));
+            throw new AssertionError("expected failure");
+        } catch (RuntimeException e) {
+            // expected
+        }
+        assertThat(body.closed, equalTo(true));
+    }
+
+    private static ClientResponse response(int status, RecordingStream body) {
+        InBoundHeaders headers = new InBoundHeaders();
+        headers.putSingle("Location", "https://example.com/zanata/");
+        return new ClientResponse(status, headers, body, null);
+    }
+
+    private static class RecordingStream extends ByteArrayInputStream {
+        private boolean closed;
+
+        RecordingStream() {
+            super("error page".getBytes(Charsets.UTF_8));
+        }
+
+        @Override
+        public void close() throws IOException {
+            closed = true;
+            super.close();
+        }
+    }
+}
@@ -0,0 +1,203 @@
+/*
+ * Copyright 2015, Red Hat, Inc. and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.zanata.rest.client;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MediaType;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.base.Charsets;
+import com.google.common.base.Strings;
+import com.google.common.io.ByteStreams;
+import com.sun.jersey.api.client.Client;
+import com.sun.jersey.api.client.ClientHandler;
+import com.sun.jersey.api.client.ClientHandlerException;
+import com.sun.jersey.api.client.ClientRequest;
+import com.sun.jersey.api.client.ClientResponse;
+import com.sun.jersey.core.header.InBoundHeaders;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.Matchers.nullValue;
+
+public class CompressionFilterTest {
+    private static final String LARGE_BODY = Strings.repeat(
+            "<text-flow-target>translation</text-flow-target>", 100);
+    private static final String SMALL_BODY = "<resource/>";
+    private RecordingHandler handler;
+    private Client client;
+
+    @Before
+    public void setUp() {
+        handler = new RecordingHandler();
+        client = new Client(handler);
+    }
+
+    private CompressionFilter addFilter(int threshold) {
+        CompressionFilter filter = new CompressionFilter(threshold);
+        client.addFilter(filter);
+        return filter;
+    }
+
+    private String put(Object body) {
+        return client.resource("http://example.com/rest/doc")
+                .type(MediaType.APPLICATION_XML_TYPE)
+                .put(String.class, body);
+    }
+
+    private static byte[] gzip(byte[] data) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(data);
+        }
+        return out.toByteArray();
+    }
+
+    private static String gunzip(byte[] data) throws IOException {
+        return new String(ByteStreams.toByteArray(new GZIPInputStream(
+                new ByteArrayInputStream(data))), Charsets.UTF_8);
+    }
+
+    @Test
+    public void compressesLargeRequestBody() throws Exception {
+        CompressionFilter filter = addFilter(1024);
+
+        put(LARGE_BODY);
+
+        assertThat(handler.contentEncoding, equalTo("gzip"));
+        assertThat(gunzip(handler.sent), equalTo(LARGE_BODY));
+        assertThat(filter.getCompressedRequests(), equalTo(1L));
+        assertThat(filter.getRequestBytes(),
+                equalTo((long) LARGE_BODY.length()));
+        assertThat(filter.getRequestBytesSent(),
+                equalTo((long) handler.sent.length));
+        assertThat(filter.getRequestBytesSent(),
+                lessThan(filter.getRequestBytes()));
+    }
+
+    @Test
+    public void compressesLargeByteArrayBody() throws Exception {
+        CompressionFilter filter = addFilter(1024);
+
+        put(LARGE_BODY.getBytes(Charsets.UTF_8));
+
+        assertThat(handler.contentEncoding, equalTo("gzip"));
+        assertThat(gunzip(handler.sent), equalTo(LARGE_BODY));
+        assertThat(filter.getRequestBytesSent(),
+                equalTo((long) handler.sent.length));
+    }
+
+    @Test
+    public void sendsSmallRequestBodyAsItIs() throws Exception {
+        CompressionFilter filter = addFilter(1024);
+
+        put(SMALL_BODY);
+
+        assertThat(handler.contentEncoding, nullValue());
+        assertThat(new String(handler.sent, Charsets.UTF_8),
+                equalTo(SMALL_BODY));
+        assertThat(filter.getCompressedRequests(), equalTo(0L));
+    }
+
+    @Test
+    public void requestCompressionCanBeDisabled() throws Exception {
+        addFilter(CompressionFilter.NO_REQUEST_COMPRESSION);
+
+        put(LARGE_BODY);
+
+        assertThat(handler.contentEncoding, nullValue());
+        assertThat(new String(handler.sent, Charsets.UTF_8),
+                equalTo(LARGE_BODY));
+        assertThat(handler.acceptEncoding, equalTo("gzip"));
+    }
+
+    @Test
+    public void decompressesResponse() throws Exception {
+        CompressionFilter filter =
+                addFilter(CompressionFilter.NO_REQUEST_COMPRESSION);
+        handler.response = LARGE_BODY;
+
+        String response = put(SMALL_BODY);
+
+        assertThat(response, equalTo(LARGE_BODY));
+        assertThat(filter.getCompressedResponses(), equalTo(1L));
+        assertThat(filter.getResponseBytes(),
+                equalTo((long) LARGE_BODY.length()));
+        assertThat(filter.getResponseBytesReceived(),
+                lessThan(filter.getResponseBytes()));
+    }
+
+    private static String header(ClientRequest cr, String name) {
+        Object value = cr.getHeaders().getFirst(name);
+        return value == null ? null : ClientRequest.getHeaderValue(value);
+    }
+
+    /**
+     * Writes the request body the way Jersey's connection handler does, and
+     * answers with a gzipped response.
+     */
+    private class RecordingHandler implements ClientHandler {
+        private byte[] sent;
+        private String contentEncoding;
+        private String acceptEncoding;
+        private String response = "ok";
+
+        @Override
+        public ClientResponse handle(ClientRequest cr)
+                throws ClientHandlerException {
+            try {
+                ByteArrayOutputStream body = new ByteArrayOutputStream();
+                OutputStream out = cr.getAdapter().adapt(cr, body);
+                Object entity = cr.getEntity();
+                out.write(entity instanceof byte[] ? (byte[]) entity
+                        : entity.toString().getBytes(Charsets.UTF_8));
+                out.flush();
+                out.close();
+                sent = body.toByteArray();
+                // read once the body is written, as Jersey does
+                contentEncoding = header(cr, HttpHeaders.CONTENT_ENCODING);
+                acceptEncoding = header(cr, HttpHeaders.ACCEPT_ENCODING);
+
+                InBoundHeaders headers = new InBoundHeaders();
+                headers.putSingle(HttpHeaders.CONTENT_TYPE,
+                        MediaType.TEXT_PLAIN);
+                headers.putSingle(HttpHeaders.CONTENT_ENCODING, "gzip");
+                return new ClientResponse(200, headers,
+                        new ByteArrayInputStream(gzip(response
+                                .getBytes(Charsets.UTF_8))),
+                        client.getMessageBodyWorkers());
+            } catch (IOException e) {
+                throw new ClientHandlerException(e);
+            }
+        }
+    }
+}
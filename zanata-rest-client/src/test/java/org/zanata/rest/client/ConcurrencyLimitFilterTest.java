@@ -0,0 +1,144 @@
+/*
+ * Copyright 2015, Red Hat, Inc. and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.zanata.rest.client;
+
+import java.io.ByteArrayInputStream;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import javax.ws.rs.core.MediaType;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.base.Charsets;
+import com.google.common.base.Ticker;
+import com.sun.jersey.api.client.Client;
+import com.sun.jersey.api.client.ClientHandler;
+import com.sun.jersey.api.client.ClientHandlerException;
+import com.sun.jersey.api.client.ClientRequest;
+import com.sun.jersey.api.client.ClientResponse;
+import com.sun.jersey.api.client.WebResource;
+import com.sun.jersey.core.header.InBoundHeaders;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+public class ConcurrencyLimitFilterTest {
+    private static final long GET_LATENCY = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final long PUT_LATENCY = TimeUnit.SECONDS.toNanos(2);
+    private FakeTicker ticker;
+    private Client client;
+    private AdaptiveConcurrencyLimiter limiter;
+
+    @Before
+    public void setUp() {
+        ticker = new FakeTicker();
+        client = new Client(new SlowUploadHandler());
+    }
+
+    private void addFilter(int minLimit, int maxLimit) {
+        limiter = new AdaptiveConcurrencyLimiter(minLimit, maxLimit, ticker);
+        client.addFilter(new ConcurrencyLimitFilter(limiter, ticker));
+    }
+
+    private WebResource resource() {
+        return client.resource("http://example.com/rest/doc");
+    }
+
+    @Test
+    public void largeUploadsAmongSmallRequestsAreNotLatencySpikes() {
+        addFilter(1, 8);
+
+        for (int i = 0; i < 20; i++) {
+            resource().get(String.class);
+            if (i % 4 == 3) {
+                resource().put(String.class, "<resource/>");
+            }
+        }
+
+        assertThat(limiter.getBackoffs(), equalTo(0L));
+        assertThat(limiter.getLimit(), equalTo(4));
+    }
+
+    @Test
+    public void holdsPermitUntilBodyIsClosed() throws Exception {
+        addFilter(1, 1);
+        ClientResponse first = resource().get(ClientResponse.class);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<String> second = executor.submit(new Callable<String>() {
+                @Override
+                public String call() {
+                    return resource().get(String.class);
+                }
+            });
+            try {
+                second.get(100, TimeUnit.MILLISECONDS);
+                throw new AssertionError("expected to wait for a permit");
+            } catch (TimeoutException e) {
+                // expected
+            }
+
+            first.close();
+
+            assertThat(second.get(5, TimeUnit.SECONDS), equalTo("ok"));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Answers GETs quickly, and takes much longer over PUTs, as a server
+     * does when they carry large documents.
+     */
+    private class SlowUploadHandler implements ClientHandler {
+        @Override
+        public ClientResponse handle(ClientRequest cr)
+                throws ClientHandlerException {
+            ticker.advance("PUT".equals(cr.getMethod()) ? PUT_LATENCY
+                    : GET_LATENCY);
+            InBoundHeaders headers = new InBoundHeaders();
+            headers.putSingle("Content-Type", MediaType.TEXT_PLAIN);
+            return new ClientResponse(200, headers,
+                    new ByteArrayInputStream("ok".getBytes(Charsets.UTF_8)),
+                    client.getMessageBodyWorkers());
+        }
+    }
+
+    private static class FakeTicker extends Ticker {
+        private long nanos;
+
+        @Override
+        public synchronized long read() {
+            return nanos;
+        }
+
+        synchronized void advance(long delta) {
+            nanos += delta;
+        }
+    }
+}
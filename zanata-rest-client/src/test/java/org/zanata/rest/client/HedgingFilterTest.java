@@ -0,0 +1,192 @@
+/*
+ * Copyright 2015, Red Hat, Inc. and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.zanata.rest.client;
+
+import java.io.ByteArrayInputStream;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.ws.rs.core.MediaType;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.base.Charsets;
+import com.sun.jersey.api.client.Client;
+import com.sun.jersey.api.client.ClientHandler;
+import com.sun.jersey.api.client.ClientHandlerException;
+import com.sun.jersey.api.client.ClientRequest;
+import com.sun.jersey.api.client.ClientResponse;
+import com.sun.jersey.api.client.WebResource;
+import com.sun.jersey.core.header.InBoundHeaders;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.lessThan;
+
+public class HedgingFilterTest {
+    private DelayingHandler handler;
+    private Client client;
+    private HedgingFilter filter;
+
+    @Before
+    public void setUp() {
+        handler = new DelayingHandler();
+        client = new Client(handler);
+        filter = new HedgingFilter(90, 1);
+        client.addFilter(filter);
+    }
+
+    @After
+    public void tearDown() {
+        filter.shutdown();
+    }
+
+    private WebResource resource() {
+        return client.resource("http://example.com/rest/doc");
+    }
+
+    private void warmUp() {
+        for (int i = 0; i < HedgingFilter.MIN_SAMPLES; i++) {
+            filter.recordLatency(TimeUnit.MILLISECONDS.toNanos(10));
+        }
+    }
+
+    @Test
+    public void doesNotHedgeUntilEnoughLatenciesAreKnown() {
+        handler.delay(100);
+
+        String body = HedgingFilter.hedgeable(resource()).get(String.class);
+
+        assertThat(body, equalTo("1"));
+        assertThat(handler.requests.get(), equalTo(1));
+        assertThat(filter.getHedgedRequests(), equalTo(0L));
+    }
+
+    @Test
+    public void usesHedgedResponseWhenItArrivesFirst() {
+        warmUp();
+        handler.delay(5000, 0);
+        long start = System.nanoTime();
+
+        String body = HedgingFilter.hedgeable(resource()).get(String.class);
+
+        assertThat(body, equalTo("2"));
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start),
+                lessThan(4000L));
+        assertThat(filter.getHedgedRequests(), equalTo(1L));
+        assertThat(filter.getHedgesWon(), equalTo(1L));
+    }
+
+    @Test
+    public void usesOriginalResponseWhenItArrivesFirst() {
+        warmUp();
+        handler.delay(100, 5000);
+
+        String body = HedgingFilter.hedgeable(resource()).get(String.class);
+
+        assertThat(body, equalTo("1"));
+        assertThat(filter.getHedgedRequests(), equalTo(1L));
+        assertThat(filter.getHedgesWon(), equalTo(0L));
+    }
+
+    @Test
+    public void stopsHedgingWhenBudgetIsSpent() {
+        warmUp();
+        handler.delay(100, 0, 100);
+
+        HedgingFilter.hedgeable(resource()).get(String.class);
+        String body = HedgingFilter.hedgeable(resource()).get(String.class);
+
+        assertThat(body, equalTo("3"));
+        assertThat(handler.requests.get(), equalTo(3));
+        assertThat(filter.getHedgedRequests(), equalTo(1L));
+    }
+
+    @Test
+    public void doesNotHedgeUnmarkedRequests() {
+        warmUp();
+        handler.delay(100);
+
+        resource().get(String.class);
+
+        assertThat(handler.requests.get(), equalTo(1));
+        assertThat(filter.getHedgedRequests(), equalTo(0L));
+    }
+
+    @Test
+    public void succeedsIfEitherCopySucceeds() {
+        warmUp();
+        handler.delay(100, 200);
+        handler.failFirst = true;
+
+        String body = HedgingFilter.hedgeable(resource()).get(String.class);
+
+        assertThat(body, equalTo("2"));
+    }
+
+    @Test(expected = ClientHandlerException.class)
+    public void failsIfAllCopiesFail() {
+        handler.delay(0);
+        handler.failFirst = true;
+
+        HedgingFilter.hedgeable(resource()).get(String.class);
+    }
+
+    /**
+     * Answers each request with its sequence number, after a scripted delay.
+     */
+    private class DelayingHandler implements ClientHandler {
+        private final Queue<Long> delays = new ConcurrentLinkedQueue<Long>();
+        private final AtomicInteger requests = new AtomicInteger();
+        private volatile boolean failFirst;
+
+        void delay(long... millis) {
+            for (long delay : millis) {
+                delays.add(delay);
+            }
+        }
+
+        @Override
+        public ClientResponse handle(ClientRequest cr)
+                throws ClientHandlerException {
+            int request = requests.incrementAndGet();
+            Long delay = delays.poll();
+            try {
+                Thread.sleep(delay == null ? 0 : delay);
+            } catch (InterruptedException e) {
+                throw new ClientHandlerException(e);
+            }
+            if (failFirst && request == 1) {
+                throw new ClientHandlerException("connection reset");
+            }
+            InBoundHeaders headers = new InBoundHeaders();
+            headers.putSingle("Content-Type", MediaType.TEXT_PLAIN);
+            return new ClientResponse(200, headers, new ByteArrayInputStream(
+                    String.valueOf(request).getBytes(Charsets.UTF_8)),
+                    client.getMessageBodyWorkers());
+        }
+    }
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright 2015, Red Hat, Inc. and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.zanata.rest.client;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.ws.rs.core.MediaType;
+
+import org.junit.Test;
+
+import com.google.common.base.Charsets;
+import com.sun.jersey.api.client.Client;
+import com.sun.jersey.api.client.ClientHandlerException;
+import com.sun.jersey.api.client.ClientResponse;
+import com.sun.jersey.api.client.UniformInterfaceException;
+import com.sun.jersey.core.header.InBoundHeaders;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+
+public class JsonArrayReaderTest {
+    private final List<String> visited = new ArrayList<String>();
+    private final ElementVisitor<Doc> visitor = new ElementVisitor<Doc>() {
+        @Override
+        public void visit(Doc element) {
+            visited.add(element.getName());
+        }
+    };
+
+    public static class Doc {
+        private String name;
+        private Object extra;
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public Object getExtra() {
+            return extra;
+        }
+
+        public void setExtra(Object extra) {
+            this.extra = extra;
+        }
+    }
+
+    private static InputStream json(String json) {
+        return new ByteArrayInputStream(
+                json.replace('\'', '"').getBytes(Charsets.UTF_8));
+    }
+
+    @Test
+    public void readsTopLevelArray() {
+        int count = JsonArrayReader.readArray(
+                json("[{'name':'a'},{'name':'b','extra':[1,{'x':2}]}]"),
+                Doc.class, visitor);
+
+        assertThat(count, equalTo(2));
+        assertThat(visited, contains("a", "b"));
+    }
+
+    @Test
+    public void readsNestedArraySkippingOtherFields() {
+        int count = JsonArrayReader.readArray(json("{'id':'version',"
+                + "'stats':[{'name':'total'}],'refs':{'a':[1,2]},"
+                + "'detailedStats':[{'name':'doc1'},{'name':'doc2'}]}"),
+                Doc.class, visitor, "detailedStats");
+
+        assertThat(count, equalTo(2));
+        assertThat(visited, contains("doc1", "doc2"));
+    }
+
+    @Test
+    public void missingArrayHasNoElements() {
+        int count = JsonArrayReader.readArray(
+                json("{'id':'version','detailedStats':null}"), Doc.class,
+                visitor, "detailedStats");
+        count += JsonArrayReader.readArray(json("{'id':'version'}"),
+                Doc.class, visitor, "detailedStats");
+
+        assertThat(count, equalTo(0));
+        assertThat(visited, is(empty()));
+    }
+
+    @Test(expected = ClientHandlerException.class)
+    public void unknownPropertiesFailAsInWholeListResponses() {
+        JsonArrayReader.readArray(json("[{'name':'a','unknown':1}]"),
+                Doc.class, visitor);
+    }
+
+    @Test
+    public void recognisesJsonResponses() {
+        assertThat(JsonArrayReader.isJson(response(200,
+                MediaType.APPLICATION_JSON)), is(true));
+        assertThat(JsonArrayReader.isJson(response(200,
+                "application/vnd.zanata.stats+json")), is(true));
+        assertThat(JsonArrayReader.isJson(response(200,
+                MediaType.APPLICATION_XML)), is(false));
+    }
+
+    @Test(expected = UniformInterfaceException.class)
+    public void failedResponseThrows() {
+        JsonArrayReader.isJson(response(404, MediaType.APPLICATION_JSON));
+    }
+
+    private static ClientResponse response(int status, String type) {
+        InBoundHeaders headers = new InBoundHeaders();
+        headers.putSingle("Content-Type", type);
+        return new ClientResponse(status, headers, json("[]"), Client
+                .create().getMessageBodyWorkers());
+    }
+}
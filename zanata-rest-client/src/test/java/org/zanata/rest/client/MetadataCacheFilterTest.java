@@ -0,0 +1,206 @@
+/*
+ * Copyright 2015, Red Hat, Inc. and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.zanata.rest.client;
+
+import java.io.ByteArrayInputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MediaType;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.google.common.base.Charsets;
+import com.sun.jersey.api.client.Client;
+import com.sun.jersey.api.client.ClientHandler;
+import com.sun.jersey.api.client.ClientHandlerException;
+import com.sun.jersey.api.client.ClientRequest;
+import com.sun.jersey.api.client.ClientResponse;
+import com.sun.jersey.api.client.WebResource;
+import com.sun.jersey.core.header.InBoundHeaders;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
+
+public class MetadataCacheFilterTest {
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+    private RecordingHandler handler;
+    private Client client;
+    private MetadataCache cache;
+
+    @Before
+    public void setUp() throws Exception {
+        handler = new RecordingHandler();
+        client = new Client(handler);
+    }
+
+    private void addFilter(long ttl) throws Exception {
+        addFilter(ttl, MetadataCache.DEFAULT_MAX_SIZE);
+    }
+
+    private void addFilter(long ttl, long maxSize) throws Exception {
+        cache = new MetadataCache(tempFolder.newFolder(), ttl, maxSize);
+        client.addFilter(new MetadataCacheFilter(cache, "user",
+                client.getMessageBodyWorkers()));
+    }
+
+    private String get(MetadataCacheFilter.CacheMode mode) {
+        WebResource resource =
+                client.resource("http://example.com/rest/version");
+        if (mode != null) {
+            MetadataCacheFilter.cacheable(resource, mode);
+        }
+        return resource.get(String.class);
+    }
+
+    @Test
+    public void usesFreshEntryWithoutAskingServer() throws Exception {
+        addFilter(60000);
+
+        assertThat(get(MetadataCacheFilter.CacheMode.TTL), equalTo("v1"));
+        assertThat(get(MetadataCacheFilter.CacheMode.TTL), equalTo("v1"));
+
+        assertThat(handler.ifNoneMatch, contains((String) null));
+        assertThat(cache.getHits(), equalTo(1L));
+        assertThat(cache.getMisses(), equalTo(1L));
+    }
+
+    @Test
+    public void revalidatesStaleEntry() throws Exception {
+        addFilter(0);
+
+        assertThat(get(MetadataCacheFilter.CacheMode.TTL), equalTo("v1"));
+        assertThat(get(MetadataCacheFilter.CacheMode.TTL), equalTo("v1"));
+
+        assertThat(handler.ifNoneMatch, contains(null, "\"v1\""));
+        assertThat(cache.getRevalidations(), equalTo(1L));
+    }
+
+    @Test
+    public void alwaysRevalidatesInRevalidateMode() throws Exception {
+        addFilter(60000);
+
+        get(MetadataCacheFilter.CacheMode.REVALIDATE);
+        handler.body = "v2";
+        assertThat(get(MetadataCacheFilter.CacheMode.REVALIDATE),
+                equalTo("v2"));
+        // the changed response replaces the cached one
+        assertThat(get(MetadataCacheFilter.CacheMode.REVALIDATE),
+                equalTo("v2"));
+
+        assertThat(handler.ifNoneMatch, contains(null, "\"v1\"", "\"v2\""));
+        assertThat(cache.getRevalidations(), equalTo(1L));
+        assertThat(cache.getMisses(), equalTo(2L));
+    }
+
+    @Test
+    public void ignoresRequestsNotMarkedCacheable() throws Exception {
+        addFilter(60000);
+
+        get(null);
+        get(null);
+
+        assertThat(handler.ifNoneMatch.size(), equalTo(2));
+        assertThat(cache.getMisses(), equalTo(0L));
+    }
+
+    @Test
+    public void doesNotStoreNoStoreResponses() throws Exception {
+        addFilter(60000);
+        handler.cacheControl = "no-store";
+
+        get(MetadataCacheFilter.CacheMode.TTL);
+        get(MetadataCacheFilter.CacheMode.TTL);
+
+        assertThat(handler.ifNoneMatch, contains(nullValue(), nullValue()));
+        assertThat(cache.getHits(), equalTo(0L));
+    }
+
+    @Test
+    public void doesNotBufferBodiesBiggerThanTheCache() throws Exception {
+        addFilter(60000, 4);
+        handler.body = "longer than the cache";
+
+        assertThat(get(MetadataCacheFilter.CacheMode.TTL),
+                equalTo("longer than the cache"));
+        assertThat(get(MetadataCacheFilter.CacheMode.TTL),
+                equalTo("longer than the cache"));
+
+        assertThat(handler.ifNoneMatch, contains(nullValue(), nullValue()));
+        assertThat(cache.getHits(), equalTo(0L));
+    }
+
+    @Test
+    public void storesBodyClosedBeforeItsEnd() throws Exception {
+        addFilter(60000);
+        WebResource resource = MetadataCacheFilter.cacheable(
+                client.resource("http://example.com/rest/version"),
+                MetadataCacheFilter.CacheMode.TTL);
+        ClientResponse response = resource.get(ClientResponse.class);
+        assertThat(response.getEntityInputStream().read(),
+                equalTo((int) 'v'));
+        response.close();
+
+        assertThat(get(MetadataCacheFilter.CacheMode.TTL), equalTo("v1"));
+        assertThat(cache.getHits(), equalTo(1L));
+    }
+
+    /**
+     * Answers with the current body and an ETag derived from it, or 304 if
+     * the request's If-None-Match matches that ETag.
+     */
+    private class RecordingHandler implements ClientHandler {
+        private final List<String> ifNoneMatch = new ArrayList<String>();
+        private String body = "v1";
+        private String cacheControl;
+
+        @Override
+        public ClientResponse handle(ClientRequest cr)
+                throws ClientHandlerException {
+            Object condition = cr.getHeaders().getFirst(
+                    HttpHeaders.IF_NONE_MATCH);
+            ifNoneMatch.add(condition == null ? null : condition.toString());
+            String etag = "\"" + body + "\"";
+            InBoundHeaders headers = new InBoundHeaders();
+            headers.putSingle(HttpHeaders.ETAG, etag);
+            if (cacheControl != null) {
+                headers.putSingle(HttpHeaders.CACHE_CONTROL, cacheControl);
+            }
+            if (etag.equals(condition)) {
+                return new ClientResponse(304, headers,
+                        new ByteArrayInputStream(new byte[0]),
+                        client.getMessageBodyWorkers());
+            }
+            headers.putSingle(HttpHeaders.CONTENT_TYPE, MediaType.TEXT_PLAIN);
+            return new ClientResponse(200, headers, new ByteArrayInputStream(
+                    body.getBytes(Charsets.UTF_8)),
+                    client.getMessageBodyWorkers());
+        }
+    }
+}
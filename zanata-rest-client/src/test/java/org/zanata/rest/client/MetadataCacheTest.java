@@ -0,0 +1,118 @@
+/*
+ * Copyright 2015, Red Hat, Inc. and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.zanata.rest.client;
+
+import java.io.File;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.google.common.base.Charsets;
+import com.google.common.io.Files;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.arrayWithSize;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+
+public class MetadataCacheTest {
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+    private File dir;
+    private MetadataCache cache;
+
+    @Before
+    public void setUp() throws Exception {
+        dir = tempFolder.newFolder("metadata");
+        cache = new MetadataCache(dir, 1000, 1000);
+    }
+
+    private static MetadataCache.Entry entry(String etag, int size) {
+        return new MetadataCache.Entry(etag, "application/xml", 42L,
+                new byte[size]);
+    }
+
+    @Test
+    public void storesAndLoadsEntries() {
+        cache.put("key", new MetadataCache.Entry("\"v1\"", "application/xml",
+                42L, "<version/>".getBytes(Charsets.UTF_8)));
+
+        MetadataCache.Entry entry =
+                new MetadataCache(dir, 1000, 1000).get("key");
+
+        assertThat(entry, notNullValue());
+        assertThat(entry.getETag(), equalTo("\"v1\""));
+        assertThat(entry.getContentType(), equalTo("application/xml"));
+        assertThat(entry.getStoredAt(), equalTo(42L));
+        assertThat(new String(entry.getBody(), Charsets.UTF_8),
+                equalTo("<version/>"));
+        assertThat(cache.get("other"), nullValue());
+    }
+
+    @Test
+    public void storesEntriesWithoutETag() {
+        cache.put("key", new MetadataCache.Entry(null, null, 1L, new byte[0]));
+
+        MetadataCache.Entry entry = cache.get("key");
+        assertThat(entry.getETag(), nullValue());
+        assertThat(entry.getContentType(), nullValue());
+    }
+
+    @Test
+    public void discardsCorruptEntries() throws Exception {
+        cache.put("key", entry("\"v1\"", 10));
+        File file = dir.listFiles()[0];
+        Files.write("garbage".getBytes(Charsets.UTF_8), file);
+
+        assertThat(cache.get("key"), nullValue());
+        assertThat(file.exists(), equalTo(false));
+    }
+
+    @Test
+    public void evictsLeastRecentlyUsedEntries() {
+        cache.put("a", entry("a", 400));
+        cache.put("b", entry("b", 400));
+        long longAgo = System.currentTimeMillis() - 60000;
+        for (File file : dir.listFiles()) {
+            file.setLastModified(longAgo);
+        }
+        // using "a" makes "b" the least recently used
+        cache.get("a");
+
+        cache.put("c", entry("c", 400));
+
+        assertThat(dir.listFiles(), arrayWithSize(2));
+        assertThat(cache.get("a"), notNullValue());
+        assertThat(cache.get("b"), nullValue());
+        assertThat(cache.get("c"), notNullValue());
+    }
+
+    @Test
+    public void ignoresEntriesBiggerThanTheCache() {
+        cache.put("big", entry("big", 2000));
+
+        assertThat(cache.get("big"), nullValue());
+    }
+}
@@ -36,10 +36,30 @@ import static org.junit.Assert.assertThat;
 public class MockServerTestUtil {
 
     public static RestClientFactory createClientFactory(URI serverBaseUri) {
+        return createClientFactory(serverBaseUri,
+                CompressionFilter.NO_REQUEST_COMPRESSION);
+    }
+
+    public static RestClientFactory createClientFactory(URI serverBaseUri,
+            int requestCompressionThreshold) {
+        return createClientFactory(serverBaseUri, requestCompressionThreshold,
+                new ConnectionSettings());
+    }
+
+    public static RestClientFactory createClientFactory(URI serverBaseUri,
+            ConnectionSettings connectionSettings) {
+        return createClientFactory(serverBaseUri,
+                CompressionFilter.NO_REQUEST_COMPRESSION, connectionSettings);
+    }
+
+    private static RestClientFactory createClientFactory(URI serverBaseUri,
+            int requestCompressionThreshold,
+            ConnectionSettings connectionSettings) {
         return new RestClientFactory(serverBaseUri,
                 "admin",
                 "b6d7044e9ee3b2447c28fb7c50d86d98", new VersionInfo(
-                "3.6.0-SNAPSHOT", "unknown", "unknown"), true, true) {
+                "3.6.0-SNAPSHOT", "unknown", "unknown"), true, true,
+                requestCompressionThreshold, connectionSettings) {
             @Override
             protected String getUrlPrefix() {
                 return "";
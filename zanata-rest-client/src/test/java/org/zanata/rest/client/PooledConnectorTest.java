@@ -0,0 +1,164 @@
+/*
+ * Copyright 2015, Red Hat, Inc. and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.zanata.rest.client;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.http.pool.PoolStats;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.base.Charsets;
+import com.google.common.collect.Sets;
+import com.sun.jersey.api.client.Client;
+import com.sun.jersey.api.client.config.DefaultClientConfig;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+
+public class PooledConnectorTest {
+    private HttpServer server;
+    private URI uri;
+    // remote addresses of the connections seen by the server
+    private final Set<InetSocketAddress> connections = Sets
+            .newSetFromMap(new ConcurrentHashMap<InetSocketAddress, Boolean>());
+    private volatile long responseDelay;
+    private PooledConnector connector;
+
+    @Before
+    public void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/", new HttpHandler() {
+            @Override
+            public void handle(HttpExchange exchange) throws IOException {
+                connections.add(exchange.getRemoteAddress());
+                try {
+                    Thread.sleep(responseDelay);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                byte[] body = "hello".getBytes(Charsets.UTF_8);
+                exchange.getResponseHeaders().add("Content-Type",
+                        "text/plain");
+                exchange.sendResponseHeaders(200, body.length);
+                OutputStream out = exchange.getResponseBody();
+                out.write(body);
+                out.close();
+            }
+        });
+        server.start();
+        uri = URI.create("http://localhost:"
+                + server.getAddress().getPort() + "/");
+    }
+
+    @After
+    public void tearDown() {
+        if (connector != null) {
+            connector.shutdown();
+        }
+        server.stop(0);
+    }
+
+    private Client createClient(ConnectionSettings settings) {
+        connector = new PooledConnector(settings, null);
+        return connector.createClient(new DefaultClientConfig());
+    }
+
+    @Test
+    public void reusesConnectionForSequentialRequests() {
+        Client client = createClient(new ConnectionSettings());
+
+        for (int i = 0; i < 5; i++) {
+            assertThat(client.resource(uri).get(String.class),
+                    equalTo("hello"));
+        }
+
+        assertThat(connections.size(), is(1));
+        PoolStats stats = connector.getStats();
+        assertThat(stats.getLeased(), is(0));
+        assertThat(stats.getAvailable(), is(1));
+        assertThat(stats.getMax(), is(ConnectionSettings.DEFAULT_MAX_CONNECTIONS));
+    }
+
+    @Test
+    public void limitsConcurrentConnections() throws Exception {
+        responseDelay = 100;
+        final Client client =
+                createClient(new ConnectionSettings().setMaxConnections(2));
+        ExecutorService executor = Executors.newFixedThreadPool(6);
+        try {
+            List<Future<String>> results = new ArrayList<Future<String>>();
+            for (int i = 0; i < 6; i++) {
+                results.add(executor.submit(new Callable<String>() {
+                    @Override
+                    public String call() {
+                        return client.resource(uri).get(String.class);
+                    }
+                }));
+            }
+            for (Future<String> result : results) {
+                assertThat(result.get(10, TimeUnit.SECONDS), equalTo("hello"));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(connections.size(), lessThanOrEqualTo(2));
+        assertThat(connector.getStats().getLeased(), is(0));
+        assertThat(connector.getStats().getAvailable(), lessThanOrEqualTo(2));
+    }
+
+    @Test
+    public void evictsIdleConnections() throws Exception {
+        Client client =
+                createClient(new ConnectionSettings().setIdleTimeout(500));
+        client.resource(uri).get(String.class);
+        assertThat(connector.getStats().getAvailable(), is(1));
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (connector.getStats().getAvailable() > 0
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(100);
+        }
+
+        assertThat(connector.getStats().getAvailable(), is(0));
+    }
+}
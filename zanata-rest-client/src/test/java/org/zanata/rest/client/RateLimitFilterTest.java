@@ -0,0 +1,121 @@
+/*
+ * Copyright 2015, Red Hat, Inc. and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.zanata.rest.client;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+import javax.ws.rs.core.MediaType;
+
+import org.junit.Test;
+
+import com.google.common.io.ByteStreams;
+import com.sun.jersey.api.client.Client;
+import com.sun.jersey.api.client.ClientHandler;
+import com.sun.jersey.api.client.ClientHandlerException;
+import com.sun.jersey.api.client.ClientRequest;
+import com.sun.jersey.api.client.ClientResponse;
+import com.sun.jersey.core.header.InBoundHeaders;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+
+public class RateLimitFilterTest {
+    private final EchoHandler handler = new EchoHandler();
+    private final Client client = new Client(handler);
+
+    private RateLimitFilter addFilter(double requestsPerSecond,
+            long uploadBytesPerSecond, long downloadBytesPerSecond) {
+        RateLimitFilter filter =
+                new RateLimitFilter(requestsPerSecond, uploadBytesPerSecond,
+                        downloadBytesPerSecond);
+        client.addFilter(filter);
+        return filter;
+    }
+
+    private byte[] put(byte[] body) throws IOException {
+        ClientResponse response =
+                client.resource("http://example.com/rest/doc")
+                        .type(MediaType.APPLICATION_OCTET_STREAM_TYPE)
+                        .put(ClientResponse.class, body);
+        return ByteStreams.toByteArray(response.getEntityInputStream());
+    }
+
+    @Test
+    public void limitsRequestRate() throws Exception {
+        RateLimitFilter filter = addFilter(20, 0, 0);
+
+        // 20 requests are allowed as a burst; the next 5 take 1/4 second
+        for (int i = 0; i < 25; i++) {
+            put(new byte[1]);
+        }
+
+        assertThat(filter.getRequestWaitMillis(), greaterThanOrEqualTo(200L));
+        assertThat(filter.getUploadWaitMillis(), equalTo(0L));
+    }
+
+    @Test
+    public void limitsUploadAndDownloadBandwidth() throws Exception {
+        RateLimitFilter filter = addFilter(0, 20000, 20000);
+        byte[] body = new byte[25000];
+
+        byte[] echoed = put(body);
+
+        assertThat(echoed.length, equalTo(body.length));
+        assertThat(handler.received, equalTo(body.length));
+        // 5000 bytes beyond the one second burst, at 20000 bytes/second
+        assertThat(filter.getUploadWaitMillis(), greaterThanOrEqualTo(200L));
+        assertThat(filter.getDownloadWaitMillis(),
+                greaterThanOrEqualTo(200L));
+    }
+
+    /**
+     * Writes the request body the way Jersey's connection handler does, and
+     * echoes it back.
+     */
+    private class EchoHandler implements ClientHandler {
+        private int received;
+
+        @Override
+        public ClientResponse handle(ClientRequest cr)
+                throws ClientHandlerException {
+            try {
+                ByteArrayOutputStream body = new ByteArrayOutputStream();
+                OutputStream out = cr.getAdapter().adapt(cr, body);
+                out.write((byte[]) cr.getEntity());
+                out.close();
+                received = body.size();
+                InBoundHeaders headers = new InBoundHeaders();
+                headers.putSingle("Content-Type",
+                        MediaType.APPLICATION_OCTET_STREAM);
+                return new ClientResponse(200, headers,
+                        new ByteArrayInputStream(body.toByteArray()),
+                        client.getMessageBodyWorkers());
+            } catch (IOException e) {
+                throw new ClientHandlerException(e);
+            }
+        }
+    }
+}
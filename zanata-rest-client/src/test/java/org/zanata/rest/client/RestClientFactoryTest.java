@@ -25,9 +25,15 @@ import org.hamcrest.MatcherAssert;
 import org.hamcrest.Matchers;
 import org.junit.Rule;
 import org.junit.Test;
+import org.zanata.common.LocaleId;
+import org.zanata.rest.dto.ProcessStatus;
 import org.zanata.rest.dto.VersionInfo;
+import org.zanata.rest.dto.resource.Resource;
+import org.zanata.rest.dto.resource.TextFlow;
 import org.zanata.rest.service.StubbingServerRule;
 
+import com.google.common.collect.Sets;
+
 public class RestClientFactoryTest {
 
     @Rule
@@ -43,6 +49,32 @@ public class RestClientFactoryTest {
                 Matchers.equalTo("3.6.0-SNAPSHOT"));
     }
 
+    @Test
+    public void testCompressedRequestAndResponse() {
+        RestClientFactory factory = MockServerTestUtil.createClientFactory(
+                stubbingServerRule.getServerBaseUri(), 0);
+        Resource resource = new Resource("message");
+        for (int i = 0; i < 50; i++) {
+            resource.getTextFlows().add(
+                    new TextFlow("res" + i, LocaleId.EN_US, "content " + i));
+        }
+
+        ProcessStatus status = factory.getAsyncProcessClient()
+                .startSourceDocCreationOrUpdate("message", "about-fedora",
+                        "master", resource, Sets.newHashSet("gettext"),
+                        false);
+
+        MatcherAssert.assertThat(status.getStatusCode(), Matchers.equalTo(
+                ProcessStatus.ProcessStatusCode.Running));
+        CompressionFilter stats = factory.getCompressionFilter();
+        MatcherAssert.assertThat(stats.getCompressedRequests(),
+                Matchers.equalTo(1L));
+        MatcherAssert.assertThat(stats.getRequestBytesSent(),
+                Matchers.lessThan(stats.getRequestBytes()));
+        MatcherAssert.assertThat(stats.getCompressedResponses(),
+                Matchers.equalTo(1L));
+    }
+
 }
 
 
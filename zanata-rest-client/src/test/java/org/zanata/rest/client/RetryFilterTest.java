@@ -0,0 +1,272 @@
+/*
+ * Copyright 2015, Red Hat, Inc. and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.zanata.rest.client;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.SocketTimeoutException;
+import java.util.LinkedList;
+import java.util.Queue;
+
+import javax.ws.rs.core.MediaType;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.base.Charsets;
+import com.sun.jersey.api.client.Client;
+import com.sun.jersey.api.client.ClientHandler;
+import com.sun.jersey.api.client.ClientHandlerException;
+import com.sun.jersey.api.client.ClientRequest;
+import com.sun.jersey.api.client.ClientResponse;
+import com.sun.jersey.api.client.WebResource;
+import com.sun.jersey.core.header.InBoundHeaders;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.allOf;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+
+public class RetryFilterTest {
+    private ScriptedHandler handler;
+    private Client client;
+    private RetryFilter filter;
+    private CircuitBreaker breaker;
+
+    @Before
+    public void setUp() {
+        handler = new ScriptedHandler();
+        client = new Client(handler);
+        breaker = new CircuitBreaker(10, 60000);
+        filter = new RetryFilter(2, 1, 1, breaker);
+        client.addFilter(filter);
+    }
+
+    private WebResource resource() {
+        return client.resource("http://example.com/rest/doc");
+    }
+
+    @Test
+    public void retriesIdempotentRequestAfterUnavailable() {
+        handler.respond(503, 200);
+
+        ClientResponse response = resource().get(ClientResponse.class);
+
+        assertThat(response.getStatus(), equalTo(200));
+        assertThat(handler.requests, equalTo(2));
+        assertThat(filter.getRetries(), equalTo(1L));
+    }
+
+    @Test
+    public void retriesAfterConnectionFailure() {
+        handler.fail(new ConnectException("Connection refused"));
+        handler.respond(200);
+
+        resource().put(ClientResponse.class, "<resource/>");
+
+        assertThat(handler.requests, equalTo(2));
+    }
+
+    @Test
+    public void givesUpAfterMaxRetries() {
+        handler.respond(503, 503, 503, 200);
+
+        ClientResponse response = resource().get(ClientResponse.class);
+
+        assertThat(response.getStatus(), equalTo(503));
+        assertThat(handler.requests, equalTo(3));
+    }
+
+    @Test
+    public void doesNotRetryPost() {
+        handler.respond(503, 200);
+
+        ClientResponse response =
+                resource().post(ClientResponse.class, "<resource/>");
+
+        assertThat(response.getStatus(), equalTo(503));
+        assertThat(handler.requests, equalTo(1));
+    }
+
+    @Test
+    public void retriesPostMarkedRetryable() {
+        handler.respond(502, 200);
+
+        ClientResponse response = RetryFilter.retryable(resource())
+                .post(ClientResponse.class, "<resource/>");
+
+        assertThat(response.getStatus(), equalTo(200));
+    }
+
+    @Test
+    public void doesNotRetryStreamedBody() {
+        handler.respond(503, 200);
+
+        resource().put(ClientResponse.class,
+                new ByteArrayInputStream(new byte[10]));
+
+        assertThat(handler.requests, equalTo(1));
+    }
+
+    @Test
+    public void doesNotRetryPutAfterReadTimeout() {
+        handler.fail(new SocketTimeoutException("Read timed out"));
+        handler.respond(200);
+
+        try {
+            resource().put(ClientResponse.class, "<resource/>");
+            throw new AssertionError("expected failure");
+        } catch (ClientHandlerException e) {
+            assertThat(e.getCause(),
+                    instanceOf(SocketTimeoutException.class));
+        }
+        assertThat(handler.requests, equalTo(1));
+    }
+
+    @Test
+    public void doesNotRetryPutAfterGatewayTimeout() {
+        handler.respond(504, 200);
+
+        ClientResponse response =
+                resource().put(ClientResponse.class, "<resource/>");
+
+        assertThat(response.getStatus(), equalTo(504));
+        assertThat(handler.requests, equalTo(1));
+    }
+
+    @Test
+    public void retriesGetAfterReadTimeout() {
+        handler.fail(new SocketTimeoutException("Read timed out"));
+        handler.respond(200);
+
+        resource().get(ClientResponse.class);
+
+        assertThat(handler.requests, equalTo(2));
+    }
+
+    @Test
+    public void doesNotRetryClientErrors() {
+        handler.respond(404, 200);
+
+        ClientResponse response = resource().get(ClientResponse.class);
+
+        assertThat(response.getStatus(), equalTo(404));
+        assertThat(handler.requests, equalTo(1));
+    }
+
+    @Test
+    public void failsFastWhileCircuitIsOpen() {
+        breaker = new CircuitBreaker(2, 60000);
+        client = new Client(handler);
+        filter = new RetryFilter(5, 1, 1, breaker);
+        client.addFilter(filter);
+        handler.respond(503, 503, 503, 200);
+
+        try {
+            resource().get(ClientResponse.class);
+            throw new AssertionError("expected failure");
+        } catch (ClientHandlerException e) {
+            // expected
+        }
+        assertThat(handler.requests, equalTo(2));
+        assertThat(filter.getRejectedRequests(), equalTo(1L));
+    }
+
+    @Test
+    public void unexpectedFailureOfTrialRequestAllowsAnotherTrial() {
+        breaker = new CircuitBreaker(1, 0);
+        client = new Client(handler);
+        filter = new RetryFilter(0, 1, 1, breaker);
+        client.addFilter(filter);
+        handler.respond(503);
+        handler.fail(new IllegalStateException("cannot write body"));
+        handler.respond(200);
+        assertThat(resource().get(ClientResponse.class).getStatus(),
+                equalTo(503));
+
+        try {
+            resource().get(ClientResponse.class);
+            throw new AssertionError("expected failure");
+        } catch (IllegalStateException e) {
+            // expected
+        }
+        ClientResponse response = resource().get(ClientResponse.class);
+
+        assertThat(response.getStatus(), equalTo(200));
+        assertThat(breaker.isOpen(), equalTo(false));
+    }
+
+    @Test
+    public void delayGrowsExponentiallyWithJitter() {
+        RetryFilter filter = new RetryFilter(5, 100, 1000, breaker);
+
+        assertThat(filter.delay(0, -1),
+                allOf(greaterThanOrEqualTo(80L), lessThanOrEqualTo(120L)));
+        assertThat(filter.delay(2, -1),
+                allOf(greaterThanOrEqualTo(320L), lessThanOrEqualTo(480L)));
+        assertThat(filter.delay(10, -1), lessThanOrEqualTo(1200L));
+        // the server's Retry-After wins, up to the maximum delay
+        assertThat(filter.delay(0, 500), equalTo(500L));
+    }
+
+    /**
+     * Answers each request with the next scripted status or failure.
+     */
+    private class ScriptedHandler implements ClientHandler {
+        private final Queue<Object> script = new LinkedList<Object>();
+        private int requests;
+
+        void respond(Integer... statuses) {
+            for (Integer status : statuses) {
+                script.add(status);
+            }
+        }
+
+        void fail(IOException e) {
+            script.add(e);
+        }
+
+        void fail(RuntimeException e) {
+            script.add(e);
+        }
+
+        @Override
+        public ClientResponse handle(ClientRequest cr)
+                throws ClientHandlerException {
+            requests++;
+            Object next = script.remove();
+            if (next instanceof IOException) {
+                throw new ClientHandlerException((IOException) next);
+            } else if (next instanceof RuntimeException) {
+                throw (RuntimeException) next;
+            }
+            InBoundHeaders headers = new InBoundHeaders();
+            headers.putSingle("Content-Type", MediaType.TEXT_PLAIN);
+            return new ClientResponse((Integer) next, headers,
+                    new ByteArrayInputStream("ok".getBytes(Charsets.UTF_8)),
+                    client.getMessageBodyWorkers());
+        }
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright 2015, Red Hat, Inc. and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.zanata.rest.client;
+
+import javax.ws.rs.core.MediaType;
+
+import org.junit.Test;
+import org.zanata.common.ContentState;
+import org.zanata.rest.dto.resource.Resource;
+import org.zanata.rest.dto.resource.TextFlowTarget;
+import org.zanata.rest.dto.resource.TranslationsResource;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.Assert.assertThat;
+
+public class SerializedEntityTest {
+
+    private static TranslationsResource translations(int count) {
+        TranslationsResource doc = new TranslationsResource();
+        for (int i = 0; i < count; i++) {
+            TextFlowTarget target = new TextFlowTarget("res" + i);
+            target.setContents("translation number " + i);
+            target.setState(ContentState.Approved);
+            doc.getTextFlowTargets().add(target);
+        }
+        return doc;
+    }
+
+    @Test
+    public void marshalsToXml() {
+        SerializedEntity entity =
+                SerializedEntity.marshal(new Resource("message"));
+
+        assertThat(entity.getContentEncoding(), nullValue());
+        assertThat(entity.getBodySize(), equalTo(entity.getSize()));
+        assertThat(entity.asString(), containsString("message"));
+        assertThat(entity.unmarshal(Resource.class).getName(),
+                equalTo("message"));
+    }
+
+    @Test
+    public void canMarshalToJson() {
+        SerializedEntity entity = SerializedEntity.marshal(
+                new Resource("message"), false, WireFormat.JSON);
+
+        assertThat(entity.getMediaType(),
+                equalTo(MediaType.APPLICATION_JSON_TYPE));
+        assertThat(entity.asString(), startsWith("{"));
+        assertThat(entity.asString(), containsString("message"));
+        assertThat(entity.unmarshal(Resource.class).getName(),
+                equalTo("message"));
+    }
+
+    @Test
+    public void canCompressBody() {
+        SerializedEntity plain = SerializedEntity.marshal(translations(100));
+        SerializedEntity gzipped =
+                SerializedEntity.marshal(translations(100), true);
+
+        assertThat(gzipped.getContentEncoding(), equalTo("gzip"));
+        assertThat(gzipped.getSize(), equalTo(plain.getSize()));
+        assertThat(gzipped.getBodySize(), lessThan(plain.getBodySize()));
+        assertThat(gzipped.asString(), equalTo(plain.asString()));
+        assertThat(gzipped.unmarshal(TranslationsResource.class)
+                .getTextFlowTargets().size(), equalTo(100));
+    }
+}
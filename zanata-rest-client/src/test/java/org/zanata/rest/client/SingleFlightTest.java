@@ -0,0 +1,239 @@
+/*
+ * Copyright 2015, Red Hat, Inc. and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.zanata.rest.client;
+
+import java.io.ByteArrayInputStream;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.base.Charsets;
+import com.google.common.base.Supplier;
+import com.sun.jersey.api.client.Client;
+import com.sun.jersey.api.client.ClientHandler;
+import com.sun.jersey.api.client.ClientHandlerException;
+import com.sun.jersey.api.client.ClientRequest;
+import com.sun.jersey.api.client.ClientResponse;
+import com.sun.jersey.api.client.GenericType;
+import com.sun.jersey.core.header.InBoundHeaders;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+
+public class SingleFlightTest {
+    private static final int CALLERS = 4;
+    private SingleFlight singleFlight;
+    private ExecutorService executor;
+    private final AtomicInteger loads = new AtomicInteger();
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @Before
+    public void setUp() {
+        singleFlight = new SingleFlight();
+        executor = Executors.newFixedThreadPool(CALLERS);
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * A loader which blocks until released, so that calls overlap.
+     */
+    private Supplier<Object> blockingLoader(final Object result) {
+        return new Supplier<Object>() {
+            @Override
+            public Object get() {
+                loads.incrementAndGet();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    throw new RuntimeException(e);
+                }
+                if (result instanceof RuntimeException) {
+                    throw (RuntimeException) result;
+                }
+                return result;
+            }
+        };
+    }
+
+    private List<Future<Object>> callConcurrently(final String key,
+            final Supplier<Object> loader) throws InterruptedException {
+        List<Future<Object>> results = new ArrayList<Future<Object>>();
+        for (int i = 0; i < CALLERS; i++) {
+            results.add(executor.submit(new Callable<Object>() {
+                @Override
+                public Object call() {
+                    return singleFlight.execute(key, loader);
+                }
+            }));
+        }
+        awaitWaitingCallers();
+        return results;
+    }
+
+    private void awaitWaitingCallers() throws InterruptedException {
+        // wait until the other callers are waiting for the first
+        long deadline = System.currentTimeMillis() + 5000;
+        while (singleFlight.getSharedResults() < CALLERS - 1
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        release.countDown();
+    }
+
+    /**
+     * A client whose server answers every request with the same body, once
+     * released.
+     */
+    private Client blockingClient(final String body) {
+        return new Client(new ClientHandler() {
+            @Override
+            public ClientResponse handle(ClientRequest cr)
+                    throws ClientHandlerException {
+                blockingLoader(null).get();
+                return new ClientResponse(200, new InBoundHeaders(),
+                        new ByteArrayInputStream(body
+                                .getBytes(Charsets.UTF_8)), null);
+            }
+        });
+    }
+
+    @Test
+    public void concurrentCallersShareOneRequest() throws Exception {
+        Object result = new Object();
+
+        List<Future<Object>> results =
+                callConcurrently("doc", blockingLoader(result));
+
+        for (Future<Object> future : results) {
+            assertThat(future.get(5, TimeUnit.SECONDS), sameInstance(result));
+        }
+        assertThat(loads.get(), equalTo(1));
+        assertThat(singleFlight.getRequests(), equalTo(1L));
+        assertThat(singleFlight.getSharedResults(), equalTo(CALLERS - 1L));
+    }
+
+    @Test
+    public void concurrentCallersShareFailure() throws Exception {
+        IllegalStateException failure = new IllegalStateException("404");
+
+        List<Future<Object>> results =
+                callConcurrently("doc", blockingLoader(failure));
+
+        for (Future<Object> future : results) {
+            try {
+                future.get(5, TimeUnit.SECONDS);
+                throw new AssertionError("expected failure");
+            } catch (ExecutionException e) {
+                assertThat(e.getCause(),
+                        sameInstance((Throwable) failure));
+            }
+        }
+        assertThat(loads.get(), equalTo(1));
+    }
+
+    @Test
+    public void sequentialCallsAreNotShared() {
+        release.countDown();
+        Supplier<Object> loader = blockingLoader("result");
+
+        singleFlight.execute("doc", loader);
+        singleFlight.execute("doc", loader);
+
+        assertThat(loads.get(), equalTo(2));
+        assertThat(singleFlight.getSharedResults(), equalTo(0L));
+    }
+
+    @Test
+    public void differentKeysAreNotShared() {
+        release.countDown();
+        Supplier<Object> loader = blockingLoader("result");
+
+        singleFlight.execute("doc1", loader);
+        singleFlight.execute("doc2", loader);
+
+        assertThat(loads.get(), equalTo(2));
+    }
+
+    @Test
+    public void concurrentCallersGetTheirOwnEntity() throws Exception {
+        final Client client = blockingClient("shared body");
+        List<Future<byte[]>> results = new ArrayList<Future<byte[]>>();
+        for (int i = 0; i < CALLERS; i++) {
+            results.add(executor.submit(new Callable<byte[]>() {
+                @Override
+                public byte[] call() {
+                    return singleFlight.get("doc",
+                            client.resource("http://example.com/doc"),
+                            new GenericType<byte[]>(byte[].class));
+                }
+            }));
+        }
+        awaitWaitingCallers();
+
+        byte[] first = results.get(0).get(5, TimeUnit.SECONDS);
+        Arrays.fill(first, (byte) 0);
+        for (Future<byte[]> result : results.subList(1, CALLERS)) {
+            byte[] entity = result.get(5, TimeUnit.SECONDS);
+            assertThat(entity, not(sameInstance(first)));
+            assertThat(new String(entity, Charsets.UTF_8),
+                    equalTo("shared body"));
+        }
+        assertThat(loads.get(), equalTo(1));
+    }
+
+    @Test
+    public void writesChangeTheKey() {
+        release.countDown();
+        Client client = blockingClient("ok");
+        WriteTrackingFilter writeTracker = new WriteTrackingFilter();
+        client.addFilter(writeTracker);
+        URI uri = URI.create("http://example.com/doc");
+        String before = SingleFlight.key("user", uri, writeTracker.getEpoch());
+
+        client.resource(uri).get(ClientResponse.class);
+        assertThat(SingleFlight.key("user", uri, writeTracker.getEpoch()),
+                equalTo(before));
+
+        client.resource(uri).put(ClientResponse.class, "doc");
+        assertThat(SingleFlight.key("user", uri, writeTracker.getEpoch()),
+                not(equalTo(before)));
+    }
+}
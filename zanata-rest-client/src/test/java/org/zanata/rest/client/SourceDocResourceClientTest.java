@@ -24,6 +24,7 @@ package org.zanata.rest.client;
 import static org.junit.Assert.assertThat;
 
 import java.net.URISyntaxException;
+import java.util.ArrayList;
 import java.util.List;
 
 import org.hamcrest.Matchers;
@@ -32,6 +33,7 @@ import org.junit.ClassRule;
 import org.junit.Test;
 import org.zanata.rest.dto.resource.Resource;
 import org.zanata.rest.dto.resource.ResourceMeta;
+import org.zanata.rest.service.MockXmlOnlyResponseFilter;
 import org.zanata.rest.service.StubbingServerRule;
 import com.google.common.collect.Sets;
 
@@ -58,6 +60,39 @@ public class SourceDocResourceClientTest {
         assertThat(resourceMeta, Matchers.hasSize(2));
     }
 
+    @Test
+    public void testVisitResourceMeta() {
+        List<ResourceMeta> visited = visitResourceMeta(client);
+
+        assertThat(visited, Matchers.equalTo(client.getResourceMeta(null)));
+    }
+
+    @Test
+    public void testVisitResourceMetaWhenServerIgnoresAccept()
+            throws URISyntaxException {
+        SourceDocResourceClient xmlOnlyClient =
+                new SourceDocResourceClient(
+                        MockServerTestUtil.createClientFactory(
+                                stubbingServerRule.getServerBaseUri()),
+                        MockXmlOnlyResponseFilter.XML_ONLY_PROJECT, "master");
+
+        List<ResourceMeta> visited = visitResourceMeta(xmlOnlyClient);
+
+        assertThat(visited, Matchers.equalTo(client.getResourceMeta(null)));
+    }
+
+    private static List<ResourceMeta> visitResourceMeta(
+            SourceDocResourceClient client) {
+        final List<ResourceMeta> visited = new ArrayList<ResourceMeta>();
+        client.visitResourceMeta(null, new ElementVisitor<ResourceMeta>() {
+            @Override
+            public void visit(ResourceMeta element) {
+                visited.add(element);
+            }
+        });
+        return visited;
+    }
+
     @Test
     public void testGetResource() {
         Resource resource = client.getResource("test",
@@ -24,6 +24,8 @@ package org.zanata.rest.client;
 import static org.junit.Assert.assertThat;
 
 import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.List;
 
 import org.hamcrest.Matchers;
 import org.junit.Before;
@@ -31,6 +33,7 @@ import org.junit.ClassRule;
 import org.junit.Test;
 import org.zanata.rest.dto.stats.ContainerTranslationStatistics;
 import org.zanata.rest.dto.stats.contribution.ContributionStatistics;
+import org.zanata.rest.service.MockXmlOnlyResponseFilter;
 import org.zanata.rest.service.StubbingServerRule;
 
 public class StatisticsResourceClientTest {
@@ -59,6 +62,54 @@ public class StatisticsResourceClientTest {
         assertThat(statistics.getStats(), Matchers.hasSize(3));
     }
 
+    @Test
+    public void testGetIterationStatisticsWithDetails() {
+        ContainerTranslationStatistics statistics =
+                client.getStatistics("about-fedora", "master", true, true,
+                        new String[] { "de-DE", "zh-CN" });
+
+        assertThat(statistics.getDetailedStats(), Matchers.hasSize(2));
+        assertThat(statistics.getDetailedStats().get(0).getId(),
+                Matchers.equalTo("About-Fedora"));
+    }
+
+    @Test
+    public void testVisitDocumentStatistics() {
+        List<ContainerTranslationStatistics> visited =
+                visitDocumentStatistics("about-fedora");
+
+        assertThat(visited, Matchers.hasSize(2));
+        assertThat(visited.get(0).getId(), Matchers.equalTo("About-Fedora"));
+        assertThat(visited.get(1).getId(), Matchers.equalTo("Authors"));
+        assertThat(visited.get(1).getStats(), Matchers.hasSize(2));
+    }
+
+    @Test
+    public void testVisitDocumentStatisticsWhenServerIgnoresAccept() {
+        List<ContainerTranslationStatistics> visited =
+                visitDocumentStatistics(
+                        MockXmlOnlyResponseFilter.XML_ONLY_PROJECT);
+
+        assertThat(visited, Matchers.hasSize(2));
+        assertThat(visited.get(1).getId(), Matchers.equalTo("Authors"));
+        assertThat(visited.get(1).getStats(), Matchers.hasSize(2));
+    }
+
+    private List<ContainerTranslationStatistics> visitDocumentStatistics(
+            String projectSlug) {
+        final List<ContainerTranslationStatistics> visited =
+                new ArrayList<ContainerTranslationStatistics>();
+        client.visitDocumentStatistics(projectSlug, "master", true,
+                new String[] { "de-DE", "zh-CN" },
+                new ElementVisitor<ContainerTranslationStatistics>() {
+                    @Override
+                    public void visit(ContainerTranslationStatistics element) {
+                        visited.add(element);
+                    }
+                });
+        return visited;
+    }
+
     @Test
     public void testGetDocStatistics() {
         String docId = "About-Fedora";
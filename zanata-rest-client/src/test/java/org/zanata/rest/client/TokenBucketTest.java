@@ -0,0 +1,100 @@
+/*
+ * Copyright 2015, Red Hat, Inc. and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.zanata.rest.client;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.base.Ticker;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+public class TokenBucketTest {
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+    private FakeTicker ticker;
+    private TokenBucket bucket;
+
+    @Before
+    public void setUp() {
+        ticker = new FakeTicker();
+        bucket = new TokenBucket(10, ticker);
+    }
+
+    @Test
+    public void allowsBurstOfOneSecond() {
+        for (int i = 0; i < 10; i++) {
+            assertThat(bucket.reserve(1), equalTo(0L));
+        }
+        assertThat(bucket.reserve(1), equalTo(SECOND / 10));
+    }
+
+    @Test
+    public void waitersQueueBehindEachOther() {
+        bucket.reserve(10);
+
+        assertThat(bucket.reserve(5), equalTo(SECOND / 2));
+        // the second caller waits for the first caller's tokens too
+        assertThat(bucket.reserve(5), equalTo(SECOND));
+    }
+
+    @Test
+    public void refillsAtTheRate() {
+        bucket.reserve(10);
+        ticker.advance(SECOND / 2);
+
+        assertThat(bucket.reserve(5), equalTo(0L));
+        assertThat(bucket.reserve(1), equalTo(SECOND / 10));
+    }
+
+    @Test
+    public void doesNotSaveMoreThanOneSecondOfTokens() {
+        ticker.advance(10 * SECOND);
+
+        assertThat(bucket.reserve(20), equalTo(SECOND));
+    }
+
+    @Test
+    public void recordsTimeSpentWaiting() throws Exception {
+        bucket = new TokenBucket(1000);
+        bucket.acquire(1000);
+        bucket.acquire(50);
+
+        assertThat(bucket.getWaits(), equalTo(1L));
+        assertThat(bucket.getWaitMillis() >= 45, equalTo(true));
+    }
+
+    private static class FakeTicker extends Ticker {
+        private long nanos;
+
+        @Override
+        public long read() {
+            return nanos;
+        }
+
+        void advance(long delta) {
+            nanos += delta;
+        }
+    }
+}
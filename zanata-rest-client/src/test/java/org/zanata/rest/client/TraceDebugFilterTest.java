@@ -0,0 +1,233 @@
+/*
+ * Copyright 2015, Red Hat, Inc. and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.zanata.rest.client;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MediaType;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.zanata.rest.RestConstant;
+
+import com.google.common.base.Charsets;
+import com.google.common.base.Strings;
+import com.google.common.io.Files;
+import com.sun.jersey.api.client.Client;
+import com.sun.jersey.api.client.ClientHandler;
+import com.sun.jersey.api.client.ClientHandlerException;
+import com.sun.jersey.api.client.ClientRequest;
+import com.sun.jersey.api.client.ClientResponse;
+import com.sun.jersey.core.header.InBoundHeaders;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.startsWith;
+
+public class TraceDebugFilterTest {
+    private static final String URL = "http://example.com/rest/doc";
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+    private RecordingHandler handler;
+    private Client client;
+    private File logFile;
+    private TraceDebugFilter filter;
+
+    @Before
+    public void setUp() throws IOException {
+        handler = new RecordingHandler();
+        client = new Client(handler);
+        logFile = new File(tempFolder.getRoot(), "http.log");
+    }
+
+    @After
+    public void tearDown() {
+        if (filter != null) {
+            filter.close();
+        }
+    }
+
+    private void addFilter(int maxBodySize, int sampleRate) {
+        filter = new TraceDebugFilter(true, maxBodySize, sampleRate, logFile);
+        client.addFilter(filter);
+    }
+
+    private String put(String body) {
+        return client.resource(URL).type(MediaType.APPLICATION_XML_TYPE)
+                .header(RestConstant.HEADER_API_KEY, "secret")
+                .put(String.class, body);
+    }
+
+    private List<String> logLines() throws IOException {
+        filter.close();
+        return Files.readLines(logFile, Charsets.UTF_8);
+    }
+
+    private int count(List<String> lines, String prefix) {
+        int count = 0;
+        for (String line : lines) {
+            if (line.startsWith(prefix)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Test
+    public void logsBodiesToFileWithoutChangingThem() throws Exception {
+        addFilter(100, 1);
+
+        String response = put("<resource/>");
+
+        assertThat(response, equalTo("<ok/>"));
+        assertThat(handler.sent, equalTo("<resource/>"));
+        List<String> lines = logLines();
+        assertThat(lines, hasItem(">> Body of PUT " + URL + ": <resource/>"));
+        assertThat(lines, hasItem("<< Body of PUT " + URL + ": <ok/>"));
+    }
+
+    @Test
+    public void masksApiKey() throws Exception {
+        addFilter(100, 1);
+
+        put("<resource/>");
+
+        List<String> lines = logLines();
+        assertThat(lines, hasItem(">> Header: " + RestConstant.HEADER_API_KEY
+                + " = [******]"));
+    }
+
+    @Test
+    public void logsOnlyTheStartOfLongBodies() throws Exception {
+        addFilter(10, 1);
+        String body = Strings.repeat("x", 100);
+
+        put(body);
+
+        assertThat(handler.sent, equalTo(body));
+        assertThat(logLines(), hasItem(">> Body of PUT " + URL
+                + " (100 bytes, first 10 logged): xxxxxxxxxx"));
+    }
+
+    @Test
+    public void logsBodiesOfSampledRequestsOnly() throws Exception {
+        addFilter(100, 3);
+
+        for (int i = 0; i < 6; i++) {
+            assertThat(put("<resource/>"), equalTo("<ok/>"));
+        }
+
+        List<String> lines = logLines();
+        assertThat(count(lines, ">> REST Request"), equalTo(6));
+        assertThat(count(lines, ">> Body"), equalTo(2));
+        assertThat(count(lines, "<< Body"), equalTo(2));
+    }
+
+    @Test
+    public void logsNoBodiesIfMaxSizeIsZero() throws Exception {
+        addFilter(0, 1);
+
+        put("<resource/>");
+
+        List<String> lines = logLines();
+        assertThat(count(lines, ">> REST Request"), equalTo(1));
+        assertThat(lines, not(hasItem(startsWith("<< Body"))));
+    }
+
+    @Test
+    public void summarisesBinaryBodies() throws Exception {
+        addFilter(100, 1);
+        handler.responseType = MediaType.APPLICATION_OCTET_STREAM;
+
+        client.resource(URL).get(String.class);
+
+        assertThat(logLines(), hasItem("<< Body of GET " + URL
+                + ": [5 bytes, not text]"));
+    }
+
+    @Test
+    public void summarisesBodiesCompressedAsTheyAreSent() throws Exception {
+        // added first, so compression wraps the stream the trace filter tees
+        client.addFilter(new CompressionFilter(10));
+        addFilter(1000, 1);
+
+        put(Strings.repeat("<resource/>", 20));
+
+        assertThat(logLines(), hasItem(">> Body of PUT " + URL + ": ["
+                + handler.sentBytes + " bytes, gzip encoded]"));
+    }
+
+    @Test
+    public void logsByteArrayBodiesBeforeCompression() throws Exception {
+        client.addFilter(new CompressionFilter(10));
+        addFilter(1000, 1);
+        String body = Strings.repeat("<resource/>", 20);
+
+        client.resource(URL).type(MediaType.APPLICATION_XML_TYPE)
+                .put(String.class, body.getBytes(Charsets.UTF_8));
+
+        assertThat(handler.sent, not(equalTo(body)));
+        assertThat(logLines(), hasItem(">> Body of PUT " + URL + ": " + body));
+    }
+
+    private class RecordingHandler implements ClientHandler {
+        private String sent;
+        private int sentBytes;
+        private String responseType = MediaType.APPLICATION_XML;
+
+        @Override
+        public ClientResponse handle(ClientRequest cr)
+                throws ClientHandlerException {
+            try {
+                if (cr.getEntity() != null) {
+                    ByteArrayOutputStream body = new ByteArrayOutputStream();
+                    OutputStream out = cr.getAdapter().adapt(cr, body);
+                    Object entity = cr.getEntity();
+                    out.write(entity instanceof byte[] ? (byte[]) entity
+                            : entity.toString().getBytes(Charsets.UTF_8));
+                    out.close();
+                    sentBytes = body.size();
+                    sent = new String(body.toByteArray(), Charsets.UTF_8);
+                }
+                InBoundHeaders headers = new InBoundHeaders();
+                headers.putSingle(HttpHeaders.CONTENT_TYPE, responseType);
+                return new ClientResponse(200, headers,
+                        new ByteArrayInputStream("<ok/>"
+                                .getBytes(Charsets.UTF_8)),
+                        client.getMessageBodyWorkers());
+            } catch (IOException e) {
+                throw new ClientHandlerException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,169 @@
+/*
+ * Copyright 2015, Red Hat, Inc. and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.zanata.rest.client;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.OperatingSystemMXBean;
+import java.lang.management.ThreadMXBean;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.zanata.common.LocaleId;
+import org.zanata.rest.dto.VersionInfo;
+import org.zanata.rest.dto.resource.Resource;
+import org.zanata.rest.dto.resource.TranslationsResource;
+import org.zanata.rest.service.StubbingServerRule;
+
+import com.sun.jersey.api.client.ClientResponse;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.equalTo;
+
+/**
+ * Compares the XML and JSON wire formats for downloading realistic source
+ * documents and translations from the stub server: size of the response
+ * bodies as received (gzipped) and after decompression, elapsed time, and the
+ * CPU time used by the client thread and by the rest of the JVM (mostly the
+ * in-process server).
+ * <p>
+ * This is not run by the normal build; run it with
+ * {@code mvn test -pl zanata-rest-client -Dtest=WireFormatBenchmark}.
+ */
+public class WireFormatBenchmark {
+    private static final int TEXT_FLOWS = 2000;
+    private static final String DOC_ID = "generated-" + TEXT_FLOWS;
+    private static final int WARMUP_ITERATIONS = 20;
+    private static final int ITERATIONS = 100;
+
+    @ClassRule
+    public static StubbingServerRule
+            stubbingServerRule = new StubbingServerRule();
+
+    @Test
+    public void compareWireFormats() {
+        for (WireFormat format : WireFormat.values()) {
+            run(format, WARMUP_ITERATIONS);
+        }
+        System.out.printf("%d iterations of a %d-message document and its"
+                + " translations%n", ITERATIONS, TEXT_FLOWS);
+        System.out.printf("%-6s %12s %12s %10s %12s %12s%n", "format",
+                "bytes", "gzip bytes", "wall ms", "client cpu", "other cpu");
+        for (WireFormat format : WireFormat.values()) {
+            System.out.println(run(format, ITERATIONS));
+        }
+    }
+
+    private static RestClientFactory createClientFactory(WireFormat format) {
+        return new RestClientFactory(stubbingServerRule.getServerBaseUri(),
+                "admin", "b6d7044e9ee3b2447c28fb7c50d86d98", new VersionInfo(
+                        "3.6.0-SNAPSHOT", "unknown", "unknown"), false, true,
+                CompressionFilter.NO_REQUEST_COMPRESSION,
+                new ConnectionSettings().setWireFormat(format)) {
+            @Override
+            protected String getUrlPrefix() {
+                return "";
+            }
+        };
+    }
+
+    private static Result run(WireFormat format, int iterations) {
+        RestClientFactory factory = createClientFactory(format);
+        SourceDocResourceClient sourceClient =
+                factory.getSourceDocResourceClient("about-fedora", "master");
+        TransDocResourceClient transClient =
+                factory.getTransDocResourceClient("about-fedora", "master");
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        Result result = new Result(format);
+        long start = System.nanoTime();
+        long clientCpuStart = threads.getCurrentThreadCpuTime();
+        long processCpuStart = processCpuTime();
+        for (int i = 0; i < iterations; i++) {
+            Resource resource = sourceClient.getResource(DOC_ID, null);
+            ClientResponse response = transClient.getTranslations(DOC_ID,
+                    LocaleId.DE, null, false, null);
+            assertThat(response.getType().getSubtype(),
+                    containsString(format.name().toLowerCase()));
+            TranslationsResource translations =
+                    response.getEntity(TranslationsResource.class);
+            assertThat(resource.getTextFlows().size(), equalTo(TEXT_FLOWS));
+            assertThat(translations.getTextFlowTargets().size(),
+                    equalTo(TEXT_FLOWS));
+            if (i == 0) {
+                result.recordSizes(factory.getCompressionFilter());
+            }
+        }
+        long clientCpu = threads.getCurrentThreadCpuTime() - clientCpuStart;
+        result.wallMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime()
+                - start);
+        result.clientCpuMillis = TimeUnit.NANOSECONDS.toMillis(clientCpu);
+        result.otherCpuMillis = TimeUnit.NANOSECONDS.toMillis(
+                processCpuTime() - processCpuStart - clientCpu);
+        factory.close();
+        return result;
+    }
+
+    /**
+     * CPU time used by all threads of this JVM, in nanoseconds, or 0 if the
+     * JVM does not report it.
+     */
+    private static long processCpuTime() {
+        OperatingSystemMXBean os = ManagementFactory.getOperatingSystemMXBean();
+        if (os instanceof com.sun.management.OperatingSystemMXBean) {
+            return ((com.sun.management.OperatingSystemMXBean) os)
+                    .getProcessCpuTime();
+        }
+        return 0;
+    }
+
+    private static class Result {
+        private final WireFormat format;
+        private long bytes;
+        private long gzippedBytes;
+        private long wallMillis;
+        private long clientCpuMillis;
+        private long otherCpuMillis;
+
+        Result(WireFormat format) {
+            this.format = format;
+        }
+
+        /**
+         * Records the size of the responses read so far, as counted by the
+         * client while reading them.
+         */
+        void recordSizes(CompressionFilter compression) {
+            // both documents are big enough for the server to gzip them
+            assertThat(compression.getCompressedResponses(), equalTo(2L));
+            bytes = compression.getResponseBytes();
+            gzippedBytes = compression.getResponseBytesReceived();
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%-6s %12d %12d %10d %12d %12d", format,
+                    bytes, gzippedBytes, wallMillis, clientCpuMillis,
+                    otherCpuMillis);
+        }
+    }
+}